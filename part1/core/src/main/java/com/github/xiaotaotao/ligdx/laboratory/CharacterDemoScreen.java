@@ -5,22 +5,32 @@ import com.badlogic.gdx.Input;
 import com.badlogic.gdx.Screen;
 import com.badlogic.gdx.graphics.GL20;
 import com.badlogic.gdx.graphics.OrthographicCamera;
-import com.badlogic.gdx.graphics.Pixmap;
-import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.BitmapFont;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.math.MathUtils;
 import com.badlogic.gdx.math.Rectangle;
 import com.badlogic.gdx.math.Vector2;
 import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntArray;
 import com.badlogic.gdx.utils.viewport.FitViewport;
 import com.badlogic.gdx.utils.viewport.Viewport;
+import com.github.xiaotaotao.ligdx.laboratory.asset.RuntimeAtlas;
 import com.github.xiaotaotao.ligdx.laboratory.character.AttackSystem;
 import com.github.xiaotaotao.ligdx.laboratory.character.AttributeSystem;
 import com.github.xiaotaotao.ligdx.laboratory.character.MovementController;
+import com.github.xiaotaotao.ligdx.laboratory.character.MovementSystem;
 import com.github.xiaotaotao.ligdx.laboratory.character.PixelCharacter;
 import com.github.xiaotaotao.ligdx.laboratory.character.SimplePixelCharacter;
+import com.github.xiaotaotao.ligdx.laboratory.character.SkillScheduler;
 import com.github.xiaotaotao.ligdx.laboratory.character.SkillSystem;
+import com.github.xiaotaotao.ligdx.laboratory.character.StatModifiers;
+import com.github.xiaotaotao.ligdx.laboratory.concurrent.ParallelExecutor;
+import com.github.xiaotaotao.ligdx.laboratory.navigation.CrowdAvoidance;
+import com.github.xiaotaotao.ligdx.laboratory.navigation.FlowField;
+import com.github.xiaotaotao.ligdx.laboratory.navigation.HierarchicalPathfinder;
+import com.github.xiaotaotao.ligdx.laboratory.navigation.NavGrid;
+import com.github.xiaotaotao.ligdx.laboratory.navigation.PathService;
 
 /**
  * 像素角色系统演示 Screen：
@@ -32,11 +42,16 @@ import com.github.xiaotaotao.ligdx.laboratory.character.SkillSystem;
  *   - 攻击系统：普攻在指定动画帧（第 3 帧）触发命中判定
  *   - 技能系统：简单火球技能，带施法前摇 / 后摇 / 冷却
  *   - 像素飘血：伤害结算时生成小号像素数字
+ *   - 寻路：敌人绕过灰色墙体追击玩家（分层 A* + 路径缓存，按帧预算处理请求）
+ *   - 流场：成群的小怪共用一张到玩家的流场追击，移动前做局部避让（分离 + 预测避让）
  *
  * 操作说明：
  * - 方向键 / WASD：移动玩家
  * - SPACE：普攻（近战，靠近敌人时造成伤害）
  * - Q：释放火球技能（远程伤害，带冷却）
+ * - N：开关敌人追击
+ * - M：生成 / 移除追击玩家的小怪群
+ * - V：开关小怪的局部避让
  */
 public class CharacterDemoScreen implements Screen {
 
@@ -48,21 +63,73 @@ public class CharacterDemoScreen implements Screen {
     private OrthographicCamera camera;
     private Viewport viewport;
 
-    // 以颜色块代替的“贴图”
-    private Texture playerTexture;
-    private Texture enemyTexture;
+    // 以颜色块代替的“贴图”（与字体贴图合并在同一个运行时图集中，整帧只需一次 draw call）
+    private RuntimeAtlas atlas;
+    private TextureRegion playerTexture;
+    private TextureRegion enemyTexture;
+    private TextureRegion wallTexture;
+    private TextureRegion minionTexture;
 
     // 系统化的像素角色（使用两种不同移动实现做对比）
     private PixelCharacter freePlayer;   // 连续移动
     private PixelCharacter gridPlayer;   // 栅格移动
     private AttributeSystem.BasicAttributeSystem enemyAttributes;
-    private MovementController.GridMovementController enemyMovement;
+    private MovementController enemyMovement;
+
+    // 批量移动系统（玩家和敌人的移动控制器都是它的槽位外观）
+    private final MovementSystem movementSystem = new MovementSystem(16);
 
     // 飘血数字
     private final Array<FloatingText> floatingTexts = new Array<>();
 
+    // 世界级技能时间线（所有技能系统共用，每帧推进一次）
+    private final SkillScheduler skillScheduler = new SkillScheduler(1f / 120f);
+
     // 技能 ID 常量
     private static final String SKILL_FIREBALL = "fireball";
+    private static final int SKILL_FIREBALL_ID = SkillSystem.SkillIds.intern(SKILL_FIREBALL);
+
+    // 力量卷轴（修改器来源）
+    private static final String STRENGTH_SCROLL = "力量卷轴";
+    private static final float STRENGTH_SCROLL_DURATION = 10f;
+
+    // 导航：16 像素格子的导航网格 + 分层寻路服务（墙体只阻挡敌人寻路）
+    private static final float NAV_CELL_SIZE = 16f;
+    private static final int ENEMY_AGENT_ID = 1;
+    private static final float ENEMY_REPATH_INTERVAL = 0.5f;
+    private static final float ENEMY_STOP_DISTANCE = 48f;
+    private final Array<Rectangle> walls = new Array<>();
+    private NavGrid navGrid;
+    private PathService pathService;
+    private boolean enemyChasing;
+    private float enemyRepathTimer;
+    private final IntArray enemyPath = new IntArray();
+    private int enemyWaypoint;
+    private final PathService.Listener enemyPathListener = new PathService.Listener() {
+        @Override
+        public void onPathReady(int agentId, IntArray cells, boolean found) {
+            // cells 只在回调期间有效，拷贝一份；第 0 格是敌人当前所在格，从下一格开始走
+            enemyPath.clear();
+            if (found) {
+                enemyPath.addAll(cells);
+            }
+            enemyWaypoint = 1;
+        }
+    };
+
+    // 小怪群：直接使用移动系统的槽位，方向从共享流场读取
+    private static final int MINION_COUNT = 200;
+    private static final float MINION_SPEED = 70f;
+    private static final float MINION_SIZE = 8f;
+    private FlowField flowField;
+    private Rectangle minionBounds;
+    // 预测窗口 0.4 秒：查询半径 = 2 × (70 × 0.4 + 6) = 68 像素，8 个邻居的上限不容易被远处的小怪占满
+    private static final float MINION_AVOID_HORIZON = 0.4f;
+    private final CrowdAvoidance minionAvoidance = new CrowdAvoidance(MINION_COUNT, 24f, 8);
+    // 小怪存在期间的避让执行器（生成时创建，移除或 dispose 时释放）
+    private ParallelExecutor minionExecutor;
+    private boolean minionAvoidanceEnabled = true;
+    private final IntArray minionSlots = new IntArray();
 
     // 调试用：记录输入和位置等信息
     private float debugInputX, debugInputY;
@@ -77,25 +144,28 @@ public class CharacterDemoScreen implements Screen {
 
         batch = new SpriteBatch();
 
-        // 暂时使用 LibGDX 默认字体，避免依赖外部字体资源
-        fontSmall = new BitmapFont();
-
         createDebugTextures();
+
+        // 暂时使用 LibGDX 默认字体，避免依赖外部字体资源（贴图来自图集）
+        fontSmall = atlas.newDefaultFont();
+
         createCharacters();
     }
 
     private void createDebugTextures() {
         // 简单的 1x1 像素纹理，用于拉伸绘制
-        Pixmap pixmap = new Pixmap(1, 1, Pixmap.Format.RGBA8888);
-        pixmap.setColor(0, 1, 0, 1);
-        pixmap.fill();
-        playerTexture = new Texture(pixmap);
-
-        pixmap.setColor(1, 0, 0, 1);
-        pixmap.fill();
-        enemyTexture = new Texture(pixmap);
-
-        pixmap.dispose();
+        atlas = new RuntimeAtlas();
+        atlas.addColor("player", 1, 1, 0, 1, 0, 1);
+        atlas.addColor("enemy", 1, 1, 1, 0, 0, 1);
+        atlas.addColor("wall", 1, 1, 0.35f, 0.35f, 0.4f, 1);
+        atlas.addColor("minion", 1, 1, 1, 0.6f, 0.2f, 1);
+        atlas.addDefaultFont();
+        atlas.build();
+
+        playerTexture = atlas.findRegion("player");
+        enemyTexture = atlas.findRegion("enemy");
+        wallTexture = atlas.findRegion("wall");
+        minionTexture = atlas.findRegion("minion");
     }
 
     private void createCharacters() {
@@ -116,7 +186,7 @@ public class CharacterDemoScreen implements Screen {
         // 玩家飘血监听（主要演示：受到伤害时生成红色/-值；治疗时可以扩展为绿色/+值）
         playerAttr.setListener(new AttributeSystem.Listener() {
             @Override
-            public void onStatsChanged(AttributeSystem.Stats newStats) {
+            public void onStatsChanged(AttributeSystem.StatsView stats, int changedMask) {
                 // 本 Demo 中玩家暂不被敌人攻击，此处保留以便扩展
             }
 
@@ -135,13 +205,13 @@ public class CharacterDemoScreen implements Screen {
                         () -> tryMeleeHit()
                 );
 
-        // 技能系统：一个简单的火球技能
+        // 技能系统：一个简单的火球技能（状态切换由世界时间线调度）
         SkillSystem.BasicSkillSystem skillSystem =
                 new SkillSystem.BasicSkillSystem(skill -> {
-                    if (SKILL_FIREBALL.equals(skill.id)) {
+                    if (skill.intId == SKILL_FIREBALL_ID) {
                         trySkillHit(skill);
                     }
-                });
+                }, skillScheduler);
         skillSystem.addSkill(new SkillSystem.Skill(
                 SKILL_FIREBALL,
                 "火球术",
@@ -152,8 +222,8 @@ public class CharacterDemoScreen implements Screen {
         ));
 
         // 创建两个聚合角色：一个使用连续移动，一个使用栅格移动
-        MovementController freeMove = new MovementController.FreeMovementController(playerAttr.getStats());
-        MovementController gridMove = new MovementController.GridMovementController(playerAttr.getStats(), 16f);
+        MovementController freeMove = movementSystem.createController(playerAttr.getStats(), 0f);
+        MovementController gridMove = movementSystem.createController(playerAttr.getStats(), 16f);
 
         freePlayer = new SimplePixelCharacter(
                 "free-player",
@@ -163,7 +233,7 @@ public class CharacterDemoScreen implements Screen {
                 skillSystem,
                 bounds
         );
-        gridPlayer = new SimplePixelCharacter(
+        SimplePixelCharacter gridCharacter = new SimplePixelCharacter(
                 "grid-player",
                 playerAttr,
                 gridMove,
@@ -171,23 +241,28 @@ public class CharacterDemoScreen implements Screen {
                 skillSystem,
                 bounds
         );
+        // 两个玩家共享同一个属性系统，只由 freePlayer 推进修改器
+        gridCharacter.setUpdateAttributes(false);
+        gridPlayer = gridCharacter;
 
         // 初始位置：左侧中间上/下各放一个，便于观察差异
         freePlayer.getMovementController().setPosition(bounds.x + 40, bounds.y + bounds.height * 0.65f);
         gridPlayer.getMovementController().setPosition(bounds.x + 40, bounds.y + bounds.height * 0.35f);
 
-        // ===== 敌人：只用属性 + 简单位置（暂不实现 AI 寻路） =====
+        // ===== 敌人：属性 + 连续移动（按 N 沿寻路结果追击玩家） =====
         enemyAttributes = new AttributeSystem.BasicAttributeSystem(
                 150, // maxHp
                 0,
                 10,
                 2,
                 1.0f,
-                0f
+                90f
         );
+        // 敌人一帧内可能同时吃到普攻和技能，合并为一次属性通知
+        enemyAttributes.setCoalesceNotifications(true);
         enemyAttributes.setListener(new AttributeSystem.Listener() {
             @Override
-            public void onStatsChanged(AttributeSystem.Stats newStats) {
+            public void onStatsChanged(AttributeSystem.StatsView stats, int changedMask) {
                 // 属性变化时可以刷新 UI（如血条），这里 Demo 直接用文本显示
             }
 
@@ -205,17 +280,92 @@ public class CharacterDemoScreen implements Screen {
             }
         });
         enemyPos.set(bounds.x + bounds.width - 80, bounds.y + bounds.height / 2f);
-        enemyMovement = new MovementController.GridMovementController(
-                enemyAttributes.getStats(),
-                16f
-        );
+        enemyMovement = movementSystem.createController(enemyAttributes.getStats(), 0f);
         enemyMovement.setPosition(enemyPos.x, enemyPos.y);
         enemyMovement.setBounds(bounds);
+
+        createNavigation(bounds);
     }
 
-    // 敌人当前位置（无需复杂 AI，此处固定站桩）
+    private void createNavigation(Rectangle bounds) {
+        navGrid = new NavGrid(
+                (int) (bounds.width / NAV_CELL_SIZE),
+                (int) (bounds.height / NAV_CELL_SIZE),
+                NAV_CELL_SIZE,
+                bounds.x,
+                bounds.y
+        );
+        walls.add(new Rectangle(560, 320, 32, 680));
+        walls.add(new Rectangle(960, 80, 32, 640));
+        walls.add(new Rectangle(1280, 480, 32, 520));
+        walls.add(new Rectangle(1280, 480, 320, 32));
+        for (Rectangle wall : walls) {
+            navGrid.setBlocked(wall, true);
+        }
+        pathService = new PathService(new HierarchicalPathfinder(navGrid, 16, 64));
+        flowField = new FlowField(navGrid);
+        minionBounds = bounds;
+        minionAvoidance.setWeights(1.2f, 0.8f, MINION_AVOID_HORIZON);
+    }
+
+    private void toggleMinions() {
+        if (minionSlots.size > 0) {
+            for (int i = 0; i < minionSlots.size; i++) {
+                movementSystem.remove(minionSlots.get(i));
+            }
+            minionSlots.clear();
+            minionAvoidance.setExecutor(null);
+            minionExecutor.dispose();
+            minionExecutor = null;
+            return;
+        }
+        // 在右半边的可通行格子里随机生成
+        for (int i = 0; i < MINION_COUNT; i++) {
+            int cell;
+            do {
+                cell = navGrid.index(
+                        MathUtils.random(navGrid.getWidth() / 2, navGrid.getWidth() - 1),
+                        MathUtils.random(0, navGrid.getHeight() - 1));
+            } while (!navGrid.isWalkable(cell));
+            int slot = movementSystem.add(0f);
+            movementSystem.setSpeed(slot, MINION_SPEED);
+            movementSystem.setBounds(slot, minionBounds);
+            movementSystem.setPosition(slot,
+                    navGrid.cellCenterX(cell) + MathUtils.random(-4f, 4f),
+                    navGrid.cellCenterY(cell) + MathUtils.random(-4f, 4f));
+            minionAvoidance.setShape(minionSlots.size, MINION_SIZE / 2f + 2f, MINION_SPEED);
+            minionSlots.add(slot);
+        }
+        minionExecutor = new ParallelExecutor.ForkJoinExecutor(Runtime.getRuntime().availableProcessors());
+        minionAvoidance.setExecutor(minionExecutor);
+    }
+
+    private void updateMinions() {
+        if (minionSlots.size == 0) return;
+        // 玩家换格子时才重新计算流场，之后每个小怪只是一次数组读取
+        Vector2 target = freePlayer.getPosition();
+        flowField.setTarget(target.x, target.y);
+        for (int i = 0; i < minionSlots.size; i++) {
+            flowField.steer(movementSystem, minionSlots.get(i));
+        }
+        // 避让在流场方向的基础上修正方向和速度；关闭时恢复固定速度
+        if (minionAvoidanceEnabled) {
+            minionAvoidance.gather(movementSystem, minionSlots);
+            minionAvoidance.update();
+            minionAvoidance.apply(movementSystem, minionSlots);
+        } else {
+            for (int i = 0; i < minionSlots.size; i++) {
+                movementSystem.setSpeed(minionSlots.get(i), MINION_SPEED);
+            }
+        }
+    }
+
+    // 敌人当前位置
     private final Vector2 enemyPos = new Vector2();
 
+    // 复用的伤害请求（applyDamage 不保留请求对象）
+    private final AttributeSystem.DamageRequest damageRequest = new AttributeSystem.DamageRequest();
+
     private void tryMeleeHit() {
         if (enemyAttributes.isDead()) return;
         // 简单近战判定：玩家与敌人的距离 < 64 像素即视为命中（此处使用连续移动玩家做示例）
@@ -223,7 +373,7 @@ public class CharacterDemoScreen implements Screen {
         enemyPos.set(enemyMovement.getPosition());
         float dst2 = p.dst2(enemyPos);
         if (dst2 <= 64 * 64) {
-            AttributeSystem.DamageRequest req = new AttributeSystem.DamageRequest();
+            AttributeSystem.DamageRequest req = damageRequest;
             req.attackerStats = freePlayer.getAttributes().getStats();
             req.defenderStats = enemyAttributes.getStats();
             req.baseDamage = 5;
@@ -236,7 +386,7 @@ public class CharacterDemoScreen implements Screen {
     private void trySkillHit(SkillSystem.Skill skill) {
         if (enemyAttributes.isDead()) return;
         // 火球示例：只要敌人在屏幕内，就直接命中（可扩展为弹道/范围判定）
-        AttributeSystem.DamageRequest req = new AttributeSystem.DamageRequest();
+        AttributeSystem.DamageRequest req = damageRequest;
         req.attackerStats = freePlayer.getAttributes().getStats();
         req.defenderStats = enemyAttributes.getStats();
         req.baseDamage = skill.baseDamage;
@@ -250,9 +400,20 @@ public class CharacterDemoScreen implements Screen {
         handleInput(delta);
 
         // 更新角色 & 飘血
+        // 玩家的属性系统由 freePlayer.update 推进，敌人没有角色对象，在这里推进
+        enemyAttributes.update(delta);
+        skillScheduler.advance(delta);
+        // 寻路请求在帧预算内处理，再根据路径设置敌人的移动方向
+        pathService.update();
+        updateEnemyChase(delta);
+        updateMinions();
+        // 所有角色的移动一次积分
+        movementSystem.update(delta);
         freePlayer.update(delta);
         gridPlayer.update(delta);
-        enemyMovement.update(delta); // 目前敌人不动，但保留逻辑
+        // 发出本帧合并的属性通知，并归还伤害结果
+        freePlayer.getAttributes().endTick();
+        enemyAttributes.endTick();
         updateFloatingText(delta);
 
         Gdx.gl.glClearColor(0.08f, 0.08f, 0.1f, 1f);
@@ -300,10 +461,75 @@ public class CharacterDemoScreen implements Screen {
 
         // 火球术
         if (Gdx.input.isKeyJustPressed(Input.Keys.Q)) {
-            freePlayer.getSkillSystem().cast(SKILL_FIREBALL);
+            freePlayer.getSkillSystem().cast(SKILL_FIREBALL_ID);
+        }
+
+        // 力量卷轴：攻击 +10 并提升 20%，持续 10 秒（可叠加）
+        if (Gdx.input.isKeyJustPressed(Input.Keys.B)) {
+            useStrengthScroll();
+        }
+
+        // 小怪群
+        if (Gdx.input.isKeyJustPressed(Input.Keys.M)) {
+            toggleMinions();
+        }
+
+        if (Gdx.input.isKeyJustPressed(Input.Keys.V)) {
+            minionAvoidanceEnabled = !minionAvoidanceEnabled;
+        }
+
+        // 敌人追击开关
+        if (Gdx.input.isKeyJustPressed(Input.Keys.N)) {
+            enemyChasing = !enemyChasing;
+            enemyRepathTimer = 0f;
+            enemyPath.clear();
         }
     }
 
+    private void updateEnemyChase(float delta) {
+        if (!enemyChasing || enemyAttributes.isDead()) {
+            pathService.cancel(ENEMY_AGENT_ID);
+            enemyMovement.setInputDirection(0, 0);
+            return;
+        }
+        Vector2 target = freePlayer.getPosition();
+        float targetX = target.x;
+        float targetY = target.y;
+        enemyPos.set(enemyMovement.getPosition());
+
+        // 定期重新请求路径（同一 agent 的请求会合并，不会堆积）
+        enemyRepathTimer -= delta;
+        if (enemyRepathTimer <= 0f) {
+            enemyRepathTimer = ENEMY_REPATH_INTERVAL;
+            pathService.request(ENEMY_AGENT_ID, enemyPos.x, enemyPos.y, targetX, targetY, enemyPathListener);
+        }
+
+        if (enemyPos.dst2(targetX, targetY) <= ENEMY_STOP_DISTANCE * ENEMY_STOP_DISTANCE) {
+            enemyMovement.setInputDirection(0, 0);
+            return;
+        }
+        // 依次朝下一个格子中心移动，到达后切换到下一格
+        while (enemyWaypoint < enemyPath.size) {
+            int cell = enemyPath.get(enemyWaypoint);
+            float dx = navGrid.cellCenterX(cell) - enemyPos.x;
+            float dy = navGrid.cellCenterY(cell) - enemyPos.y;
+            if (dx * dx + dy * dy > 4f * 4f) {
+                enemyMovement.setInputDirection(dx, dy);
+                return;
+            }
+            enemyWaypoint++;
+        }
+        enemyMovement.setInputDirection(0, 0);
+    }
+
+    private void useStrengthScroll() {
+        AttributeSystem attributes = freePlayer.getAttributes();
+        if (!(attributes instanceof AttributeSystem.BasicAttributeSystem)) return;
+        StatModifiers modifiers = ((AttributeSystem.BasicAttributeSystem) attributes).getModifiers();
+        modifiers.add(AttributeSystem.Stats.ATTACK, StatModifiers.Type.ADD, 10f, STRENGTH_SCROLL_DURATION, STRENGTH_SCROLL);
+        modifiers.add(AttributeSystem.Stats.ATTACK, StatModifiers.Type.MULTIPLY, 0.2f, STRENGTH_SCROLL_DURATION, STRENGTH_SCROLL);
+    }
+
     private void drawBattleField() {
         // 简单画出战斗边界矩形（用深色块表示）
         float margin = 80f;
@@ -312,6 +538,11 @@ public class CharacterDemoScreen implements Screen {
         batch.setColor(0.1f, 0.15f, 0.2f, 1f);
         batch.draw(playerTexture, margin, margin, w, h);
         batch.setColor(1f, 1f, 1f, 1f);
+
+        // 墙体（只阻挡敌人寻路）
+        for (Rectangle wall : walls) {
+            batch.draw(wallTexture, wall.x, wall.y, wall.width, wall.height);
+        }
     }
 
     private void drawCharacters() {
@@ -340,6 +571,15 @@ public class CharacterDemoScreen implements Screen {
         }
         batch.setColor(1f, 1f, 1f, 1f);
 
+        // 小怪群（橙色小块）
+        for (int i = 0; i < minionSlots.size; i++) {
+            int slot = minionSlots.get(i);
+            batch.draw(minionTexture,
+                    Math.round(movementSystem.getX(slot) - MINION_SIZE / 2f),
+                    Math.round(movementSystem.getY(slot) - MINION_SIZE / 2f),
+                    MINION_SIZE, MINION_SIZE);
+        }
+
         // 敌人
         enemyPos.set(enemyMovement.getPosition());
         float eSize = 32f;
@@ -358,18 +598,27 @@ public class CharacterDemoScreen implements Screen {
         AttributeSystem.Stats ps = freePlayer.getAttributes().getStats();
         fontSmall.setColor(1f, 1f, 1f, 1f);
         fontSmall.draw(batch, "Player HP: " + ps.hp + "/" + ps.maxHp, 20, VIRTUAL_HEIGHT - 20);
-        fontSmall.draw(batch, "ATK: " + ps.attack + "  DEF: " + ps.defense, 20, VIRTUAL_HEIGHT - 40);
+        fontSmall.draw(batch, "ATK: " + ps.attack + "  DEF: " + ps.defense
+                + "  Scroll x" + strengthScrollStacks(), 20, VIRTUAL_HEIGHT - 40);
 
         // 右上角：敌人 HP
         AttributeSystem.Stats es = enemyAttributes.getStats();
         fontSmall.setColor(1f, 0.6f, 0.6f, 1f);
         fontSmall.draw(batch, "Enemy HP: " + es.hp + "/" + es.maxHp, VIRTUAL_WIDTH - 200, VIRTUAL_HEIGHT - 20);
+        fontSmall.draw(batch, (enemyChasing ? "Chase: ON" : "Chase: OFF")
+                        + "  path=" + enemyPath.size + "  cacheHits=" + pathService.getCacheHits(),
+                VIRTUAL_WIDTH - 360, VIRTUAL_HEIGHT - 40);
+        if (minionSlots.size > 0) {
+            fontSmall.draw(batch, "Minions: " + minionSlots.size + "  flowRebuilds=" + flowField.getRebuildCount()
+                            + (minionAvoidanceEnabled ? "  avoid=ON r=" + Math.round(minionAvoidance.getQueryRadius()) : "  avoid=OFF"),
+                    VIRTUAL_WIDTH - 360, VIRTUAL_HEIGHT - 60);
+        }
 
         // 底部：操作提示 & 技能状态
         fontSmall.setColor(1f, 1f, 1f, 1f);
-        fontSmall.draw(batch, "Move: WASD / Arrow  Attack: SPACE  Skill[Q]: Fireball", 20, 40);
+        fontSmall.draw(batch, "Move: WASD / Arrow  Attack: SPACE  Skill[Q]: Fireball  [B]: Strength Scroll  [N]: Enemy Chase  [M]: Minions  [V]: Avoidance", 20, 40);
 
-         SkillSystem.Skill fireball = freePlayer.getSkillSystem().getSkill(SKILL_FIREBALL);
+         SkillSystem.Skill fireball = freePlayer.getSkillSystem().getSkill(SKILL_FIREBALL_ID);
         if (fireball != null) {
             String stateText = "READY";
             if (fireball.state == SkillSystem.State.CASTING) stateText = "CASTING";
@@ -392,6 +641,13 @@ public class CharacterDemoScreen implements Screen {
                 20, VIRTUAL_HEIGHT - 90);
     }
 
+    private int strengthScrollStacks() {
+        AttributeSystem attributes = freePlayer.getAttributes();
+        if (!(attributes instanceof AttributeSystem.BasicAttributeSystem)) return 0;
+        // 每个卷轴挂两个修改器
+        return ((AttributeSystem.BasicAttributeSystem) attributes).getModifiers().countBySource(STRENGTH_SCROLL) / 2;
+    }
+
     private void updateFloatingText(float delta) {
         for (int i = floatingTexts.size - 1; i >= 0; i--) {
             FloatingText ft = floatingTexts.get(i);
@@ -433,8 +689,8 @@ public class CharacterDemoScreen implements Screen {
     public void dispose() {
         if (batch != null) batch.dispose();
         if (fontSmall != null) fontSmall.dispose();
-        if (playerTexture != null) playerTexture.dispose();
-        if (enemyTexture != null) enemyTexture.dispose();
+        if (atlas != null) atlas.dispose();
+        if (minionExecutor != null) minionExecutor.dispose();
     }
 
     /** 简单的飘字结构体 */
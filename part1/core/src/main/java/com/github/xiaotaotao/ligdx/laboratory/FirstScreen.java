@@ -3,27 +3,49 @@ package com.github.xiaotaotao.ligdx.laboratory;
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.Screen;
 import com.badlogic.gdx.Input;
+import com.badlogic.gdx.assets.AssetDescriptor;
 import com.badlogic.gdx.graphics.GL20;
 import com.badlogic.gdx.graphics.OrthographicCamera;
-import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.Pixmap;
 import com.badlogic.gdx.graphics.g2d.BitmapFont;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.graphics.g2d.freetype.FreeTypeFontGenerator;
 import com.badlogic.gdx.maps.tiled.TiledMap;
-import com.badlogic.gdx.maps.tiled.TmxMapLoader;
 import com.badlogic.gdx.maps.tiled.renderers.OrthogonalTiledMapRenderer;
+import com.badlogic.gdx.utils.Array;
 import com.badlogic.gdx.utils.viewport.FitViewport;
 import com.badlogic.gdx.utils.viewport.Viewport;
 import com.badlogic.gdx.math.MathUtils;
 import com.badlogic.gdx.math.Vector2;
 import com.badlogic.gdx.physics.box2d.*;
 import com.badlogic.gdx.physics.box2d.BodyDef.BodyType;
+import com.github.xiaotaotao.ligdx.laboratory.asset.AssetDependent;
+import com.github.xiaotaotao.ligdx.laboratory.asset.AssetService;
+import com.github.xiaotaotao.ligdx.laboratory.asset.FontService;
+import com.github.xiaotaotao.ligdx.laboratory.asset.RuntimeAtlas;
 import java.util.ArrayList;
 import java.util.Iterator;
 
 /** First screen of the application. Displayed after the application is created. */
-public class FirstScreen implements Screen {
+public class FirstScreen implements Screen, AssetDependent {
+
+    // 使用 FreeType 从 TTF 生成支持中文的 BitmapFont（由 FontService 缓存到磁盘，热启动不再光栅化）
+    //
+    // 注意：请将一个包含中文的 TTF 字体文件（例如思源黑体、微软雅黑等）
+    // 放到 assets/ui 目录下，并把下面的路径改成实际文件名。
+    // 这里列出的字符会预先生成并缓存，其余字符在第一次绘制时按需生成
+    private static final String FONT_FILE = "ui/simsun.ttc";
+    private static final int FONT_SIZE = 28;
+    private static final String FONT_CHARS = FreeTypeFontGenerator.DEFAULT_CHARS
+            + "背景颜色會隨时间變化Hello LibGDX!Time:. s";
+
+    // 依赖的资源（由 AssetService 异步加载，show() 中直接取用）
+    // 注意：lwjgl3 的 run 任务 workingDir 已指向 assets 目录，这里使用内部文件路径
+    private static final AssetDescriptor<TiledMap> DESERT_MAP = new AssetDescriptor<>("tmx/desert.tmx", TiledMap.class);
+    // 精灵图只加载为 Pixmap（后台线程解码），show() 中与目标纹理一起合并到运行时图集
+    private static final AssetDescriptor<Pixmap> PERSON4 = new AssetDescriptor<>("person/p_4.png", Pixmap.class);
+    private static final AssetDescriptor<Pixmap> PERSON8 = new AssetDescriptor<>("person/p_8.png", Pixmap.class);
 
     private SpriteBatch batch;
     private BitmapFont font;
@@ -40,8 +62,9 @@ public class FirstScreen implements Screen {
     }
 
     private CharacterType currentCharacterType = CharacterType.FOUR_DIRECTION;
-    private Texture person4Texture;  // 4向行走精灵图
-    private Texture person8Texture;  // 8向行走精灵图
+    private RuntimeAtlas atlas;  // 运行时图集（两套人物精灵图 + 目标纹理，同一页内绘制不切换纹理）
+    private TextureRegion person4Region;  // 4向行走精灵图
+    private TextureRegion person8Region;  // 8向行走精灵图
     private TextureRegion[][] person4Frames; // 4行 x 3列的动画帧
     private TextureRegion[][] person8Frames; // 8行 x 8列的动画帧
     private int frameWidth, frameHeight; // 每帧的宽高
@@ -65,7 +88,7 @@ public class FirstScreen implements Screen {
     private static final float PIXELS_PER_METER = 32f; // Box2D 单位转换：32像素 = 1米
     private static final float BULLET_SPEED = 10f; // 子弹速度（米/秒）
     private boolean attackKeyPressed = false; // 攻击按键状态（避免连续触发）
-    private Texture targetTexture; // 目标纹理（简单用颜色块代替）
+    private TextureRegion targetRegion; // 目标纹理（简单用颜色块代替）
 
     private static final float VIRTUAL_WIDTH = 800;
     private static final float VIRTUAL_HEIGHT = 480;
@@ -84,45 +107,32 @@ public class FirstScreen implements Screen {
 
         // 初始化渲染相关对象
         batch = new SpriteBatch();
-        // 使用 FreeType 从 TTF 生成支持中文的 BitmapFont（只生成一次，然后复用）
-        //
-        // 注意：请将一个包含中文的 TTF 字体文件（例如思源黑体、微软雅黑等）
-        // 放到 assets/ui 目录下，并命名为 "msyh.ttf" 或相应名称，
-        // 同时把下面的路径改成实际文件名。
-        FreeTypeFontGenerator generator =
-                new FreeTypeFontGenerator(Gdx.files.internal("ui/simsun.ttc"));
-        FreeTypeFontGenerator.FreeTypeFontParameter parameter =
-                new FreeTypeFontGenerator.FreeTypeFontParameter();
-        parameter.size = 28; // 字号
-        // 只生成会用到的字符，可以按需扩展，避免一次生成整个中文字符集导致体积过大
-        parameter.characters = FreeTypeFontGenerator.DEFAULT_CHARS
-                + "背景颜色會隨时间變化Hello LibGDX!Time:. s";
-        font = generator.generateFont(parameter);
-        generator.dispose(); // 生成后就可以释放生成器
-
-        // 加载 Tiled 地图（assets/tmx/desert.tmx）
-        // 注意：lwjgl3 的 run 任务 workingDir 已指向 assets 目录，
-        // 这里使用内部文件路径 "tmx/desert.tmx"
-        tiledMap = new TmxMapLoader().load("tmx/desert.tmx");
+
+        // 取出已加载的资源（经 LoadingScreen 进入时已加载完成，这里只是兜底同步补齐）
+        AssetService assets = AssetService.getInstance();
+        assets.finishLoading(this);
+        font = FontService.getInstance().obtain(FONT_FILE, FONT_SIZE, FONT_CHARS);
+
+        // Tiled 地图（assets/tmx/desert.tmx）
+        tiledMap = assets.get(DESERT_MAP);
         mapRenderer = new OrthogonalTiledMapRenderer(tiledMap);
 
-        // 加载4向行走角色精灵图并分割成动画帧
-        person4Texture = new Texture(Gdx.files.internal("person/p_4.png"));
-        // 设置纹理过滤模式，避免黑线和锯齿
-        person4Texture.setFilter(Texture.TextureFilter.Nearest, Texture.TextureFilter.Nearest);
-        int frame4Width = person4Texture.getWidth() / 3; // 每行3帧
-        int frame4Height = person4Texture.getHeight() / 4; // 共4行
+        // 人物精灵图与目标纹理合并到同一个图集页
+        createAtlas(assets);
+
+        // 4向行走角色精灵图并分割成动画帧
+        person4Region = atlas.findRegion("person4");
+        int frame4Width = person4Region.getRegionWidth() / 3; // 每行3帧
+        int frame4Height = person4Region.getRegionHeight() / 4; // 共4行
         // 分割纹理：4行（向下、向左、向右、向上），每行3帧
-        person4Frames = TextureRegion.split(person4Texture, frame4Width, frame4Height);
-
-        // 加载8向行走角色精灵图并分割成动画帧
-        person8Texture = new Texture(Gdx.files.internal("person/p_8.png"));
-        // 设置纹理过滤模式，避免黑线和锯齿
-        person8Texture.setFilter(Texture.TextureFilter.Nearest, Texture.TextureFilter.Nearest);
-        int frame8Width = person8Texture.getWidth() / 8; // 每行8帧
-        int frame8Height = person8Texture.getHeight() / 8; // 共8行
+        person4Frames = person4Region.split(frame4Width, frame4Height);
+
+        // 8向行走角色精灵图并分割成动画帧
+        person8Region = atlas.findRegion("person8");
+        int frame8Width = person8Region.getRegionWidth() / 8; // 每行8帧
+        int frame8Height = person8Region.getRegionHeight() / 8; // 共8行
         // 分割纹理：8行（下、左、右、上、左下、右下、左上、右上），每行8帧
-        person8Frames = TextureRegion.split(person8Texture, frame8Width, frame8Height);
+        person8Frames = person8Region.split(frame8Width, frame8Height);
 
         // 使用当前人物类型的帧尺寸
         updateFrameSize();
@@ -180,15 +190,33 @@ public class FirstScreen implements Screen {
         // 初始化子弹列表
         bullets = new ArrayList<>();
 
-        // 创建简单的目标纹理（红色方块）
-        targetTexture = new Texture(40, 40, com.badlogic.gdx.graphics.Pixmap.Format.RGBA8888);
-        com.badlogic.gdx.graphics.Pixmap pixmap = new com.badlogic.gdx.graphics.Pixmap(40, 40, com.badlogic.gdx.graphics.Pixmap.Format.RGBA8888);
+        time = 0f;
+    }
+
+    /**
+     * 构建运行时图集：人物精灵图 + 目标纹理
+     */
+    private void createAtlas(AssetService assets) {
+        atlas = new RuntimeAtlas();
+        atlas.add("person4", assets.get(PERSON4));
+        atlas.add("person8", assets.get(PERSON8));
+
+        // 创建简单的目标纹理（红色圆形）
+        Pixmap pixmap = new Pixmap(40, 40, Pixmap.Format.RGBA8888);
         pixmap.setColor(1, 0, 0, 1); // 红色
         pixmap.fillCircle(20, 20, 20);
-        targetTexture.draw(pixmap, 0, 0);
+        atlas.add("target", pixmap);
         pixmap.dispose();
 
-        time = 0f;
+        atlas.build();
+        targetRegion = atlas.findRegion("target");
+    }
+
+    @Override
+    public void declareAssets(Array<AssetDescriptor<?>> out) {
+        out.add(DESERT_MAP);
+        out.add(PERSON4);
+        out.add(PERSON8);
     }
 
     /**
@@ -196,11 +224,11 @@ public class FirstScreen implements Screen {
      */
     private void updateFrameSize() {
         if (currentCharacterType == CharacterType.FOUR_DIRECTION) {
-            frameWidth = person4Texture.getWidth() / 3;
-            frameHeight = person4Texture.getHeight() / 4;
+            frameWidth = person4Region.getRegionWidth() / 3;
+            frameHeight = person4Region.getRegionHeight() / 4;
         } else {
-            frameWidth = person8Texture.getWidth() / 8;
-            frameHeight = person8Texture.getHeight() / 8;
+            frameWidth = person8Region.getRegionWidth() / 8;
+            frameHeight = person8Region.getRegionHeight() / 8;
         }
     }
 
@@ -459,7 +487,7 @@ public class FirstScreen implements Screen {
         // 绘制目标（对位置取整）
         float targetDrawX = MathUtils.floor(targetX - 20f);
         float targetDrawY = MathUtils.floor(targetY - 20f);
-        batch.draw(targetTexture, targetDrawX, targetDrawY, 40, 40);
+        batch.draw(targetRegion, targetDrawX, targetDrawY, 40, 40);
 
         // 绘制子弹（对位置取整）
         for (Body bullet : bullets) {
@@ -468,7 +496,7 @@ public class FirstScreen implements Screen {
             float bulletY = bulletPos.y * PIXELS_PER_METER;
             // 简单绘制一个小圆点表示子弹
             batch.setColor(1, 1, 0, 1); // 黄色
-            batch.draw(targetTexture, MathUtils.floor(bulletX - 5), MathUtils.floor(bulletY - 5), 10, 10);
+            batch.draw(targetRegion, MathUtils.floor(bulletX - 5), MathUtils.floor(bulletY - 5), 10, 10);
             batch.setColor(1, 1, 1, 1); // 恢复白色
         }
 
@@ -522,23 +550,18 @@ public class FirstScreen implements Screen {
         if (batch != null) {
             batch.dispose();
         }
-        if (font != null) {
-            font.dispose();
-        }
-        if (person4Texture != null) {
-            person4Texture.dispose();
-        }
-        if (person8Texture != null) {
-            person8Texture.dispose();
-        }
-        if (targetTexture != null) {
-            targetTexture.dispose();
+        if (atlas != null) {
+            atlas.dispose();
+            atlas = null;
         }
         if (mapRenderer != null) {
             mapRenderer.dispose();
         }
-        if (tiledMap != null) {
-            tiledMap.dispose();
+        // 地图、精灵图 Pixmap 由 AssetService 管理，字体由 FontService 管理，这里只释放引用
+        AssetService.getInstance().unload(this);
+        if (font != null) {
+            FontService.getInstance().release(font);
+            font = null;
         }
         if (debugRenderer != null) {
             debugRenderer.dispose();
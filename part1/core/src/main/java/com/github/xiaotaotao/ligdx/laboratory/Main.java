@@ -1,6 +1,8 @@
 package com.github.xiaotaotao.ligdx.laboratory;
 
 import com.badlogic.gdx.Game;
+import com.github.xiaotaotao.ligdx.laboratory.asset.AssetService;
+import com.github.xiaotaotao.ligdx.laboratory.asset.FontService;
 import com.github.xiaotaotao.ligdx.laboratory.attack.AttackDemoScreen;
 import com.github.xiaotaotao.ligdx.laboratory.shape.ShapeDemoScreen;
 
@@ -11,6 +13,8 @@ public class Main extends Game {
         // 默认显示 FirstScreen（游戏主界面）
         // 要切换到图层系统演示，请将下面的 FirstScreen() 改为 LayerSystemDemoScreen()
         // setScreen(new FirstScreen());
+        // 需要加载文件资源的 Screen 推荐套一层 LoadingScreen，异步加载并显示进度：
+        // setScreen(new LoadingScreen(this, new FirstScreen()));
 
         // 取消注释下面这行来运行图层系统演示：
         // setScreen(new LayerSystemDemoScreen());
@@ -23,10 +27,18 @@ public class Main extends Game {
 //        setScreen(new AttackDemoScreen());
 //        setScreen(new ShapeDemoScreen());
         
-        // 虚拟线程演示 - 1000个对象无规则运动
+        // 虚拟线程演示 - 1000个对象无规则运动（压力测试：new VirtualThreadDemoScreen(VirtualThreadDemoScreen.STRESS_OBJECT_COUNT)）
         // setScreen(new VirtualThreadDemoScreen());
         
         // setScreen(new P2Screen());
         setScreen(new VirtualThreadDemoScreen());
     }
+
+    @Override
+    public void dispose() {
+        super.dispose();
+        // 释放 AssetService 中仍被引用的资源
+        AssetService.getInstance().dispose();
+        FontService.getInstance().dispose();
+    }
 }
@@ -3,15 +3,18 @@ package com.github.xiaotaotao.ligdx.laboratory;
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.Input;
 import com.badlogic.gdx.Screen;
-import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.assets.AssetDescriptor;
 import com.badlogic.gdx.graphics.OrthographicCamera;
 import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.Animation;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.utils.Array;
 import com.badlogic.gdx.utils.ScreenUtils;
 import com.badlogic.gdx.utils.viewport.FitViewport;
 import com.badlogic.gdx.utils.viewport.Viewport;
+import com.github.xiaotaotao.ligdx.laboratory.asset.AssetDependent;
+import com.github.xiaotaotao.ligdx.laboratory.asset.AssetService;
 
 /**
  * @Desciption:
@@ -20,7 +23,11 @@ import com.badlogic.gdx.utils.viewport.Viewport;
  * @Date:2025/12/6 19:59
  * @Version:1.0
  **/
-public class P1Screen implements Screen {
+public class P1Screen implements Screen, AssetDependent {
+    // 4x4 精灵图（Nearest 过滤，避免黑线和锯齿）
+    private static final AssetDescriptor<Texture> PLAYER_SHEET = new AssetDescriptor<>("person/p_4_1.png", Texture.class,
+            AssetService.pixelTexture());
+
     // 核心组件
     private SpriteBatch batch;
     private OrthographicCamera camera;
@@ -55,12 +62,10 @@ public class P1Screen implements Screen {
         // 2. 初始化渲染批次
         batch = new SpriteBatch();
 
-        // 3. 加载精灵图并拆分瓦片（假设p.png是4x4等宽高瓦片，如256x256 → 单瓦片64x64）
-        FileHandle p41 = Gdx.files.internal("person/p_4_1.png");
-
-        playerTexture = new Texture(p41);
-        // 设置纹理过滤模式，避免黑线和锯齿
-        playerTexture.setFilter(Texture.TextureFilter.Nearest, Texture.TextureFilter.Nearest);
+        // 3. 取出精灵图并拆分瓦片（假设p.png是4x4等宽高瓦片，如256x256 → 单瓦片64x64）
+        AssetService assets = AssetService.getInstance();
+        assets.finishLoading(this);
+        playerTexture = assets.get(PLAYER_SHEET);
         int frame4Width = playerTexture.getWidth() / 4;
         int frame4Height = playerTexture.getHeight() / 4;
         tileSize = frame4Width; // 初始化瓦片大小（假设是正方形瓦片）
@@ -84,6 +89,11 @@ public class P1Screen implements Screen {
         currentAnim = downAnim;
     }
 
+    @Override
+    public void declareAssets(Array<AssetDescriptor<?>> out) {
+        out.add(PLAYER_SHEET);
+    }
+
     @Override
     public void render(float delta) {
 
@@ -175,6 +185,6 @@ public class P1Screen implements Screen {
     @Override
     public void dispose() {
         batch.dispose();
-        playerTexture.dispose(); // 仅释放Texture，Region/Animation无需单独释放
+        AssetService.getInstance().unload(this); // 仅释放Texture，Region/Animation无需单独释放
     }
 }
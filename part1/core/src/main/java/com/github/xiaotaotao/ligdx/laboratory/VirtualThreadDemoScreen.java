@@ -5,18 +5,31 @@ import com.badlogic.gdx.Screen;
 import com.badlogic.gdx.graphics.GL20;
 import com.badlogic.gdx.graphics.Pixmap;
 import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
 import com.badlogic.gdx.math.MathUtils;
-
-import java.util.ArrayList;
-import java.util.List;
-import java.util.concurrent.atomic.AtomicBoolean;
-import java.util.concurrent.atomic.AtomicReference;
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.github.xiaotaotao.ligdx.laboratory.concurrent.AdaptiveChunkSize;
+import com.github.xiaotaotao.ligdx.laboratory.concurrent.ExecutorBenchmark;
+import com.github.xiaotaotao.ligdx.laboratory.concurrent.ParallelExecutor;
+import com.github.xiaotaotao.ligdx.laboratory.concurrent.RandomStreams;
+import com.github.xiaotaotao.ligdx.laboratory.concurrent.SimulationFrame;
+import com.github.xiaotaotao.ligdx.laboratory.concurrent.SimulationLoop;
+import com.github.xiaotaotao.ligdx.laboratory.profiling.FrameProfiler;
+import com.github.xiaotaotao.ligdx.laboratory.render.QuadPositionBuffer;
+import com.github.xiaotaotao.ligdx.laboratory.render.SpriteMeshRenderer;
 
 /**
- * 使用Java虚拟线程管理1000个对象进行无规则运动的演示
+ * 使用Java虚拟线程管理大量对象进行无规则运动的演示
+ *
+ * 模拟线程直接把顶点位置写进三缓冲里的 {@link QuadPositionBuffer}，
+ * 渲染线程用 {@link SpriteMeshRenderer} 整块上传、按块绘制，不再逐个调用 batch.draw
+ *
+ * 对象数量默认 {@link #DEFAULT_OBJECT_COUNT}；压力测试用 {@link #STRESS_OBJECT_COUNT}
+ * （例如 headless 场景 virtual-thread-1m），退出时输出平均模拟步耗时
  * 
- * @Description: 虚拟线程演示 - 1000个对象无规则运动
+ * @Description: 虚拟线程演示 - 大量对象无规则运动
  * @ClassName: VirtualThreadDemoScreen
  * @Author: TwT
  * @Date: 2025/12/23
@@ -26,118 +39,192 @@ public class VirtualThreadDemoScreen implements Screen {
     
     private static final float VIRTUAL_WIDTH = 1920;
     private static final float VIRTUAL_HEIGHT = 1080;
-    private static final int OBJECT_COUNT = 1000;
+    /** 默认对象数量 */
+    public static final int DEFAULT_OBJECT_COUNT = 1000;
+    /** 压力测试的对象数量 */
+    public static final int STRESS_OBJECT_COUNT = 1_000_000;
+    private static final float OBJECT_SIZE = 10;
+    // 世界种子：相同种子的两次运行，对象轨迹完全一致（与线程数、块大小无关）
+    private static final long WORLD_SEED = 20251223L;
     
+    // HUD 文字
     private SpriteBatch batch;
+    private BitmapFont font;
     private Texture objectTexture;
     
-    // 存储所有移动对象
-    private final List<MovingObject> objects = new ArrayList<>();
+    // 对象渲染（整块上传顶点缓冲）和虚拟分辨率下的投影
+    private SpriteMeshRenderer spriteRenderer;
+    private final Matrix4 worldProjection = new Matrix4();
+    
+    // 帧统计叠加层（F3 显示/隐藏，F4 导出 CSV）
+    private FrameProfiler profiler;
+    
+    // 所有移动对象（结构数组，按下标访问），随机数来自按对象下标拆分的确定性随机流
+    private final RandomStreams random = new RandomStreams(WORLD_SEED);
+    private final MovingObjects objects;
+    // 模拟步数（0 留给初始化）
+    private long stepCount;
+    // 并行更新的累计耗时和次数（只在模拟线程写入，停止模拟线程后读取）
+    private long totalStepNanos;
+    private long measuredSteps;
+    
+    // 模拟循环（虚拟线程，固定步长），每一步的完整状态通过三缓冲交给渲染线程
+    private SimulationLoop<SpriteFrame> simulationLoop;
+    
+    // HUD 数值下标
+    private static final int HUD_STEP_MS = 0;
+    private static final int HUD_CHUNK_SIZE = 1;
     
-    // 渲染数据缓存（线程安全，由虚拟线程准备，主线程读取）
-    // 使用AtomicReference实现无锁读取，提升性能
-    private final AtomicReference<List<RenderData>> renderDataCache = new AtomicReference<>(new ArrayList<>());
+    // 并行执行器（启动时由基准测试选出）和自适应块大小
+    private ParallelExecutor executor;
+    private final AdaptiveChunkSize updateChunkSize = new AdaptiveChunkSize();
     
-    // 控制虚拟线程运行
-    private final AtomicBoolean running = new AtomicBoolean(true);
-    private Thread updateThread;
-    private Thread renderDataPrepareThread;
+    // 本轮更新的参数（在 forEachChunk 之前写入，执行器保证对工作线程可见）
+    private float updateDelta;
+    private QuadPositionBuffer updateTarget;
+    private final ParallelExecutor.RangeTask updateTask;
     
     /**
-     * 渲染数据类 - 存储需要渲染的对象位置信息
-     * 由虚拟线程准备，主线程读取
+     * 模拟帧：除了 HUD 数值之外携带一份按顶点格式写好的位置缓冲
+     *
+     * 不使用 SimulationFrame 的 transforms，避免每个对象多存一份变换
      */
-    private static class RenderData {
-        final float x;
-        final float y;
+    private static class SpriteFrame extends SimulationFrame {
+        final QuadPositionBuffer quads;
         
-        RenderData(float x, float y) {
-            this.x = x;
-            this.y = y;
+        SpriteFrame(int capacity) {
+            super(0, 4);
+            quads = new QuadPositionBuffer(capacity);
+        }
+    }
+    
+    public VirtualThreadDemoScreen() {
+        this(DEFAULT_OBJECT_COUNT);
+    }
+    
+    /**
+     * @param objectCount 对象数量
+     */
+    public VirtualThreadDemoScreen(int objectCount) {
+        if (objectCount <= 0) {
+            throw new GdxRuntimeException("Object count must be positive: " + objectCount);
         }
+        objects = new MovingObjects(objectCount, random);
+        updateTask = (start, end) -> {
+            objects.update(start, end, updateDelta);
+            if (updateTarget != null) {
+                objects.writeQuads(updateTarget, start, end);
+            }
+        };
     }
     
     /**
-     * 移动对象类 - 每个对象有自己的位置、速度等属性
+     * 移动对象（结构数组）：每个属性一个 float 数组，下标 i 对应第 i 个对象
+     *
+     * 设计说明：
+     * - 相比 ArrayList<MovingObject>，连续的 float[] 对缓存和预取更友好，也没有对象头开销
+     * - 并行更新时每个块只访问自己的下标区间，不需要额外同步
+     * - 随机数按 (步数, 对象下标) 取自 {@link RandomStreams}，不再共用 MathUtils.random
      */
-    private static class MovingObject {
-        private float x;
-        private float y;
-        private float vx;  // 水平速度
-        private float vy;  // 垂直速度
-        private float speed;  // 当前速度大小
-        private float directionChangeTimer;  // 方向改变计时器
-        private float directionChangeInterval;  // 方向改变间隔（秒）
+    private static class MovingObjects {
+        final int count;
+        final RandomStreams random;
+        final float[] x;
+        final float[] y;
+        final float[] vx;  // 水平速度
+        final float[] vy;  // 垂直速度
+        final float[] directionChangeTimer;  // 方向改变计时器
+        final float[] directionChangeInterval;  // 方向改变间隔（秒）
+        
+        MovingObjects(int count, RandomStreams random) {
+            this.count = count;
+            this.random = random;
+            x = new float[count];
+            y = new float[count];
+            vx = new float[count];
+            vy = new float[count];
+            directionChangeTimer = new float[count];
+            directionChangeInterval = new float[count];
+        }
         
-        public MovingObject(float startX, float startY) {
-            this.x = startX;
-            this.y = startY;
-            this.speed = MathUtils.random(50f, 200f);  // 随机速度 50-200 像素/秒
-            this.directionChangeInterval = MathUtils.random(0.5f, 3.0f);  // 随机改变方向间隔
-            this.directionChangeTimer = 0f;
-            // 随机初始方向
-            float angle = MathUtils.random(0f, 360f) * MathUtils.degreesToRadians;
-            this.vx = MathUtils.cos(angle) * speed;
-            this.vy = MathUtils.sin(angle) * speed;
+        /**
+         * 初始化第 i 个对象，随机分布在屏幕上（使用当前步的随机流）
+         */
+        void init(int i) {
+            RandomStreams.Stream r = random.streamFor(i);
+            x[i] = r.nextFloat(0f, VIRTUAL_WIDTH - OBJECT_SIZE);
+            y[i] = r.nextFloat(0f, VIRTUAL_HEIGHT - OBJECT_SIZE);
+            directionChangeInterval[i] = r.nextFloat(0.5f, 3.0f);  // 随机改变方向间隔
+            directionChangeTimer[i] = 0f;
+            randomizeVelocity(i, r);
+        }
+        
+        /**
+         * 随机速度大小（50-200 像素/秒）和方向
+         */
+        private void randomizeVelocity(int i, RandomStreams.Stream r) {
+            float speed = r.nextFloat(50f, 200f);
+            float angle = r.nextFloat(0f, 360f) * MathUtils.degreesToRadians;
+            vx[i] = MathUtils.cos(angle) * speed;
+            vy[i] = MathUtils.sin(angle) * speed;
         }
         
         /**
-         * 更新对象位置和运动状态
+         * 更新 [start, end) 区间内对象的位置和运动状态
          * @param delta 时间间隔（秒）
          */
-        public void update(float delta) {
-            // 更新方向改变计时器
-            directionChangeTimer += delta;
-            
-            // 随机改变方向
-            if (directionChangeTimer >= directionChangeInterval) {
-                // 随机改变速度大小
-                speed = MathUtils.random(50f, 200f);
+        void update(int start, int end, float delta) {
+            for (int i = start; i < end; i++) {
+                // 随机改变方向
+                directionChangeTimer[i] += delta;
+                if (directionChangeTimer[i] >= directionChangeInterval[i]) {
+                    RandomStreams.Stream r = random.streamFor(i);
+                    randomizeVelocity(i, r);
+                    directionChangeTimer[i] = 0f;
+                    directionChangeInterval[i] = r.nextFloat(0.5f, 3.0f);
+                }
                 
-                // 随机改变方向（添加一些随机性，不完全随机）
-                float angle = MathUtils.random(0f, 360f) * MathUtils.degreesToRadians;
-                vx = MathUtils.cos(angle) * speed;
-                vy = MathUtils.sin(angle) * speed;
+                // 更新位置
+                float px = x[i] + vx[i] * delta;
+                float py = y[i] + vy[i] * delta;
                 
-                // 重置计时器并设置新的间隔
-                directionChangeTimer = 0f;
-                directionChangeInterval = MathUtils.random(0.5f, 3.0f);
-            }
-            
-            // 更新位置
-            x += vx * delta;
-            y += vy * delta;
-            
-            // 边界反弹
-            if (x < 0) {
-                x = 0;
-                vx = -vx;
-            } else if (x > VIRTUAL_WIDTH - 10) {
-                x = VIRTUAL_WIDTH - 10;
-                vx = -vx;
-            }
-            
-            if (y < 0) {
-                y = 0;
-                vy = -vy;
-            } else if (y > VIRTUAL_HEIGHT - 10) {
-                y = VIRTUAL_HEIGHT - 10;
-                vy = -vy;
+                // 边界反弹
+                if (px < 0) {
+                    px = 0;
+                    vx[i] = -vx[i];
+                } else if (px > VIRTUAL_WIDTH - OBJECT_SIZE) {
+                    px = VIRTUAL_WIDTH - OBJECT_SIZE;
+                    vx[i] = -vx[i];
+                }
+                if (py < 0) {
+                    py = 0;
+                    vy[i] = -vy[i];
+                } else if (py > VIRTUAL_HEIGHT - OBJECT_SIZE) {
+                    py = VIRTUAL_HEIGHT - OBJECT_SIZE;
+                    vy[i] = -vy[i];
+                }
+                x[i] = px;
+                y[i] = py;
             }
         }
         
-        public float getX() {
-            return x;
-        }
-        
-        public float getY() {
-            return y;
+        /**
+         * 把 [start, end) 区间的对象按顶点格式写入位置缓冲（方块不旋转、不缩放）
+         */
+        void writeQuads(QuadPositionBuffer out, int start, int end) {
+            for (int i = start; i < end; i++) {
+                out.putQuad(i, x[i], y[i], OBJECT_SIZE, OBJECT_SIZE);
+            }
         }
     }
     
     @Override
     public void show() {
         batch = new SpriteBatch();
+        font = new BitmapFont();
+        profiler = new FrameProfiler("VirtualThreadDemo");
+        spriteRenderer = new SpriteMeshRenderer();
+        worldProjection.setToOrtho2D(0, 0, VIRTUAL_WIDTH, VIRTUAL_HEIGHT);
         
         // 创建简单的纹理（10x10像素的彩色方块）
         Pixmap pixmap = new Pixmap(10, 10, Pixmap.Format.RGBA8888);
@@ -147,165 +234,74 @@ public class VirtualThreadDemoScreen implements Screen {
         objectTexture = new Texture(pixmap);
         pixmap.dispose();
         
-        // 初始化1000个对象，随机分布在屏幕上
-        for (int i = 0; i < OBJECT_COUNT; i++) {
-            float startX = MathUtils.random(0f, VIRTUAL_WIDTH - 10);
-            float startY = MathUtils.random(0f, VIRTUAL_HEIGHT - 10);
-            objects.add(new MovingObject(startX, startY));
+        // 初始化所有对象，随机分布在屏幕上
+        stepCount = 0;
+        random.beginStep(stepCount);
+        for (int i = 0; i < objects.count; i++) {
+            objects.init(i);
         }
         
-        // 启动虚拟线程来更新所有对象
-        startUpdateThread();
-        
-        // 启动虚拟线程来准备渲染数据
-        startRenderDataPrepareThread();
-    }
-    
-    /**
-     * 使用虚拟线程准备渲染数据（收集对象位置信息）
-     * 这样可以减少主线程的工作量，提升渲染效率
-     */
-    private void startRenderDataPrepareThread() {
-        running.set(true);
+        // 按当前对象数量选出最快的并行执行器（delta=0 的更新可以重复执行，不影响状态）
+        updateDelta = 0f;
+        updateTarget = null;
+        executor = ExecutorBenchmark.pickFastest(ExecutorBenchmark.defaultCandidates(), objects.count, updateTask);
+        Gdx.app.log("VirtualThreadDemo", "Using executor: " + executor.getName());
         
-        // 创建虚拟线程来准备渲染数据
-        renderDataPrepareThread = Thread.ofVirtual().start(() -> {
-            while (running.get()) {
-                // 创建新的渲染数据列表
-                List<RenderData> newRenderData = new ArrayList<>(objects.size());
-                
-                // 使用虚拟线程并行收集渲染数据
-                int chunkSize = 100;  // 每个虚拟线程处理100个对象
-                List<Thread> threads = new ArrayList<>();
-                List<List<RenderData>> chunkResults = new ArrayList<>();
-                
-                for (int i = 0; i < objects.size(); i += chunkSize) {
-                    final int start = i;
-                    final int end = Math.min(i + chunkSize, objects.size());
-                    final List<RenderData> chunkData = new ArrayList<>(end - start);
-                    chunkResults.add(chunkData);
-                    
-                    // 为每个chunk创建一个虚拟线程来收集渲染数据
-                    Thread thread = Thread.ofVirtual().start(() -> {
-                        for (int j = start; j < end; j++) {
-                            MovingObject obj = objects.get(j);
-                            chunkData.add(new RenderData(obj.getX(), obj.getY()));
-                        }
-                    });
-                    threads.add(thread);
-                }
-                
-                // 等待所有虚拟线程完成
-                for (Thread thread : threads) {
-                    try {
-                        thread.join();
-                    } catch (InterruptedException e) {
-                        Thread.currentThread().interrupt();
-                        break;
-                    }
-                }
-                
-                // 合并所有chunk的数据
-                for (List<RenderData> chunkData : chunkResults) {
-                    newRenderData.addAll(chunkData);
-                }
-                
-                // 原子性地更新渲染数据缓存
-                renderDataCache.set(newRenderData);
-                
-                // 控制准备频率（与渲染同步，约60 FPS）
-                try {
-                    Thread.sleep(16);  // 约16ms，60 FPS
-                } catch (InterruptedException e) {
-                    Thread.currentThread().interrupt();
-                    break;
-                }
-            }
-        });
+        // 启动虚拟线程来更新所有对象
+        totalStepNanos = 0;
+        measuredSteps = 0;
+        simulationLoop = new SimulationLoop<>(this::step, () -> new SpriteFrame(objects.count));
+        simulationLoop.start();
     }
     
     /**
-     * 使用虚拟线程更新所有对象
+     * 模拟一步（在模拟线程中调用），实际的并行计算交给常驻的执行器
+     *
+     * 更新对象的同一遍历中把顶点位置写入三缓冲的写缓冲区，全程不分配内存
      */
-    private void startUpdateThread() {
-        running.set(true);
+    private void step(float dt, SpriteFrame out) {
+        // 块大小根据实测的单对象耗时自动调整
+        int count = objects.count;
+        out.entityCount = count;
+        out.quads.setQuadCount(count);
+        random.beginStep(++stepCount);
+        updateDelta = dt;
+        updateTarget = out.quads;
+        int chunkSize = updateChunkSize.get(count, executor.getParallelism());
+        long start = System.nanoTime();
+        executor.forEachChunk(count, chunkSize, updateTask);
+        long elapsed = System.nanoTime() - start;
+        updateChunkSize.record(count, elapsed, executor.getParallelism());
+        updateTarget = null;
+        totalStepNanos += elapsed;
+        measuredSteps++;
         
-        // 创建虚拟线程来更新对象
-        updateThread = Thread.ofVirtual().start(() -> {
-            long lastTime = System.nanoTime();
-            
-            while (running.get()) {
-                long currentTime = System.nanoTime();
-                float delta = (currentTime - lastTime) / 1_000_000_000f;  // 转换为秒
-                lastTime = currentTime;
-                
-                // 限制delta，避免时间跳跃过大
-                if (delta > 0.1f) {
-                    delta = 0.1f;
-                }
-                
-                // 使用虚拟线程池并行更新对象
-                // 将1000个对象分成多个任务，每个任务处理一部分对象
-                int chunkSize = 100;  // 每个虚拟线程处理100个对象
-                List<Thread> threads = new ArrayList<>();
-                
-                for (int i = 0; i < objects.size(); i += chunkSize) {
-                    final int start = i;
-                    final int end = Math.min(i + chunkSize, objects.size());
-                    final float finalDelta = delta;
-                    
-                    // 为每个chunk创建一个虚拟线程
-                    Thread thread = Thread.ofVirtual().start(() -> {
-                        for (int j = start; j < end; j++) {
-                            objects.get(j).update(finalDelta);
-                        }
-                    });
-                    threads.add(thread);
-                }
-                
-                // 等待所有虚拟线程完成
-                for (Thread thread : threads) {
-                    try {
-                        thread.join();
-                    } catch (InterruptedException e) {
-                        Thread.currentThread().interrupt();
-                        break;
-                    }
-                }
-                
-                // 控制更新频率（约60 FPS）
-                try {
-                    Thread.sleep(16);  // 约16ms，60 FPS
-                } catch (InterruptedException e) {
-                    Thread.currentThread().interrupt();
-                    break;
-                }
-            }
-        });
+        out.hud[HUD_STEP_MS] = elapsed / 1_000_000f;
+        out.hud[HUD_CHUNK_SIZE] = chunkSize;
     }
     
     @Override
     public void render(float delta) {
+        // 对象更新在后台虚拟线程中进行，主线程只统计渲染部分
+        profiler.beginRender();
+        
         // 清屏
         Gdx.gl.glClearColor(0.05f, 0.05f, 0.1f, 1f);
         Gdx.gl.glClear(GL20.GL_COLOR_BUFFER_BIT);
         
-        // 使用预准备的渲染数据（由虚拟线程准备，减少主线程工作量）
-        // 主线程只需要执行OpenGL调用，数据准备已在后台完成
+        // 读取最新的完整帧（三缓冲，模拟线程不会写这一帧，双方都不等待）
+        SpriteFrame frame = simulationLoop.acquire();
+        spriteRenderer.draw(frame.quads, objectTexture, worldProjection);
+        
         batch.begin();
-        List<RenderData> renderData = renderDataCache.get();
-        if (!renderData.isEmpty()) {
-            // 使用预准备的渲染数据，主线程只需要执行OpenGL调用
-            for (RenderData data : renderData) {
-                batch.draw(objectTexture, data.x, data.y);
-            }
-        } else {
-            // 回退方案：直接读取对象位置（首次渲染或缓存未准备好时）
-            for (MovingObject obj : objects) {
-                batch.draw(objectTexture, obj.getX(), obj.getY());
-            }
-        }
+        font.draw(batch, "Objects: " + frame.entityCount + "  Step: " + frame.hud[HUD_STEP_MS] + " ms  Chunk: "
+                + (int) frame.hud[HUD_CHUNK_SIZE] + "  Tick: " + frame.tick, 10, 20);
         batch.end();
+        
+        // 只统计 SpriteBatch 的提交次数；SpriteMeshRenderer 的分块绘制已由 GLProfiler 计入 draw calls
+        profiler.addRenderCalls(batch.renderCalls);
+        profiler.endRender();
+        profiler.endFrame();
     }
     
     @Override
@@ -325,50 +321,52 @@ public class VirtualThreadDemoScreen implements Screen {
     
     @Override
     public void hide() {
-        // 停止所有线程
-        running.set(false);
-        if (updateThread != null) {
-            try {
-                updateThread.join(1000);  // 等待最多1秒
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-            }
-        }
-        if (renderDataPrepareThread != null) {
-            try {
-                renderDataPrepareThread.join(1000);
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-            }
-        }
+        // show() 会重新创建这些资源，隐藏时全部释放，避免反复切换时泄漏线程池和 GL 资源
+        releaseResources();
     }
     
     @Override
     public void dispose() {
-        // 停止所有线程
-        running.set(false);
-        if (updateThread != null) {
-            try {
-                updateThread.join(1000);
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-            }
-        }
-        if (renderDataPrepareThread != null) {
-            try {
-                renderDataPrepareThread.join(1000);
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
+        releaseResources();
+    }
+    
+    /**
+     * 停止模拟线程（最多等待1秒）并输出平均模拟步耗时，释放执行器和 show() 中创建的渲染资源
+     */
+    private void releaseResources() {
+        // 先停止模拟线程，执行器和顶点缓冲之后不会再被访问
+        if (simulationLoop != null) {
+            simulationLoop.dispose();
+            simulationLoop = null;
+            if (measuredSteps > 0) {
+                Gdx.app.log("VirtualThreadDemo", String.format("objects=%d  steps=%d  avg step=%.3fms",
+                        objects.count, measuredSteps, totalStepNanos / 1e6 / measuredSteps));
             }
         }
         
-        // 释放资源
+        if (executor != null) {
+            executor.dispose();
+            executor = null;
+        }
+        if (spriteRenderer != null) {
+            spriteRenderer.dispose();
+            spriteRenderer = null;
+        }
         if (batch != null) {
             batch.dispose();
+            batch = null;
+        }
+        if (font != null) {
+            font.dispose();
+            font = null;
         }
         if (objectTexture != null) {
             objectTexture.dispose();
+            objectTexture = null;
+        }
+        if (profiler != null) {
+            profiler.dispose();
+            profiler = null;
         }
     }
 }
-
@@ -0,0 +1,22 @@
+package com.github.xiaotaotao.ligdx.laboratory.asset;
+
+import com.badlogic.gdx.assets.AssetDescriptor;
+import com.badlogic.gdx.utils.Array;
+
+/**
+ * 声明资源依赖的 Screen（或其他资源使用方）
+ *
+ * 设计说明：
+ * - Screen 不再在 show() 中同步读取文件，而是先声明自己需要哪些资源
+ * - LoadingScreen / AssetService 统一排队，在后台线程读取文件、解码 PNG
+ * - 纹理上传（GL 调用）在渲染线程上按帧分摊，避免窗口卡死
+ */
+public interface AssetDependent {
+
+    /**
+     * 声明依赖的资源
+     *
+     * @param out 输出列表，实现方把需要的 AssetDescriptor 添加进去即可
+     */
+    void declareAssets(Array<AssetDescriptor<?>> out);
+}
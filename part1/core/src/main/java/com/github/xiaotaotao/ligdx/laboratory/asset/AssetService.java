@@ -0,0 +1,193 @@
+package com.github.xiaotaotao.ligdx.laboratory.asset;
+
+import com.badlogic.gdx.assets.AssetDescriptor;
+import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.assets.loaders.FileHandleResolver;
+import com.badlogic.gdx.assets.loaders.TextureLoader;
+import com.badlogic.gdx.assets.loaders.resolvers.InternalFileHandleResolver;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.maps.tiled.TiledMap;
+import com.badlogic.gdx.maps.tiled.TmxMapLoader;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.ObjectMap;
+
+/**
+ * 资源服务：基于 AssetManager 的异步加载管线
+ *
+ * 设计说明：
+ * - 单例模式，全局共享一个 AssetManager（同一资源只加载一份，按引用计数释放）
+ * - 文件读取 / PNG 解码由 AssetManager 的后台线程完成
+ * - GL 上传在渲染线程中执行，每帧最多占用 frameBudgetMillis 毫秒
+ * - 以 AssetDependent 为单位排队 / 卸载，同一个使用方重复排队不会重复增加引用计数
+ *
+ * 使用方式：
+ * - 推荐：game.setScreen(new LoadingScreen(game, screen))，由 LoadingScreen 显示进度
+ * - 直接 setScreen(screen) 也可以，Screen 在 show() 中调用 finishLoading(this) 同步补齐
+ */
+public class AssetService implements Disposable {
+
+    /** 单例实例（懒加载，需要在 Gdx 初始化之后使用） */
+    private static AssetService instance;
+
+    /** 每帧默认的加载时间预算（毫秒） */
+    private static final int DEFAULT_FRAME_BUDGET_MILLIS = 8;
+
+    private final AssetManager manager;
+
+    /** 已排队的使用方及其声明的资源 */
+    private final ObjectMap<AssetDependent, Array<AssetDescriptor<?>>> owners = new ObjectMap<>();
+
+    /** 每帧用于加载（主要是 GL 上传）的时间预算 */
+    private int frameBudgetMillis = DEFAULT_FRAME_BUDGET_MILLIS;
+
+    /**
+     * 获取单例实例
+     *
+     * @return AssetService 单例
+     */
+    public static AssetService getInstance() {
+        if (instance == null) {
+            instance = new AssetService();
+        }
+        return instance;
+    }
+
+    private AssetService() {
+        FileHandleResolver resolver = new InternalFileHandleResolver();
+        manager = new AssetManager(resolver);
+        // Tiled 地图不在 AssetManager 的默认加载器里，需要手动注册
+        // （FreeType 字体由 FontService 单独管理，带磁盘缓存）
+        manager.setLoader(TiledMap.class, new TmxMapLoader(resolver));
+    }
+
+    /**
+     * 创建像素风纹理的加载参数（Nearest 过滤，避免黑线和锯齿）
+     *
+     * @return 纹理加载参数
+     */
+    public static TextureLoader.TextureParameter pixelTexture() {
+        TextureLoader.TextureParameter parameter = new TextureLoader.TextureParameter();
+        parameter.minFilter = Texture.TextureFilter.Nearest;
+        parameter.magFilter = Texture.TextureFilter.Nearest;
+        return parameter;
+    }
+
+    /**
+     * 将使用方声明的资源加入加载队列（不阻塞）
+     *
+     * @param owner 资源使用方
+     */
+    public void queue(AssetDependent owner) {
+        if (owners.containsKey(owner)) {
+            return;
+        }
+        Array<AssetDescriptor<?>> descriptors = new Array<>();
+        owner.declareAssets(descriptors);
+        for (AssetDescriptor<?> descriptor : descriptors) {
+            manager.load(descriptor);
+        }
+        owners.put(owner, descriptors);
+    }
+
+    /**
+     * 在渲染线程中推进加载（每帧调用一次，最多占用 frameBudgetMillis 毫秒）
+     *
+     * @return true=队列中的资源已全部加载完成
+     */
+    public boolean update() {
+        return manager.update(frameBudgetMillis);
+    }
+
+    /**
+     * 同步补齐使用方的资源（未排队时会先排队），已加载的资源会立即返回
+     *
+     * @param owner 资源使用方
+     */
+    public void finishLoading(AssetDependent owner) {
+        queue(owner);
+        for (AssetDescriptor<?> descriptor : owners.get(owner)) {
+            manager.finishLoadingAsset(descriptor);
+        }
+    }
+
+    /**
+     * 使用方声明的资源是否已全部加载
+     *
+     * @param owner 资源使用方
+     * @return true=已全部加载（未排队的使用方返回 false）
+     */
+    public boolean isLoaded(AssetDependent owner) {
+        Array<AssetDescriptor<?>> descriptors = owners.get(owner);
+        if (descriptors == null) {
+            return false;
+        }
+        for (AssetDescriptor<?> descriptor : descriptors) {
+            if (!manager.isLoaded(descriptor)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 获取已加载的资源
+     *
+     * @param descriptor 资源描述
+     * @return 资源实例
+     */
+    public <T> T get(AssetDescriptor<T> descriptor) {
+        return manager.get(descriptor);
+    }
+
+    /**
+     * 释放使用方声明的资源（引用计数减一，归零时真正释放）
+     *
+     * @param owner 资源使用方
+     */
+    public void unload(AssetDependent owner) {
+        Array<AssetDescriptor<?>> descriptors = owners.remove(owner);
+        if (descriptors == null) {
+            return;
+        }
+        for (AssetDescriptor<?> descriptor : descriptors) {
+            if (manager.contains(descriptor.fileName)) {
+                manager.unload(descriptor.fileName);
+            }
+        }
+    }
+
+    /**
+     * 整体加载进度（0.0-1.0）
+     *
+     * @return 加载进度
+     */
+    public float getProgress() {
+        return manager.getProgress();
+    }
+
+    public int getFrameBudgetMillis() {
+        return frameBudgetMillis;
+    }
+
+    /**
+     * 设置每帧的加载时间预算
+     *
+     * @param frameBudgetMillis 毫秒，越大加载越快，但加载期间帧率越低
+     */
+    public void setFrameBudgetMillis(int frameBudgetMillis) {
+        this.frameBudgetMillis = Math.max(1, frameBudgetMillis);
+    }
+
+    /**
+     * 释放所有资源（通常在 Game.dispose 中调用），之后 getInstance 会重新创建实例
+     */
+    @Override
+    public void dispose() {
+        owners.clear();
+        manager.dispose();
+        if (instance == this) {
+            instance = null;
+        }
+    }
+}
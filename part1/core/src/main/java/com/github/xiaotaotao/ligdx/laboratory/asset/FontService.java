@@ -0,0 +1,449 @@
+package com.github.xiaotaotao.ligdx.laboratory.asset;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.PixmapIO;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.PixmapPacker;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.graphics.g2d.freetype.FreeTypeFontGenerator;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.IntSet;
+import com.badlogic.gdx.utils.ObjectMap;
+import com.badlogic.gdx.utils.StreamUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.CRC32;
+
+/**
+ * 字体服务：FreeType 字体的内存共享 + 磁盘缓存 + 按需增量生成字形
+ *
+ * 设计说明：
+ * - 单例模式，同一个（字体文件, 字号, 字符集）在内存中只有一份 BitmapFont，按引用计数释放
+ * - 冷启动：使用 incremental 模式的 FreeType 生成声明的字符，并把图集页和字形表写入
+ *   local 目录下的 cache/fonts/（标准 BMFont .fnt + png 格式）
+ * - 热启动：直接读取缓存的 .fnt / png，完全跳过光栅化
+ * - 运行时遇到未声明的字符时，按需光栅化到同一字体的图集中（冷启动由 FreeType 增量模式完成，
+ *   热启动由 LazyGlyphs 补齐），声明的字符集只影响"预先生成并缓存"的部分
+ *
+ * 缓存键：字体文件名 + 字号 + 字符集哈希（字符集会先按码点去重排序，再连同字体文件内容的 CRC32 一起计算哈希），
+ * 字体文件或字符集变化时会自然生成新的缓存文件；每个字体文件的 CRC32 只在进程内计算一次（流式读取，不整体载入内存）
+ */
+public class FontService implements Disposable {
+
+    /** 单例实例（懒加载，需要在 Gdx 初始化之后使用） */
+    private static FontService instance;
+
+    /** 缓存目录（local 文件，位于工作目录下） */
+    private static final String CACHE_DIR = "cache/fonts/";
+
+    /** 图集页大小（像素） */
+    private static final int PAGE_SIZE = 1024;
+
+    /** 当前内存中的字体（键 = 缓存键） */
+    private final ObjectMap<String, Entry> entries = new ObjectMap<>();
+
+    /** 字体实例到缓存条目的反查（用于 release） */
+    private final ObjectMap<BitmapFont, Entry> entriesByFont = new ObjectMap<>();
+
+    /** 字体文件内容的 CRC32（键 = 文件路径），避免每次 obtain 重新读取字体文件 */
+    private final ObjectMap<String, Long> fontChecksums = new ObjectMap<>();
+
+    /**
+     * 获取单例实例
+     *
+     * @return FontService 单例
+     */
+    public static FontService getInstance() {
+        if (instance == null) {
+            instance = new FontService();
+        }
+        return instance;
+    }
+
+    private FontService() {
+    }
+
+    /**
+     * 获取字体（引用计数加一），使用完毕后需调用 {@link #release(BitmapFont)}
+     *
+     * @param fontFile   字体文件路径（internal，例如 "ui/simsun.ttc"）
+     * @param size       字号
+     * @param characters 需要预先生成并缓存的字符（其余字符会在用到时按需生成）
+     * @return 共享的 BitmapFont，调用方不要直接 dispose
+     */
+    public BitmapFont obtain(String fontFile, int size, String characters) {
+        FileHandle fontHandle = Gdx.files.internal(fontFile);
+        String normalized = normalizeCharacters(characters);
+        String key = cacheKey(fontHandle, size, normalized);
+
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            entry = loadFromCache(key, fontFile, size);
+            if (entry == null) {
+                entry = generate(key, fontHandle, size, normalized);
+            }
+            entries.put(key, entry);
+            entriesByFont.put(entry.font, entry);
+        }
+        entry.refCount++;
+        return entry.font;
+    }
+
+    /**
+     * 释放字体（引用计数减一，归零时释放纹理等资源）
+     *
+     * @param font 通过 obtain 获取的字体
+     */
+    public void release(BitmapFont font) {
+        Entry entry = entriesByFont.get(font);
+        if (entry == null) {
+            return;
+        }
+        entry.refCount--;
+        if (entry.refCount <= 0) {
+            entries.remove(entry.key);
+            entriesByFont.remove(font);
+            entry.dispose();
+        }
+    }
+
+    /**
+     * 冷启动：使用增量模式的 FreeType 生成字体，并写入磁盘缓存
+     */
+    private Entry generate(String key, FileHandle fontHandle, int size, String characters) {
+        FreeTypeFontGenerator generator = new FreeTypeFontGenerator(fontHandle);
+        PixmapPacker packer = new PixmapPacker(PAGE_SIZE, PAGE_SIZE, Pixmap.Format.RGBA8888, 1, false);
+
+        FreeTypeFontGenerator.FreeTypeFontParameter parameter = new FreeTypeFontGenerator.FreeTypeFontParameter();
+        parameter.size = size;
+        parameter.characters = characters;
+        parameter.packer = packer;
+        // 增量模式：生成器与图集保持存活，未声明的字符在第一次绘制时光栅化到同一图集
+        parameter.incremental = true;
+        BitmapFont font = generator.generateFont(parameter);
+
+        try {
+            writeCache(key, font.getData(), packer, characters);
+        } catch (GdxRuntimeException e) {
+            // 缓存写入失败（例如只读文件系统）不影响使用，下次仍走冷启动
+            Gdx.app.error("FontService", "Failed to write font cache: " + key, e);
+        }
+
+        Entry entry = new Entry(key, font);
+        entry.generator = generator;
+        entry.generatedData = (FreeTypeFontGenerator.FreeTypeBitmapFontData) font.getData();
+        return entry;
+    }
+
+    /**
+     * 热启动：读取磁盘缓存，缓存不存在或不完整时返回 null
+     */
+    private Entry loadFromCache(String key, String fontFile, int size) {
+        FileHandle fntFile = Gdx.files.local(CACHE_DIR + key + ".fnt");
+        if (!fntFile.exists()) {
+            return null;
+        }
+        try {
+            CachedFontData data = new CachedFontData(fntFile);
+            for (String imagePath : data.imagePaths) {
+                if (!Gdx.files.local(imagePath).exists()) {
+                    return null;
+                }
+            }
+            BitmapFont font = new BitmapFont(data, (Array<TextureRegion>) null, true);
+            LazyGlyphs lazyGlyphs = new LazyGlyphs(fontFile, size, font);
+            data.lazyGlyphs = lazyGlyphs;
+
+            Entry entry = new Entry(key, font);
+            entry.lazyGlyphs = lazyGlyphs;
+            return entry;
+        } catch (GdxRuntimeException e) {
+            // 缓存损坏：忽略并重新生成（新的缓存会覆盖旧文件）
+            Gdx.app.error("FontService", "Invalid font cache: " + key, e);
+            return null;
+        }
+    }
+
+    /**
+     * 将字体写成 BMFont 文本格式（.fnt + 每页一个 png）
+     *
+     * 说明：
+     * - glyph 的 yoffset 需要换算回 BMFont 的约定（从行顶向下的偏移）
+     * - 额外写入 metrics 行，读取时直接覆盖 ascent/descent 等度量，保证与 FreeType 生成的结果完全一致
+     */
+    private void writeCache(String key, BitmapFont.BitmapFontData data, PixmapPacker packer, String characters) {
+        FileHandle dir = Gdx.files.local(CACHE_DIR);
+        dir.mkdirs();
+
+        Array<PixmapPacker.Page> pages = packer.getPages();
+        for (int i = 0; i < pages.size; i++) {
+            PixmapIO.writePNG(dir.child(key + "_" + i + ".png"), pages.get(i).getPixmap());
+        }
+
+        Array<BitmapFont.Glyph> glyphs = new Array<>();
+        if (data.missingGlyph != null) {
+            glyphs.add(data.missingGlyph);
+        }
+        for (int i = 0; i < characters.length(); i++) {
+            char ch = characters.charAt(i);
+            BitmapFont.Glyph glyph = data.getGlyph(ch);
+            if (glyph != null && glyph.id == ch) {
+                glyphs.add(glyph);
+            }
+        }
+
+        StringBuilder fnt = new StringBuilder(glyphs.size * 96);
+        fnt.append("info face=\"").append(key).append("\" size=0 bold=0 italic=0 charset=\"\" unicode=1 stretchH=100")
+                .append(" smooth=1 aa=1 padding=").append((int) data.padTop).append(',').append((int) data.padRight)
+                .append(',').append((int) data.padBottom).append(',').append((int) data.padLeft).append(" spacing=1,1\n");
+        fnt.append("common lineHeight=").append(Math.round(data.lineHeight))
+                .append(" base=").append(Math.round(data.capHeight + Math.abs(data.ascent)))
+                .append(" scaleW=").append(PAGE_SIZE).append(" scaleH=").append(PAGE_SIZE)
+                .append(" pages=").append(pages.size).append(" packed=0\n");
+        for (int i = 0; i < pages.size; i++) {
+            fnt.append("page id=").append(i).append(" file=\"").append(key).append('_').append(i).append(".png\"\n");
+        }
+        fnt.append("chars count=").append(glyphs.size).append('\n');
+        for (BitmapFont.Glyph glyph : glyphs) {
+            fnt.append("char id=").append(glyph.id)
+                    .append(" x=").append(glyph.srcX)
+                    .append(" y=").append(glyph.srcY)
+                    .append(" width=").append(glyph.width)
+                    .append(" height=").append(glyph.height)
+                    .append(" xoffset=").append(glyph.xoffset)
+                    .append(" yoffset=").append(-(glyph.yoffset + glyph.height))
+                    .append(" xadvance=").append(glyph.xadvance)
+                    .append(" page=").append(glyph.page)
+                    .append(" chnl=0\n");
+        }
+
+        StringBuilder kernings = new StringBuilder();
+        int kerningCount = 0;
+        for (BitmapFont.Glyph first : glyphs) {
+            for (BitmapFont.Glyph second : glyphs) {
+                int amount = first.getKerning((char) second.id);
+                if (amount != 0) {
+                    kernings.append("kerning first=").append(first.id)
+                            .append(" second=").append(second.id)
+                            .append(" amount=").append(amount).append('\n');
+                    kerningCount++;
+                }
+            }
+        }
+        fnt.append("kernings count=").append(kerningCount).append('\n');
+        fnt.append(kernings);
+
+        fnt.append("metrics ascent=").append(data.ascent)
+                .append(" descent=").append(data.descent)
+                .append(" down=").append(data.down)
+                .append(" capHeight=").append(data.capHeight)
+                .append(" lineHeight=").append(data.lineHeight)
+                .append(" spaceXAdvance=").append(data.spaceXadvance)
+                .append(" xHeight=").append(data.xHeight).append('\n');
+
+        dir.child(key + ".fnt").writeString(fnt.toString(), false, "UTF-8");
+    }
+
+    /**
+     * 字符集按码点去重并排序，保证相同字符集（顺序不同）得到相同的缓存键
+     * （按码点而不是 char 排序，扩展 B 区等增补字符的代理对不会被拆开）
+     */
+    private static String normalizeCharacters(String characters) {
+        int[] codePoints = characters.codePoints().sorted().distinct().toArray();
+        return new String(codePoints, 0, codePoints.length);
+    }
+
+    private String cacheKey(FileHandle fontHandle, int size, String normalizedCharacters) {
+        int hash = (normalizedCharacters + '|' + fontHandle.path() + '|' + fontChecksum(fontHandle)).hashCode();
+        return fontHandle.nameWithoutExtension() + "-" + size + "-" + Integer.toHexString(hash);
+    }
+
+    /**
+     * 字体文件内容的 CRC32（替换为同样大小的另一个字体文件时也能识别出来）
+     */
+    private long fontChecksum(FileHandle fontHandle) {
+        Long cached = fontChecksums.get(fontHandle.path());
+        if (cached != null) {
+            return cached;
+        }
+        CRC32 crc = new CRC32();
+        byte[] buffer = new byte[64 * 1024];
+        InputStream input = fontHandle.read();
+        try {
+            int read;
+            while ((read = input.read(buffer)) != -1) {
+                crc.update(buffer, 0, read);
+            }
+        } catch (IOException e) {
+            throw new GdxRuntimeException("Error reading font file: " + fontHandle, e);
+        } finally {
+            StreamUtils.closeQuietly(input);
+        }
+        long checksum = crc.getValue();
+        fontChecksums.put(fontHandle.path(), checksum);
+        return checksum;
+    }
+
+    /**
+     * 释放所有字体（通常在 Game.dispose 中调用），之后 getInstance 会重新创建实例
+     */
+    @Override
+    public void dispose() {
+        for (Entry entry : entries.values()) {
+            entry.dispose();
+        }
+        entries.clear();
+        entriesByFont.clear();
+        fontChecksums.clear();
+        if (instance == this) {
+            instance = null;
+        }
+    }
+
+    /**
+     * 内存中的一份字体
+     */
+    private static class Entry {
+        final String key;
+        final BitmapFont font;
+        int refCount;
+
+        /** 冷启动生成的字体：生成器与增量数据需要随字体一起释放 */
+        FreeTypeFontGenerator generator;
+        FreeTypeFontGenerator.FreeTypeBitmapFontData generatedData;
+
+        /** 热启动加载的字体：按需光栅化未缓存的字符 */
+        LazyGlyphs lazyGlyphs;
+
+        Entry(String key, BitmapFont font) {
+            this.key = key;
+            this.font = font;
+        }
+
+        void dispose() {
+            font.dispose();
+            if (generatedData != null) {
+                // 增量模式下数据持有图集（PixmapPacker），需要单独释放
+                generatedData.dispose();
+            }
+            if (generator != null) {
+                generator.dispose();
+            }
+            if (lazyGlyphs != null) {
+                lazyGlyphs.dispose();
+            }
+        }
+    }
+
+    /**
+     * 从磁盘缓存读取的字体数据：缓存里没有的字符交给 LazyGlyphs 按需生成
+     */
+    private static class CachedFontData extends BitmapFont.BitmapFontData {
+        LazyGlyphs lazyGlyphs;
+
+        CachedFontData(FileHandle fontFile) {
+            super(fontFile, false);
+        }
+
+        @Override
+        public BitmapFont.Glyph getGlyph(char ch) {
+            BitmapFont.Glyph glyph = super.getGlyph(ch);
+            if (glyph == null && lazyGlyphs != null) {
+                glyph = lazyGlyphs.rasterize(this, ch);
+            }
+            return glyph;
+        }
+    }
+
+    /**
+     * 热启动字体的增量字形：
+     * - 第一次遇到缓存外的字符时才创建 FreeType 生成器（大多数情况下永远不会创建）
+     * - 新字形光栅化到独立的图集页，并追加到字体的 regions 末尾（页号整体偏移）
+     */
+    private static class LazyGlyphs implements Disposable {
+        private final String fontFile;
+        private final int size;
+        private final BitmapFont font;
+        /** 缓存中已有的图集页数量（增量页的页号从这里开始） */
+        private final int basePageCount;
+        /** 字体文件中不存在的字符，避免每帧重复尝试 */
+        private final IntSet absent = new IntSet();
+
+        private FreeTypeFontGenerator generator;
+        private FreeTypeFontGenerator.FreeTypeBitmapFontData incrementalData;
+        private PixmapPacker packer;
+
+        LazyGlyphs(String fontFile, int size, BitmapFont font) {
+            this.fontFile = fontFile;
+            this.size = size;
+            this.font = font;
+            this.basePageCount = font.getRegions().size;
+        }
+
+        BitmapFont.Glyph rasterize(BitmapFont.BitmapFontData target, char ch) {
+            if (absent.contains(ch)) {
+                return null;
+            }
+            if (generator == null) {
+                generator = new FreeTypeFontGenerator(Gdx.files.internal(fontFile));
+                packer = new PixmapPacker(PAGE_SIZE / 2, PAGE_SIZE / 2, Pixmap.Format.RGBA8888, 1, false);
+                FreeTypeFontGenerator.FreeTypeFontParameter parameter = new FreeTypeFontGenerator.FreeTypeFontParameter();
+                parameter.size = size;
+                parameter.characters = "";
+                parameter.packer = packer;
+                parameter.incremental = true;
+                incrementalData = generator.generateData(parameter);
+            }
+
+            BitmapFont.Glyph source = incrementalData.getGlyph(ch);
+            if (source == null || source.id != ch) {
+                absent.add(ch);
+                return null;
+            }
+
+            // 上传新字形所在的图集页，并把新增的页追加到字体的 regions
+            packer.updateTextureRegions(incrementalData.regions, Texture.TextureFilter.Nearest,
+                    Texture.TextureFilter.Nearest, false);
+            Array<TextureRegion> regions = font.getRegions();
+            while (regions.size < basePageCount + incrementalData.regions.size) {
+                regions.add(incrementalData.regions.get(regions.size - basePageCount));
+            }
+
+            BitmapFont.Glyph glyph = new BitmapFont.Glyph();
+            glyph.id = source.id;
+            glyph.srcX = source.srcX;
+            glyph.srcY = source.srcY;
+            glyph.width = source.width;
+            glyph.height = source.height;
+            glyph.u = source.u;
+            glyph.v = source.v;
+            glyph.u2 = source.u2;
+            glyph.v2 = source.v2;
+            glyph.xoffset = source.xoffset;
+            glyph.yoffset = source.yoffset;
+            glyph.xadvance = source.xadvance;
+            glyph.kerning = source.kerning;
+            glyph.fixedWidth = source.fixedWidth;
+            glyph.page = basePageCount + source.page;
+            target.setGlyph(ch, glyph);
+            return glyph;
+        }
+
+        @Override
+        public void dispose() {
+            if (incrementalData != null) {
+                // 增量数据持有 packer，一并释放图集页
+                incrementalData.dispose();
+            }
+            if (generator != null) {
+                generator.dispose();
+            }
+        }
+    }
+}
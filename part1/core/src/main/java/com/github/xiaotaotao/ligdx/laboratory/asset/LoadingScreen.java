@@ -0,0 +1,134 @@
+package com.github.xiaotaotao.ligdx.laboratory.asset;
+
+import com.badlogic.gdx.Game;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.Screen;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.OrthographicCamera;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+
+/**
+ * 轻量加载界面
+ *
+ * 工作流程：
+ * 1. show() 时把目标 Screen 声明的资源交给 AssetService 排队
+ * 2. 每帧调用 AssetService.update()，在帧预算内完成 GL 上传，同时绘制进度条
+ * 3. 全部加载完成后切换到目标 Screen，并释放自身资源
+ *
+ * 注意：加载界面本身只使用一个 1x1 纹理和 LibGDX 自带字体，不依赖任何待加载的资源
+ */
+public class LoadingScreen implements Screen {
+
+    private static final float BAR_WIDTH = 400f;
+    private static final float BAR_HEIGHT = 16f;
+
+    private final Game game;
+    private final Screen target;
+    private final AssetDependent targetAssets;
+
+    private SpriteBatch batch;
+    private BitmapFont font;
+    private Texture whiteTexture;
+    private OrthographicCamera camera;
+
+    /** 平滑显示用的进度（避免进度条跳动） */
+    private float displayedProgress;
+
+    /**
+     * @param game   用于切换 Screen 的 Game
+     * @param target 加载完成后要显示的 Screen（同时声明了资源依赖）
+     */
+    public <T extends Screen & AssetDependent> LoadingScreen(Game game, T target) {
+        this.game = game;
+        this.target = target;
+        this.targetAssets = target;
+    }
+
+    @Override
+    public void show() {
+        camera = new OrthographicCamera();
+        camera.setToOrtho(false, Gdx.graphics.getWidth(), Gdx.graphics.getHeight());
+        batch = new SpriteBatch();
+        font = new BitmapFont();
+
+        Pixmap pixmap = new Pixmap(1, 1, Pixmap.Format.RGBA8888);
+        pixmap.setColor(1, 1, 1, 1);
+        pixmap.fill();
+        whiteTexture = new Texture(pixmap);
+        pixmap.dispose();
+
+        AssetService.getInstance().queue(targetAssets);
+    }
+
+    @Override
+    public void render(float delta) {
+        AssetService assets = AssetService.getInstance();
+        boolean finished = assets.update() && assets.isLoaded(targetAssets);
+
+        displayedProgress += (assets.getProgress() - displayedProgress) * Math.min(1f, delta * 10f);
+        if (finished) {
+            displayedProgress = 1f;
+        }
+
+        Gdx.gl.glClearColor(0.05f, 0.05f, 0.08f, 1f);
+        Gdx.gl.glClear(GL20.GL_COLOR_BUFFER_BIT);
+
+        float x = (camera.viewportWidth - BAR_WIDTH) / 2f;
+        float y = camera.viewportHeight / 2f - BAR_HEIGHT / 2f;
+
+        camera.update();
+        batch.setProjectionMatrix(camera.combined);
+        batch.begin();
+        // 进度条底色
+        batch.setColor(0.2f, 0.2f, 0.25f, 1f);
+        batch.draw(whiteTexture, x, y, BAR_WIDTH, BAR_HEIGHT);
+        // 进度条前景
+        batch.setColor(0.3f, 0.8f, 0.4f, 1f);
+        batch.draw(whiteTexture, x, y, BAR_WIDTH * displayedProgress, BAR_HEIGHT);
+        batch.setColor(1f, 1f, 1f, 1f);
+        font.draw(batch, "Loading... " + (int) (displayedProgress * 100) + "%", x, y + BAR_HEIGHT + 24f);
+        batch.end();
+
+        if (finished) {
+            game.setScreen(target);
+            dispose();
+        }
+    }
+
+    @Override
+    public void resize(int width, int height) {
+        if (width <= 0 || height <= 0) return;
+        camera.setToOrtho(false, width, height);
+    }
+
+    @Override
+    public void pause() {
+    }
+
+    @Override
+    public void resume() {
+    }
+
+    @Override
+    public void hide() {
+    }
+
+    @Override
+    public void dispose() {
+        if (batch != null) {
+            batch.dispose();
+            batch = null;
+        }
+        if (font != null) {
+            font.dispose();
+            font = null;
+        }
+        if (whiteTexture != null) {
+            whiteTexture.dispose();
+            whiteTexture = null;
+        }
+    }
+}
@@ -0,0 +1,222 @@
+package com.github.xiaotaotao.ligdx.laboratory.asset;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.PixmapPacker;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.ObjectMap;
+
+/**
+ * 运行时纹理图集：把精灵图和代码生成的 Pixmap 合并到少量纹理页中
+ *
+ * 设计说明：
+ * - SpriteBatch 每次切换纹理都会 flush 一次（renderCalls + 1），
+ *   把同一场景用到的小图合并到同一页后，整帧通常只需要一次 draw call
+ * - 内部使用 PixmapPacker：add() 只是把像素复制到页 Pixmap 中，build() 时才统一上传 GL 纹理
+ * - 可以把 LibGDX 自带字体的贴图也放进图集（addDefaultFont），文字与精灵就不会互相打断批次
+ * - packed=false 时每张图各自创建一个纹理（即合并前的做法），用于对比 renderCalls
+ *
+ * 使用方式：
+ * <pre>
+ * RuntimeAtlas atlas = new RuntimeAtlas();
+ * atlas.add("player", pixmap);
+ * atlas.addDefaultFont();
+ * atlas.build();
+ * TextureRegion player = atlas.findRegion("player");
+ * BitmapFont font = atlas.newDefaultFont();
+ * </pre>
+ *
+ * 注意：add() 不会接管传入的 Pixmap，调用方仍需自行 dispose
+ */
+public class RuntimeAtlas implements Disposable {
+
+    /** LibGDX 自带字体（与 new BitmapFont() 使用的是同一份） */
+    private static final String DEFAULT_FONT_FILE = "com/badlogic/gdx/utils/lsans-15.fnt";
+    private static final String DEFAULT_FONT_IMAGE = "com/badlogic/gdx/utils/lsans-15.png";
+
+    /** 默认字体在图集中的名字 */
+    public static final String DEFAULT_FONT = "__default_font";
+
+    /** 默认页大小（像素） */
+    private static final int DEFAULT_PAGE_SIZE = 1024;
+
+    private final boolean packed;
+    private final PixmapPacker packer;
+    private TextureAtlas atlas;
+
+    /** 未合并模式：每张图一个纹理 */
+    private final ObjectMap<String, TextureRegion> looseRegions = new ObjectMap<>();
+    private final Array<Texture> looseTextures = new Array<>();
+
+    private boolean built;
+
+    /**
+     * 创建合并模式的图集（页大小 1024x1024）
+     */
+    public RuntimeAtlas() {
+        this(DEFAULT_PAGE_SIZE, true);
+    }
+
+    /**
+     * @param pageSize 页大小（像素），单张图片不能超过页大小
+     * @param packed   true=合并到图集页，false=每张图单独一个纹理（对比用）
+     */
+    public RuntimeAtlas(int pageSize, boolean packed) {
+        this.packed = packed;
+        // padding=2 且复制边缘像素，避免相邻图片在缩放 / 亚像素位置绘制时串色
+        this.packer = packed ? new PixmapPacker(pageSize, pageSize, Pixmap.Format.RGBA8888, 2, true) : null;
+    }
+
+    /**
+     * 添加一张图片（像素会被复制，调用方保留 Pixmap 的所有权）
+     *
+     * @param name   名称（同一图集内唯一）
+     * @param pixmap 图片
+     * @return this，便于链式调用
+     */
+    public RuntimeAtlas add(String name, Pixmap pixmap) {
+        if (built) {
+            throw new GdxRuntimeException("RuntimeAtlas already built, cannot add: " + name);
+        }
+        if (packed) {
+            packer.pack(name, pixmap);
+        } else {
+            Texture texture = new Texture(pixmap);
+            texture.setFilter(Texture.TextureFilter.Nearest, Texture.TextureFilter.Nearest);
+            looseTextures.add(texture);
+            looseRegions.put(name, new TextureRegion(texture));
+        }
+        return this;
+    }
+
+    /**
+     * 从文件添加一张图片（读取后立即释放临时 Pixmap）
+     *
+     * @param name 名称
+     * @param file 图片文件
+     * @return this
+     */
+    public RuntimeAtlas add(String name, FileHandle file) {
+        Pixmap pixmap = new Pixmap(file);
+        try {
+            return add(name, pixmap);
+        } finally {
+            pixmap.dispose();
+        }
+    }
+
+    /**
+     * 创建一个纯色矩形并添加到图集（演示场景里大量使用的"颜色块"）
+     *
+     * @param name   名称
+     * @param width  宽度
+     * @param height 高度
+     * @param r      红
+     * @param g      绿
+     * @param b      蓝
+     * @param a      透明度
+     * @return this
+     */
+    public RuntimeAtlas addColor(String name, int width, int height, float r, float g, float b, float a) {
+        Pixmap pixmap = new Pixmap(width, height, Pixmap.Format.RGBA8888);
+        pixmap.setColor(r, g, b, a);
+        pixmap.fill();
+        try {
+            return add(name, pixmap);
+        } finally {
+            pixmap.dispose();
+        }
+    }
+
+    /**
+     * 把 LibGDX 自带字体的贴图加入图集，build() 之后用 {@link #newDefaultFont()} 创建字体
+     *
+     * @return this
+     */
+    public RuntimeAtlas addDefaultFont() {
+        return add(DEFAULT_FONT, Gdx.files.classpath(DEFAULT_FONT_IMAGE));
+    }
+
+    /**
+     * 上传纹理页（必须在渲染线程调用），之后才能 findRegion
+     */
+    public void build() {
+        if (built) {
+            return;
+        }
+        if (packed) {
+            atlas = new TextureAtlas();
+            // 不解析 "name_1" 形式的序号，名字原样保留
+            packer.updateTextureAtlas(atlas, Texture.TextureFilter.Nearest, Texture.TextureFilter.Nearest, false, false);
+        }
+        built = true;
+    }
+
+    /**
+     * 查找图片对应的区域
+     *
+     * @param name 名称
+     * @return 区域，不存在时抛出异常（拼错名字应该尽早发现）
+     */
+    public TextureRegion findRegion(String name) {
+        if (!built) {
+            throw new GdxRuntimeException("RuntimeAtlas not built yet");
+        }
+        TextureRegion region = packed ? atlas.findRegion(name) : looseRegions.get(name);
+        if (region == null) {
+            throw new GdxRuntimeException("Region not found in RuntimeAtlas: " + name);
+        }
+        return region;
+    }
+
+    /**
+     * 使用图集中的贴图创建 LibGDX 自带字体（需要先 addDefaultFont）
+     *
+     * 注意：返回的字体不拥有纹理，dispose 字体不会影响图集
+     *
+     * @return 新字体实例
+     */
+    public BitmapFont newDefaultFont() {
+        return new BitmapFont(Gdx.files.classpath(DEFAULT_FONT_FILE), findRegion(DEFAULT_FONT));
+    }
+
+    /**
+     * 纹理数量（合并模式下为页数）
+     *
+     * @return 纹理数量
+     */
+    public int getTextureCount() {
+        if (packed) {
+            return built ? atlas.getTextures().size : packer.getPages().size;
+        }
+        return looseTextures.size;
+    }
+
+    public boolean isPacked() {
+        return packed;
+    }
+
+    @Override
+    public void dispose() {
+        if (atlas != null) {
+            // 纹理释放时会一并释放页 Pixmap
+            atlas.dispose();
+            atlas = null;
+        }
+        if (packer != null) {
+            packer.dispose();
+        }
+        for (Texture texture : looseTextures) {
+            texture.dispose();
+        }
+        looseTextures.clear();
+        looseRegions.clear();
+    }
+}
@@ -5,15 +5,16 @@ import com.badlogic.gdx.Input;
 import com.badlogic.gdx.Screen;
 import com.badlogic.gdx.graphics.GL20;
 import com.badlogic.gdx.graphics.OrthographicCamera;
-import com.badlogic.gdx.graphics.Pixmap;
-import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.BitmapFont;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.math.MathUtils;
 import com.badlogic.gdx.math.Vector2;
 import com.badlogic.gdx.utils.Array;
 import com.badlogic.gdx.utils.viewport.FitViewport;
 import com.badlogic.gdx.utils.viewport.Viewport;
+import com.github.xiaotaotao.ligdx.laboratory.asset.RuntimeAtlas;
+import com.github.xiaotaotao.ligdx.laboratory.profiling.FrameProfiler;
 
 import java.util.List;
 
@@ -32,6 +33,8 @@ import java.util.List;
  * - J：斩击（矩形范围，正前方）
  * - K：挥击（扇形范围，120度）
  * - R：重置场景
+ * - F2：切换"合并图集 / 独立纹理"，对比 SpriteBatch 的 renderCalls
+ * - F3：显示/隐藏帧统计叠加层，F4：导出帧统计 CSV
  */
 public class AttackDemoScreen implements Screen {
     
@@ -43,10 +46,23 @@ public class AttackDemoScreen implements Screen {
     private OrthographicCamera camera;
     private Viewport viewport;
     
-    /** 简单的纹理（用于绘制角色和敌人） */
-    private Texture playerTexture;
-    private Texture enemyTexture;
-    private Texture rangeTexture;
+    /** 运行时图集：合并模式（角色、敌人、范围、字体在同一页）与独立纹理模式（对比用） */
+    private RuntimeAtlas packedAtlas;
+    private RuntimeAtlas looseAtlas;
+    private RuntimeAtlas currentAtlas;
+    
+    /** 当前图集中的区域（用于绘制角色和敌人） */
+    private TextureRegion playerRegion;
+    private TextureRegion enemyRegion;
+    private TextureRegion rangeRegion;
+    
+    /** 上一帧 SpriteBatch 的 render call 次数 */
+    private int lastRenderCalls;
+    /** 切换图集前一帧的 render call 次数（-1 表示没有待输出的对比结果） */
+    private int renderCallsBeforeSwitch = -1;
+    
+    /** 帧统计 */
+    private FrameProfiler profiler;
     
     /** 玩家角色 */
     private KnifemanCharacter player;
@@ -72,34 +88,45 @@ public class AttackDemoScreen implements Screen {
         camera.position.set(VIRTUAL_WIDTH / 2f, VIRTUAL_HEIGHT / 2f, 0);
         
         batch = new SpriteBatch();
-        font = new BitmapFont();
+        profiler = new FrameProfiler("AttackDemo");
         
         createTextures();
         createCharacters();
     }
     
     /**
-     * 创建简单的纹理（颜色块）
+     * 创建简单的纹理（颜色块），同时构建合并 / 独立两种图集
      */
     private void createTextures() {
+        packedAtlas = createAtlas(true);
+        looseAtlas = createAtlas(false);
+        useAtlas(packedAtlas);
+    }
+    
+    private RuntimeAtlas createAtlas(boolean packed) {
+        RuntimeAtlas atlas = new RuntimeAtlas(512, packed);
         // 玩家纹理（绿色）
-        Pixmap pixmap = new Pixmap(32, 32, Pixmap.Format.RGBA8888);
-        pixmap.setColor(0.2f, 1f, 0.2f, 1f);
-        pixmap.fill();
-        playerTexture = new Texture(pixmap);
-        
+        atlas.addColor("player", 32, 32, 0.2f, 1f, 0.2f, 1f);
         // 敌人纹理（红色）
-        pixmap.setColor(1f, 0.2f, 0.2f, 1f);
-        pixmap.fill();
-        enemyTexture = new Texture(pixmap);
-        
+        atlas.addColor("enemy", 32, 32, 1f, 0.2f, 0.2f, 1f);
         // 攻击范围纹理（半透明黄色）
-        pixmap = new Pixmap(1, 1, Pixmap.Format.RGBA8888);
-        pixmap.setColor(1f, 1f, 0f, 0.5f);
-        pixmap.fill();
-        rangeTexture = new Texture(pixmap);
-        
-        pixmap.dispose();
+        atlas.addColor("range", 1, 1, 1f, 1f, 0f, 0.5f);
+        // 字体贴图也放进图集，文字不再打断批次
+        atlas.addDefaultFont();
+        atlas.build();
+        return atlas;
+    }
+    
+    /**
+     * 切换当前使用的图集（字体需要跟随图集重新创建）
+     */
+    private void useAtlas(RuntimeAtlas atlas) {
+        currentAtlas = atlas;
+        playerRegion = atlas.findRegion("player");
+        enemyRegion = atlas.findRegion("enemy");
+        rangeRegion = atlas.findRegion("range");
+        if (font != null) font.dispose();
+        font = atlas.newDefaultFont();
     }
     
     /**
@@ -157,9 +184,12 @@ public class AttackDemoScreen implements Screen {
     
     @Override
     public void render(float delta) {
+        profiler.beginUpdate();
         handleInput(delta);
         update(delta);
+        profiler.endUpdate();
         
+        profiler.beginRender();
         Gdx.gl.glClearColor(0.1f, 0.1f, 0.15f, 1f);
         Gdx.gl.glClear(GL20.GL_COLOR_BUFFER_BIT);
         
@@ -171,6 +201,16 @@ public class AttackDemoScreen implements Screen {
         drawAttackRange();
         drawUI();
         batch.end();
+        
+        lastRenderCalls = batch.renderCalls;
+        if (renderCallsBeforeSwitch >= 0) {
+            Gdx.app.log("AttackDemoScreen", "renderCalls " + renderCallsBeforeSwitch + " -> " + lastRenderCalls
+                + " (" + (currentAtlas.isPacked() ? "packed atlas" : "separate textures") + ")");
+            renderCallsBeforeSwitch = -1;
+        }
+        profiler.addRenderCalls(lastRenderCalls);
+        profiler.endRender();
+        profiler.endFrame();
     }
     
     /**
@@ -224,6 +264,12 @@ public class AttackDemoScreen implements Screen {
         if (Gdx.input.isKeyJustPressed(Input.Keys.R)) {
             resetScene();
         }
+        
+        // 切换图集（下一帧输出切换前后的 renderCalls）
+        if (Gdx.input.isKeyJustPressed(Input.Keys.F2)) {
+            renderCallsBeforeSwitch = lastRenderCalls;
+            useAtlas(currentAtlas == packedAtlas ? looseAtlas : packedAtlas);
+        }
     }
     
     /**
@@ -281,14 +327,14 @@ public class AttackDemoScreen implements Screen {
         // 绘制玩家
         Vector2 playerPos = player.getPixelPosition();
         batch.setColor(0.2f, 1f, 0.2f, 1f);
-        batch.draw(playerTexture, playerPos.x - 16, playerPos.y - 16, 32, 32);
+        batch.draw(playerRegion, playerPos.x - 16, playerPos.y - 16, 32, 32);
         
         // 绘制敌人
         batch.setColor(1f, 0.2f, 0.2f, 1f);
         for (SimpleEnemy enemy : enemies) {
             if (!enemy.isDead()) {
                 Vector2 enemyPos = enemy.getPixelPosition();
-                batch.draw(enemyTexture, enemyPos.x - 16, enemyPos.y - 16, 32, 32);
+                batch.draw(enemyRegion, enemyPos.x - 16, enemyPos.y - 16, 32, 32);
             }
         }
         
@@ -323,7 +369,7 @@ public class AttackDemoScreen implements Screen {
                     float t = j / (float) pointCount;
                     float x = center.x + dx * t;
                     float y = center.y + dy * t;
-                    batch.draw(rangeTexture, x - 2, y - 2, 4, 4);
+                    batch.draw(rangeRegion, x - 2, y - 2, 4, 4);
                 }
             }
         }
@@ -338,7 +384,7 @@ public class AttackDemoScreen implements Screen {
                 // 简单的线性插值（实际应该是圆弧，这里简化）
                 float x = center.x + (left.x - center.x) * (1 - t) + (right.x - center.x) * t;
                 float y = center.y + (left.y - center.y) * (1 - t) + (right.y - center.y) * t;
-                batch.draw(rangeTexture, x - 2, y - 2, 4, 4);
+                batch.draw(rangeRegion, x - 2, y - 2, 4, 4);
             }
         }
         
@@ -377,6 +423,10 @@ public class AttackDemoScreen implements Screen {
             if (!enemy.isDead()) aliveEnemies++;
         }
         font.draw(batch, "Enemies: " + aliveEnemies, 20, 20);
+        
+        // 批次统计（上一帧）
+        font.draw(batch, "Render calls: " + lastRenderCalls + "  Textures: " + currentAtlas.getTextureCount()
+            + (currentAtlas.isPacked() ? " (packed)" : " (separate)") + "  F2: Toggle", 20, 60);
     }
     
     /**
@@ -414,9 +464,9 @@ public class AttackDemoScreen implements Screen {
     public void dispose() {
         if (batch != null) batch.dispose();
         if (font != null) font.dispose();
-        if (playerTexture != null) playerTexture.dispose();
-        if (enemyTexture != null) enemyTexture.dispose();
-        if (rangeTexture != null) rangeTexture.dispose();
+        if (packedAtlas != null) packedAtlas.dispose();
+        if (looseAtlas != null) looseAtlas.dispose();
+        if (profiler != null) profiler.dispose();
         if (player != null) player.dispose();
         for (SimpleEnemy enemy : enemies) {
             enemy.dispose();
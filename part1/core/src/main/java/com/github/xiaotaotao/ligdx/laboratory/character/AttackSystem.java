@@ -35,59 +35,142 @@ public interface AttackSystem {
      * - 指定 hitFrameIndex 为打击帧，只在该帧返回 shouldHitOnCurrentFrame = true
      * - attackInterval = 每次普攻总时长（秒）
      * - 使用 attackSystemListener 通知命中事件（供产生伤害 / 播放音效）
+     *
+     * 帧数据时间线：
+     * - 攻击由 {@link FrameTimeline} 描述，可以有多个打击窗口、可取消点、音效等事件
+     * - update 发出本次跨过的全部事件（按时间顺序），即使一次 delta 跨过了打击帧甚至整个攻击，
+     *   命中也不会丢失；回调里的 lateBy 是事件实际发出时已经迟到的时间
+     * - 越过 CANCEL 事件后，新的攻击请求会立即重新开始攻击（连击取消）；
+     *   在事件回调里重新开始时，新攻击从该事件的时间算起，本帧剩余的时间计入新攻击
      */
     class BasicMeleeAttackSystem implements AttackSystem {
 
         public interface Listener {
-            /** 当 shouldHitOnCurrentFrame() 第一次为 true 时回调一次，用于真正执行伤害判定 */
+            /** 越过打击判定事件时回调一次（每个 HIT 事件一次），用于真正执行伤害判定 */
             void onHitWindow();
+
+            /**
+             * 越过任意时间线事件时回调（包括 HIT，在 onHitWindow 之前），用于音效、特效等
+             * @param lateBy 事件实际发出时已经超过事件时间多少秒
+             */
+            default void onTimelineEvent(FrameTimeline.Event event, float lateBy) {
+            }
         }
 
         private final int frameCount;
         private final int hitFrameIndex;
         private final float attackInterval;
+        private final FrameTimeline timeline;
         private final Listener listener;
 
         private float elapsed;      // 当前攻击已经经过的时间
         private boolean attacking;
-        private boolean hitEmitted; // 本次攻击是否已经触发过命中窗口
+        private int eventCursor;    // 下一个待发出的时间线事件
+        private boolean cancelable; // 已越过可取消点
 
+        /**
+         * 单个打击帧的普攻：打击事件位于第 hitFrameIndex 帧开始的时间
+         */
         public BasicMeleeAttackSystem(int frameCount,
                                       int hitFrameIndex,
                                       float attackInterval,
                                       Listener listener) {
+            this(frameCount, hitFrameIndex, singleHitTimeline(frameCount, hitFrameIndex, attackInterval), listener);
+        }
+
+        private static FrameTimeline singleHitTimeline(int frameCount, int hitFrameIndex, float attackInterval) {
+            FrameTimeline timeline = new FrameTimeline(attackInterval);
+            // 打击帧超出动画范围或攻击间隔不大于 0 时，和以前一样永远不会命中
+            if (attackInterval > 0f && hitFrameIndex >= 0 && hitFrameIndex < frameCount) {
+                timeline.add(FrameTimeline.frameTime(hitFrameIndex, frameCount, attackInterval), FrameTimeline.HIT, 0);
+            }
+            return timeline;
+        }
+
+        /**
+         * 使用自定义帧数据时间线
+         * @param frameCount    动画帧数（只影响 getCurrentFrameIndex）
+         * @param hitFrameIndex 渲染层高亮的打击帧（只影响 shouldHitOnCurrentFrame）
+         * @param timeline      攻击时间线，总时长即攻击间隔
+         */
+        public BasicMeleeAttackSystem(int frameCount,
+                                      int hitFrameIndex,
+                                      FrameTimeline timeline,
+                                      Listener listener) {
             this.frameCount = frameCount;
             this.hitFrameIndex = hitFrameIndex;
-            this.attackInterval = attackInterval;
+            this.attackInterval = timeline.getDuration();
+            this.timeline = timeline;
             this.listener = listener;
         }
 
         @Override
         public void requestAttack() {
-            if (attacking) {
-                // 简单实现：攻击过程中忽略新的请求（可扩展为队列 / 连击系统）
+            if (attacking && !cancelable) {
+                // 攻击过程中忽略新的请求（越过可取消点之后除外）
                 return;
             }
             attacking = true;
             elapsed = 0f;
-            hitEmitted = false;
+            eventCursor = 0;
+            cancelable = false;
         }
 
         @Override
         public void update(float deltaSeconds) {
             if (!attacking) return;
             elapsed += deltaSeconds;
-            if (elapsed >= attackInterval) {
+
+            // 发出本次跨过的全部事件；回调里可能重新开始攻击（游标随之归零）
+            while (attacking && eventCursor < timeline.size()) {
+                FrameTimeline.Event event = timeline.get(eventCursor);
+                if (event.time > elapsed) break;
+                eventCursor++;
+                float lateBy = elapsed - event.time;
+                dispatch(event, lateBy);
+                if (attacking && eventCursor == 0) {
+                    // 新攻击从该事件的时间开始，本帧剩余的时间继续推进新攻击
+                    elapsed = lateBy;
+                    // 时间为 0 的事件重新开始时时间不再前进：新攻击停在开头，本帧剩余时间丢弃，
+                    // 避免同一帧内无限重启，也避免新攻击不发出事件就直接结束
+                    if (event.time <= 0f) {
+                        elapsed = 0f;
+                        break;
+                    }
+                }
+            }
+
+            if (attacking && elapsed >= attackInterval) {
                 // 攻击结束
                 attacking = false;
                 elapsed = 0f;
-                hitEmitted = false;
-            } else if (!hitEmitted && shouldHitOnCurrentFrame() && listener != null) {
-                hitEmitted = true;
+                eventCursor = 0;
+                cancelable = false;
+            }
+        }
+
+        private void dispatch(FrameTimeline.Event event, float lateBy) {
+            if (event.type == FrameTimeline.CANCEL) {
+                cancelable = true;
+            }
+            if (listener == null) return;
+            listener.onTimelineEvent(event, lateBy);
+            if (event.type == FrameTimeline.HIT) {
                 listener.onHitWindow();
             }
         }
 
+        public FrameTimeline getTimeline() {
+            return timeline;
+        }
+
+        /**
+         * @return 当前攻击是否已越过可取消点
+         */
+        public boolean isCancelable() {
+            return attacking && cancelable;
+        }
+
         @Override
         public boolean isAttacking() {
             return attacking;
@@ -111,7 +194,8 @@ public interface AttackSystem {
         public void reset() {
             attacking = false;
             elapsed = 0f;
-            hitEmitted = false;
+            eventCursor = 0;
+            cancelable = false;
         }
     }
 }
@@ -1,18 +1,33 @@
 package com.github.xiaotaotao.ligdx.laboratory.character;
 
 import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Pool;
 
 /**
  * 属性系统接口：
  * - 管理 HP/MP/攻击/防御/攻速/移速 等基础属性
  * - 提供伤害/治疗等基础计算
  * - 通过监听器暴露属性变化（供 UI 飘字等使用）
+ *
+ * 设计说明：
+ * - 属性变化通知只传"哪些字段变了"的位掩码和只读视图，不再复制整份 Stats
+ * - 伤害结果来自对象池，伤害路径（请求对象由调用方复用时）不分配内存
+ * - 可以把一帧内的多次变化合并成一次通知（见 {@link BasicAttributeSystem#setCoalesceNotifications}）
+ * - buff / 装备加成通过 {@link StatModifiers} 挂在基础属性上，派生属性只在修改器版本变化时重算，
+ *   getStats() 始终直接返回派生属性字段
  */
 public interface AttributeSystem {
 
-    /** 当前属性快照（线程不安全，仅供游戏主线程读取） */
+    /** 当前属性快照（已计入修改器；线程不安全，仅供游戏主线程读取） */
     Stats getStats();
 
+    /**
+     * 每帧调用一次：推进修改器计时，修改器有变化时重算派生属性
+     * 多个角色共享同一个属性系统时只应调用一次
+     */
+    void update(float delta);
+
     /** 设置监听器，用于 UI、飘血数字等 */
     void setListener(Listener listener);
 
@@ -22,6 +37,12 @@ public interface AttributeSystem {
     /** 直接恢复生命（已做上限约束） */
     void heal(int amount);
 
+    /**
+     * 每帧结束时调用一次：发出合并的通知，并把本帧的伤害结果归还对象池
+     * 之后本帧 applyDamage 返回的 DamageResult 不能再使用
+     */
+    void endTick();
+
     /** 是否已经死亡（HP <= 0） */
     boolean isDead();
 
@@ -30,18 +51,57 @@ public interface AttributeSystem {
      * 实现里应保证：在属性变化后同步回调（同一帧），方便 UI 做飘血、数值更新。
      */
     interface Listener {
-        /** 任意基础属性变化回调（例如 HP/攻击力等） */
-        void onStatsChanged(Stats newStats);
+        /**
+         * 任意基础属性变化回调（例如 HP/攻击力等）
+         * @param stats       只读视图（指向实时数据，需要保留快照时自行复制需要的字段）
+         * @param changedMask 变化的字段，{@link Stats#HP} 等常量按位或
+         */
+        void onStatsChanged(StatsView stats, int changedMask);
 
-        /** 一次伤害结算完成（可在此触发飘字 UI：-20 / +10 等） */
+        /**
+         * 一次伤害结算完成（可在此触发飘字 UI：-20 / +10 等）
+         * @param result 池化对象，只在回调期间有效，需要保留时用 {@link DamageResult#set} 复制
+         */
         void onDamageResolved(DamageResult result);
     }
 
+    /**
+     * 属性只读视图（监听器拿到的是它，避免为每次通知复制 Stats）
+     */
+    interface StatsView {
+        int getMaxHp();
+
+        int getHp();
+
+        int getMaxMp();
+
+        int getMp();
+
+        int getAttack();
+
+        int getDefense();
+
+        float getAttackSpeed();
+
+        float getMoveSpeed();
+    }
+
     /**
      * HP/MP/攻击/防御/攻速/移速 等基础属性结构体。
      * 简化起见，这里全部用 int/float，可根据需要扩展。
      */
-    final class Stats {
+    final class Stats implements StatsView {
+        /** 字段位掩码（用于 {@link Listener#onStatsChanged} 的 changedMask） */
+        public static final int MAX_HP = 1;
+        public static final int HP = 1 << 1;
+        public static final int MAX_MP = 1 << 2;
+        public static final int MP = 1 << 3;
+        public static final int ATTACK = 1 << 4;
+        public static final int DEFENSE = 1 << 5;
+        public static final int ATTACK_SPEED = 1 << 6;
+        public static final int MOVE_SPEED = 1 << 7;
+        public static final int ALL = (1 << 8) - 1;
+
         public int maxHp;
         public int hp;
         public int maxMp;
@@ -68,11 +128,52 @@ public interface AttributeSystem {
             s.moveSpeed = moveSpeed;
             return s;
         }
+
+        @Override
+        public int getMaxHp() {
+            return maxHp;
+        }
+
+        @Override
+        public int getHp() {
+            return hp;
+        }
+
+        @Override
+        public int getMaxMp() {
+            return maxMp;
+        }
+
+        @Override
+        public int getMp() {
+            return mp;
+        }
+
+        @Override
+        public int getAttack() {
+            return attack;
+        }
+
+        @Override
+        public int getDefense() {
+            return defense;
+        }
+
+        @Override
+        public float getAttackSpeed() {
+            return attackSpeed;
+        }
+
+        @Override
+        public float getMoveSpeed() {
+            return moveSpeed;
+        }
     }
 
     /**
      * 伤害请求：包含攻击方属性、防御方当前属性、基础伤害、是否暴击等信息。
      * 这里保留一定弹性，方便扩展技能/元素/暴击等。
+     * applyDamage 不会保留请求对象，调用方可以复用同一个实例。
      */
     final class DamageRequest {
         public Stats attackerStats;
@@ -90,13 +191,31 @@ public interface AttributeSystem {
     /**
      * 伤害结果：实际伤害值 / 是否暴击 / 扣血后剩余 HP。
      * UI 飘字、战斗日志可以直接使用这个结构。
+     * 由属性系统的对象池提供，需要跨帧保留时复制到自己的实例。
      */
-    final class DamageResult {
+    final class DamageResult implements Pool.Poolable {
         public int finalDamage;
         public boolean critical;
         public int hpBefore;
         public int hpAfter;
 
+        /** 复制另一个结果（用于保留池化对象的内容） */
+        public DamageResult set(DamageResult other) {
+            finalDamage = other.finalDamage;
+            critical = other.critical;
+            hpBefore = other.hpBefore;
+            hpAfter = other.hpAfter;
+            return this;
+        }
+
+        @Override
+        public void reset() {
+            finalDamage = 0;
+            critical = false;
+            hpBefore = 0;
+            hpAfter = 0;
+        }
+
         @Override
         public String toString() {
             return "DamageResult{damage=" + finalDamage +
@@ -108,23 +227,51 @@ public interface AttributeSystem {
 
     /**
      * 一个简单的属性系统实现：
-     * - 线性伤害公式：damage = max(1, baseDamage + atk - def)
+     * - 线性伤害公式：damage = max(1, baseDamage + atk - def)（见 {@link DamageResolver}，
+     *   大规模战斗可以直接用它的数组批量结算）
      * - 防御减伤等可后续扩展（百分比减伤、护盾等）
+     *
+     * 通知方式：
+     * - 默认立即通知；返回的 DamageResult 在下一次 applyDamage 或 endTick 之前有效
+     * - 开启合并后，一帧内的变化掩码按位或累积，endTick 时发出一次 onStatsChanged，
+     *   再依次发出本帧的 onDamageResolved
      */
     class BasicAttributeSystem implements AttributeSystem {
+        // 基础属性（不含修改器）和派生属性（getStats 返回，HP/MP 当前值也存在这里）
+        private final Stats base = new Stats();
         private final Stats stats = new Stats();
+        private final StatModifiers modifiers = new StatModifiers();
+        // 派生属性对应的修改器版本
+        private int statsVersion;
         private Listener listener;
 
+        // 伤害结果对象池（预热后不再分配）
+        private final Pool<DamageResult> resultPool = new Pool<DamageResult>(4) {
+            @Override
+            protected DamageResult newObject() {
+                return new DamageResult();
+            }
+        };
+
+        // 尚未归还对象池的结果（合并模式下也是待通知的结果）
+        private final Array<DamageResult> pendingResults = new Array<>(false, 4);
+
+        // 合并通知
+        private boolean coalesce;
+        private int pendingMask;
+
         public BasicAttributeSystem(int maxHp, int maxMp, int attack, int defense,
                                     float attackSpeed, float moveSpeed) {
-            stats.maxHp = maxHp;
-            stats.hp = maxHp;
-            stats.maxMp = maxMp;
-            stats.mp = maxMp;
-            stats.attack = attack;
-            stats.defense = defense;
-            stats.attackSpeed = attackSpeed;
-            stats.moveSpeed = moveSpeed;
+            base.maxHp = maxHp;
+            base.maxMp = maxMp;
+            base.attack = attack;
+            base.defense = defense;
+            base.attackSpeed = attackSpeed;
+            base.moveSpeed = moveSpeed;
+            modifiers.apply(base, stats);
+            stats.hp = stats.maxHp;
+            stats.mp = stats.maxMp;
+            statsVersion = modifiers.getVersion();
         }
 
         @Override
@@ -132,38 +279,94 @@ public interface AttributeSystem {
             return stats;
         }
 
+        /**
+         * 基础属性（不含修改器）。直接修改后需要调用 {@link StatModifiers#invalidate()}，
+         * 下一次 update / applyDamage 时生效
+         */
+        public Stats getBaseStats() {
+            return base;
+        }
+
+        public StatModifiers getModifiers() {
+            return modifiers;
+        }
+
+        @Override
+        public void update(float delta) {
+            modifiers.update(delta);
+            refreshStats();
+        }
+
+        /**
+         * 修改器版本变化时重算派生属性；上限降低时当前 HP/MP 随之截断
+         */
+        private void refreshStats() {
+            int version = modifiers.getVersion();
+            if (version == statsVersion) return;
+            statsVersion = version;
+
+            int changed = modifiers.apply(base, stats);
+            if (stats.hp > stats.maxHp) {
+                stats.hp = stats.maxHp;
+                changed |= Stats.HP;
+            }
+            if (stats.mp > stats.maxMp) {
+                stats.mp = stats.maxMp;
+                changed |= Stats.MP;
+            }
+            notifyChanged(changed);
+        }
+
         @Override
         public void setListener(Listener listener) {
             this.listener = listener;
         }
 
+        /**
+         * 是否把一帧内的变化合并为一次通知（endTick 时发出）
+         */
+        public void setCoalesceNotifications(boolean coalesce) {
+            if (!coalesce && this.coalesce) {
+                endTick();
+            }
+            this.coalesce = coalesce;
+        }
+
+        public boolean isCoalesceNotifications() {
+            return coalesce;
+        }
+
         @Override
         public DamageResult applyDamage(DamageRequest request) {
-            DamageResult result = new DamageResult();
-            result.hpBefore = stats.hp;
-
-            // 简单的线性伤害：基础伤害 + 攻方攻击 - 守方防御，下限 1 点
-            int damage = request.baseDamage;
-            if (request.attackerStats != null) {
-                damage += request.attackerStats.attack;
-            }
-            if (request.defenderStats != null) {
-                damage -= request.defenderStats.defense;
+            // 立即通知模式：上一次的结果已经通知过，直接归还
+            if (!coalesce) {
+                releaseResults();
             }
-            damage = Math.max(1, damage);
+            // 本帧新加的修改器（例如减伤 buff）立即生效；攻击方的属性在它自己的 update 中刷新
+            refreshStats();
+            DamageResult result = resultPool.obtain();
+            pendingResults.add(result);
+            result.hpBefore = stats.hp;
 
-            if (request.critical) {
-                damage = Math.round(damage * request.criticalMul);
-            }
+            // 简单的线性伤害：基础伤害 + 攻方攻击 - 守方防御，下限 1 点（与批量结算共用公式）
+            int attack = request.attackerStats != null ? request.attackerStats.attack : 0;
+            int defense = request.defenderStats != null ? request.defenderStats.defense : 0;
+            int damage = DamageResolver.computeDamage(request.baseDamage, attack, defense,
+                    request.critical, request.criticalMul);
 
-            stats.hp = MathUtils.clamp(stats.hp - damage, 0, stats.maxHp);
+            stats.hp = DamageResolver.computeHpAfter(stats.hp, stats.maxHp, damage);
 
             result.finalDamage = damage;
             result.critical = request.critical;
             result.hpAfter = stats.hp;
 
-            if (listener != null) {
-                listener.onStatsChanged(stats.cpy());
+            int changed = result.hpAfter != result.hpBefore ? Stats.HP : 0;
+            if (coalesce) {
+                pendingMask |= changed;
+            } else if (listener != null) {
+                if (changed != 0) {
+                    listener.onStatsChanged(stats, changed);
+                }
                 listener.onDamageResolved(result);
             }
             return result;
@@ -172,9 +375,45 @@ public interface AttributeSystem {
         @Override
         public void heal(int amount) {
             if (amount <= 0 || isDead()) return;
+            int before = stats.hp;
             stats.hp = MathUtils.clamp(stats.hp + amount, 0, stats.maxHp);
+            if (stats.hp != before) {
+                notifyChanged(Stats.HP);
+            }
+        }
+
+        /**
+         * 直接修改属性后调用，通知监听器哪些字段变了（合并模式下延迟到 endTick）
+         * @param changedMask {@link Stats#HP} 等常量按位或
+         */
+        public void notifyChanged(int changedMask) {
+            if (coalesce) {
+                pendingMask |= changedMask;
+            } else if (listener != null && changedMask != 0) {
+                listener.onStatsChanged(stats, changedMask);
+            }
+        }
+
+        @Override
+        public void endTick() {
             if (listener != null) {
-                listener.onStatsChanged(stats.cpy());
+                if (pendingMask != 0) {
+                    listener.onStatsChanged(stats, pendingMask);
+                }
+                if (coalesce) {
+                    for (int i = 0; i < pendingResults.size; i++) {
+                        listener.onDamageResolved(pendingResults.get(i));
+                    }
+                }
+            }
+            pendingMask = 0;
+            releaseResults();
+        }
+
+        private void releaseResults() {
+            if (pendingResults.size > 0) {
+                resultPool.freeAll(pendingResults);
+                pendingResults.clear();
             }
         }
 
@@ -0,0 +1,70 @@
+package com.github.xiaotaotao.ligdx.laboratory.character;
+
+/**
+ * 伤害公式（单次和批量两种入口，结果完全一致）
+ *
+ * 公式：
+ * - damage = max(1, baseDamage + attack - defense)
+ * - 暴击时 damage = round(damage × criticalMul)
+ * - hpAfter = clamp(hp - damage, 0, maxHp)
+ *
+ * 设计说明：
+ * - {@link BasicAttributeSystem#applyDamage} 也走 {@link #computeDamage}，保证两条路径不会分叉
+ * - 批量入口使用平行的基本类型数组（结构数组），循环体内没有对象访问和回调；
+ *   暴击用三元选择代替分支（两种结果都算出来再选），JIT 可以编译成条件移动 / 向量混合
+ * - 每一行相互独立，同一个受击者在一批里出现多次时，hp 数组里是同一个初始值，
+ *   需要调用方合并伤害或分批结算
+ *
+ * 使用方式：
+ * <pre>
+ * DamageResolver.resolve(count, baseDamage, attack, defense, critical, criticalMul,
+ *         hp, maxHp, outDamage, outHp);
+ * </pre>
+ */
+public final class DamageResolver {
+
+    private DamageResolver() {
+    }
+
+    /**
+     * 单次伤害计算（未扣血）
+     */
+    public static int computeDamage(int baseDamage, int attack, int defense, boolean critical, float criticalMul) {
+        int damage = Math.max(1, baseDamage + attack - defense);
+        return critical ? Math.round(damage * criticalMul) : damage;
+    }
+
+    /**
+     * 扣血后的 HP（约束在 [0, maxHp]，与 MathUtils.clamp 的判断顺序一致）
+     */
+    public static int computeHpAfter(int hp, int maxHp, int damage) {
+        return Math.max(Math.min(hp - damage, maxHp), 0);
+    }
+
+    /**
+     * 批量结算，所有数组至少包含 count 个元素（outHp 和 hp 是同一个数组时原地更新）
+     * @param count       行数
+     * @param baseDamage  技能或普攻的基础伤害
+     * @param attack      攻击方攻击力（没有攻击方时填 0）
+     * @param defense     受击方防御力（没有受击方属性时填 0）
+     * @param critical    是否暴击
+     * @param criticalMul 暴击倍数
+     * @param hp          受击方当前 HP
+     * @param maxHp       受击方 HP 上限
+     * @param outDamage   输出：最终伤害
+     * @param outHp       输出：扣血后的 HP（可以和 hp 是同一个数组）
+     */
+    public static void resolve(int count,
+                               int[] baseDamage, int[] attack, int[] defense,
+                               boolean[] critical, float[] criticalMul,
+                               int[] hp, int[] maxHp,
+                               int[] outDamage, int[] outHp) {
+        for (int i = 0; i < count; i++) {
+            int damage = Math.max(1, baseDamage[i] + attack[i] - defense[i]);
+            int critDamage = Math.round(damage * criticalMul[i]);
+            damage = critical[i] ? critDamage : damage;
+            outDamage[i] = damage;
+            outHp[i] = Math.max(Math.min(hp[i] - damage, maxHp[i]), 0);
+        }
+    }
+}
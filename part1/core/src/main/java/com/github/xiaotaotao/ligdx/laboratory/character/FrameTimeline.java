@@ -0,0 +1,97 @@
+package com.github.xiaotaotao.ligdx.laboratory.character;
+
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+
+/**
+ * 帧数据时间线：一次攻击 / 技能动作中按时间排列的事件（打击判定、可取消点、音效等）
+ *
+ * 设计说明：
+ * - 事件按时间排序，使用方只保存一个游标；每次更新把游标推进到当前时间，
+ *   途经的事件全部按顺序发出，不会因为一帧的 delta 很大（GC 停顿、低 tick 率服务器）而漏掉
+ *   （见 {@link AttackSystem.BasicMeleeAttackSystem}）
+ * - 发出事件时附带"迟到时间"（当前时间 - 事件时间），需要精确结算的逻辑（弹道起点、位移等）可以据此补偿
+ * - 时间线只是描述数据，构建完成后可以被多个角色共享
+ *
+ * 使用方式：
+ * <pre>
+ * FrameTimeline slash = new FrameTimeline(0.4f)
+ *         .add(FrameTimeline.frameTime(2, 6, 0.4f), FrameTimeline.HIT, 0)
+ *         .add(0.05f, FrameTimeline.SOUND, SOUND_SWING)
+ *         .add(0.3f, FrameTimeline.CANCEL, 0);
+ * </pre>
+ */
+public class FrameTimeline {
+
+    /** 打击判定窗口 */
+    public static final int HIT = 0;
+    /** 从这里开始可以被新的动作取消 */
+    public static final int CANCEL = 1;
+    /** 播放音效（param 为音效编号） */
+    public static final int SOUND = 2;
+    /** 自定义事件类型从这里开始 */
+    public static final int CUSTOM = 16;
+
+    /**
+     * 时间线事件
+     */
+    public static final class Event {
+        /** 相对动作开始的时间（秒） */
+        public final float time;
+        public final int type;
+        /** 附加参数（音效编号、打击段数等） */
+        public final int param;
+
+        Event(float time, int type, int param) {
+            this.time = time;
+            this.type = type;
+            this.param = param;
+        }
+    }
+
+    private final float duration;
+    private final Array<Event> events = new Array<>(true, 4);
+
+    /**
+     * @param duration 动作总时长（秒）
+     */
+    public FrameTimeline(float duration) {
+        this.duration = duration;
+    }
+
+    /**
+     * 第 frameIndex 帧开始的时间（动画均分为 frameCount 帧）
+     */
+    public static float frameTime(int frameIndex, int frameCount, float duration) {
+        return frameCount <= 0 ? 0f : duration * frameIndex / frameCount;
+    }
+
+    /**
+     * 添加事件（同一时间的事件按添加顺序发出）
+     * @param time 相对动作开始的时间，范围 [0, duration)
+     * @return this，便于链式调用
+     */
+    public FrameTimeline add(float time, int type, int param) {
+        if (time < 0f || time >= duration) {
+            throw new GdxRuntimeException("Timeline event out of range: " + time + ", duration: " + duration);
+        }
+        int index = events.size;
+        while (index > 0 && events.get(index - 1).time > time) {
+            index--;
+        }
+        events.insert(index, new Event(time, type, param));
+        return this;
+    }
+
+    public float getDuration() {
+        return duration;
+    }
+
+    public int size() {
+        return events.size;
+    }
+
+    public Event get(int index) {
+        return events.get(index);
+    }
+}
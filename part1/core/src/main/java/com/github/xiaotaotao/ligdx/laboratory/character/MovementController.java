@@ -21,7 +21,9 @@ public interface MovementController {
      * @return 位置向量（像素单位，左下角为原点）
      *
      * 注意：
-     * - 返回的是 Vector2 引用，可以直接修改，但建议通过 setPosition 设置
+     * - 返回值只用于读取：实现可以返回内部引用，也可以返回每次调用时刷新的快照
+     *   （例如 {@link MovementSystem.Controller}），修改它不保证会移动角色，请通过 setPosition 设置
+     * - 快照会在下一次调用时被覆盖，需要保留时请 cpy() 或 set 到自己的向量
      * - 对于 GridMovementController，位置会自动对齐到格子中心
      * - 对于 FreeMovementController，位置可以是任意浮点数
      */
@@ -143,6 +145,7 @@ public interface MovementController {
      * - 内部以 gridSize 为步长累积距离：distance = moveSpeed * delta
      *   当累计距离超过一格时，走 N 格（N * gridSize），多余的部分留到下一帧
      * - 适合战棋 / 严格 tile-based 的移动演示
+     * - 大量实体时使用 {@link MovementSystem} 批量积分
      */
     class GridMovementController implements MovementController {
 
@@ -152,6 +155,9 @@ public interface MovementController {
         /** 输入方向向量（由外部通过 setInputDirection 设置，例如 WASD 按键映射） */
         private final Vector2 inputDir = new Vector2();
 
+        /** 归一化方向的临时向量（复用，避免每帧分配） */
+        private final Vector2 normalizedDir = new Vector2();
+
         /** 角色属性系统的引用（用于读取 moveSpeed：移动速度，单位：像素/秒） */
         private final AttributeSystem.Stats stats;
 
@@ -252,7 +258,7 @@ public interface MovementController {
 
             // 归一化输入方向（将任意向量转换为单位向量，保证对角线移动速度不会更快）
             // 例如：(1, 1) 归一化后变成 (0.707, 0.707)，长度 = 1
-            Vector2 dir = new Vector2(inputDir).nor();
+            Vector2 dir = normalizedDir.set(inputDir).nor();
 
             // 计算本帧累积的移动距离（加上上一帧的余量）
             float distance = stats.moveSpeed * deltaSeconds + distanceRemainder;
@@ -358,6 +364,9 @@ public interface MovementController {
         /** 输入方向向量（由外部通过 setInputDirection 设置，例如 WASD 按键映射） */
         private final Vector2 inputDir = new Vector2();
 
+        /** 归一化方向的临时向量（复用，避免每帧分配） */
+        private final Vector2 normalizedDir = new Vector2();
+
         /** 角色属性系统的引用（用于读取 moveSpeed：移动速度，单位：像素/秒） */
         private final AttributeSystem.Stats stats;
 
@@ -384,7 +393,7 @@ public interface MovementController {
         /**
          * 获取当前世界坐标位置
          *
-         * @return 位置向量（可以直接修改，但建议通过 setPosition 设置）
+         * @return 内部位置向量的引用（按接口约定只读，请通过 setPosition 设置）
          */
         @Override
         public Vector2 getPosition() {
@@ -449,7 +458,7 @@ public interface MovementController {
             }
 
             // 归一化输入方向（将任意向量转换为单位向量，保证对角线移动速度不会更快）
-            Vector2 dir = new Vector2(inputDir).nor();
+            Vector2 dir = normalizedDir.set(inputDir).nor();
 
             // 计算本帧移动距离（像素单位）
             float distance = stats.moveSpeed * deltaSeconds;
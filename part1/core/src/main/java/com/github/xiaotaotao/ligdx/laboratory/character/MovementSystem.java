@@ -0,0 +1,386 @@
+package com.github.xiaotaotao.ligdx.laboratory.character;
+
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.utils.IntArray;
+import com.github.xiaotaotao.ligdx.laboratory.concurrent.AdaptiveChunkSize;
+import com.github.xiaotaotao.ligdx.laboratory.concurrent.ParallelExecutor;
+
+/**
+ * 批量移动系统：所有移动实体的位置 / 输入方向 / 速度 / 边界存放在平行数组中（结构数组），
+ * 一次循环完成积分
+ *
+ * 设计说明：
+ * - 每个实体占一个槽位（slot），移除后槽位进入空闲列表复用
+ * - 输入方向在 setInputDirection 时就归一化，积分循环里只有乘加和约束，不分配对象
+ * - 积分循环每个下标只写自己的数据，可以按区间拆分给 {@link ParallelExecutor} 并行执行
+ * - 速度由系统持有；关联了 Stats 的槽位在每次 update 开始时（主线程）同步一次 moveSpeed，
+ *   这样 buff 修改移速后自动生效，积分循环本身不访问对象
+ * - {@link Controller} 是 {@link MovementController} 接口在某个槽位上的外观，方便现有角色代码直接使用
+ *
+ * 移动规则与 {@link MovementController.FreeMovementController} /
+ * {@link MovementController.GridMovementController} 一致（栅格模式累积余量，按整格移动）
+ *
+ * 使用方式：
+ * <pre>
+ * MovementSystem movement = new MovementSystem(256);
+ * MovementController player = movement.createController(playerStats, 0f);   // 连续移动
+ * MovementController enemy = movement.createController(enemyStats, 16f);    // 16 像素栅格
+ * // 每帧（所有实体一起积分，Controller.update 不做任何事）
+ * movement.update(delta);
+ * </pre>
+ */
+public class MovementSystem {
+
+    private static final MovementController.Facing[] FACINGS = MovementController.Facing.values();
+
+    // 结构数组（下标 = 槽位）
+    private float[] x;
+    private float[] y;
+    private float[] dirX;           // 归一化后的输入方向
+    private float[] dirY;
+    private float[] speed;          // 像素/秒
+    private float[] gridSize;       // <= 0 表示连续移动
+    private float[] remainder;      // 栅格移动未满一格的累积距离
+    private float[] minX;
+    private float[] minY;
+    private float[] maxX;
+    private float[] maxY;
+    private byte[] facing;
+    private boolean[] gridAligned;
+    private AttributeSystem.Stats[] speedSource;
+
+    // 已使用过的最大槽位 + 1，以及空闲槽位
+    private int slotCount;
+    private int liveCount;
+    private final IntArray freeSlots = new IntArray();
+
+    // 并行积分
+    private ParallelExecutor executor;
+    private final AdaptiveChunkSize chunkSize = new AdaptiveChunkSize();
+    private float stepDelta;
+    private final ParallelExecutor.RangeTask integrateTask = (start, end) -> integrate(start, end, stepDelta);
+
+    /**
+     * @param initialCapacity 初始槽位数量（不够时自动扩容）
+     */
+    public MovementSystem(int initialCapacity) {
+        allocate(Math.max(1, initialCapacity));
+    }
+
+    /**
+     * 分配一个槽位
+     * @param gridSize 栅格大小（像素），小于等于 0 表示连续移动
+     * @return 槽位
+     */
+    public int add(float gridSize) {
+        int slot;
+        if (freeSlots.size > 0) {
+            slot = freeSlots.pop();
+        } else {
+            if (slotCount == x.length) {
+                allocate(x.length * 2);
+            }
+            slot = slotCount++;
+        }
+        x[slot] = 0f;
+        y[slot] = 0f;
+        dirX[slot] = 0f;
+        dirY[slot] = 0f;
+        speed[slot] = 0f;
+        this.gridSize[slot] = gridSize;
+        remainder[slot] = 0f;
+        minX[slot] = Float.NEGATIVE_INFINITY;
+        minY[slot] = Float.NEGATIVE_INFINITY;
+        maxX[slot] = Float.POSITIVE_INFINITY;
+        maxY[slot] = Float.POSITIVE_INFINITY;
+        facing[slot] = (byte) MovementController.Facing.DOWN.ordinal();
+        gridAligned[slot] = gridSize > 0f;
+        speedSource[slot] = null;
+        liveCount++;
+        return slot;
+    }
+
+    /**
+     * 释放槽位（速度清零，积分循环会跳过它）
+     */
+    public void remove(int slot) {
+        speed[slot] = 0f;
+        dirX[slot] = 0f;
+        dirY[slot] = 0f;
+        speedSource[slot] = null;
+        freeSlots.add(slot);
+        liveCount--;
+    }
+
+    /**
+     * 创建一个槽位并返回它的 MovementController 外观
+     * @param stats    速度来源（每次 update 同步 moveSpeed），可以为 null（之后用 setSpeed 设置）
+     * @param gridSize 栅格大小（像素），小于等于 0 表示连续移动
+     */
+    public Controller createController(AttributeSystem.Stats stats, float gridSize) {
+        int slot = add(gridSize);
+        speedSource[slot] = stats;
+        if (stats != null) {
+            speed[slot] = stats.moveSpeed;
+        }
+        return new Controller(slot);
+    }
+
+    /**
+     * 使用并行执行器积分（null 表示在调用线程中执行）
+     * 执行器由调用方管理生命周期
+     */
+    public void setExecutor(ParallelExecutor executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * 积分所有实体
+     * @param deltaSeconds 帧间隔（秒）
+     */
+    public void update(float deltaSeconds) {
+        // 同步关联的移速（主线程，读取对象字段）
+        for (int i = 0; i < slotCount; i++) {
+            AttributeSystem.Stats stats = speedSource[i];
+            if (stats != null) {
+                speed[i] = stats.moveSpeed;
+            }
+        }
+
+        if (executor == null || executor.getParallelism() <= 1) {
+            integrate(0, slotCount, deltaSeconds);
+            return;
+        }
+        stepDelta = deltaSeconds;
+        int parallelism = executor.getParallelism();
+        int chunk = chunkSize.get(slotCount, parallelism);
+        long start = System.nanoTime();
+        executor.forEachChunk(slotCount, chunk, integrateTask);
+        chunkSize.record(slotCount, System.nanoTime() - start, parallelism);
+    }
+
+    /**
+     * 积分 [start, end) 区间内的槽位（只访问基本类型数组，不同区间可以并行执行）
+     */
+    public void integrate(int start, int end, float deltaSeconds) {
+        for (int i = start; i < end; i++) {
+            float dx = dirX[i];
+            float dy = dirY[i];
+            float s = speed[i];
+            if ((dx == 0f && dy == 0f) || s <= 0f) continue;
+
+            float distance = s * deltaSeconds;
+            float grid = gridSize[i];
+            if (grid > 0f) {
+                // 栅格移动：累积余量，只走整格
+                distance += remainder[i];
+                int steps = (int) (distance / grid);
+                remainder[i] = distance - steps * grid;
+                if (steps == 0) continue;
+                distance = steps * grid;
+            }
+
+            // 边界约束（无边界时为正负无穷），判断顺序与 MathUtils.clamp 一致
+            x[i] = Math.max(Math.min(x[i] + dx * distance, maxX[i]), minX[i]);
+            y[i] = Math.max(Math.min(y[i] + dy * distance, maxY[i]), minY[i]);
+        }
+    }
+
+    public void setPosition(int slot, float px, float py) {
+        x[slot] = px;
+        y[slot] = py;
+        if (gridAligned[slot]) {
+            snapToGrid(slot);
+        }
+    }
+
+    /**
+     * 设置输入方向（立即归一化，并更新面朝方向）
+     */
+    public void setInputDirection(int slot, float ix, float iy) {
+        if (ix == 0f && iy == 0f) {
+            dirX[slot] = 0f;
+            dirY[slot] = 0f;
+            return;
+        }
+        float len = (float) Math.sqrt(ix * ix + iy * iy);
+        dirX[slot] = ix / len;
+        dirY[slot] = iy / len;
+        // 优先判断水平方向，如果水平分量更大，则面向左/右；否则面向上下
+        MovementController.Facing f;
+        if (Math.abs(ix) > Math.abs(iy)) {
+            f = ix > 0 ? MovementController.Facing.RIGHT : MovementController.Facing.LEFT;
+        } else {
+            f = iy > 0 ? MovementController.Facing.UP : MovementController.Facing.DOWN;
+        }
+        facing[slot] = (byte) f.ordinal();
+    }
+
+    /**
+     * 设置速度（像素/秒）；关联了 Stats 的槽位会在下一次 update 时被 moveSpeed 覆盖
+     */
+    public void setSpeed(int slot, float pixelsPerSecond) {
+        speed[slot] = pixelsPerSecond;
+    }
+
+    /**
+     * @param bounds 边界矩形（拷贝数值，之后修改矩形不会生效），null 表示无边界
+     */
+    public void setBounds(int slot, Rectangle bounds) {
+        if (bounds == null) {
+            minX[slot] = Float.NEGATIVE_INFINITY;
+            minY[slot] = Float.NEGATIVE_INFINITY;
+            maxX[slot] = Float.POSITIVE_INFINITY;
+            maxY[slot] = Float.POSITIVE_INFINITY;
+        } else {
+            minX[slot] = bounds.x;
+            minY[slot] = bounds.y;
+            maxX[slot] = bounds.x + bounds.width;
+            maxY[slot] = bounds.y + bounds.height;
+        }
+    }
+
+    public void setGridAligned(int slot, boolean enabled) {
+        // 连续移动的槽位不做对齐
+        gridAligned[slot] = enabled && gridSize[slot] > 0f;
+        if (gridAligned[slot]) {
+            snapToGrid(slot);
+        }
+    }
+
+    public float getX(int slot) {
+        return x[slot];
+    }
+
+    public float getY(int slot) {
+        return y[slot];
+    }
+
+    /**
+     * @return 归一化后的输入方向 x 分量（停止时为 0）
+     */
+    public float getDirX(int slot) {
+        return dirX[slot];
+    }
+
+    public float getDirY(int slot) {
+        return dirY[slot];
+    }
+
+    public float getSpeed(int slot) {
+        return speed[slot];
+    }
+
+    public MovementController.Facing getFacing(int slot) {
+        return FACINGS[facing[slot]];
+    }
+
+    /**
+     * @return 当前存活的实体数量
+     */
+    public int size() {
+        return liveCount;
+    }
+
+    private void snapToGrid(int slot) {
+        float grid = gridSize[slot];
+        x[slot] = Math.round(x[slot] / grid) * grid;
+        y[slot] = Math.round(y[slot] / grid) * grid;
+    }
+
+    private void allocate(int capacity) {
+        x = copy(x, capacity);
+        y = copy(y, capacity);
+        dirX = copy(dirX, capacity);
+        dirY = copy(dirY, capacity);
+        speed = copy(speed, capacity);
+        gridSize = copy(gridSize, capacity);
+        remainder = copy(remainder, capacity);
+        minX = copy(minX, capacity);
+        minY = copy(minY, capacity);
+        maxX = copy(maxX, capacity);
+        maxY = copy(maxY, capacity);
+
+        byte[] newFacing = new byte[capacity];
+        boolean[] newAligned = new boolean[capacity];
+        AttributeSystem.Stats[] newSources = new AttributeSystem.Stats[capacity];
+        if (facing != null) {
+            System.arraycopy(facing, 0, newFacing, 0, slotCount);
+            System.arraycopy(gridAligned, 0, newAligned, 0, slotCount);
+            System.arraycopy(speedSource, 0, newSources, 0, slotCount);
+        }
+        facing = newFacing;
+        gridAligned = newAligned;
+        speedSource = newSources;
+    }
+
+    private float[] copy(float[] old, int capacity) {
+        float[] array = new float[capacity];
+        if (old != null) {
+            System.arraycopy(old, 0, array, 0, slotCount);
+        }
+        return array;
+    }
+
+    /**
+     * MovementController 外观：所有操作转发到系统中的一个槽位
+     *
+     * 注意：
+     * - update 不做任何事，积分由 {@link MovementSystem#update} 统一完成
+     * - getPosition 返回的是当前位置的拷贝（每次调用刷新），修改它不会影响实体，请使用 setPosition
+     * - setBounds 拷贝矩形数值
+     */
+    public class Controller implements MovementController {
+        private final int slot;
+        private final Vector2 position = new Vector2();
+
+        Controller(int slot) {
+            this.slot = slot;
+        }
+
+        public int getSlot() {
+            return slot;
+        }
+
+        @Override
+        public Vector2 getPosition() {
+            return position.set(x[slot], y[slot]);
+        }
+
+        @Override
+        public void setPosition(float px, float py) {
+            MovementSystem.this.setPosition(slot, px, py);
+        }
+
+        @Override
+        public void setInputDirection(float ix, float iy) {
+            MovementSystem.this.setInputDirection(slot, ix, iy);
+        }
+
+        @Override
+        public void update(float deltaSeconds) {
+            // 由 MovementSystem.update 批量积分
+        }
+
+        @Override
+        public void setBounds(Rectangle bounds) {
+            MovementSystem.this.setBounds(slot, bounds);
+        }
+
+        @Override
+        public void setGridAligned(boolean enabled) {
+            MovementSystem.this.setGridAligned(slot, enabled);
+        }
+
+        @Override
+        public Facing getFacing() {
+            return MovementSystem.this.getFacing(slot);
+        }
+
+        @Override
+        public void move(float ix, float iy) {
+            setInputDirection(ix, iy);
+        }
+    }
+}
@@ -23,7 +23,7 @@ public interface PixelCharacter {
     /** 技能系统（主动/被动技能池） */
     SkillSystem getSkillSystem();
 
-    /** 角色在世界中的当前位置（像素坐标，基于像素网格） */
+    /** 角色在世界中的当前位置（像素坐标，基于像素网格；只读快照，移动请通过 MovementController） */
     Vector2 getPosition();
 
     /** 每帧更新（由外部 Game/Screen 驱动） */
@@ -24,6 +24,8 @@ public class SimplePixelCharacter implements PixelCharacter {
     private final AttackSystem.BasicMeleeAttackSystem attackSystem;
     private final SkillSystem.BasicSkillSystem skillSystem;
     private final Vector2 sharedPosition = new Vector2();
+    // update 时是否推进属性系统（修改器计时）；共享属性系统的角色中只能有一个推进
+    private boolean updateAttributes = true;
 
     /**
      * 使用“按格子走路”的移动方式创建角色（栅格移动）。
@@ -75,7 +77,7 @@ public class SimplePixelCharacter implements PixelCharacter {
         // 玩家飘血监听（主要演示：受到伤害时生成红色/-值；治疗时可以扩展为绿色/+值）
         playerAttr.setListener(new AttributeSystem.Listener() {
             @Override
-            public void onStatsChanged(AttributeSystem.Stats newStats) {
+            public void onStatsChanged(AttributeSystem.StatsView stats, int changedMask) {
                 // 本 Demo 中玩家暂不被敌人攻击，此处保留以便扩展
             }
 
@@ -166,7 +168,7 @@ public class SimplePixelCharacter implements PixelCharacter {
 
     @Override
     public Vector2 getPosition() {
-        // 直接暴露 movementController 的位置引用，避免额外分配
+        // 拷贝到复用的向量里返回（快照，不分配内存；修改它不会移动角色）
         sharedPosition.set(movementController.getPosition());
         return sharedPosition;
     }
@@ -181,8 +183,23 @@ public class SimplePixelCharacter implements PixelCharacter {
         batch.draw(texture, freeX, freeY, size, size);
     }
 
+    /**
+     * 设置 update 时是否推进属性系统
+     *
+     * 多个角色共享同一个属性系统时，只让其中一个推进，否则修改器计时会按角色数量倍速流逝
+     *
+     * @param updateAttributes 默认 true
+     */
+    public void setUpdateAttributes(boolean updateAttributes) {
+        this.updateAttributes = updateAttributes;
+    }
+
     @Override
     public void update(float delta) {
+        // 修改器计时（限时 buff 到期）不受死亡影响
+        if (updateAttributes) {
+            attributeSystem.update(delta);
+        }
         // 死亡后可选择停止更新移动 / 攻击 / 技能
         if (attributeSystem.isDead()) return;
 
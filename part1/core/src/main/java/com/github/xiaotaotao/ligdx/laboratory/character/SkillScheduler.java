@@ -0,0 +1,216 @@
+package com.github.xiaotaotao.ligdx.laboratory.character;
+
+/**
+ * 世界级技能时间线调度器（分层时间轮）
+ *
+ * 每个技能的下一次状态切换（CASTING→BACK_SWING、BACK_SWING→COOLDOWN、COOLDOWN→READY）
+ * 作为一个带时间戳的事件插入时间轮，推进时只处理到期的事件，
+ * 每帧开销与发生的状态切换数量成正比，而不是与技能总数成正比。
+ *
+ * 工作原理：
+ * - 时间离散为 tick（构造时指定 tick 长度），事件时间向上取整到 tick；
+ *   在两次 advance 之间调度时从当前时间（含未满一个 tick 的余量）起算，切换不会提前触发
+ * - 4 层时间轮，每层 64 个槽：第 L 层的一个槽覆盖 64^L 个 tick，共覆盖 2^24 个 tick，
+ *   更远的事件放在溢出链表，最高层转完一圈时重新分配
+ * - 事件放在"与当前 tick 高位相同的最低一层"；低层转完一圈时，把上一层对应槽里的事件
+ *   重新插入（逐层下沉），到达第 0 层的槽时触发
+ * - 技能对象本身就是链表节点（每个技能同一时间最多只有一个待处理的切换），
+ *   插入 / 取消都是 O(1)，调度过程不分配内存
+ *
+ * 使用方式：
+ * <pre>
+ * SkillScheduler scheduler = new SkillScheduler(1f / 120f);
+ * BasicSkillSystem skills = new BasicSkillSystem(listener, scheduler);
+ * // 每帧（整个世界只调用一次，skills.update 不再需要）
+ * scheduler.advance(delta);
+ * </pre>
+ *
+ * 注意：单线程使用；技能的 elapsedInState / cdRemaining 不再逐帧更新，
+ * 通过 {@link SkillSystem#getSkill} 取得技能时会按当前时间同步
+ */
+public class SkillScheduler {
+
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+    private static final int LEVELS = 4;
+    /** 溢出链表在 heads 中的下标 */
+    private static final int OVERFLOW = LEVELS * SLOTS;
+
+    /** 技能未被调度时的槽位标记 */
+    static final int UNSCHEDULED = -1;
+
+    private final float tickSeconds;
+    // 每个槽的链表头（层 × 64 + 槽），最后一个是溢出链表
+    private final SkillSystem.Skill[] heads = new SkillSystem.Skill[OVERFLOW + 1];
+
+    // 最近一次处理过的 tick
+    private long currentTick;
+    private float accumulator;
+
+    private int pendingCount;
+    private int lastFiredCount;
+    private int firedThisAdvance;
+
+    /**
+     * @param tickSeconds 时间精度（秒），例如 1/120
+     */
+    public SkillScheduler(float tickSeconds) {
+        this.tickSeconds = tickSeconds;
+    }
+
+    /**
+     * 推进时间并触发所有到期的状态切换
+     * @param delta 帧间隔（秒）
+     */
+    public void advance(float delta) {
+        firedThisAdvance = 0;
+        float total = accumulator + delta;
+        long ticks = (long) (total / tickSeconds);
+        // 处理 tick 期间 accumulator 为 0，回调里读到的时间就是该 tick 的时间
+        accumulator = 0f;
+        for (long i = 0; i < ticks; i++) {
+            tick();
+        }
+        accumulator = Math.max(0f, total - ticks * tickSeconds);
+        lastFiredCount = firedThisAdvance;
+    }
+
+    private void tick() {
+        long tick = ++currentTick;
+
+        // 低层转完一圈：从高到低把对应槽里的事件重新分配
+        if ((tick & ((1L << (SLOT_BITS * LEVELS)) - 1)) == 0) {
+            cascade(OVERFLOW);
+        }
+        for (int level = LEVELS - 1; level >= 1; level--) {
+            int shift = SLOT_BITS * level;
+            if ((tick & ((1L << shift) - 1)) == 0) {
+                cascade(level * SLOTS + (int) ((tick >>> shift) & SLOT_MASK));
+            }
+        }
+
+        // 触发第 0 层当前槽：先摘下整条链表，回调里新调度的事件不会在本 tick 被处理
+        int index = (int) (tick & SLOT_MASK);
+        SkillSystem.Skill skill = heads[index];
+        heads[index] = null;
+        while (skill != null) {
+            SkillSystem.Skill next = skill.timerNext;
+            skill.timerNext = null;
+            skill.timerPrev = null;
+            skill.timerSlot = UNSCHEDULED;
+            pendingCount--;
+            firedThisAdvance++;
+            skill.owner.onScheduledTransition(skill);
+            skill = next;
+        }
+    }
+
+    private void cascade(int index) {
+        SkillSystem.Skill skill = heads[index];
+        heads[index] = null;
+        while (skill != null) {
+            SkillSystem.Skill next = skill.timerNext;
+            link(skill);
+            skill = next;
+        }
+    }
+
+    /**
+     * 在 delaySeconds 秒后触发技能的下一次状态切换（已调度的会先取消）
+     */
+    void schedule(SkillSystem.Skill skill, float delaySeconds) {
+        cancel(skill);
+        // 当前时间 = currentTick + accumulator，到期时间向上取整到下一个 tick 边界
+        long ticks = (long) Math.ceil((accumulator + delaySeconds) / tickSeconds);
+        skill.stateStartTick = currentTick;
+        skill.stateStartOffset = accumulator;
+        skill.timerDeadline = currentTick + Math.max(1L, ticks);
+        link(skill);
+        pendingCount++;
+    }
+
+    /**
+     * 取消技能待处理的状态切换
+     */
+    void cancel(SkillSystem.Skill skill) {
+        if (skill.timerSlot == UNSCHEDULED) return;
+        if (skill.timerPrev != null) {
+            skill.timerPrev.timerNext = skill.timerNext;
+        } else {
+            heads[skill.timerSlot] = skill.timerNext;
+        }
+        if (skill.timerNext != null) {
+            skill.timerNext.timerPrev = skill.timerPrev;
+        }
+        skill.timerNext = null;
+        skill.timerPrev = null;
+        skill.timerSlot = UNSCHEDULED;
+        pendingCount--;
+    }
+
+    /**
+     * 按当前时间刷新技能的 elapsedInState / cdRemaining（供 UI 读取）
+     */
+    void sync(SkillSystem.Skill skill) {
+        if (skill.timerSlot == UNSCHEDULED) return;
+        skill.elapsedInState = Math.max(0f,
+                (currentTick - skill.stateStartTick) * tickSeconds + accumulator - skill.stateStartOffset);
+        if (skill.state == SkillSystem.State.COOLDOWN) {
+            skill.cdRemaining = Math.max(0f, (skill.timerDeadline - currentTick) * tickSeconds - accumulator);
+        }
+    }
+
+    private void link(SkillSystem.Skill skill) {
+        long deadline = skill.timerDeadline;
+        int index = OVERFLOW;
+        for (int level = 0; level < LEVELS; level++) {
+            int shift = SLOT_BITS * (level + 1);
+            // 高位相同：在这一层当前这一圈之内
+            if ((deadline >>> shift) == (currentTick >>> shift)) {
+                index = level * SLOTS + (int) ((deadline >>> (SLOT_BITS * level)) & SLOT_MASK);
+                break;
+            }
+        }
+        SkillSystem.Skill head = heads[index];
+        skill.timerPrev = null;
+        skill.timerNext = head;
+        if (head != null) {
+            head.timerPrev = skill;
+        }
+        heads[index] = skill;
+        skill.timerSlot = index;
+    }
+
+    /**
+     * @return 当前时间（秒）
+     */
+    public float getTime() {
+        return currentTick * tickSeconds + accumulator;
+    }
+
+    /**
+     * @return 已经处理过的 tick 数（精确值；getTime 在很长的运行时间后会丢失精度）
+     */
+    public long getTick() {
+        return currentTick;
+    }
+
+    public float getTickSeconds() {
+        return tickSeconds;
+    }
+
+    /**
+     * @return 等待中的状态切换数量
+     */
+    public int getPendingCount() {
+        return pendingCount;
+    }
+
+    /**
+     * @return 最近一次 advance 触发的状态切换数量
+     */
+    public int getLastFiredCount() {
+        return lastFiredCount;
+    }
+}
@@ -1,6 +1,8 @@
 package com.github.xiaotaotao.ligdx.laboratory.character;
 
 import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntMap;
+import com.badlogic.gdx.utils.ObjectIntMap;
 
 /**
  * 技能系统接口：
@@ -11,6 +13,10 @@ import com.badlogic.gdx.utils.Array;
  * 像素 RPG 建议：
  * - 技能特效使用粒子 / 像素精灵（由渲染层实现）
  * - 该系统只负责“什么时候技能生效、什么时候可以再次释放”这类时序逻辑
+ *
+ * 设计说明：
+ * - 技能 ID 字符串在创建 Skill 时驻留为全局整数 ID（{@link SkillIds}），
+ *   热路径（按键施法、AI 选技能）应使用整数 ID，查找为 O(1)，不做字符串比较
  */
 public interface SkillSystem {
 
@@ -20,18 +26,64 @@ public interface SkillSystem {
     /** 根据 ID 获取技能 */
     Skill getSkill(String id);
 
+    /** 根据整数 ID 获取技能（见 {@link SkillIds#intern}） */
+    Skill getSkill(int intId);
+
     /** 尝试施放技能（按键触发时调用），返回是否成功进入施法状态 */
     boolean cast(String id);
 
-    /** 每帧更新所有技能的冷却与施法状态 */
+    /** 按整数 ID 施放技能 */
+    boolean cast(int intId);
+
+    /** 每帧更新处于施法 / 后摇 / 冷却中的技能 */
     void update(float deltaSeconds);
 
+    /**
+     * 技能 ID 驻留表：把字符串 ID 映射为从 0 开始的全局整数 ID
+     *
+     * 注意：驻留通常只在加载技能数据时发生，这里加锁以便在加载线程中使用；
+     * 整数 ID 在进程内有效，不要持久化（存档里保存字符串 ID）
+     */
+    final class SkillIds {
+        private static final ObjectIntMap<String> ids = new ObjectIntMap<>();
+        private static final Array<String> names = new Array<>();
+
+        private SkillIds() {
+        }
+
+        /**
+         * @return 字符串 ID 对应的整数 ID，第一次出现时分配
+         */
+        public static synchronized int intern(String id) {
+            int intId = ids.get(id, -1);
+            if (intId < 0) {
+                intId = names.size;
+                ids.put(id, intId);
+                names.add(id);
+            }
+            return intId;
+        }
+
+        /**
+         * @return 已驻留的整数 ID，没有驻留过时返回 -1（不分配）
+         */
+        public static synchronized int find(String id) {
+            return ids.get(id, -1);
+        }
+
+        public static synchronized String nameOf(int intId) {
+            return names.get(intId);
+        }
+    }
+
     /**
      * 技能数据与运行时状态。
      * 渲染层可以根据 {@link #state} 和 {@link #elapsedInState} 驱动技能动画 / 特效。
      */
     final class Skill {
         public final String id;
+        /** 驻留后的整数 ID */
+        public final int intId;
         public final String name;
         public final float castTime;   // 前摇（秒）
         public final float backSwing;  // 后摇（秒）
@@ -42,9 +94,20 @@ public interface SkillSystem {
         public float elapsedInState = 0f;
         public float cdRemaining = 0f;
 
+        // 所属技能系统，以及 SkillScheduler 时间轮中的侵入式链表节点
+        BasicSkillSystem owner;
+        Skill timerNext;
+        Skill timerPrev;
+        int timerSlot = SkillScheduler.UNSCHEDULED;
+        long timerDeadline;
+        long stateStartTick;
+        // 进入状态时 tick 内已经过去的时间（秒），在两次 advance 之间施放时不为 0
+        float stateStartOffset;
+
         public Skill(String id, String name, float castTime, float backSwing,
                      float cooldown, int baseDamage) {
             this.id = id;
+            this.intId = SkillIds.intern(id);
             this.name = name;
             this.castTime = castTime;
             this.backSwing = backSwing;
@@ -78,18 +141,115 @@ public interface SkillSystem {
      * 一个简单的技能系统实现：
      * - 单线程更新，所有技能独立管理自己的状态机
      * - 不考虑打断 / 位移施法等复杂逻辑
+     *
+     * 工作原理：
+     * - 按整数 ID 建立 IntMap 索引（技能书很大、全局技能种类很多时也不会为每个角色分配大数组）
+     * - cast 成功的技能进入活动列表，update 只遍历活动列表，回到 READY 时移出
+     *
+     * 调度模式（构造时传入 {@link SkillScheduler}）：
+     * - 状态切换作为事件插入世界级时间轮，由 scheduler.advance 驱动，本系统的 update 不做任何事
+     *
+     * 注意：如果在外部直接把技能状态改成非 READY，需要通过 cast 进入，否则不会被更新
      */
     class BasicSkillSystem implements SkillSystem {
 
         private final Array<Skill> skills = new Array<>();
+        private final IntMap<Skill> skillsById = new IntMap<>();
+        // 正在施法 / 后摇 / 冷却的技能（无序，移除时用末尾元素填补）
+        private final Array<Skill> active = new Array<>(false, 8);
         private final Listener listener;
+        private final SkillScheduler scheduler;
 
         public BasicSkillSystem(Listener listener) {
+            this(listener, null);
+        }
+
+        /**
+         * @param listener  技能生效回调
+         * @param scheduler 世界级时间线调度器，为 null 时逐帧更新
+         */
+        public BasicSkillSystem(Listener listener, SkillScheduler scheduler) {
             this.listener = listener;
+            this.scheduler = scheduler;
         }
 
+        /**
+         * 添加技能，已存在相同 ID 的技能时替换
+         */
         public void addSkill(Skill skill) {
+            Skill old = skillsById.put(skill.intId, skill);
+            if (old != null) {
+                skills.removeValue(old, true);
+                active.removeValue(old, true);
+                if (scheduler != null) {
+                    scheduler.cancel(old);
+                }
+                old.owner = null;
+            }
+            skill.owner = this;
             skills.add(skill);
+            if (skill.state != State.READY) {
+                activate(skill);
+            }
+        }
+
+        /**
+         * @return 逐帧模式下当前处于施法 / 后摇 / 冷却中的技能数量（调度模式下为 0）
+         */
+        public int getActiveCount() {
+            return active.size;
+        }
+
+        /**
+         * 技能进入非 READY 状态：逐帧模式加入活动列表，调度模式按剩余时间插入时间轮
+         */
+        private void activate(Skill s) {
+            if (scheduler == null) {
+                active.add(s);
+                return;
+            }
+            switch (s.state) {
+                case CASTING:
+                    scheduler.schedule(s, s.castTime - s.elapsedInState);
+                    break;
+                case BACK_SWING:
+                    scheduler.schedule(s, s.backSwing - s.elapsedInState);
+                    break;
+                case COOLDOWN:
+                    scheduler.schedule(s, s.cdRemaining);
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        /**
+         * 时间轮中的状态切换到期（由 SkillScheduler 回调）
+         */
+        void onScheduledTransition(Skill s) {
+            switch (s.state) {
+                case CASTING:
+                    s.state = State.BACK_SWING;
+                    s.elapsedInState = 0f;
+                    scheduler.schedule(s, s.backSwing);
+                    if (listener != null) {
+                        listener.onSkillImpact(s);
+                    }
+                    break;
+                case BACK_SWING:
+                    s.state = State.COOLDOWN;
+                    s.cdRemaining = s.cooldown;
+                    s.elapsedInState = 0f;
+                    scheduler.schedule(s, s.cooldown);
+                    break;
+                case COOLDOWN:
+                    s.cdRemaining = 0f;
+                    s.state = State.READY;
+                    s.elapsedInState = 0f;
+                    break;
+                default:
+                    break;
+            }
         }
 
         @Override
@@ -99,58 +259,92 @@ public interface SkillSystem {
 
         @Override
         public Skill getSkill(String id) {
-            for (Skill s : skills) {
-                if (s.id.equals(id)) return s;
+            int intId = SkillIds.find(id);
+            return intId < 0 ? null : getSkill(intId);
+        }
+
+        @Override
+        public Skill getSkill(int intId) {
+            Skill s = skillsById.get(intId);
+            if (s != null && scheduler != null) {
+                scheduler.sync(s);
             }
-            return null;
+            return s;
         }
 
         @Override
         public boolean cast(String id) {
-            Skill s = getSkill(id);
+            int intId = SkillIds.find(id);
+            return intId >= 0 && cast(intId);
+        }
+
+        @Override
+        public boolean cast(int intId) {
+            Skill s = skillsById.get(intId);
             if (s == null) return false;
             if (s.state != State.READY) return false;
 
             s.state = State.CASTING;
             s.elapsedInState = 0f;
+            activate(s);
             return true;
         }
 
         @Override
         public void update(float deltaSeconds) {
-            for (Skill s : skills) {
+            // 调度模式下由 SkillScheduler.advance 驱动，活动列表始终为空
+            // 倒序遍历：移除时末尾元素填到当前位置，它已经更新过
+            for (int i = active.size - 1; i >= 0; i--) {
+                Skill s = active.get(i);
+                if (advance(s, deltaSeconds)) {
+                    active.removeIndex(i);
+                }
+            }
+        }
+
+        /**
+         * 推进一个技能的状态机。一次 delta 可能跨过多个阶段（大 delta / 低 tick 率），
+         * 超出当前阶段的时间顺延到下一阶段，不会丢失；onSkillImpact 回调时
+         * elapsedInState 已经包含顺延到后摇里的时间
+         * @return 技能是否回到 READY
+         */
+        private boolean advance(Skill s, float deltaSeconds) {
+            float remaining = deltaSeconds;
+            while (true) {
                 switch (s.state) {
-                    case READY:
-                        // 无事可做
-                        break;
                     case CASTING:
-                        s.elapsedInState += deltaSeconds;
-                        if (s.elapsedInState >= s.castTime) {
-                            // 进入生效瞬间：切到后摇状态并触发 impact 回调
-                            s.state = State.BACK_SWING;
-                            s.elapsedInState = 0f;
-                            if (listener != null) {
-                                listener.onSkillImpact(s);
-                            }
+                        s.elapsedInState += remaining;
+                        if (s.elapsedInState < s.castTime) return false;
+                        // 进入生效瞬间：切到后摇状态并触发 impact 回调
+                        remaining = s.elapsedInState - s.castTime;
+                        s.state = State.BACK_SWING;
+                        s.elapsedInState = remaining;
+                        remaining = 0f;
+                        if (listener != null) {
+                            listener.onSkillImpact(s);
                         }
+                        // 后摇的推进已经通过 elapsedInState 完成，这里只检查是否越过后摇
                         break;
                     case BACK_SWING:
-                        s.elapsedInState += deltaSeconds;
-                        if (s.elapsedInState >= s.backSwing) {
-                            // 进入冷却
-                            s.state = State.COOLDOWN;
-                            s.cdRemaining = s.cooldown;
-                            s.elapsedInState = 0f;
-                        }
+                        s.elapsedInState += remaining;
+                        if (s.elapsedInState < s.backSwing) return false;
+                        // 进入冷却
+                        remaining = s.elapsedInState - s.backSwing;
+                        s.state = State.COOLDOWN;
+                        s.cdRemaining = s.cooldown;
+                        s.elapsedInState = 0f;
                         break;
                     case COOLDOWN:
-                        s.cdRemaining -= deltaSeconds;
-                        if (s.cdRemaining <= 0f) {
-                            s.cdRemaining = 0f;
-                            s.state = State.READY;
-                            s.elapsedInState = 0f;
-                        }
-                        break;
+                        s.cdRemaining -= remaining;
+                        s.elapsedInState += remaining;
+                        if (s.cdRemaining > 0f) return false;
+                        s.cdRemaining = 0f;
+                        s.state = State.READY;
+                        s.elapsedInState = 0f;
+                        return true;
+                    default:
+                        // READY（可能被外部重置）：移出活动列表
+                        return true;
                 }
             }
         }
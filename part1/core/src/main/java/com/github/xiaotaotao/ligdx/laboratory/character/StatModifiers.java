@@ -0,0 +1,295 @@
+package com.github.xiaotaotao.ligdx.laboratory.character;
+
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+
+/**
+ * 属性修改器栈（buff / debuff / 装备加成等）
+ *
+ * 计算顺序（每个属性独立）：
+ * - 派生值 = (基础值 + 所有加法修改器之和) × (1 + 所有乘法修改器之和)
+ * - 存在覆盖修改器时直接取最后添加的那个覆盖值
+ * - 整数属性四舍五入，结果不小于 0
+ *
+ * 设计说明：
+ * - 增删修改器只递增版本号，不立即计算；使用方比较版本号，变化时才调用 {@link #apply} 重算
+ * - 到期时间用内部时钟上的绝对时间记录，并维护最近一次到期时间，
+ *   没有修改器到期的帧里 {@link #update} 只做一次比较，不遍历修改器
+ * - 内部时钟和到期时间用 double：float 时钟运行几天后，累加 1/60 秒的帧间隔会被舍入，
+ *   时钟先变快、约 6 天后完全停住，修改器不再按时到期
+ * - 只能修改上限类属性（MAX_HP/MAX_MP/ATTACK/DEFENSE/ATTACK_SPEED/MOVE_SPEED），
+ *   当前 HP/MP 是状态而不是属性，不允许挂修改器
+ *
+ * 使用方式：
+ * <pre>
+ * // 力量卷轴：攻击 +10，再提升 20%，持续 10 秒
+ * modifiers.add(Stats.ATTACK, StatModifiers.Type.ADD, 10, 10f, scroll);
+ * modifiers.add(Stats.ATTACK, StatModifiers.Type.MULTIPLY, 0.2f, 10f, scroll);
+ * // 提前驱散
+ * modifiers.removeBySource(scroll);
+ * </pre>
+ */
+public class StatModifiers {
+
+    /** 修改器类型 */
+    public enum Type {
+        /** 加到基础值上 */
+        ADD,
+        /** 按比例提升（0.2 表示 +20%，多个相加后再乘） */
+        MULTIPLY,
+        /** 直接覆盖为指定值（例如定身时移速为 0） */
+        OVERRIDE
+    }
+
+    /** 可以挂修改器的属性 */
+    private static final int MODIFIABLE = AttributeSystem.Stats.ALL
+            & ~(AttributeSystem.Stats.HP | AttributeSystem.Stats.MP);
+
+    /** Stats 位掩码的字段数量 */
+    private static final int FIELD_COUNT = 8;
+
+    /**
+     * 一个修改器（add 返回的句柄，可用于提前移除）
+     */
+    public static final class Modifier {
+        final int stat;
+        final Type type;
+        final float value;
+        final Object source;
+        /** 到期的内部时钟时间，永久修改器为正无穷 */
+        double expireAt;
+
+        Modifier(int stat, Type type, float value, Object source) {
+            this.stat = stat;
+            this.type = type;
+            this.value = value;
+            this.source = source;
+        }
+
+        public int getStat() {
+            return stat;
+        }
+
+        public Type getType() {
+            return type;
+        }
+
+        public float getValue() {
+            return value;
+        }
+
+        public Object getSource() {
+            return source;
+        }
+    }
+
+    // 按添加顺序保存（覆盖修改器取最后一个）
+    private final Array<Modifier> modifiers = new Array<>(true, 16);
+
+    // 重算时的累加缓冲（按字段下标）
+    private final float[] addSum = new float[FIELD_COUNT];
+    private final float[] mulSum = new float[FIELD_COUNT];
+    private final float[] overrideValue = new float[FIELD_COUNT];
+
+    private double clock;
+    private double nextExpiry = Double.POSITIVE_INFINITY;
+    private int version;
+
+    /**
+     * 添加修改器
+     * @param stat     属性位，{@link AttributeSystem.Stats#ATTACK} 等单个常量
+     * @param type     修改方式
+     * @param value    加法为增加量，乘法为比例，覆盖为目标值
+     * @param duration 持续时间（秒），小于等于 0 表示永久
+     * @param source   来源（卷轴、装备等），用于 removeBySource，可以为 null
+     * @return 修改器句柄
+     */
+    public Modifier add(int stat, Type type, float value, float duration, Object source) {
+        if (Integer.bitCount(stat) != 1 || (stat & MODIFIABLE) == 0) {
+            throw new GdxRuntimeException("Stat cannot be modified: " + stat);
+        }
+        if (type == null) {
+            throw new GdxRuntimeException("Modifier type is null");
+        }
+        Modifier modifier = new Modifier(stat, type, value, source);
+        modifier.expireAt = duration > 0 ? clock + duration : Double.POSITIVE_INFINITY;
+        nextExpiry = Math.min(nextExpiry, modifier.expireAt);
+        modifiers.add(modifier);
+        version++;
+        return modifier;
+    }
+
+    /**
+     * 移除指定修改器
+     * @return 是否存在并已移除
+     */
+    public boolean remove(Modifier modifier) {
+        if (modifiers.removeValue(modifier, true)) {
+            version++;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * 移除来自某个来源的全部修改器
+     * @return 移除的数量
+     */
+    public int removeBySource(Object source) {
+        int removed = 0;
+        for (int i = modifiers.size - 1; i >= 0; i--) {
+            if (modifiers.get(i).source == source) {
+                modifiers.removeIndex(i);
+                removed++;
+            }
+        }
+        if (removed > 0) {
+            version++;
+        }
+        return removed;
+    }
+
+    public void clear() {
+        if (modifiers.size > 0) {
+            modifiers.clear();
+            version++;
+        }
+        nextExpiry = Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * 推进内部时钟并移除到期的修改器
+     * @param delta 帧间隔（秒）
+     */
+    public void update(float delta) {
+        clock += delta;
+        if (clock < nextExpiry) return;
+
+        double next = Double.POSITIVE_INFINITY;
+        int removed = 0;
+        for (int i = modifiers.size - 1; i >= 0; i--) {
+            double expireAt = modifiers.get(i).expireAt;
+            if (expireAt <= clock) {
+                modifiers.removeIndex(i);
+                removed++;
+            } else if (expireAt < next) {
+                next = expireAt;
+            }
+        }
+        nextExpiry = next;
+        if (removed > 0) {
+            version++;
+        }
+    }
+
+    /**
+     * 标记需要重算（例如基础属性被直接修改后）
+     */
+    public void invalidate() {
+        version++;
+    }
+
+    /**
+     * @return 版本号，任何会影响派生属性的变化都会使它改变
+     */
+    public int getVersion() {
+        return version;
+    }
+
+    public int size() {
+        return modifiers.size;
+    }
+
+    /**
+     * @return 来自某个来源的修改器数量
+     */
+    public int countBySource(Object source) {
+        int count = 0;
+        for (int i = 0; i < modifiers.size; i++) {
+            if (modifiers.get(i).source == source) count++;
+        }
+        return count;
+    }
+
+    /**
+     * @return 某个修改器剩余时间（秒），永久修改器为正无穷
+     */
+    public float getRemaining(Modifier modifier) {
+        return (float) (modifier.expireAt - clock);
+    }
+
+    /**
+     * 根据基础属性和当前修改器计算派生属性（只写入可修改的字段，HP/MP 不动）
+     * @param base 基础属性
+     * @param out  派生属性
+     * @return 实际发生变化的字段掩码
+     */
+    public int apply(AttributeSystem.Stats base, AttributeSystem.Stats out) {
+        int overrideMask = 0;
+        for (int i = 0; i < FIELD_COUNT; i++) {
+            addSum[i] = 0f;
+            mulSum[i] = 0f;
+        }
+        for (int i = 0; i < modifiers.size; i++) {
+            Modifier m = modifiers.get(i);
+            int field = Integer.numberOfTrailingZeros(m.stat);
+            switch (m.type) {
+                case ADD:
+                    addSum[field] += m.value;
+                    break;
+                case MULTIPLY:
+                    mulSum[field] += m.value;
+                    break;
+                case OVERRIDE:
+                    overrideValue[field] = m.value;
+                    overrideMask |= m.stat;
+                    break;
+            }
+        }
+
+        int changed = 0;
+        int maxHp = intStat(AttributeSystem.Stats.MAX_HP, base.maxHp, overrideMask);
+        if (maxHp != out.maxHp) {
+            out.maxHp = maxHp;
+            changed |= AttributeSystem.Stats.MAX_HP;
+        }
+        int maxMp = intStat(AttributeSystem.Stats.MAX_MP, base.maxMp, overrideMask);
+        if (maxMp != out.maxMp) {
+            out.maxMp = maxMp;
+            changed |= AttributeSystem.Stats.MAX_MP;
+        }
+        int attack = intStat(AttributeSystem.Stats.ATTACK, base.attack, overrideMask);
+        if (attack != out.attack) {
+            out.attack = attack;
+            changed |= AttributeSystem.Stats.ATTACK;
+        }
+        int defense = intStat(AttributeSystem.Stats.DEFENSE, base.defense, overrideMask);
+        if (defense != out.defense) {
+            out.defense = defense;
+            changed |= AttributeSystem.Stats.DEFENSE;
+        }
+        float attackSpeed = floatStat(AttributeSystem.Stats.ATTACK_SPEED, base.attackSpeed, overrideMask);
+        if (attackSpeed != out.attackSpeed) {
+            out.attackSpeed = attackSpeed;
+            changed |= AttributeSystem.Stats.ATTACK_SPEED;
+        }
+        float moveSpeed = floatStat(AttributeSystem.Stats.MOVE_SPEED, base.moveSpeed, overrideMask);
+        if (moveSpeed != out.moveSpeed) {
+            out.moveSpeed = moveSpeed;
+            changed |= AttributeSystem.Stats.MOVE_SPEED;
+        }
+        return changed;
+    }
+
+    private float floatStat(int stat, float base, int overrideMask) {
+        int field = Integer.numberOfTrailingZeros(stat);
+        if ((overrideMask & stat) != 0) {
+            return Math.max(0f, overrideValue[field]);
+        }
+        return Math.max(0f, (base + addSum[field]) * (1f + mulSum[field]));
+    }
+
+    private int intStat(int stat, int base, int overrideMask) {
+        return Math.round(floatStat(stat, base, overrideMask));
+    }
+}
@@ -0,0 +1,88 @@
+package com.github.xiaotaotao.ligdx.laboratory.concurrent;
+
+/**
+ * 自适应块大小：根据实测的单对象耗时调整每块的对象数量
+ *
+ * 设计说明：
+ * - 块太小：调度 / 同步开销占主导；块太大：线程之间负载不均衡
+ * - 目标是让每块耗时接近 targetChunkNanos（默认 50 微秒），同时保证每个线程至少能分到几块
+ * - 单对象耗时使用指数移动平均，避免偶发的 GC / 调度抖动导致块大小来回跳
+ *
+ * 使用方式：
+ * <pre>
+ * int chunk = chunkSize.get(count, executor.getParallelism());
+ * long start = System.nanoTime();
+ * executor.forEachChunk(count, chunk, task);
+ * chunkSize.record(count, System.nanoTime() - start, executor.getParallelism());
+ * </pre>
+ */
+public class AdaptiveChunkSize {
+
+    /** 默认每块的目标耗时（纳秒） */
+    private static final long DEFAULT_TARGET_CHUNK_NANOS = 50_000L;
+
+    /** 每个线程至少分到的块数（用于负载均衡） */
+    private static final int MIN_CHUNKS_PER_THREAD = 4;
+
+    /** 移动平均的权重（新样本所占比例） */
+    private static final float SMOOTHING = 0.2f;
+
+    private final long targetChunkNanos;
+    private final int minChunkSize;
+
+    /** 单对象耗时的移动平均（纳秒），0 表示还没有样本 */
+    private float nanosPerObject;
+
+    public AdaptiveChunkSize() {
+        this(DEFAULT_TARGET_CHUNK_NANOS, 16);
+    }
+
+    /**
+     * @param targetChunkNanos 每块的目标耗时（纳秒）
+     * @param minChunkSize     块大小下限
+     */
+    public AdaptiveChunkSize(long targetChunkNanos, int minChunkSize) {
+        this.targetChunkNanos = targetChunkNanos;
+        this.minChunkSize = Math.max(1, minChunkSize);
+    }
+
+    /**
+     * 计算本次使用的块大小
+     *
+     * @param count       对象数量
+     * @param parallelism 参与计算的线程数
+     * @return 块大小
+     */
+    public int get(int count, int parallelism) {
+        // 负载均衡上限：保证每个线程至少能分到 MIN_CHUNKS_PER_THREAD 块
+        int balanceLimit = Math.max(minChunkSize, count / Math.max(1, parallelism * MIN_CHUNKS_PER_THREAD));
+        if (nanosPerObject <= 0f) {
+            return balanceLimit;
+        }
+        int bySpeed = (int) (targetChunkNanos / nanosPerObject);
+        return Math.max(minChunkSize, Math.min(bySpeed, balanceLimit));
+    }
+
+    /**
+     * 记录一次执行的耗时
+     *
+     * @param count       对象数量
+     * @param elapsedNanos 总耗时（墙钟时间）
+     * @param parallelism 参与计算的线程数
+     */
+    public void record(int count, long elapsedNanos, int parallelism) {
+        if (count <= 0 || elapsedNanos <= 0) {
+            return;
+        }
+        // 墙钟时间 × 线程数 ≈ 总 CPU 时间，再平摊到每个对象
+        float sample = (float) elapsedNanos * Math.max(1, parallelism) / count;
+        nanosPerObject = nanosPerObject <= 0f ? sample : nanosPerObject + (sample - nanosPerObject) * SMOOTHING;
+    }
+
+    /**
+     * @return 单对象耗时的移动平均（纳秒）
+     */
+    public float getNanosPerObject() {
+        return nanosPerObject;
+    }
+}
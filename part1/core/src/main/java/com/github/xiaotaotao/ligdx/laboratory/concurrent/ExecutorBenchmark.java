@@ -0,0 +1,87 @@
+package com.github.xiaotaotao.ligdx.laboratory.concurrent;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.utils.Array;
+
+import java.util.Arrays;
+
+/**
+ * 执行器基准测试：在真实的对象数量和任务上跑几轮，选出最快的执行器
+ *
+ * 设计说明：
+ * - 每个候选先预热（JIT 编译、线程启动），再取多轮耗时的中位数，减少抖动影响
+ * - 块大小使用 AdaptiveChunkSize 在预热阶段学到的值，与实际运行时一致
+ * - 未被选中的执行器会被 dispose，调用方只需要管理返回的那一个
+ *
+ * 注意：任务会被真实执行多次，必须是可重复执行的（例如 delta=0 的更新）
+ */
+public final class ExecutorBenchmark {
+
+    private static final int WARMUP_ROUNDS = 20;
+    private static final int MEASURE_ROUNDS = 30;
+
+    private ExecutorBenchmark() {
+    }
+
+    /**
+     * 创建默认的候选执行器（单线程 / ForkJoin / 常驻虚拟线程）
+     *
+     * @return 候选列表
+     */
+    public static Array<ParallelExecutor> defaultCandidates() {
+        int cores = Runtime.getRuntime().availableProcessors();
+        Array<ParallelExecutor> candidates = new Array<>();
+        candidates.add(new ParallelExecutor.SingleThreadExecutor());
+        candidates.add(new ParallelExecutor.ForkJoinExecutor(cores));
+        candidates.add(new ParallelExecutor.PhaserWorkerExecutor(cores - 1));
+        return candidates;
+    }
+
+    /**
+     * 选出对当前对象数量最快的执行器（其余候选会被 dispose）
+     *
+     * @param candidates 候选执行器
+     * @param count      对象数量
+     * @param task       区间任务
+     * @return 最快的执行器
+     */
+    public static ParallelExecutor pickFastest(Array<ParallelExecutor> candidates, int count,
+                                               ParallelExecutor.RangeTask task) {
+        ParallelExecutor best = null;
+        long bestNanos = Long.MAX_VALUE;
+        long[] samples = new long[MEASURE_ROUNDS];
+
+        for (ParallelExecutor executor : candidates) {
+            AdaptiveChunkSize chunkSize = new AdaptiveChunkSize();
+            int parallelism = executor.getParallelism();
+            for (int i = 0; i < WARMUP_ROUNDS; i++) {
+                long start = System.nanoTime();
+                executor.forEachChunk(count, chunkSize.get(count, parallelism), task);
+                chunkSize.record(count, System.nanoTime() - start, parallelism);
+            }
+            int chunk = chunkSize.get(count, parallelism);
+            for (int i = 0; i < MEASURE_ROUNDS; i++) {
+                long start = System.nanoTime();
+                executor.forEachChunk(count, chunk, task);
+                samples[i] = System.nanoTime() - start;
+            }
+            Arrays.sort(samples);
+            long median = samples[MEASURE_ROUNDS / 2];
+            if (Gdx.app != null) {
+                Gdx.app.log("ExecutorBenchmark", executor.getName() + ": " + (median / 1000f) + " us for "
+                        + count + " objects (chunk " + chunk + ")");
+            }
+            if (median < bestNanos) {
+                bestNanos = median;
+                best = executor;
+            }
+        }
+
+        for (ParallelExecutor executor : candidates) {
+            if (executor != best) {
+                executor.dispose();
+            }
+        }
+        return best;
+    }
+}
@@ -0,0 +1,293 @@
+package com.github.xiaotaotao.ligdx.laboratory.concurrent;
+
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Phaser;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 并行执行器：把 [0, count) 按块分给多个线程执行，调用方阻塞到全部完成
+ *
+ * 设计说明：
+ * - 替代"每帧创建 N 个虚拟线程再 join"的做法，线程 / 线程池在执行器的生命周期内复用
+ * - 任务以区间 (start, end) 的形式提交，避免为每个对象创建任务对象
+ * - 提供三种实现，可用 {@link ExecutorBenchmark} 按对象数量选出最快的一种：
+ *   - {@link SingleThreadExecutor}：直接在调用线程上执行（对象少时通常最快）
+ *   - {@link ForkJoinExecutor}：常驻 ForkJoinPool，预分配任务对象，空闲线程会窃取任务
+ *   - {@link PhaserWorkerExecutor}：常驻虚拟线程，空闲时停在 Phaser 上，按块动态领取任务
+ *
+ * 注意：任务必须只访问 [start, end) 内的数据（或只读共享数据），执行器不做额外同步
+ */
+public interface ParallelExecutor extends Disposable {
+
+    /**
+     * 区间任务
+     */
+    @FunctionalInterface
+    interface RangeTask {
+        /**
+         * 处理 [start, end) 区间
+         *
+         * @param start 起始下标（包含）
+         * @param end   结束下标（不包含）
+         */
+        void run(int start, int end);
+    }
+
+    /**
+     * 分块执行任务，返回时所有块都已执行完毕（并且结果对调用线程可见）
+     *
+     * @param count     元素数量
+     * @param chunkSize 每块的元素数量（至少为 1）
+     * @param task      区间任务
+     */
+    void forEachChunk(int count, int chunkSize, RangeTask task);
+
+    /**
+     * @return 参与计算的线程数（含调用线程）
+     */
+    int getParallelism();
+
+    /**
+     * @return 名称（用于日志 / 基准测试输出）
+     */
+    String getName();
+
+    /**
+     * 单线程执行器：在调用线程上顺序执行所有块
+     */
+    class SingleThreadExecutor implements ParallelExecutor {
+
+        @Override
+        public void forEachChunk(int count, int chunkSize, RangeTask task) {
+            if (count > 0) {
+                task.run(0, count);
+            }
+        }
+
+        @Override
+        public int getParallelism() {
+            return 1;
+        }
+
+        @Override
+        public String getName() {
+            return "single-thread";
+        }
+
+        @Override
+        public void dispose() {
+        }
+    }
+
+    /**
+     * ForkJoin 执行器：常驻的 ForkJoinPool
+     *
+     * 工作原理：
+     * - 每个线程对应一个预先分配的任务对象，每次调用前 reinitialize() 复用，执行过程不分配内存
+     * - 任务之间通过原子计数器动态领取块，空闲线程会窃取尚未开始的任务
+     *
+     * 注意：同一时间只能有一次 forEachChunk 在执行，多个调用方会被串行化
+     */
+    class ForkJoinExecutor implements ParallelExecutor {
+        private final ForkJoinPool pool;
+        private final ChunkAction[] actions;
+        private final RecursiveAction root;
+        private final AtomicInteger nextChunk = new AtomicInteger();
+
+        /** 当前任务（ForkJoinPool.invoke 保证对工作线程可见） */
+        private RangeTask task;
+        private int count;
+        private int chunkSize;
+        private int chunkCount;
+
+        /**
+         * @param parallelism 线程数
+         */
+        @SuppressWarnings("serial") // 任务对象只在进程内复用，不会被序列化
+        public ForkJoinExecutor(int parallelism) {
+            this.pool = new ForkJoinPool(Math.max(1, parallelism));
+            this.actions = new ChunkAction[pool.getParallelism()];
+            for (int i = 0; i < actions.length; i++) {
+                actions[i] = new ChunkAction();
+            }
+            this.root = new RecursiveAction() {
+                @Override
+                protected void compute() {
+                    invokeAll(actions);
+                }
+            };
+        }
+
+        @Override
+        public synchronized void forEachChunk(int count, int chunkSize, RangeTask task) {
+            if (count <= 0) {
+                return;
+            }
+            this.task = task;
+            this.count = count;
+            this.chunkSize = Math.max(1, chunkSize);
+            this.chunkCount = (count + this.chunkSize - 1) / this.chunkSize;
+            nextChunk.set(0);
+            for (ChunkAction action : actions) {
+                action.reinitialize();
+            }
+            root.reinitialize();
+            try {
+                pool.invoke(root);
+            } finally {
+                this.task = null;
+            }
+        }
+
+        @Override
+        public int getParallelism() {
+            return pool.getParallelism();
+        }
+
+        @Override
+        public String getName() {
+            return "fork-join";
+        }
+
+        @Override
+        public void dispose() {
+            pool.shutdown();
+        }
+
+        @SuppressWarnings("serial")
+        private class ChunkAction extends RecursiveAction {
+            @Override
+            protected void compute() {
+                int chunk;
+                while ((chunk = nextChunk.getAndIncrement()) < chunkCount) {
+                    int start = chunk * chunkSize;
+                    task.run(start, Math.min(start + chunkSize, count));
+                }
+            }
+        }
+    }
+
+    /**
+     * 常驻虚拟线程执行器
+     *
+     * 工作原理：
+     * - 构造时启动 workerCount 个虚拟线程，空闲时停在 Phaser 上（虚拟线程挂起不占用平台线程）
+     * - forEachChunk 推进一个阶段唤醒所有工作线程，调用线程也参与计算
+     * - 所有线程通过原子计数器动态领取块，处理快的线程会多领，负载自动均衡
+     * - 再推进一个阶段等待所有线程完成，Phaser 保证结果对调用线程可见
+     *
+     * 注意：同一时间只能有一次 forEachChunk 在执行，多个调用方会被串行化
+     */
+    class PhaserWorkerExecutor implements ParallelExecutor {
+        private final Phaser phaser;
+        private final Thread[] workers;
+        private final AtomicInteger nextChunk = new AtomicInteger();
+
+        /** 当前任务（由 Phaser 的阶段推进保证可见性） */
+        private RangeTask task;
+        private int count;
+        private int chunkSize;
+        private int chunkCount;
+        private volatile Throwable failure;
+        private volatile boolean shutdown;
+
+        /**
+         * @param workerCount 工作线程数量（不含调用线程）
+         */
+        public PhaserWorkerExecutor(int workerCount) {
+            int workerTotal = Math.max(1, workerCount);
+            // 参与方 = 工作线程 + 调用线程
+            this.phaser = new Phaser(workerTotal + 1);
+            this.workers = new Thread[workerTotal];
+            for (int i = 0; i < workerTotal; i++) {
+                workers[i] = Thread.ofVirtual().name("parallel-worker-", i).start(this::workerLoop);
+            }
+        }
+
+        private void workerLoop() {
+            while (true) {
+                // 等待开始信号
+                phaser.arriveAndAwaitAdvance();
+                if (shutdown) {
+                    phaser.arriveAndDeregister();
+                    return;
+                }
+                runChunks();
+                // 报告完成
+                phaser.arriveAndAwaitAdvance();
+            }
+        }
+
+        private void runChunks() {
+            try {
+                int chunk;
+                while ((chunk = nextChunk.getAndIncrement()) < chunkCount) {
+                    int start = chunk * chunkSize;
+                    task.run(start, Math.min(start + chunkSize, count));
+                }
+            } catch (Throwable t) {
+                failure = t;
+                // 让其他线程尽快结束本轮
+                nextChunk.set(chunkCount);
+            }
+        }
+
+        @Override
+        public synchronized void forEachChunk(int count, int chunkSize, RangeTask task) {
+            if (shutdown) {
+                throw new GdxRuntimeException("PhaserWorkerExecutor already disposed");
+            }
+            if (count <= 0) {
+                return;
+            }
+            this.task = task;
+            this.count = count;
+            this.chunkSize = Math.max(1, chunkSize);
+            this.chunkCount = (count + this.chunkSize - 1) / this.chunkSize;
+            this.failure = null;
+            nextChunk.set(0);
+
+            phaser.arriveAndAwaitAdvance();
+            runChunks();
+            phaser.arriveAndAwaitAdvance();
+
+            this.task = null;
+            Throwable error = failure;
+            if (error != null) {
+                throw new GdxRuntimeException("Parallel task failed", error);
+            }
+        }
+
+        @Override
+        public int getParallelism() {
+            return workers.length + 1;
+        }
+
+        @Override
+        public String getName() {
+            return "phaser-virtual-" + workers.length;
+        }
+
+        @Override
+        public synchronized void dispose() {
+            if (shutdown) {
+                return;
+            }
+            shutdown = true;
+            // 推进开始阶段，工作线程看到 shutdown 后注销退出
+            phaser.arriveAndDeregister();
+            for (Thread worker : workers) {
+                try {
+                    worker.join(1000);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+}
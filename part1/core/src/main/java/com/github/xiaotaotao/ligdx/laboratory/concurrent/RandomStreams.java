@@ -0,0 +1,106 @@
+package com.github.xiaotaotao.ligdx.laboratory.concurrent;
+
+/**
+ * 并行模拟用的确定性随机流：由一个世界种子派生出互不相关的随机序列
+ *
+ * 工作原理（与 SplittableRandom 相同的 SplitMix64 混合函数）：
+ * - 每一步调用 {@link #beginStep(long)}，从 (世界种子, 步数) 派生出本步的种子
+ * - 工作线程用 {@link #streamFor(long)} 取自己的生成器，并按键（通常是对象下标）重新播种
+ * - 同一个 (世界种子, 步数, 键) 总是得到同一段序列，与线程数、块大小、执行顺序都无关
+ *
+ * 设计说明：
+ * - 每个工作线程持有自己的 {@link Stream}（ThreadLocal），没有共享状态，也就没有争用
+ * - 按键而不是按块拆分：块大小由 {@link AdaptiveChunkSize} 动态调整，按块拆分时结果会随机器变化
+ * - 重新播种只是一次整数混合，不分配对象，可以在热路径上逐对象调用
+ *
+ * 使用方式：
+ * <pre>
+ * RandomStreams random = new RandomStreams(worldSeed);
+ *
+ * random.beginStep(tick);                      // 模拟线程，forEachChunk 之前
+ *
+ * RandomStreams.Stream r = random.streamFor(i); // 工作线程，处理第 i 个对象时
+ * float speed = r.nextFloat(50f, 200f);
+ * </pre>
+ *
+ * 注意：beginStep 必须在分发任务之前调用（执行器保证写入对工作线程可见）；
+ * streamFor 返回的生成器只能在当前线程使用，下一次 streamFor 会覆盖它的状态
+ */
+public final class RandomStreams {
+
+    /** 黄金比例常数（SplitMix64 的步进增量） */
+    private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+
+    private final long worldSeed;
+    private final ThreadLocal<Stream> streams = ThreadLocal.withInitial(Stream::new);
+
+    /** 本步的种子（beginStep 写入，工作线程只读） */
+    private long stepSeed;
+
+    /**
+     * @param worldSeed 世界种子（相同种子的两次运行结果完全一致）
+     */
+    public RandomStreams(long worldSeed) {
+        this.worldSeed = worldSeed;
+        beginStep(0);
+    }
+
+    /**
+     * 进入新的一步，之后 streamFor 派生出的序列都属于这一步
+     *
+     * @param step 步数
+     */
+    public void beginStep(long step) {
+        stepSeed = mix64(worldSeed + mix64(step * GOLDEN_GAMMA));
+    }
+
+    /**
+     * 取得当前线程的生成器，并按键重新播种
+     *
+     * @param key 键（对象下标等），同一步内不同的键得到互不相关的序列
+     * @return 当前线程的生成器
+     */
+    public Stream streamFor(long key) {
+        Stream stream = streams.get();
+        stream.state = mix64(stepSeed + key * GOLDEN_GAMMA);
+        return stream;
+    }
+
+    public long getWorldSeed() {
+        return worldSeed;
+    }
+
+    /**
+     * SplitMix64 的输出混合函数
+     */
+    static long mix64(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * 单线程使用的随机生成器（SplitMix64）
+     */
+    public static final class Stream {
+        private long state;
+
+        public long nextLong() {
+            return mix64(state += GOLDEN_GAMMA);
+        }
+
+        /**
+         * @return [0, 1) 之间的 float
+         */
+        public float nextFloat() {
+            return (nextLong() >>> 40) * 0x1.0p-24f;
+        }
+
+        /**
+         * @return [min, max) 之间的 float
+         */
+        public float nextFloat(float min, float max) {
+            return min + nextFloat() * (max - min);
+        }
+    }
+}
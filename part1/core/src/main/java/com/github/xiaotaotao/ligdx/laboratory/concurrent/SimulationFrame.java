@@ -0,0 +1,90 @@
+package com.github.xiaotaotao.ligdx.laboratory.concurrent;
+
+/**
+ * 一帧完整的模拟状态（模拟线程写入，通过 {@link TripleBuffer} 交给渲染线程读取）
+ *
+ * 内容：
+ * - 实体变换：每个实体 {@link #TRANSFORM_STRIDE} 个 float（x, y, 旋转角度, 缩放）
+ * - 动画帧下标：每个实体一个 int
+ * - HUD 数值：按下标约定含义的 float 数组（例如 0=HP，1=分数），由使用方自行定义
+ *
+ * 设计说明：
+ * - 数组按容量预先分配，只在实体数量超过容量时才扩容，正常运行时不分配内存
+ * - 渲染线程只读 entityCount 以内的数据
+ */
+public class SimulationFrame {
+
+    /** 每个实体的变换数据：x, y, rotation, scale */
+    public static final int TRANSFORM_STRIDE = 4;
+
+    /** 默认的 HUD 数值个数 */
+    private static final int DEFAULT_HUD_SIZE = 16;
+
+    /** 模拟步数（每次 step 加一） */
+    public long tick;
+    /** 模拟时间（秒） */
+    public float time;
+
+    /** 有效实体数量 */
+    public int entityCount;
+    /** 实体变换（entityCount * TRANSFORM_STRIDE） */
+    public float[] transforms;
+    /** 动画帧下标（entityCount） */
+    public int[] animationFrames;
+    /** HUD 数值 */
+    public final float[] hud;
+
+    public SimulationFrame() {
+        this(0, DEFAULT_HUD_SIZE);
+    }
+
+    /**
+     * @param capacity 实体容量
+     * @param hudSize  HUD 数值个数
+     */
+    public SimulationFrame(int capacity, int hudSize) {
+        transforms = new float[capacity * TRANSFORM_STRIDE];
+        animationFrames = new int[capacity];
+        hud = new float[hudSize];
+    }
+
+    /**
+     * 确保能容纳 count 个实体（不够时扩容，已有数据不保留）并设置 entityCount
+     *
+     * @param count 实体数量
+     */
+    public void setEntityCount(int count) {
+        if (animationFrames.length < count) {
+            transforms = new float[count * TRANSFORM_STRIDE];
+            animationFrames = new int[count];
+        }
+        entityCount = count;
+    }
+
+    /**
+     * 写入一个实体的变换
+     */
+    public void setTransform(int index, float x, float y, float rotation, float scale) {
+        int offset = index * TRANSFORM_STRIDE;
+        transforms[offset] = x;
+        transforms[offset + 1] = y;
+        transforms[offset + 2] = rotation;
+        transforms[offset + 3] = scale;
+    }
+
+    public float getX(int index) {
+        return transforms[index * TRANSFORM_STRIDE];
+    }
+
+    public float getY(int index) {
+        return transforms[index * TRANSFORM_STRIDE + 1];
+    }
+
+    public float getRotation(int index) {
+        return transforms[index * TRANSFORM_STRIDE + 2];
+    }
+
+    public float getScale(int index) {
+        return transforms[index * TRANSFORM_STRIDE + 3];
+    }
+}
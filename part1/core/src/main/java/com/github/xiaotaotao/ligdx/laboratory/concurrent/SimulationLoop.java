@@ -0,0 +1,149 @@
+package com.github.xiaotaotao.ligdx.laboratory.concurrent;
+
+import com.badlogic.gdx.utils.Disposable;
+
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+/**
+ * 渲染线程之外的固定步长模拟循环
+ *
+ * 工作原理：
+ * - 在一个虚拟线程中按固定步长（默认 1/60 秒）调用 {@link Simulation#step}
+ * - 每一步直接写入三缓冲的写缓冲区，写完立即发布，渲染线程用 {@link #acquire()} 取最新帧
+ * - 模拟落后时最多追赶 MAX_CATCH_UP_STEPS 步，避免"越慢越追、越追越慢"
+ *
+ * 使用方式（任意 Screen）：
+ * <pre>
+ * loop = new SimulationLoop&lt;&gt;(simulation, SimulationFrame::new); // show()
+ * loop.start();
+ *
+ * SimulationFrame frame = loop.acquire();                       // render()
+ *
+ * loop.dispose();                                               // hide() / dispose()
+ * </pre>
+ *
+ * 注意：Simulation 只在模拟线程中调用，读写游戏状态时不要和渲染线程共享可变对象
+ *
+ * @param <F> 帧类型（需要额外输出时继承 {@link SimulationFrame}，例如携带顶点缓冲）
+ */
+public class SimulationLoop<F extends SimulationFrame> implements Disposable {
+
+    /** 单次唤醒最多追赶的步数 */
+    private static final int MAX_CATCH_UP_STEPS = 5;
+
+    /**
+     * 模拟逻辑
+     */
+    @FunctionalInterface
+    public interface Simulation<F extends SimulationFrame> {
+        /**
+         * 推进一步，并把这一步之后的完整状态写入 out
+         *
+         * @param dt  步长（秒）
+         * @param out 本帧的输出缓冲区（内容是更早的某一帧，需要完整覆盖）
+         */
+        void step(float dt, F out);
+    }
+
+    private final Simulation<F> simulation;
+    private final TripleBuffer<F> frames;
+    private final float stepSeconds;
+    private final long stepNanos;
+
+    private volatile boolean running;
+    private Thread thread;
+
+    /** 模拟线程内部计数 */
+    private long tick;
+    private float time;
+
+    /**
+     * @param simulation 模拟逻辑
+     * @param frames     帧缓冲区工厂
+     */
+    public SimulationLoop(Simulation<F> simulation, Supplier<F> frames) {
+        this(simulation, frames, 1f / 60f);
+    }
+
+    /**
+     * @param simulation  模拟逻辑
+     * @param frames      帧缓冲区工厂
+     * @param stepSeconds 固定步长（秒）
+     */
+    public SimulationLoop(Simulation<F> simulation, Supplier<F> frames,
+                          float stepSeconds) {
+        this.simulation = simulation;
+        this.frames = new TripleBuffer<>(frames);
+        this.stepSeconds = stepSeconds;
+        this.stepNanos = (long) (stepSeconds * 1_000_000_000L);
+    }
+
+    /**
+     * 启动模拟线程
+     */
+    public void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        thread = Thread.ofVirtual().name("simulation-loop").start(this::run);
+    }
+
+    private void run() {
+        long next = System.nanoTime();
+        while (running) {
+            int steps = 0;
+            long now = System.nanoTime();
+            while (now >= next && steps < MAX_CATCH_UP_STEPS) {
+                F out = frames.getWriteBuffer();
+                simulation.step(stepSeconds, out);
+                tick++;
+                time += stepSeconds;
+                out.tick = tick;
+                out.time = time;
+                frames.publish();
+                next += stepNanos;
+                steps++;
+            }
+            if (steps == MAX_CATCH_UP_STEPS) {
+                // 落后太多：放弃追赶，从当前时间重新开始计时
+                next = System.nanoTime() + stepNanos;
+            }
+            long wait = next - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+        }
+    }
+
+    /**
+     * 渲染线程：取得最新的完整帧（不阻塞，模拟尚未发布任何帧时 tick 为 0）
+     *
+     * @return 最新帧，在下一次 acquire 之前保持不变
+     */
+    public F acquire() {
+        return frames.acquire();
+    }
+
+    public float getStepSeconds() {
+        return stepSeconds;
+    }
+
+    /**
+     * 停止模拟线程并等待其退出
+     */
+    @Override
+    public void dispose() {
+        running = false;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+            try {
+                thread.join(1000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            thread = null;
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.github.xiaotaotao.ligdx.laboratory.concurrent;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * 无锁三缓冲：模拟线程发布完整的一帧状态，渲染线程总是读取最新的完整状态，双方都不会阻塞
+ *
+ * 工作原理：
+ * - 三个预先分配的缓冲区分别由"写者"、"读者"和"中间交换区"持有
+ * - 写者写完后把自己的缓冲区与中间交换区原子交换，并打上"新数据"标记
+ * - 读者只在有新数据时才与中间交换区交换，否则继续使用手里的那一帧
+ * - 任何时刻每个缓冲区只属于一方，不会出现读到一半被覆盖的情况
+ *
+ * 与双缓冲的区别：写者永远不需要等待读者读完（多出来的一个缓冲区就是为此准备的），
+ * 代价是读者可能跳过中间的帧（只关心最新状态的渲染正好需要这种语义）
+ *
+ * 使用方式：
+ * <pre>
+ * TripleBuffer&lt;SimulationFrame&gt; frames = new TripleBuffer&lt;&gt;(SimulationFrame::new);
+ *
+ * // 模拟线程
+ * SimulationFrame back = frames.getWriteBuffer();
+ * ... 写入 back ...
+ * frames.publish();
+ *
+ * // 渲染线程（每帧调用一次，在下一次 acquire 之前可以一直读取）
+ * SimulationFrame front = frames.acquire();
+ * </pre>
+ *
+ * 注意：只支持一个写线程和一个读线程
+ *
+ * @param <T> 缓冲区类型（由调用方定义内容，例如 {@link SimulationFrame}）
+ */
+public class TripleBuffer<T> {
+
+    /** 中间交换区：低 2 位为缓冲区下标，FRESH 表示写者发布了读者尚未取走的新数据 */
+    private static final int INDEX_MASK = 0b011;
+    private static final int FRESH = 0b100;
+
+    private final Object[] buffers = new Object[3];
+    private final AtomicInteger middle = new AtomicInteger(1);
+
+    /** 写者持有的缓冲区（只在写线程访问） */
+    private int writeIndex = 0;
+    /** 读者持有的缓冲区（只在读线程访问） */
+    private int readIndex = 2;
+
+    /**
+     * @param factory 缓冲区工厂（调用三次）
+     */
+    public TripleBuffer(Supplier<T> factory) {
+        for (int i = 0; i < buffers.length; i++) {
+            buffers[i] = factory.get();
+        }
+    }
+
+    /**
+     * 写线程：获取当前可写的缓冲区（内容是更早的某一帧，需要完整覆盖）
+     *
+     * @return 可写缓冲区
+     */
+    @SuppressWarnings("unchecked")
+    public T getWriteBuffer() {
+        return (T) buffers[writeIndex];
+    }
+
+    /**
+     * 写线程：发布刚写完的缓冲区（不阻塞）
+     */
+    public void publish() {
+        writeIndex = middle.getAndSet(writeIndex | FRESH) & INDEX_MASK;
+    }
+
+    /**
+     * 读线程：取得最新发布的缓冲区（没有新数据时返回上一次的缓冲区，不阻塞）
+     *
+     * @return 只读缓冲区，在下一次 acquire 之前保持不变
+     */
+    @SuppressWarnings("unchecked")
+    public T acquire() {
+        if ((middle.get() & FRESH) != 0) {
+            readIndex = middle.getAndSet(readIndex) & INDEX_MASK;
+        }
+        return (T) buffers[readIndex];
+    }
+
+    /**
+     * @return 写者是否发布了读者尚未取走的新数据
+     */
+    public boolean hasFresh() {
+        return (middle.get() & FRESH) != 0;
+    }
+}
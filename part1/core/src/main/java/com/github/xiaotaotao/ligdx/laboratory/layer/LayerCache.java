@@ -0,0 +1,204 @@
+package com.github.xiaotaotao.ligdx.laboratory.layer;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.OrthographicCamera;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.graphics.glutils.FrameBuffer;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.utils.BufferUtils;
+import com.badlogic.gdx.utils.Disposable;
+
+import java.nio.IntBuffer;
+
+/**
+ * 单个图层的离屏缓存：把图层内容绘制到 FrameBuffer，之后每帧只合成一个四边形
+ *
+ * 工作原理：
+ * - 烘焙时以相机为中心、四周各留 moveThreshold 的边距绘制图层，因此相机在阈值内移动时缓存仍然完整
+ * - 合成时按烘焙时的世界坐标绘制缓存纹理，画面随相机正常滚动
+ * - 以下情况重新烘焙：markDirty、相机移动超过阈值、缩放变化、后备缓冲区像素尺寸变化
+ *
+ * 设计说明：
+ * - 烘焙时 alpha 通道使用 (ONE, ONE_MINUS_SRC_ALPHA) 累积，缓存中是预乘 alpha 的颜色，
+ *   合成时用 (ONE, ONE_MINUS_SRC_ALPHA) 混合，半透明内容（如网格线）不会被二次衰减
+ * - 图层透明度在合成时统一作用于整张缓存
+ * - 每帧的检查只读取后备缓冲区尺寸，不做 GL 状态查询；只有重新烘焙时才读取一次 GL 视口，用于烘焙后恢复
+ *
+ * 注意：只支持不旋转的正交相机；渲染器自身的 setEnabled 变化无法自动检测，需要调用 markDirty
+ */
+class LayerCache implements Disposable {
+
+    private FrameBuffer frameBuffer;
+    private TextureRegion region;
+    private boolean dirty = true;
+
+    // 烘焙区域（世界坐标，含边距）
+    private float originX;
+    private float originY;
+    private float width;
+    private float height;
+
+    // 烘焙时的相机状态
+    private float bakedCameraX;
+    private float bakedCameraY;
+    private float bakedZoom;
+
+    // 烘焙前的视口（glGetIntegerv 要求至少 16 个元素，只在烘焙时查询）
+    private final IntBuffer viewport = BufferUtils.newIntBuffer(16);
+
+    // 烘焙用的相机（覆盖含边距的区域）
+    private final OrthographicCamera bakeCamera = new OrthographicCamera();
+
+    // 烘焙 / 合成期间临时保存的 batch 状态
+    private final Matrix4 savedProjection = new Matrix4();
+    private final Color savedColor = new Color();
+
+    void markDirty() {
+        dirty = true;
+    }
+
+    /**
+     * 必要时重新烘焙（之后调用 {@link #composite} 合成）
+     *
+     * @param batch         正在使用的 SpriteBatch（可以处于 begin 状态）
+     * @param camera        相机
+     * @param system        所属图层系统（烘焙时由它渲染图层的渲染器）
+     * @param layer         图层
+     * @param moveThreshold 相机移动阈值（世界单位），也是烘焙时四周的边距
+     * @return 本次是否重新烘焙
+     */
+    boolean prepare(SpriteBatch batch, OrthographicCamera camera, LayerSystemImpl system, LayerSystem.Layer layer,
+                    float moveThreshold) {
+        // 按后备缓冲区的像素密度烘焙（带黑边的视口会略微超采样，但不需要每帧查询 GL 状态）
+        int pixelWidth = Gdx.graphics.getBackBufferWidth();
+        int pixelHeight = Gdx.graphics.getBackBufferHeight();
+        if (pixelWidth <= 0 || pixelHeight <= 0) {
+            return false;
+        }
+
+        float viewWidth = camera.viewportWidth * camera.zoom;
+        float viewHeight = camera.viewportHeight * camera.zoom;
+        int bufferWidth = MathUtils.ceil((viewWidth + 2 * moveThreshold) * pixelWidth / viewWidth);
+        int bufferHeight = MathUtils.ceil((viewHeight + 2 * moveThreshold) * pixelHeight / viewHeight);
+
+        boolean rebuild = dirty
+                || frameBuffer == null
+                || frameBuffer.getWidth() != bufferWidth
+                || frameBuffer.getHeight() != bufferHeight
+                || camera.zoom != bakedZoom
+                || Math.abs(camera.position.x - bakedCameraX) > moveThreshold
+                || Math.abs(camera.position.y - bakedCameraY) > moveThreshold;
+        if (rebuild) {
+            bake(batch, camera, system, layer, bufferWidth, bufferHeight, viewWidth, viewHeight, moveThreshold);
+        }
+        return rebuild;
+    }
+
+    private void bake(SpriteBatch batch, OrthographicCamera camera, LayerSystemImpl system, LayerSystem.Layer layer,
+                      int bufferWidth, int bufferHeight, float viewWidth, float viewHeight, float margin) {
+        if (frameBuffer == null || frameBuffer.getWidth() != bufferWidth || frameBuffer.getHeight() != bufferHeight) {
+            if (frameBuffer != null) {
+                frameBuffer.dispose();
+            }
+            frameBuffer = new FrameBuffer(Pixmap.Format.RGBA8888, bufferWidth, bufferHeight, false);
+            region = new TextureRegion(frameBuffer.getColorBufferTexture());
+            region.flip(false, true);
+        }
+
+        originX = camera.position.x - viewWidth / 2f - margin;
+        originY = camera.position.y - viewHeight / 2f - margin;
+        width = viewWidth + 2 * margin;
+        height = viewHeight + 2 * margin;
+        // 烘焙相机覆盖含边距的区域，渲染器拿到的可见范围与缓存内容一致
+        bakeCamera.viewportWidth = width;
+        bakeCamera.viewportHeight = height;
+        bakeCamera.zoom = 1f;
+        bakeCamera.position.set(camera.position.x, camera.position.y, 0);
+        bakeCamera.update();
+
+        // 保存 batch 状态
+        boolean wasDrawing = batch.isDrawing();
+        if (wasDrawing) {
+            batch.end();
+        }
+        savedProjection.set(batch.getProjectionMatrix());
+        savedColor.set(batch.getColor());
+        int srcFunc = batch.getBlendSrcFunc();
+        int dstFunc = batch.getBlendDstFunc();
+        int srcFuncAlpha = batch.getBlendSrcFuncAlpha();
+        int dstFuncAlpha = batch.getBlendDstFuncAlpha();
+
+        // 记下当前视口（例如 FitViewport 的黑边区域），烘焙结束后恢复
+        Gdx.gl.glGetIntegerv(GL20.GL_VIEWPORT, viewport);
+        frameBuffer.begin();
+        Gdx.gl.glClearColor(0, 0, 0, 0);
+        Gdx.gl.glClear(GL20.GL_COLOR_BUFFER_BIT);
+        batch.setProjectionMatrix(bakeCamera.combined);
+        batch.setBlendFunctionSeparate(GL20.GL_SRC_ALPHA, GL20.GL_ONE_MINUS_SRC_ALPHA,
+                GL20.GL_ONE, GL20.GL_ONE_MINUS_SRC_ALPHA);
+        batch.setColor(Color.WHITE);
+        batch.begin();
+        system.renderRenderers(layer, batch, bakeCamera);
+        batch.end();
+        frameBuffer.end(viewport.get(0), viewport.get(1), viewport.get(2), viewport.get(3));
+
+        // 恢复 batch 状态
+        batch.setProjectionMatrix(savedProjection);
+        batch.setBlendFunctionSeparate(srcFunc, dstFunc, srcFuncAlpha, dstFuncAlpha);
+        batch.setColor(savedColor);
+        if (wasDrawing) {
+            batch.begin();
+        }
+
+        bakedCameraX = camera.position.x;
+        bakedCameraY = camera.position.y;
+        bakedZoom = camera.zoom;
+        dirty = false;
+    }
+
+    /**
+     * 合成缓存（prepare 返回后调用）
+     *
+     * @param batch SpriteBatch
+     * @param alpha 图层透明度
+     */
+    void composite(SpriteBatch batch, float alpha) {
+        if (region == null) {
+            return;
+        }
+        boolean wasDrawing = batch.isDrawing();
+        if (!wasDrawing) {
+            batch.begin();
+        }
+        savedColor.set(batch.getColor());
+        int srcFunc = batch.getBlendSrcFunc();
+        int dstFunc = batch.getBlendDstFunc();
+        int srcFuncAlpha = batch.getBlendSrcFuncAlpha();
+        int dstFuncAlpha = batch.getBlendDstFuncAlpha();
+
+        // 预乘 alpha：颜色的四个分量都乘以图层透明度
+        batch.setBlendFunction(GL20.GL_ONE, GL20.GL_ONE_MINUS_SRC_ALPHA);
+        batch.setColor(alpha, alpha, alpha, alpha);
+        batch.draw(region, originX, originY, width, height);
+
+        batch.setBlendFunctionSeparate(srcFunc, dstFunc, srcFuncAlpha, dstFuncAlpha);
+        batch.setColor(savedColor);
+        if (!wasDrawing) {
+            batch.end();
+        }
+    }
+
+    @Override
+    public void dispose() {
+        if (frameBuffer != null) {
+            frameBuffer.dispose();
+            frameBuffer = null;
+            region = null;
+        }
+    }
+}
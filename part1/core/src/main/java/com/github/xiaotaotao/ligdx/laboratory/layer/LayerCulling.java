@@ -0,0 +1,122 @@
+package com.github.xiaotaotao.ligdx.laboratory.layer;
+
+import com.badlogic.gdx.graphics.OrthographicCamera;
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.math.Vector3;
+
+/**
+ * 图层的相机裁剪：当前可见区域 + 本帧绘制 / 裁剪计数
+ *
+ * 工作原理：
+ * - 每次渲染图层前由 {@link LayerSystemImpl} 根据相机视锥的 8 个角点计算世界坐标下的可见包围盒
+ * - 提供了包围盒的渲染器（{@link LayerSystemImpl.LayerRenderer#getBounds}）不可见时整个跳过
+ * - 管理大量物体的渲染器在 render 中对每个物体调用 {@link #isVisible}，只绘制可见的物体
+ * - 整个跳过的渲染器计为一次裁剪，物体级判断逐个计数，可以直接读出每个图层本帧绘制了多少、裁掉了多少
+ *
+ * 使用方式（渲染器内部）：
+ * <pre>
+ * public void render(SpriteBatch batch, OrthographicCamera camera, LayerCulling culling) {
+ *     for (Item item : items) {
+ *         if (culling.isVisible(item.x, item.y, item.width, item.height)) {
+ *             batch.draw(...);
+ *         }
+ *     }
+ * }
+ * </pre>
+ *
+ * 注意：包围盒取视锥角点的轴对齐范围，相机旋转时偏保守（多画一些，不会漏画）
+ */
+public class LayerCulling {
+
+    // 可见区域（世界坐标）
+    private float minX;
+    private float minY;
+    private float maxX;
+    private float maxY;
+
+    // 本帧计数
+    private int drawnCount;
+    private int culledCount;
+
+    // 渲染器包围盒（复用）
+    private final Rectangle rendererBounds = new Rectangle();
+
+    /**
+     * 根据相机设置可见区域并清零计数（相机需要已经 update 过）
+     * @param camera 相机
+     */
+    void begin(OrthographicCamera camera) {
+        Vector3[] corners = camera.frustum.planePoints;
+        minX = maxX = corners[0].x;
+        minY = maxY = corners[0].y;
+        for (int i = 1; i < corners.length; i++) {
+            Vector3 corner = corners[i];
+            minX = Math.min(minX, corner.x);
+            maxX = Math.max(maxX, corner.x);
+            minY = Math.min(minY, corner.y);
+            maxY = Math.max(maxY, corner.y);
+        }
+        drawnCount = 0;
+        culledCount = 0;
+    }
+
+    /**
+     * 判断整个渲染器是否在相机范围外（没有提供包围盒的渲染器总是可见）
+     * 整个渲染器不可见时计为一次裁剪；可见时不计数，由渲染器内部逐物体计数
+     * @param renderer 渲染器
+     * @return 是否应该跳过
+     */
+    boolean cull(LayerSystemImpl.LayerRenderer renderer) {
+        if (renderer.getBounds(rendererBounds) && !overlaps(rendererBounds.x, rendererBounds.y,
+                rendererBounds.width, rendererBounds.height)) {
+            culledCount++;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * 判断矩形是否与可见区域相交，并计入绘制 / 裁剪计数
+     * @param x 左下角 x
+     * @param y 左下角 y
+     * @param width 宽度
+     * @param height 高度
+     * @return 是否可见
+     */
+    public boolean isVisible(float x, float y, float width, float height) {
+        boolean visible = overlaps(x, y, width, height);
+        if (visible) {
+            drawnCount++;
+        } else {
+            culledCount++;
+        }
+        return visible;
+    }
+
+    /**
+     * @see #isVisible(float, float, float, float)
+     */
+    public boolean isVisible(Rectangle bounds) {
+        return isVisible(bounds.x, bounds.y, bounds.width, bounds.height);
+    }
+
+    private boolean overlaps(float x, float y, float width, float height) {
+        return x <= maxX && x + width >= minX && y <= maxY && y + height >= minY;
+    }
+
+    /**
+     * 获取本帧绘制的数量
+     * @return 数量
+     */
+    public int getDrawnCount() {
+        return drawnCount;
+    }
+
+    /**
+     * 获取本帧裁掉的数量
+     * @return 数量
+     */
+    public int getCulledCount() {
+        return culledCount;
+    }
+}
@@ -0,0 +1,49 @@
+package com.github.xiaotaotao.ligdx.laboratory.layer;
+
+/**
+ * 图层 / 渲染器的性能统计（最近一次更新和渲染）
+ *
+ * 内容：
+ * - updateNanos：update 耗时（图层为其渲染器之和，并行更新时是各线程 CPU 时间之和）
+ * - renderNanos：render 耗时（图层包含缓存烘焙 / 合成）
+ * - flushes：render 期间 SpriteBatch 的 flush 次数（renderCalls 差值）
+ * - sprites：render 期间提交的精灵数量（需要使用 CountingSpriteBatch，否则为 0）
+ *
+ * 注意：只在 {@link LayerSystemImpl#setProfiling(boolean)} 开启时更新；
+ * 使用绘制命令队列时，支持队列的渲染器只统计提交耗时，回放产生的 flush 记在触发回放的图层名下；
+ * flush 是惰性的，某个渲染器提交的精灵可能在下一个渲染器换纹理时才 flush，计数记在触发者名下
+ */
+public class LayerStats {
+
+    long updateNanos;
+    long renderNanos;
+    int flushes;
+    int sprites;
+
+    public long getUpdateNanos() {
+        return updateNanos;
+    }
+
+    public long getRenderNanos() {
+        return renderNanos;
+    }
+
+    public int getFlushes() {
+        return flushes;
+    }
+
+    public int getSprites() {
+        return sprites;
+    }
+
+    void resetRender() {
+        renderNanos = 0;
+        flushes = 0;
+        sprites = 0;
+    }
+
+    void reset() {
+        updateNanos = 0;
+        resetRender();
+    }
+}
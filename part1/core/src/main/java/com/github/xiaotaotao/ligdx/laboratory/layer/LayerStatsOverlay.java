@@ -0,0 +1,97 @@
+package com.github.xiaotaotao.ligdx.laboratory.layer;
+
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.OrthographicCamera;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+
+/**
+ * 图层性能统计叠加层（添加到 TOP_UI 图层）
+ *
+ * 每个图层一行：更新耗时、渲染耗时（微秒）、flush 次数、提交的精灵数量，
+ * 显示在相机可见区域的左上角
+ *
+ * 使用方式：
+ * <pre>
+ * LayerStatsOverlay overlay = new LayerStatsOverlay(layerSystem, font);
+ * layerSystem.addRenderer(LayerSystem.Layer.TOP_UI, overlay);
+ * overlay.setEnabled(true);   // 同时开启 layerSystem 的统计
+ * </pre>
+ *
+ * 注意：字体由调用方管理，叠加层不负责释放；显示的是上一帧的数据（TOP_UI 自身在绘制时尚未统计完）
+ */
+public class LayerStatsOverlay implements LayerSystemImpl.LayerRenderer {
+
+    private static final float MARGIN = 10f;
+
+    private final LayerSystemImpl layerSystem;
+    private final BitmapFont font;
+    private final StringBuilder text = new StringBuilder(64);
+    private final Color savedColor = new Color();
+
+    private boolean enabled;
+
+    /**
+     * @param layerSystem 要显示统计的图层系统
+     * @param font        字体
+     */
+    public LayerStatsOverlay(LayerSystemImpl layerSystem, BitmapFont font) {
+        this.layerSystem = layerSystem;
+        this.font = font;
+    }
+
+    @Override
+    public void render(SpriteBatch batch, OrthographicCamera camera) {
+        float left = camera.position.x - camera.viewportWidth * camera.zoom / 2f + MARGIN;
+        float y = camera.position.y + camera.viewportHeight * camera.zoom / 2f - MARGIN;
+        float lineHeight = font.getLineHeight();
+
+        savedColor.set(font.getColor());
+        font.setColor(Color.CYAN);
+        font.draw(batch, "Layer        upd(us)  rnd(us)  flush  sprites", left, y);
+        y -= lineHeight;
+        for (LayerSystem.Layer layer : LayerSystem.Layer.values()) {
+            LayerStats stats = layerSystem.getLayerStats(layer);
+            text.setLength(0);
+            text.append(layer.name());
+            pad(13);
+            text.append(stats.getUpdateNanos() / 1000);
+            pad(22);
+            text.append(stats.getRenderNanos() / 1000);
+            pad(31);
+            text.append(stats.getFlushes());
+            pad(38);
+            text.append(stats.getSprites());
+            font.draw(batch, text, left, y);
+            y -= lineHeight;
+        }
+        font.setColor(savedColor);
+    }
+
+    /** 用空格补齐到指定列（等宽字体下对齐，非等宽字体下近似对齐） */
+    private void pad(int column) {
+        text.append(' ');
+        while (text.length() < column) {
+            text.append(' ');
+        }
+    }
+
+    @Override
+    public void update(float delta) {
+        // 统计由图层系统写入，这里不需要更新
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 显示 / 隐藏叠加层，同时开启 / 关闭图层系统的统计（关闭时统计几乎没有开销）
+     */
+    @Override
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+        layerSystem.setProfiling(enabled);
+    }
+}
@@ -95,6 +95,27 @@ public interface LayerSystem {
      */
     float getLayerAlpha(Layer layer);
 
+    /**
+     * 设置图层是否缓存为纹理（适合很少变化的图层，如背景、地图）
+     * 缓存的图层只在失效时重新绘制到离屏缓冲，其余帧只合成一个四边形
+     * @param layer 图层
+     * @param cached 是否缓存
+     */
+    void setLayerCached(Layer layer, boolean cached);
+
+    /**
+     * 获取图层是否缓存为纹理
+     * @param layer 图层
+     * @return 是否缓存
+     */
+    boolean isLayerCached(Layer layer);
+
+    /**
+     * 标记图层缓存失效（图层内容变化后调用，下一次渲染时重新绘制）
+     * @param layer 图层
+     */
+    void markDirty(Layer layer);
+
     /**
      * 清理所有图层资源
      */
@@ -12,6 +12,9 @@ import com.badlogic.gdx.graphics.g2d.freetype.FreeTypeFontGenerator;
 import com.badlogic.gdx.utils.viewport.FitViewport;
 import com.badlogic.gdx.utils.viewport.Viewport;
 import com.badlogic.gdx.math.MathUtils;
+import com.github.xiaotaotao.ligdx.laboratory.asset.FontService;
+import com.github.xiaotaotao.ligdx.laboratory.profiling.CountingSpriteBatch;
+import com.github.xiaotaotao.ligdx.laboratory.render.RenderQueue;
 
 /**
  * 图层系统演示 Screen
@@ -19,12 +22,25 @@ import com.badlogic.gdx.math.MathUtils;
  */
 public class LayerSystemDemoScreen implements Screen {
 
+    // 字体（由 FontService 生成并缓存到磁盘，未列出的字符按需生成）
+    private static final String FONT_FILE = "ui/simsun.ttc";
+    private static final int FONT_SIZE = 24;
+    private static final String FONT_CHARS = FreeTypeFontGenerator.DEFAULT_CHARS
+            + "图层系统演示按数字键切换图层可见性按+/-调整图层透明度";
+
     private SpriteBatch batch;
     private BitmapFont font;
     private OrthographicCamera camera;
     private Viewport viewport;
     private LayerSystemImpl layerSystem;
 
+    // 图层性能统计叠加层（I 键显示 / 隐藏）
+    private LayerStatsOverlay statsOverlay;
+
+    // 绘制命令队列（Q 键切换是否使用）
+    private final RenderQueue renderQueue = new RenderQueue();
+    private boolean useRenderQueue = true;
+
     // 演示用的纹理
     private Texture backgroundTexture;
     private Texture characterTexture;
@@ -37,10 +53,18 @@ public class LayerSystemDemoScreen implements Screen {
     private float characterY = 240f;
     private float effectScale = 1.0f;
 
+    // 地面装饰物：沿 x 方向分布在远大于屏幕的范围内并循环滚动，大部分时间在屏幕外（演示相机裁剪）
+    private static final int DECORATION_COUNT = 40;
+    private static final float DECORATION_SPACING = 150f;
+    private float decorationScroll = 0f;
+
     // 控制变量
     private boolean showLayerInfo = true;
     private int currentLayerIndex = 0;
 
+    // 上一帧的 SpriteBatch 绘制调用次数（C 键切换地图层缓存时对比）
+    private int lastRenderCalls;
+
     private static final float VIRTUAL_WIDTH = 800;
     private static final float VIRTUAL_HEIGHT = 480;
 
@@ -52,18 +76,11 @@ public class LayerSystemDemoScreen implements Screen {
         viewport.apply();
         camera.position.set(VIRTUAL_WIDTH / 2f, VIRTUAL_HEIGHT / 2f, 0);
 
-        // 初始化渲染对象
-        batch = new SpriteBatch();
+        // 初始化渲染对象（统计提交的精灵数量，供图层性能统计使用）
+        batch = new CountingSpriteBatch();
 
-        // 生成字体
-        FreeTypeFontGenerator generator =
-                new FreeTypeFontGenerator(Gdx.files.internal("ui/simsun.ttc"));
-        FreeTypeFontGenerator.FreeTypeFontParameter parameter =
-                new FreeTypeFontGenerator.FreeTypeFontParameter();
-        parameter.size = 24;
-        parameter.characters = FreeTypeFontGenerator.DEFAULT_CHARS + "图层系统演示按数字键切换图层可见性按+/-调整图层透明度";
-        font = generator.generateFont(parameter);
-        generator.dispose();
+        // 取出字体（热启动直接读取磁盘缓存）
+        font = FontService.getInstance().obtain(FONT_FILE, FONT_SIZE, FONT_CHARS);
 
         // 创建简单的纹理用于演示
         createDemoTextures();
@@ -73,6 +90,16 @@ public class LayerSystemDemoScreen implements Screen {
 
         // 初始化所有图层
         setupLayers();
+
+        // 网格地图是静态的：缓存为纹理，每帧只合成一个四边形
+        layerSystem.setLayerCached(LayerSystem.Layer.MAP, true);
+
+        // 背景、装饰、特效的动画更新互不依赖，并行执行
+        layerSystem.setParallelUpdate(true);
+
+        // 图层性能统计叠加层（默认隐藏，隐藏时不统计）
+        statsOverlay = new LayerStatsOverlay(layerSystem, font);
+        layerSystem.addRenderer(LayerSystem.Layer.TOP_UI, statsOverlay);
     }
 
     /**
@@ -128,6 +155,12 @@ public class LayerSystemDemoScreen implements Screen {
                 backgroundOffset += 20f * delta;
             }
 
+            @Override
+            public boolean isThreadSafe() {
+                // 只写自己的字段，可以并行更新
+                return true;
+            }
+
             @Override
             public boolean isEnabled() {
                 return enabled;
@@ -178,19 +211,52 @@ public class LayerSystemDemoScreen implements Screen {
 
             @Override
             public void render(SpriteBatch batch, OrthographicCamera camera) {
-                // 绘制一些装饰物（小方块）
+                // 图层系统调用带裁剪信息的版本
+            }
+
+            @Override
+            public void render(SpriteBatch batch, OrthographicCamera camera, LayerCulling culling) {
+                // 绘制一些装饰物（方块和圆点交替），跳过相机范围外的
+                // 立即绘制时纹理交替，每个装饰物都会让 SpriteBatch flush 一次
                 batch.setColor(0.8f, 0.6f, 0.4f, 1.0f);
-                for (int i = 0; i < 5; i++) {
-                    float x = 100 + i * 150;
-                    float y = 50 + MathUtils.sin(time + i) * 20;
-                    batch.draw(characterTexture, x, y, 32, 32);
+                for (int i = 0; i < DECORATION_COUNT; i++) {
+                    float x = decorationX(i);
+                    float y = decorationY(i);
+                    if (culling.isVisible(x, y, 32, 32)) {
+                        batch.draw(decorationTexture(i), x, y, 32, 32);
+                    }
                 }
                 batch.setColor(1, 1, 1, 1);
             }
 
+            @Override
+            public boolean isQueued() {
+                return true;
+            }
+
+            @Override
+            public void submit(RenderQueue queue, OrthographicCamera camera, LayerCulling culling) {
+                // 地面装饰物互不遮挡，用相同的深度提交，排序后按纹理合并
+                queue.setColor(0.8f, 0.6f, 0.4f, 1.0f);
+                for (int i = 0; i < DECORATION_COUNT; i++) {
+                    float x = decorationX(i);
+                    float y = decorationY(i);
+                    if (culling.isVisible(x, y, 32, 32)) {
+                        queue.draw(decorationTexture(i), x, y, 32, 32, 0f);
+                    }
+                }
+            }
+
             @Override
             public void update(float delta) {
-                // 装饰物动画
+                // 装饰物滚动
+                decorationScroll += 40f * delta;
+            }
+
+            @Override
+            public boolean isThreadSafe() {
+                // 只写自己的字段，可以并行更新
+                return true;
             }
 
             @Override
@@ -214,6 +280,18 @@ public class LayerSystemDemoScreen implements Screen {
                 batch.draw(characterTexture, characterX - 32, characterY - 32, 64, 64);
             }
 
+            @Override
+            public boolean isQueued() {
+                return true;
+            }
+
+            @Override
+            public void submit(RenderQueue queue, OrthographicCamera camera, LayerCulling culling) {
+                // 俯视角按脚下的 y 排序，同一图层里靠下的物体画在上面
+                float footY = characterY - 32;
+                queue.draw(characterTexture, characterX - 32, footY, 64, 64, RenderQueue.ySort(footY));
+            }
+
             @Override
             public void update(float delta) {
                 // 角色移动（WASD控制）
@@ -264,6 +342,12 @@ public class LayerSystemDemoScreen implements Screen {
                 effectScale = 1.0f + MathUtils.sin(time * 2f) * 0.3f;
             }
 
+            @Override
+            public boolean isThreadSafe() {
+                // 只写自己的字段，可以并行更新
+                return true;
+            }
+
             @Override
             public boolean isEnabled() {
                 return enabled;
@@ -333,6 +417,17 @@ public class LayerSystemDemoScreen implements Screen {
                         y -= 25;
                     }
                     batch.setColor(1, 1, 1, 1);
+                    font.draw(batch, "C. MAP cache: " + (layerSystem.isLayerCached(LayerSystem.Layer.MAP) ? "ON" : "OFF")
+                            + "  Render calls: " + lastRenderCalls, VIRTUAL_WIDTH - 300, y);
+                    y -= 25;
+                    font.draw(batch, "Q. Render queue: " + (useRenderQueue ? "ON" : "OFF"), VIRTUAL_WIDTH - 300, y);
+                    y -= 25;
+                    font.draw(batch, "P. Parallel update: " + (layerSystem.isParallelUpdate() ? "ON" : "OFF"),
+                            VIRTUAL_WIDTH - 300, y);
+                    y -= 25;
+                    LayerCulling decorations = layerSystem.getCulling(LayerSystem.Layer.DECORATION);
+                    font.draw(batch, "DECORATION drawn: " + decorations.getDrawnCount()
+                            + "  culled: " + decorations.getCulledCount(), VIRTUAL_WIDTH - 300, y);
                 }
             }
 
@@ -354,6 +449,24 @@ public class LayerSystemDemoScreen implements Screen {
         });
     }
 
+    /**
+     * 第 i 个装饰物的 x 坐标（沿 x 方向循环滚动）
+     */
+    private float decorationX(int i) {
+        float span = DECORATION_COUNT * DECORATION_SPACING;
+        float x = (100 + i * DECORATION_SPACING - decorationScroll) % span;
+        if (x < 0) x += span;
+        return x - DECORATION_SPACING;
+    }
+
+    private float decorationY(int i) {
+        return 50 + MathUtils.sin(time + i) * 20;
+    }
+
+    private Texture decorationTexture(int i) {
+        return (i & 1) == 0 ? characterTexture : effectTexture;
+    }
+
     /**
      * 处理图层控制输入
      */
@@ -380,6 +493,31 @@ public class LayerSystemDemoScreen implements Screen {
             layerSystem.setLayerAlpha(layers[currentLayerIndex], Math.max(0.0f, alpha - 0.01f));
         }
 
+        // C键切换地图层缓存
+        if (Gdx.input.isKeyJustPressed(Input.Keys.C)) {
+            boolean cached = !layerSystem.isLayerCached(LayerSystem.Layer.MAP);
+            layerSystem.setLayerCached(LayerSystem.Layer.MAP, cached);
+            Gdx.app.log("LayerSystemDemo", "MAP cache " + (cached ? "ON" : "OFF")
+                    + ", render calls before: " + lastRenderCalls);
+        }
+
+        // P键切换并行更新
+        if (Gdx.input.isKeyJustPressed(Input.Keys.P)) {
+            layerSystem.setParallelUpdate(!layerSystem.isParallelUpdate());
+        }
+
+        // I键切换图层性能统计
+        if (Gdx.input.isKeyJustPressed(Input.Keys.I)) {
+            statsOverlay.setEnabled(!statsOverlay.isEnabled());
+        }
+
+        // Q键切换绘制命令队列
+        if (Gdx.input.isKeyJustPressed(Input.Keys.Q)) {
+            useRenderQueue = !useRenderQueue;
+            Gdx.app.log("LayerSystemDemo", "Render queue " + (useRenderQueue ? "ON" : "OFF")
+                    + ", render calls before: " + lastRenderCalls);
+        }
+
         // H键切换信息显示
         if (Gdx.input.isKeyJustPressed(Input.Keys.H)) {
             showLayerInfo = !showLayerInfo;
@@ -403,8 +541,13 @@ public class LayerSystemDemoScreen implements Screen {
         // 使用图层系统渲染所有图层
         batch.setProjectionMatrix(camera.combined);
         batch.begin();
-        layerSystem.renderAll(batch, camera);
+        if (useRenderQueue) {
+            layerSystem.renderAll(batch, camera, renderQueue);
+        } else {
+            layerSystem.renderAll(batch, camera);
+        }
         batch.end();
+        lastRenderCalls = batch.renderCalls;
     }
 
     @Override
@@ -431,7 +574,8 @@ public class LayerSystemDemoScreen implements Screen {
             batch.dispose();
         }
         if (font != null) {
-            font.dispose();
+            FontService.getInstance().release(font);
+            font = null;
         }
         if (backgroundTexture != null) {
             backgroundTexture.dispose();
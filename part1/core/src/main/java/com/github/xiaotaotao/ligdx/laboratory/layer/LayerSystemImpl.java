@@ -1,15 +1,24 @@
 package com.github.xiaotaotao.ligdx.laboratory.layer;
 
+import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
 import com.badlogic.gdx.graphics.OrthographicCamera;
+import com.badlogic.gdx.math.Rectangle;
 import com.badlogic.gdx.utils.Disposable;
+import com.github.xiaotaotao.ligdx.laboratory.concurrent.ParallelExecutor;
+import com.github.xiaotaotao.ligdx.laboratory.profiling.CountingSpriteBatch;
+import com.github.xiaotaotao.ligdx.laboratory.render.RenderQueue;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.Map;
 
 /**
  * 7层图层系统的实现类
- * 提供分层渲染管理功能
+ * 提供分层渲染管理功能，很少变化的图层可以缓存为纹理（见 {@link #setLayerCached}），
+ * 声明为线程安全的渲染器可以并行更新（见 {@link #setParallelUpdate}），
+ * 可以按图层 / 渲染器统计耗时、flush 次数和精灵数量（见 {@link #setProfiling}），
+ * 支持排序队列的渲染器可以先提交绘制命令、排序后统一回放（见 {@link #renderAll(SpriteBatch, OrthographicCamera, RenderQueue)}）
  */
 public class LayerSystemImpl implements LayerSystem, Disposable {
 
@@ -22,12 +31,44 @@ public class LayerSystemImpl implements LayerSystem, Disposable {
     // 图层透明度
     private final Map<Layer, Float> layerAlpha;
 
+    // 图层相机裁剪（可见区域 + 本帧绘制 / 裁剪计数）
+    private final LayerCulling[] cullings = new LayerCulling[7];
+
+    // 图层纹理缓存（未缓存的图层为 null）
+    private final LayerCache[] caches = new LayerCache[7];
+
+    // 相机移动超过该距离（世界单位）时重新烘焙缓存
+    private float cacheMoveThreshold = 64f;
+
+    // 缓存重新烘焙的累计次数（用于观察缓存是否频繁失效）
+    private int cacheRebuildCount;
+
+    // 并行更新：线程安全的渲染器交给工作窃取线程池（null 表示全部在主线程顺序更新）
+    private ParallelExecutor updateExecutor;
+    private final ArrayList<LayerRenderer> parallelRenderers = new ArrayList<>();
+    private float parallelDelta;
+    private final ParallelExecutor.RangeTask parallelUpdateTask = (start, end) -> {
+        for (int i = start; i < end; i++) {
+            updateRenderer(parallelRenderers.get(i), parallelDelta);
+        }
+    };
+
+    // 性能统计：关闭时渲染 / 更新路径上只多一次布尔判断
+    private boolean profiling;
+    private final LayerStats[] layerStats = new LayerStats[7];
+    private final Map<LayerRenderer, LayerStats> rendererStats = new IdentityHashMap<>();
+
+    // 本次 renderAll 使用的绘制命令队列（不使用队列时为 null）
+    private RenderQueue activeQueue;
+
     @SuppressWarnings("unchecked")
     public LayerSystemImpl() {
         // 初始化7个图层
         layers = new ArrayList[7];
         for (int i = 0; i < 7; i++) {
             layers[i] = new ArrayList<>();
+            cullings[i] = new LayerCulling();
+            layerStats[i] = new LayerStats();
         }
 
         // 初始化图层可见性和透明度
@@ -49,10 +90,49 @@ public class LayerSystemImpl implements LayerSystem, Disposable {
         }
     }
 
+    /**
+     * 使用绘制命令队列渲染所有图层
+     * 支持队列的渲染器（{@link LayerRenderer#isQueued()}）只提交命令，按 (图层, 深度, 混合模式, 纹理) 排序后回放；
+     * 遇到不支持队列的渲染器或缓存图层时先回放已提交的命令，保证图层之间的先后顺序不变
+     * @param batch 用于渲染的 SpriteBatch（已经 begin）
+     * @param camera 相机
+     * @param queue 绘制命令队列
+     */
+    public void renderAll(SpriteBatch batch, OrthographicCamera camera, RenderQueue queue) {
+        activeQueue = queue;
+        try {
+            renderAll(batch, camera);
+        } finally {
+            activeQueue = null;
+        }
+        queue.flush(batch);
+    }
+
     @Override
     public void renderLayer(SpriteBatch batch, OrthographicCamera camera, Layer layer) {
-        ArrayList<LayerRenderer> renderers = layers[layer.getIndex()];
         float alpha = getLayerAlpha(layer);
+        LayerStats stats = profiling ? beginRenderStats(layer) : null;
+        long start = stats != null ? System.nanoTime() : 0L;
+
+        // 缓存的图层：必要时重新烘焙，然后只合成一个四边形
+        LayerCache cache = caches[layer.getIndex()];
+        if (cache != null) {
+            if (cache.prepare(batch, camera, this, layer, cacheMoveThreshold)) {
+                cacheRebuildCount++;
+            }
+            if (activeQueue != null) {
+                activeQueue.flush(batch);
+            }
+            int calls = batch.renderCalls;
+            long sprites = spriteCount(batch);
+            cache.composite(batch, alpha);
+            if (stats != null) {
+                stats.flushes += batch.renderCalls - calls;
+                stats.sprites += (int) (spriteCount(batch) - sprites);
+                stats.renderNanos = System.nanoTime() - start;
+            }
+            return;
+        }
 
         // 保存原始颜色
         float oldAlpha = batch.getColor().a;
@@ -62,24 +142,160 @@ public class LayerSystemImpl implements LayerSystem, Disposable {
             batch.setColor(batch.getColor().r, batch.getColor().g, batch.getColor().b, alpha);
         }
 
-        // 渲染该图层的所有渲染器
-        for (LayerRenderer renderer : renderers) {
-            if (renderer.isEnabled()) {
-                renderer.render(batch, camera);
-            }
+        // 渲染该图层的所有渲染器（跳过相机范围外的渲染器）
+        if (activeQueue != null) {
+            activeQueue.setLayer(layer.getIndex());
+            activeQueue.setAlphaScale(alpha);
         }
+        renderRenderers(layer, batch, camera, activeQueue);
 
         // 恢复原始透明度
         if (alpha < 1.0f) {
             batch.setColor(batch.getColor().r, batch.getColor().g, batch.getColor().b, oldAlpha);
         }
+
+        if (stats != null) {
+            stats.renderNanos = System.nanoTime() - start;
+        }
+    }
+
+    /**
+     * 渲染图层的所有已启用、在相机范围内的渲染器（图层缓存烘焙时也调用这里）
+     * @param layer 图层
+     * @param batch SpriteBatch
+     * @param camera 相机（需要已经 update 过）
+     */
+    void renderRenderers(Layer layer, SpriteBatch batch, OrthographicCamera camera) {
+        renderRenderers(layer, batch, camera, null);
+    }
+
+    /**
+     * 渲染图层的所有已启用、在相机范围内的渲染器
+     * @param queue 绘制命令队列（null 表示全部立即绘制）
+     */
+    private void renderRenderers(Layer layer, SpriteBatch batch, OrthographicCamera camera, RenderQueue queue) {
+        LayerCulling culling = cullings[layer.getIndex()];
+        LayerStats layerTotal = profiling ? layerStats[layer.getIndex()] : null;
+        culling.begin(camera);
+        for (LayerRenderer renderer : layers[layer.getIndex()]) {
+            if (!renderer.isEnabled() || culling.cull(renderer)) {
+                continue;
+            }
+            if (layerTotal == null) {
+                renderOrSubmit(renderer, batch, camera, culling, queue);
+                continue;
+            }
+            int calls = batch.renderCalls;
+            long sprites = spriteCount(batch);
+            long start = System.nanoTime();
+            renderOrSubmit(renderer, batch, camera, culling, queue);
+            LayerStats stats = rendererStats.get(renderer);
+            stats.renderNanos = System.nanoTime() - start;
+            stats.flushes = batch.renderCalls - calls;
+            stats.sprites = (int) (spriteCount(batch) - sprites);
+            layerTotal.flushes += stats.flushes;
+            layerTotal.sprites += stats.sprites;
+        }
+    }
+
+    /**
+     * 支持队列的渲染器提交命令；其余渲染器先回放已提交的命令再立即绘制
+     */
+    private static void renderOrSubmit(LayerRenderer renderer, SpriteBatch batch, OrthographicCamera camera,
+                                       LayerCulling culling, RenderQueue queue) {
+        if (queue == null) {
+            renderer.render(batch, camera, culling);
+        } else if (renderer.isQueued()) {
+            queue.setColor(Color.WHITE);
+            queue.setBlend(RenderQueue.BLEND_ALPHA);
+            renderer.submit(queue, camera, culling);
+        } else {
+            queue.flush(batch);
+            renderer.render(batch, camera, culling);
+        }
+    }
+
+    /**
+     * 清零图层和其渲染器的渲染统计（缓存图层未重新烘焙时渲染器的统计保持为 0）
+     */
+    private LayerStats beginRenderStats(Layer layer) {
+        for (LayerRenderer renderer : layers[layer.getIndex()]) {
+            rendererStats.get(renderer).resetRender();
+        }
+        LayerStats stats = layerStats[layer.getIndex()];
+        stats.resetRender();
+        return stats;
+    }
+
+    private static long spriteCount(SpriteBatch batch) {
+        return batch instanceof CountingSpriteBatch ? ((CountingSpriteBatch) batch).getSpriteCount() : 0L;
+    }
+
+    /**
+     * 更新一个渲染器（开启统计时记录耗时，并行更新时在工作线程调用）
+     */
+    private void updateRenderer(LayerRenderer renderer, float delta) {
+        if (!profiling) {
+            renderer.update(delta);
+            return;
+        }
+        long start = System.nanoTime();
+        renderer.update(delta);
+        rendererStats.get(renderer).updateNanos = System.nanoTime() - start;
+    }
+
+    /**
+     * 汇总图层的更新耗时（渲染器之和）
+     */
+    private void sumUpdateStats(Layer layer) {
+        long total = 0;
+        for (LayerRenderer renderer : layers[layer.getIndex()]) {
+            LayerStats stats = rendererStats.get(renderer);
+            if (!renderer.isEnabled()) {
+                stats.updateNanos = 0;
+            }
+            total += stats.updateNanos;
+        }
+        layerStats[layer.getIndex()].updateNanos = total;
     }
 
     @Override
     public void updateAll(float delta) {
-        // 更新所有图层
-        for (Layer layer : Layer.values()) {
-            updateLayer(delta, layer);
+        if (updateExecutor == null) {
+            // 更新所有图层
+            for (Layer layer : Layer.values()) {
+                updateLayer(delta, layer);
+            }
+            return;
+        }
+
+        // 线程安全的渲染器收集起来并行更新
+        // forEachChunk 返回时所有更新都已完成且结果对主线程可见（renderAll 之前的屏障）
+        parallelRenderers.clear();
+        for (ArrayList<LayerRenderer> renderers : layers) {
+            for (LayerRenderer renderer : renderers) {
+                if (renderer.isEnabled() && renderer.isThreadSafe()) {
+                    parallelRenderers.add(renderer);
+                }
+            }
+        }
+        parallelDelta = delta;
+        updateExecutor.forEachChunk(parallelRenderers.size(), 1, parallelUpdateTask);
+        parallelRenderers.clear();
+
+        // 其余渲染器按图层顺序在主线程更新（可以安全地调用 setParallelUpdate 等方法）
+        for (ArrayList<LayerRenderer> renderers : layers) {
+            for (LayerRenderer renderer : renderers) {
+                if (renderer.isEnabled() && !renderer.isThreadSafe()) {
+                    updateRenderer(renderer, delta);
+                }
+            }
+        }
+
+        if (profiling) {
+            for (Layer layer : Layer.values()) {
+                sumUpdateStats(layer);
+            }
         }
     }
 
@@ -90,9 +306,13 @@ public class LayerSystemImpl implements LayerSystem, Disposable {
         // 更新该图层的所有渲染器
         for (LayerRenderer renderer : renderers) {
             if (renderer.isEnabled()) {
-                renderer.update(delta);
+                updateRenderer(renderer, delta);
             }
         }
+
+        if (profiling) {
+            sumUpdateStats(layer);
+        }
     }
 
     @Override
@@ -115,6 +335,131 @@ public class LayerSystemImpl implements LayerSystem, Disposable {
         return layerAlpha.getOrDefault(layer, 1.0f);
     }
 
+    @Override
+    public void setLayerCached(Layer layer, boolean cached) {
+        int index = layer.getIndex();
+        if (cached && caches[index] == null) {
+            caches[index] = new LayerCache();
+        } else if (!cached && caches[index] != null) {
+            caches[index].dispose();
+            caches[index] = null;
+        }
+    }
+
+    @Override
+    public boolean isLayerCached(Layer layer) {
+        return caches[layer.getIndex()] != null;
+    }
+
+    @Override
+    public void markDirty(Layer layer) {
+        LayerCache cache = caches[layer.getIndex()];
+        if (cache != null) {
+            cache.markDirty();
+        }
+    }
+
+    /**
+     * 设置缓存图层的相机移动阈值（同时也是烘焙时四周的边距，越大重新烘焙越少，离屏缓冲越大）
+     * @param threshold 阈值（世界单位）
+     */
+    public void setCacheMoveThreshold(float threshold) {
+        this.cacheMoveThreshold = Math.max(0f, threshold);
+        for (LayerCache cache : caches) {
+            if (cache != null) {
+                cache.markDirty();
+            }
+        }
+    }
+
+    public float getCacheMoveThreshold() {
+        return cacheMoveThreshold;
+    }
+
+    /**
+     * 设置是否并行更新线程安全的渲染器（{@link LayerRenderer#isThreadSafe()} 返回 true 的渲染器）
+     * 开启时创建常驻的 ForkJoin 线程池，关闭或 dispose 时释放
+     * @param enabled 是否并行更新
+     */
+    public void setParallelUpdate(boolean enabled) {
+        if (enabled && updateExecutor == null) {
+            updateExecutor = new ParallelExecutor.ForkJoinExecutor(Runtime.getRuntime().availableProcessors());
+        } else if (!enabled && updateExecutor != null) {
+            updateExecutor.dispose();
+            updateExecutor = null;
+        }
+    }
+
+    public boolean isParallelUpdate() {
+        return updateExecutor != null;
+    }
+
+    /**
+     * 设置是否记录每个图层 / 渲染器的性能统计
+     * @param enabled 是否记录
+     */
+    public void setProfiling(boolean enabled) {
+        if (enabled && !profiling) {
+            for (LayerStats stats : layerStats) {
+                stats.reset();
+            }
+            for (LayerStats stats : rendererStats.values()) {
+                stats.reset();
+            }
+        }
+        this.profiling = enabled;
+    }
+
+    public boolean isProfiling() {
+        return profiling;
+    }
+
+    /**
+     * 获取图层的性能统计（最近一次更新 / 渲染）
+     * @param layer 图层
+     * @return 统计（开启 setProfiling 后更新）
+     */
+    public LayerStats getLayerStats(Layer layer) {
+        return layerStats[layer.getIndex()];
+    }
+
+    /**
+     * 获取渲染器的性能统计（最近一次更新 / 渲染）
+     * @param renderer 已添加的渲染器
+     * @return 统计，渲染器未添加时返回 null
+     */
+    public LayerStats getRendererStats(LayerRenderer renderer) {
+        return rendererStats.get(renderer);
+    }
+
+    /**
+     * 获取指定图层的第 index 个渲染器
+     * @param layer 图层
+     * @param index 下标（0 到 getRendererCount-1）
+     * @return 渲染器
+     */
+    public LayerRenderer getRenderer(Layer layer, int index) {
+        return layers[layer.getIndex()].get(index);
+    }
+
+    /**
+     * 获取图层的裁剪状态（本帧绘制 / 裁剪计数）
+     * 缓存的图层只在重新烘焙的帧更新计数
+     * @param layer 图层
+     * @return 裁剪状态
+     */
+    public LayerCulling getCulling(Layer layer) {
+        return cullings[layer.getIndex()];
+    }
+
+    /**
+     * 获取缓存重新烘焙的累计次数
+     * @return 次数
+     */
+    public int getCacheRebuildCount() {
+        return cacheRebuildCount;
+    }
+
     /**
      * 添加渲染器到指定图层
      * @param layer 图层
@@ -122,6 +467,8 @@ public class LayerSystemImpl implements LayerSystem, Disposable {
      */
     public void addRenderer(Layer layer, LayerRenderer renderer) {
         layers[layer.getIndex()].add(renderer);
+        rendererStats.computeIfAbsent(renderer, r -> new LayerStats());
+        markDirty(layer);
     }
 
     /**
@@ -131,6 +478,8 @@ public class LayerSystemImpl implements LayerSystem, Disposable {
      */
     public void removeRenderer(Layer layer, LayerRenderer renderer) {
         layers[layer.getIndex()].remove(renderer);
+        removeStatsIfUnused(renderer);
+        markDirty(layer);
     }
 
     /**
@@ -138,7 +487,22 @@ public class LayerSystemImpl implements LayerSystem, Disposable {
      * @param layer 图层
      */
     public void clearLayer(Layer layer) {
-        layers[layer.getIndex()].clear();
+        ArrayList<LayerRenderer> renderers = layers[layer.getIndex()];
+        ArrayList<LayerRenderer> removed = new ArrayList<>(renderers);
+        renderers.clear();
+        for (LayerRenderer renderer : removed) {
+            removeStatsIfUnused(renderer);
+        }
+        markDirty(layer);
+    }
+
+    private void removeStatsIfUnused(LayerRenderer renderer) {
+        for (ArrayList<LayerRenderer> renderers : layers) {
+            if (renderers.contains(renderer)) {
+                return;
+            }
+        }
+        rendererStats.remove(renderer);
     }
 
     /**
@@ -161,6 +525,19 @@ public class LayerSystemImpl implements LayerSystem, Disposable {
             }
             layer.clear();
         }
+        rendererStats.clear();
+
+        // 释放并行更新线程池
+        setParallelUpdate(false);
+        parallelRenderers.clear();
+
+        // 释放图层缓存
+        for (int i = 0; i < caches.length; i++) {
+            if (caches[i] != null) {
+                caches[i].dispose();
+                caches[i] = null;
+            }
+        }
     }
 
     /**
@@ -175,12 +552,60 @@ public class LayerSystemImpl implements LayerSystem, Disposable {
          */
         void render(SpriteBatch batch, OrthographicCamera camera);
 
+        /**
+         * 带裁剪信息的渲染方法（图层系统实际调用的入口）
+         * 管理大量物体的渲染器可以重写此方法，用 culling.isVisible 跳过相机范围外的物体
+         * @param batch SpriteBatch
+         * @param camera 相机
+         * @param culling 图层的裁剪状态
+         */
+        default void render(SpriteBatch batch, OrthographicCamera camera, LayerCulling culling) {
+            render(batch, camera);
+        }
+
+        /**
+         * 是否支持绘制命令队列（使用队列渲染时调用 {@link #submit} 代替 render）
+         * 支持队列的渲染器仍然需要实现 render：图层缓存烘焙和不使用队列的 renderAll 会调用它
+         * @return 是否支持（默认 false）
+         */
+        default boolean isQueued() {
+            return false;
+        }
+
+        /**
+         * 把绘制提交到命令队列（图层、图层透明度已经设置好，颜色为白色、混合模式为 BLEND_ALPHA）
+         * @param queue 绘制命令队列
+         * @param camera 相机
+         * @param culling 图层的裁剪状态
+         */
+        default void submit(RenderQueue queue, OrthographicCamera camera, LayerCulling culling) {
+        }
+
+        /**
+         * 获取渲染器内容的世界坐标包围盒（可选）
+         * 返回 true 时，包围盒在相机范围外的渲染器整个跳过
+         * @param out 输出包围盒
+         * @return 是否提供了包围盒（默认 false，总是渲染）
+         */
+        default boolean getBounds(Rectangle out) {
+            return false;
+        }
+
         /**
          * 更新方法（用于动画等）
          * @param delta 帧时间间隔
          */
         void update(float delta);
 
+        /**
+         * update 是否可以在工作线程中与其他渲染器并行执行（开启并行更新时生效）
+         * 返回 true 时 update 不能调用 GL / 输入等只能在主线程使用的 API，也不能与其他渲染器共享可变状态
+         * @return 是否线程安全（默认 false，在主线程更新）
+         */
+        default boolean isThreadSafe() {
+            return false;
+        }
+
         /**
          * 是否启用
          * @return 是否启用
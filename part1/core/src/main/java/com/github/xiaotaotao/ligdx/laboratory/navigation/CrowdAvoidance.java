@@ -0,0 +1,385 @@
+package com.github.xiaotaotao.ligdx.laboratory.navigation;
+
+import com.badlogic.gdx.utils.IntArray;
+import com.github.xiaotaotao.ligdx.laboratory.character.MovementSystem;
+import com.github.xiaotaotao.ligdx.laboratory.concurrent.AdaptiveChunkSize;
+import com.github.xiaotaotao.ligdx.laboratory.concurrent.ParallelExecutor;
+
+import java.util.Arrays;
+
+/**
+ * 密集人群的局部避让：在移动之前修正每个角色的速度，而不是等重叠之后再推开
+ *
+ * 设计说明：
+ * - 所有数据存放在平行数组中（结构数组），下标就是角色编号，调用方每帧填入位置和期望速度
+ * - 查询半径由预测窗口推出：两个角色的接近速度最多为 2 × maxSpeed，horizon 秒内可能相撞的邻居
+ *   一定在 2 × maxSpeed × horizon + 2 × 最大碰撞半径之内；查询半径取它与邻居半径中的较大者，
+ *   分离力仍然只作用于邻居半径之内
+ * - 邻居查询使用自己的均匀网格：格子边长至少为查询半径，格子总数不超过角色数的 {@value #CELLS_PER_AGENT} 倍
+ *   （分布稀疏时放大格子），每帧按计数排序重建（O(n)，与分布范围无关，不分配），
+ *   查询只看周围 3×3 个格子，并且最多处理 maxNeighbours 个邻居，密集时成本也有上限
+ * - 速度 = 期望速度 + 分离力 + 预测避让：
+ *   - 分离：邻居越近推力越大，消除已经贴在一起的抖动和堆叠
+ *   - 预测避让（简化的速度障碍）：按相对速度求最近接近时刻，若在 horizon 秒内会相撞，
+ *     就沿最近接近点的反方向偏转，越早相撞偏转越大
+ * - 计算阶段只读共享数组、只写自己的输出，可以按区间交给 {@link ParallelExecutor} 并行执行，
+ *   结果与单线程完全一致
+ *
+ * 使用方式：
+ * <pre>
+ * avoidance.gather(movementSystem, slots);    // 位置 + 期望方向 × 最大速度
+ * avoidance.update();
+ * avoidance.apply(movementSystem, slots);     // 写回方向和速度
+ * movementSystem.update(delta);
+ * </pre>
+ *
+ * 注意：
+ * - 邻居超过上限时按网格扫描顺序截断（不按距离排序），这是换取固定成本的近似；
+ *   horizon 越长查询半径越大，截断越容易丢掉近处的邻居，密集场景应使用较短的 horizon
+ * - maxSpeed 和 radius 取所有角色的最大值，个别特别快的角色会让所有角色的查询范围变大
+ */
+public class CrowdAvoidance {
+
+    /** 每个角色最多对应的网格格子数（角色分布过散时放大格子） */
+    private static final int CELLS_PER_AGENT = 2;
+    /** 网格格子数下限（角色很少时不必放大格子） */
+    private static final int MIN_GRID_CELLS = 64;
+    private static final float EPSILON = 1e-4f;
+
+    private final float neighbourRadius;
+    private final int maxNeighbours;
+
+    private float separationWeight = 1.2f;
+    private float avoidanceWeight = 0.8f;
+    private float horizon = 1f;
+
+    // 结构数组（下标 = 角色编号）
+    private int count;
+    private float[] posX;
+    private float[] posY;
+    private float[] prefX;          // 期望速度（像素/秒）
+    private float[] prefY;
+    private float[] radius;
+    private float[] maxSpeed;
+    private float[] velX;           // 输出速度
+    private float[] velY;
+    private int[] cellOf;
+    private int[] sorted;           // 按格子排序后的角色编号
+
+    // 均匀网格（每帧根据角色分布重建）
+    private float gridMinX;
+    private float gridMinY;
+    private float cellSize;
+    private float queryRadius;
+    private int cellsX;
+    private int cellsY;
+    private int[] cellStart = new int[1];
+    private int[] cellFill = new int[1];
+
+    // 并行计算
+    private ParallelExecutor executor;
+    private final AdaptiveChunkSize chunkSize = new AdaptiveChunkSize();
+    private final ParallelExecutor.RangeTask solveTask = this::solve;
+
+    /**
+     * @param initialCapacity 初始角色数量（不够时自动扩容）
+     * @param neighbourRadius 邻居半径（像素），分离力的作用范围，也是查询半径的下限
+     * @param maxNeighbours   每个角色最多考虑的邻居数量
+     */
+    public CrowdAvoidance(int initialCapacity, float neighbourRadius, int maxNeighbours) {
+        this.neighbourRadius = neighbourRadius;
+        this.maxNeighbours = Math.max(1, maxNeighbours);
+        allocate(Math.max(1, initialCapacity));
+    }
+
+    /**
+     * 设置角色数量（编号为 [0, count)），会保留已有数据
+     */
+    public void setCount(int count) {
+        if (count > posX.length) {
+            allocate(Math.max(count, posX.length * 2));
+        }
+        this.count = count;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    /**
+     * 设置一个角色的本帧输入
+     * @param radius   碰撞半径（像素）
+     * @param maxSpeed 最大速度（像素/秒），输出速度不会超过它
+     */
+    public void setAgent(int index, float x, float y, float preferredVx, float preferredVy, float radius, float maxSpeed) {
+        posX[index] = x;
+        posY[index] = y;
+        prefX[index] = preferredVx;
+        prefY[index] = preferredVy;
+        this.radius[index] = radius;
+        this.maxSpeed[index] = maxSpeed;
+    }
+
+    /**
+     * 设置半径和最大速度（配合 {@link #gather} 使用，只需设置一次）
+     */
+    public void setShape(int index, float radius, float maxSpeed) {
+        this.radius[index] = radius;
+        this.maxSpeed[index] = maxSpeed;
+    }
+
+    /**
+     * 从移动系统读取位置和期望方向：第 i 个角色对应 slots[i]，期望速度 = 输入方向 × 最大速度
+     * <p>
+     * 数量与 slots 一致；新增的角色需要先用 {@link #setShape} 设置半径和最大速度
+     */
+    public void gather(MovementSystem system, IntArray slots) {
+        setCount(slots.size);
+        for (int i = 0; i < count; i++) {
+            int slot = slots.get(i);
+            posX[i] = system.getX(slot);
+            posY[i] = system.getY(slot);
+            prefX[i] = system.getDirX(slot) * maxSpeed[i];
+            prefY[i] = system.getDirY(slot) * maxSpeed[i];
+        }
+    }
+
+    /**
+     * 把避让后的速度写回移动系统（方向 + 速度大小）
+     */
+    public void apply(MovementSystem system, IntArray slots) {
+        for (int i = 0; i < count; i++) {
+            int slot = slots.get(i);
+            float vx = velX[i];
+            float vy = velY[i];
+            float speed = (float) Math.sqrt(vx * vx + vy * vy);
+            if (speed < EPSILON) {
+                system.setInputDirection(slot, 0, 0);
+                system.setSpeed(slot, 0f);
+            } else {
+                system.setInputDirection(slot, vx, vy);
+                system.setSpeed(slot, speed);
+            }
+        }
+    }
+
+    /**
+     * 重建邻居网格并计算所有角色的避让速度
+     */
+    public void update() {
+        if (count == 0) return;
+        buildGrid();
+        if (executor == null || executor.getParallelism() <= 1) {
+            solve(0, count);
+            return;
+        }
+        int parallelism = executor.getParallelism();
+        int chunk = chunkSize.get(count, parallelism);
+        long start = System.nanoTime();
+        executor.forEachChunk(count, chunk, solveTask);
+        chunkSize.record(count, System.nanoTime() - start, parallelism);
+    }
+
+    /**
+     * 使用并行执行器计算（null 表示在调用线程中执行）
+     * 执行器由调用方管理生命周期
+     */
+    public void setExecutor(ParallelExecutor executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * @param separation 分离力权重（相对于最大速度）
+     * @param avoidance  预测避让权重（相对于最大速度）
+     * @param horizon    预测时间窗口（秒），查询半径随它增大（见类说明）
+     */
+    public void setWeights(float separation, float avoidance, float horizon) {
+        this.separationWeight = separation;
+        this.avoidanceWeight = avoidance;
+        this.horizon = horizon;
+    }
+
+    /**
+     * @return 最近一次 update 使用的邻居查询半径（像素）
+     */
+    public float getQueryRadius() {
+        return queryRadius;
+    }
+
+    public float getVelocityX(int index) {
+        return velX[index];
+    }
+
+    public float getVelocityY(int index) {
+        return velY[index];
+    }
+
+    /**
+     * 计数排序：统计每格人数 -> 前缀和得到起始位置 -> 按格子写入角色编号
+     */
+    private void buildGrid() {
+        float minX = Float.POSITIVE_INFINITY;
+        float minY = Float.POSITIVE_INFINITY;
+        float maxX = Float.NEGATIVE_INFINITY;
+        float maxY = Float.NEGATIVE_INFINITY;
+        float topSpeed = 0f;
+        float topRadius = 0f;
+        for (int i = 0; i < count; i++) {
+            minX = Math.min(minX, posX[i]);
+            minY = Math.min(minY, posY[i]);
+            maxX = Math.max(maxX, posX[i]);
+            maxY = Math.max(maxY, posY[i]);
+            topSpeed = Math.max(topSpeed, maxSpeed[i]);
+            topRadius = Math.max(topRadius, radius[i]);
+        }
+        // horizon 内可能相撞的邻居都在查询半径内；格子不小于查询半径，3×3 个格子就能覆盖
+        queryRadius = Math.max(neighbourRadius, 2f * (topSpeed * Math.max(horizon, 0f) + topRadius));
+        // 格子数与角色数成正比：清零和前缀和的成本不随分布范围增长
+        float spanX = maxX - minX;
+        float spanY = maxY - minY;
+        int maxCells = Math.max(MIN_GRID_CELLS, count * CELLS_PER_AGENT);
+        cellSize = Math.max(queryRadius, (float) Math.sqrt(spanX * spanY / maxCells));
+        while ((spanX / cellSize + 1f) * (spanY / cellSize + 1f) > maxCells) {
+            cellSize *= 1.25f;
+        }
+        gridMinX = minX;
+        gridMinY = minY;
+        cellsX = (int) (spanX / cellSize) + 1;
+        cellsY = (int) (spanY / cellSize) + 1;
+        int cells = cellsX * cellsY;
+        if (cellStart.length < cells + 1) {
+            cellStart = new int[cells + 1];
+            cellFill = new int[cells];
+        }
+
+        Arrays.fill(cellStart, 0, cells + 1, 0);
+        for (int i = 0; i < count; i++) {
+            int cx = Math.min((int) ((posX[i] - gridMinX) / cellSize), cellsX - 1);
+            int cy = Math.min((int) ((posY[i] - gridMinY) / cellSize), cellsY - 1);
+            int cell = cy * cellsX + cx;
+            cellOf[i] = cell;
+            cellStart[cell + 1]++;
+        }
+        for (int c = 0; c < cells; c++) {
+            cellStart[c + 1] += cellStart[c];
+            cellFill[c] = cellStart[c];
+        }
+        for (int i = 0; i < count; i++) {
+            sorted[cellFill[cellOf[i]]++] = i;
+        }
+    }
+
+    /**
+     * 计算 [start, end) 区间内角色的速度（只写 velX / velY 的对应下标）
+     */
+    private void solve(int start, int end) {
+        float radius2 = neighbourRadius * neighbourRadius;
+        float query2 = queryRadius * queryRadius;
+        for (int i = start; i < end; i++) {
+            float px = posX[i];
+            float py = posY[i];
+            float vx = prefX[i];
+            float vy = prefY[i];
+            float r = radius[i];
+            int cell = cellOf[i];
+            int cx = cell % cellsX;
+            int cy = cell / cellsX;
+
+            float sepX = 0f;
+            float sepY = 0f;
+            float avoidX = 0f;
+            float avoidY = 0f;
+            int found = 0;
+
+            search:
+            for (int gy = Math.max(cy - 1, 0); gy <= Math.min(cy + 1, cellsY - 1); gy++) {
+                for (int gx = Math.max(cx - 1, 0); gx <= Math.min(cx + 1, cellsX - 1); gx++) {
+                    int c = gy * cellsX + gx;
+                    for (int k = cellStart[c], kEnd = cellStart[c + 1]; k < kEnd; k++) {
+                        int j = sorted[k];
+                        if (j == i) continue;
+                        float dx = posX[j] - px;
+                        float dy = posY[j] - py;
+                        float d2 = dx * dx + dy * dy;
+                        if (d2 >= query2) continue;
+
+                        // 分离：只作用于邻居半径之内，距离越近推力越大，完全重合时按编号决定推开方向
+                        if (d2 > EPSILON) {
+                            if (d2 < radius2) {
+                                float d = (float) Math.sqrt(d2);
+                                float push = (1f - d / neighbourRadius) / d;
+                                sepX -= dx * push;
+                                sepY -= dy * push;
+                            }
+                        } else {
+                            sepX += i < j ? -1f : 1f;
+                        }
+
+                        // 预测避让：相对速度下的最近接近点
+                        float rvx = vx - prefX[j];
+                        float rvy = vy - prefY[j];
+                        float rv2 = rvx * rvx + rvy * rvy;
+                        if (rv2 > EPSILON) {
+                            float t = (dx * rvx + dy * rvy) / rv2;
+                            if (t > 0f && t < horizon) {
+                                float closestX = dx - rvx * t;
+                                float closestY = dy - rvy * t;
+                                float closest2 = closestX * closestX + closestY * closestY;
+                                float combined = r + radius[j];
+                                if (closest2 < combined * combined) {
+                                    float urgency = 1f - t / horizon;
+                                    if (closest2 > EPSILON) {
+                                        float inv = urgency / (float) Math.sqrt(closest2);
+                                        avoidX -= closestX * inv;
+                                        avoidY -= closestY * inv;
+                                    } else {
+                                        // 正面相撞：统一向相对速度的右侧偏转
+                                        float inv = urgency / (float) Math.sqrt(rv2);
+                                        avoidX += rvy * inv;
+                                        avoidY -= rvx * inv;
+                                    }
+                                }
+                            }
+                        }
+
+                        if (++found >= maxNeighbours) break search;
+                    }
+                }
+            }
+
+            float max = maxSpeed[i];
+            vx += (sepX * separationWeight + avoidX * avoidanceWeight) * max;
+            vy += (sepY * separationWeight + avoidY * avoidanceWeight) * max;
+            float speed2 = vx * vx + vy * vy;
+            if (speed2 > max * max) {
+                float scale = max / (float) Math.sqrt(speed2);
+                vx *= scale;
+                vy *= scale;
+            }
+            velX[i] = vx;
+            velY[i] = vy;
+        }
+    }
+
+    private void allocate(int capacity) {
+        posX = copy(posX, capacity);
+        posY = copy(posY, capacity);
+        prefX = copy(prefX, capacity);
+        prefY = copy(prefY, capacity);
+        radius = copy(radius, capacity);
+        maxSpeed = copy(maxSpeed, capacity);
+        // 输出和网格数据每帧重新计算，不需要保留
+        velX = new float[capacity];
+        velY = new float[capacity];
+        cellOf = new int[capacity];
+        sorted = new int[capacity];
+    }
+
+    private float[] copy(float[] old, int capacity) {
+        float[] array = new float[capacity];
+        if (old != null) {
+            System.arraycopy(old, 0, array, 0, count);
+        }
+        return array;
+    }
+}
@@ -0,0 +1,244 @@
+package com.github.xiaotaotao.ligdx.laboratory.navigation;
+
+import com.badlogic.gdx.math.Vector2;
+import com.github.xiaotaotao.ligdx.laboratory.character.MovementController;
+import com.github.xiaotaotao.ligdx.laboratory.character.MovementSystem;
+
+import java.util.Arrays;
+
+/**
+ * 流场导航：对整张网格计算一次"到目标的积分场"，所有追击同一目标的角色共用
+ *
+ * 设计说明：
+ * - 积分场是从目标格出发的 Dijkstra（8 方向，不允许切角，对角代价 √2），
+ *   每个格子记录到目标的最短代价，并预先算好"下一步"方向（代价最低的相邻格）
+ * - 只有目标进入新的格子或网格版本变化时才重新计算，目标在格内移动不产生任何开销
+ * - 角色查询方向只是一次数组读取（O(1)），追击者数量增加不会增加寻路成本
+ * - 被阻挡的格子指向最近的可达格子（从可达区域向墙内做一次 BFS），
+ *   被分离力或碰撞推进墙里的角色会自己走出来，而不是永远停在墙内
+ *
+ * 使用方式：
+ * <pre>
+ * flowField.setTarget(player.x, player.y);   // 每帧调用，格子没变时直接返回
+ * for (MovementController c : chasers) flowField.steer(c);
+ * </pre>
+ *
+ * 注意：到达目标所在格子后方向改为直接指向目标点；与目标不连通的可通行格子方向为 (0, 0)
+ */
+public class FlowField {
+
+    /** 没有下一步（目标格本身、不可达的格子，或目标不可通行时的所有格子） */
+    public static final int NO_DIRECTION = -1;
+
+    private static final float DIAGONAL = 1.41421356f;
+    private static final int[] DX = {1, -1, 0, 0, 1, 1, -1, -1};
+    private static final int[] DY = {0, 0, 1, -1, 1, -1, 1, -1};
+    private static final int[] OPPOSITE = {1, 0, 3, 2, 7, 6, 5, 4};
+    private static final float[] DIR_X = new float[8];
+    private static final float[] DIR_Y = new float[8];
+
+    static {
+        for (int i = 0; i < 8; i++) {
+            float len = i < 4 ? 1f : DIAGONAL;
+            DIR_X[i] = DX[i] / len;
+            DIR_Y[i] = DY[i] / len;
+        }
+    }
+
+    private final NavGrid grid;
+    private final float[] cost;
+    private final byte[] direction;
+    private final IndexedMinHeap open;
+    private final int[] escapeQueue;
+
+    private int targetCell = -1;
+    private float targetX;
+    private float targetY;
+    private int builtVersion = -1;
+    private int rebuildCount;
+
+    public FlowField(NavGrid grid) {
+        this.grid = grid;
+        int cells = grid.getCellCount();
+        cost = new float[cells];
+        direction = new byte[cells];
+        open = new IndexedMinHeap(cells);
+        escapeQueue = new int[cells];
+        Arrays.fill(cost, Float.POSITIVE_INFINITY);
+        Arrays.fill(direction, (byte) NO_DIRECTION);
+    }
+
+    /**
+     * 设置目标的世界坐标；只有目标格变化（或网格变化）时才重新计算
+     * @return 本次是否重新计算了积分场
+     */
+    public boolean setTarget(float x, float y) {
+        targetX = x;
+        targetY = y;
+        int cell = grid.cellAt(x, y);
+        if (cell == targetCell && builtVersion == grid.getVersion()) return false;
+        targetCell = cell;
+        rebuild();
+        return true;
+    }
+
+    /**
+     * 让移动控制器朝流场方向移动（目标格内直接朝目标点移动）
+     */
+    public void steer(MovementController controller) {
+        Vector2 p = controller.getPosition();
+        int cell = grid.cellAt(p.x, p.y);
+        if (cell == targetCell) {
+            controller.setInputDirection(targetX - p.x, targetY - p.y);
+            return;
+        }
+        int dir = direction[cell];
+        if (dir == NO_DIRECTION) {
+            controller.setInputDirection(0, 0);
+        } else {
+            controller.setInputDirection(DIR_X[dir], DIR_Y[dir]);
+        }
+    }
+
+    /**
+     * 批量版本：直接读写 MovementSystem 的槽位，不经过控制器对象
+     */
+    public void steer(MovementSystem system, int slot) {
+        float x = system.getX(slot);
+        float y = system.getY(slot);
+        int cell = grid.cellAt(x, y);
+        if (cell == targetCell) {
+            system.setInputDirection(slot, targetX - x, targetY - y);
+            return;
+        }
+        int dir = direction[cell];
+        if (dir == NO_DIRECTION) {
+            system.setInputDirection(slot, 0, 0);
+        } else {
+            system.setInputDirection(slot, DIR_X[dir], DIR_Y[dir]);
+        }
+    }
+
+    /**
+     * 查询世界坐标处的单位方向
+     * @return 是否有方向（false 时 out 为 0）
+     */
+    public boolean sample(float x, float y, Vector2 out) {
+        int dir = direction[grid.cellAt(x, y)];
+        if (dir == NO_DIRECTION) {
+            out.setZero();
+            return false;
+        }
+        out.set(DIR_X[dir], DIR_Y[dir]);
+        return true;
+    }
+
+    /**
+     * @return 格子到目标的代价（格子为单位），不可达时为正无穷
+     */
+    public float getCost(int cell) {
+        return cost[cell];
+    }
+
+    /**
+     * @return 格子的下一步方向（0~7），或 {@link #NO_DIRECTION}
+     */
+    public int getDirection(int cell) {
+        return direction[cell];
+    }
+
+    public int getTargetCell() {
+        return targetCell;
+    }
+
+    /**
+     * @return 积分场重新计算的次数（调试用）
+     */
+    public int getRebuildCount() {
+        return rebuildCount;
+    }
+
+    private void rebuild() {
+        rebuildCount++;
+        builtVersion = grid.getVersion();
+        Arrays.fill(cost, Float.POSITIVE_INFINITY);
+        Arrays.fill(direction, (byte) NO_DIRECTION);
+        if (!grid.isWalkable(targetCell)) return;
+
+        int width = grid.getWidth();
+        int height = grid.getHeight();
+        open.reset();
+        cost[targetCell] = 0f;
+        open.addOrDecrease(targetCell, 0f);
+        while (!open.isEmpty()) {
+            int current = open.pop();
+            int cx = current % width;
+            int cy = current / width;
+            float base = cost[current];
+            for (int dir = 0; dir < 8; dir++) {
+                int nx = cx + DX[dir];
+                int ny = cy + DY[dir];
+                if (nx < 0 || ny < 0 || nx >= width || ny >= height) continue;
+                int next = ny * width + nx;
+                if (!grid.isWalkable(next)) continue;
+                float step = 1f;
+                if (dir >= 4) {
+                    if (!grid.isWalkable(cy * width + nx) || !grid.isWalkable(ny * width + cx)) continue;
+                    step = DIAGONAL;
+                }
+                float tentative = base + step;
+                if (tentative < cost[next]) {
+                    cost[next] = tentative;
+                    // 从 next 走回 current 的方向就是 next 的下一步（方向表中正反方向成对）
+                    direction[next] = (byte) OPPOSITE[dir];
+                    open.addOrDecrease(next, tentative);
+                }
+            }
+        }
+        buildEscapeDirections(width, height);
+    }
+
+    /**
+     * 阻挡格的方向：紧贴可达格子的阻挡格指向代价最低的可达邻居，
+     * 更深处的阻挡格按 BFS 顺序指向离出口更近的阻挡格
+     */
+    private void buildEscapeDirections(int width, int height) {
+        int tail = 0;
+        int cells = width * height;
+        for (int cell = 0; cell < cells; cell++) {
+            if (grid.isWalkable(cell)) continue;
+            int cx = cell % width;
+            int cy = cell / width;
+            int best = NO_DIRECTION;
+            float bestCost = Float.POSITIVE_INFINITY;
+            for (int dir = 0; dir < 8; dir++) {
+                int nx = cx + DX[dir];
+                int ny = cy + DY[dir];
+                if (nx < 0 || ny < 0 || nx >= width || ny >= height) continue;
+                float c = cost[ny * width + nx];
+                if (c < bestCost) {
+                    bestCost = c;
+                    best = dir;
+                }
+            }
+            if (best != NO_DIRECTION) {
+                direction[cell] = (byte) best;
+                escapeQueue[tail++] = cell;
+            }
+        }
+        for (int head = 0; head < tail; head++) {
+            int current = escapeQueue[head];
+            int cx = current % width;
+            int cy = current / width;
+            for (int dir = 0; dir < 8; dir++) {
+                int nx = cx + DX[dir];
+                int ny = cy + DY[dir];
+                if (nx < 0 || ny < 0 || nx >= width || ny >= height) continue;
+                int next = ny * width + nx;
+                if (grid.isWalkable(next) || direction[next] != NO_DIRECTION) continue;
+                direction[next] = (byte) OPPOSITE[dir];
+                escapeQueue[tail++] = next;
+            }
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package com.github.xiaotaotao.ligdx.laboratory.navigation;
+
+import com.badlogic.gdx.utils.IntArray;
+
+import java.util.Arrays;
+
+/**
+ * 网格 A* 寻路（8 方向，不允许切角）
+ *
+ * 设计说明：
+ * - g 值、父节点、关闭标记都是以格子下标为索引的基本类型数组，开放列表是 {@link IndexedMinHeap}，
+ *   搜索过程不创建任何对象
+ * - 每次搜索递增 stamp 代替清空数组，搜索开销只与实际展开的格子数有关
+ * - 支持把搜索限制在一个矩形范围内（分层寻路在簇内部做局部搜索时使用）
+ * - 启发函数为八方向距离（octile），对角代价 √2，结果为最短路径
+ *
+ * 注意：实例持有搜索用的缓冲区，不是线程安全的
+ */
+public class GridAStar {
+
+    private static final float DIAGONAL = 1.41421356f;
+    private static final int[] DX = {1, -1, 0, 0, 1, 1, -1, -1};
+    private static final int[] DY = {0, 0, 1, -1, 1, -1, 1, -1};
+
+    private final NavGrid grid;
+    private final float[] g;
+    private final int[] parent;
+    private final int[] closedStamps;
+    private final int[] seenStamps;
+    private final IndexedMinHeap open;
+    private int stamp;
+
+    private float lastCost;
+    private int lastExpanded;
+
+    public GridAStar(NavGrid grid) {
+        this.grid = grid;
+        int cells = grid.getCellCount();
+        g = new float[cells];
+        parent = new int[cells];
+        closedStamps = new int[cells];
+        seenStamps = new int[cells];
+        open = new IndexedMinHeap(cells);
+    }
+
+    /**
+     * 在整个网格内寻路
+     * @see #findPath(int, int, int, int, int, int, IntArray)
+     */
+    public boolean findPath(int start, int goal, IntArray out) {
+        return findPath(start, goal, 0, 0, grid.getWidth() - 1, grid.getHeight() - 1, out);
+    }
+
+    /**
+     * 在 [minX, maxX] × [minY, maxY]（格子坐标，含边界）范围内寻路
+     * @param start 起点格子下标
+     * @param goal  终点格子下标
+     * @param out   输出：从起点到终点（含两端）的格子下标，会先清空；找不到时为空
+     * @return 是否找到路径
+     */
+    public boolean findPath(int start, int goal, int minX, int minY, int maxX, int maxY, IntArray out) {
+        out.clear();
+        lastExpanded = 0;
+        lastCost = Float.POSITIVE_INFINITY;
+        if (!grid.isWalkable(start) || !grid.isWalkable(goal)) return false;
+        return search(start, goal, minX, minY, maxX, maxY, out);
+    }
+
+    /**
+     * 从起点出发展开范围内所有可达格子（Dijkstra），之后用 {@link #getCostTo(int)} 读取到各格子的代价
+     * <p>
+     * 分层寻路需要起点到簇内每个入口的代价，一次展开代替对每个入口各做一次 A*
+     */
+    public void expandAll(int start, int minX, int minY, int maxX, int maxY) {
+        lastExpanded = 0;
+        lastCost = Float.POSITIVE_INFINITY;
+        if (!grid.isWalkable(start)) {
+            nextStamp();
+            return;
+        }
+        search(start, -1, minX, minY, maxX, maxY, null);
+    }
+
+    /**
+     * @return 最近一次 {@link #expandAll} 中到该格子的最短代价，未到达时为正无穷
+     */
+    public float getCostTo(int cell) {
+        return closedStamps[cell] == stamp ? g[cell] : Float.POSITIVE_INFINITY;
+    }
+
+    /**
+     * goal 为 -1 时不使用启发函数，展开全部可达格子
+     */
+    private boolean search(int start, int goal, int minX, int minY, int maxX, int maxY, IntArray out) {
+        int width = grid.getWidth();
+        boolean hasGoal = goal >= 0;
+        int goalX = hasGoal ? goal % width : 0;
+        int goalY = hasGoal ? goal / width : 0;
+
+        nextStamp();
+        open.reset();
+        g[start] = 0f;
+        parent[start] = -1;
+        seenStamps[start] = stamp;
+        open.addOrDecrease(start, hasGoal ? heuristic(start % width, start / width, goalX, goalY) : 0f);
+
+        while (!open.isEmpty()) {
+            int current = open.pop();
+            if (current == goal) {
+                lastCost = g[goal];
+                buildPath(goal, out);
+                return true;
+            }
+            closedStamps[current] = stamp;
+            lastExpanded++;
+
+            int cx = current % width;
+            int cy = current / width;
+            float gCurrent = g[current];
+            for (int dir = 0; dir < 8; dir++) {
+                int nx = cx + DX[dir];
+                int ny = cy + DY[dir];
+                if (nx < minX || ny < minY || nx > maxX || ny > maxY) continue;
+                int next = ny * width + nx;
+                if (!grid.isWalkable(next) || closedStamps[next] == stamp) continue;
+                float step = 1f;
+                if (dir >= 4) {
+                    // 不允许切角：两个相邻的直线格都必须可通行
+                    if (!grid.isWalkable(cy * width + nx) || !grid.isWalkable(ny * width + cx)) continue;
+                    step = DIAGONAL;
+                }
+                float tentative = gCurrent + step;
+                if (seenStamps[next] == stamp && tentative >= g[next]) continue;
+                seenStamps[next] = stamp;
+                g[next] = tentative;
+                parent[next] = current;
+                open.addOrDecrease(next, hasGoal ? tentative + heuristic(nx, ny, goalX, goalY) : tentative);
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return 最近一次成功搜索的路径代价（格子为单位）
+     */
+    public float getLastCost() {
+        return lastCost;
+    }
+
+    /**
+     * @return 最近一次搜索展开的格子数量
+     */
+    public int getLastExpanded() {
+        return lastExpanded;
+    }
+
+    static float heuristic(int x0, int y0, int x1, int y1) {
+        int dx = Math.abs(x0 - x1);
+        int dy = Math.abs(y0 - y1);
+        int min = Math.min(dx, dy);
+        return (dx + dy - 2 * min) + min * DIAGONAL;
+    }
+
+    private void buildPath(int goal, IntArray out) {
+        for (int node = goal; node != -1; node = parent[node]) {
+            out.add(node);
+        }
+        out.reverse();
+    }
+
+    private void nextStamp() {
+        if (++stamp == Integer.MAX_VALUE) {
+            Arrays.fill(closedStamps, 0);
+            Arrays.fill(seenStamps, 0);
+            stamp = 1;
+        }
+    }
+}
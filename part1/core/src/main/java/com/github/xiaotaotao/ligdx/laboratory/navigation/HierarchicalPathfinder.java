@@ -0,0 +1,487 @@
+package com.github.xiaotaotao.ligdx.laboratory.navigation;
+
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.FloatArray;
+import com.badlogic.gdx.utils.IntArray;
+import com.badlogic.gdx.utils.IntIntMap;
+import com.badlogic.gdx.utils.TimeUtils;
+
+import java.util.Arrays;
+
+/**
+ * 分层寻路（HPA*）：把网格划分为 clusterSize × clusterSize 的簇，在簇之间的"入口"上建立抽象图，
+ * 长距离路径先在抽象图上搜索，再逐段细化为格子路径
+ *
+ * 工作原理：
+ * - 相邻两簇的边界上，每段连续可通行的格子对生成入口（短段取中点，长段取两端），
+ *   入口两侧的格子是抽象节点，跨边界的边代价为 1
+ * - 每个抽象节点在簇内做一次展开（Dijkstra），同簇中可达的节点之间加一条边，代价为簇内最短路径长度
+ * - 查询时从起点 / 终点各做一次簇内展开，临时连到所在簇的入口节点，在抽象图上做 A*，
+ *   再用簇内 A* 细化每一段
+ * - 起点和终点在同一簇时先尝试簇内直接寻路
+ * - 细化后的"入口到入口"中段按 (起点簇, 终点簇) 存入 LRU 缓存，之后同一对簇之间的请求
+ *   只需要计算首尾两小段（结果可能略长于最短路径，换取大幅减少搜索量）
+ *
+ * 抽象图重建：
+ * - 网格版本变化后需要重建抽象图并清空缓存；{@link #rebuild(long)} 按簇分步重建，
+ *   到达截止时间就暂停，下次调用从暂停处继续（重建途中网格再次变化时从头开始）
+ * - {@link PathService} 每帧先在自己的预算内推进重建，完成之后才处理请求，重建时间计入预算
+ * - 直接调用 findPath 时如果抽象图不是最新的，会在调用内一次性完成重建
+ *
+ * 注意：实例不是线程安全的
+ */
+public class HierarchicalPathfinder {
+
+    /** 边界段长度达到该值时在两端各放一个入口 */
+    private static final int LONG_ENTRANCE = 6;
+
+    /** 分时重建的阶段：空闲、生成入口、连接簇内入口 */
+    private static final int BUILD_IDLE = 0;
+    private static final int BUILD_ENTRANCES = 1;
+    private static final int BUILD_LINKS = 2;
+
+    private final NavGrid grid;
+    private final int clusterSize;
+    private final int clustersX;
+    private final int clustersY;
+    private final GridAStar astar;
+    private final PathCache cache;
+
+    // 抽象图
+    private final IntArray nodeCell = new IntArray();
+    private final Array<IntArray> edgeTargets = new Array<>();
+    private final Array<FloatArray> edgeCosts = new Array<>();
+    private final IntIntMap cellToNode = new IntIntMap();
+    private final IntArray[] clusterNodes;
+    private int builtVersion = -1;
+
+    // 分时重建的进度：正在重建的网格版本、阶段、下一个要处理的簇
+    private int buildingVersion = -1;
+    private int buildPhase = BUILD_IDLE;
+    private int buildCluster;
+
+    // 抽象搜索缓冲（节点 N 为起点、N+1 为终点）
+    private final IndexedMinHeap open = new IndexedMinHeap(64);
+    private float[] absG = new float[64];
+    private int[] absParent = new int[64];
+    private int[] absStamps = new int[64];
+    private int[] absClosed = new int[64];
+    private float[] goalLinkCost = new float[64];
+    private int[] goalLinkStamps = new int[64];
+    private int absStamp;
+    private final IntArray startLinks = new IntArray();
+    private final FloatArray startLinkCosts = new FloatArray();
+
+    // 细化用的临时路径
+    private final IntArray segment = new IntArray();
+    private final IntArray abstractPath = new IntArray();
+
+    private boolean lastCacheHit;
+
+    /**
+     * @param grid          导航网格
+     * @param clusterSize   簇边长（格子数），例如 16
+     * @param cacheCapacity 路径缓存条目数
+     */
+    public HierarchicalPathfinder(NavGrid grid, int clusterSize, int cacheCapacity) {
+        this.grid = grid;
+        this.clusterSize = clusterSize;
+        this.clustersX = (grid.getWidth() + clusterSize - 1) / clusterSize;
+        this.clustersY = (grid.getHeight() + clusterSize - 1) / clusterSize;
+        this.astar = new GridAStar(grid);
+        this.cache = new PathCache(cacheCapacity);
+        this.clusterNodes = new IntArray[clustersX * clustersY];
+        for (int i = 0; i < clusterNodes.length; i++) {
+            clusterNodes[i] = new IntArray();
+        }
+    }
+
+    /**
+     * 寻路
+     * @param start 起点格子下标
+     * @param goal  终点格子下标
+     * @param out   输出：从起点到终点（含两端）的格子下标，会先清空
+     * @return 是否找到路径
+     */
+    public boolean findPath(int start, int goal, IntArray out) {
+        out.clear();
+        lastCacheHit = false;
+        if (!grid.isWalkable(start) || !grid.isWalkable(goal)) return false;
+        if (builtVersion != grid.getVersion()) {
+            rebuild(Long.MAX_VALUE);
+        }
+
+        int startCluster = clusterOf(start);
+        int goalCluster = clusterOf(goal);
+        if (startCluster == goalCluster && findInCluster(start, goal, startCluster, out)) {
+            return true;
+        }
+
+        long key = PathCache.key(startCluster, goalCluster);
+        IntArray cached = cache.get(key);
+        if (cached != null && useCached(start, goal, startCluster, goalCluster, cached, out)) {
+            lastCacheHit = true;
+            return true;
+        }
+
+        if (!searchAbstract(start, goal, startCluster, goalCluster)) {
+            out.clear();
+            return false;
+        }
+        return refine(start, goal, startCluster, goalCluster, key, out);
+    }
+
+    /**
+     * 推进抽象图重建，到达截止时间时暂停（每次调用至少处理一个簇）
+     * @param deadlineNanos 截止时间（{@link TimeUtils#nanoTime()} 的时间基准）
+     * @return 抽象图是否已经与当前网格一致
+     */
+    public boolean rebuild(long deadlineNanos) {
+        int version = grid.getVersion();
+        if (builtVersion == version) return true;
+        if (buildPhase == BUILD_IDLE || buildingVersion != version) {
+            beginBuild(version);
+        }
+        while (true) {
+            if (buildPhase == BUILD_ENTRANCES) {
+                addClusterEntrances(buildCluster++);
+                if (buildCluster == clusterNodes.length) {
+                    buildPhase = BUILD_LINKS;
+                    buildCluster = 0;
+                }
+            } else {
+                linkClusterNodes(buildCluster++);
+                if (buildCluster == clusterNodes.length) {
+                    buildPhase = BUILD_IDLE;
+                    builtVersion = version;
+                    return true;
+                }
+            }
+            if (TimeUtils.nanoTime() >= deadlineNanos) return false;
+        }
+    }
+
+    /**
+     * @return 抽象图是否与当前网格一致（为 false 时 findPath 会先同步重建）
+     */
+    public boolean isGraphCurrent() {
+        return builtVersion == grid.getVersion();
+    }
+
+    /**
+     * @return 最近一次 findPath 是否使用了缓存的中段
+     */
+    public boolean isLastCacheHit() {
+        return lastCacheHit;
+    }
+
+    public int getCacheHits() {
+        return cache.getHits();
+    }
+
+    public int getCacheMisses() {
+        return cache.getMisses();
+    }
+
+    /**
+     * @return 抽象图节点数量（入口两侧的格子）
+     */
+    public int getAbstractNodeCount() {
+        return nodeCell.size;
+    }
+
+    public NavGrid getGrid() {
+        return grid;
+    }
+
+    private boolean useCached(int start, int goal, int startCluster, int goalCluster, IntArray cached, IntArray out) {
+        int entry = cached.first();
+        int exit = cached.peek();
+        if (!findInCluster(start, entry, startCluster, out)) return false;
+        out.addAll(cached, 1, cached.size - 1);
+        if (!findInCluster(exit, goal, goalCluster, segment)) {
+            out.clear();
+            return false;
+        }
+        out.addAll(segment, 1, segment.size - 1);
+        return true;
+    }
+
+    private boolean searchAbstract(int start, int goal, int startCluster, int goalCluster) {
+        int n = nodeCell.size;
+        int startNode = n;
+        int goalNode = n + 1;
+        ensureSearchCapacity(n + 2);
+        if (++absStamp == Integer.MAX_VALUE) {
+            Arrays.fill(absStamps, 0);
+            Arrays.fill(absClosed, 0);
+            Arrays.fill(goalLinkStamps, 0);
+            absStamp = 1;
+        }
+
+        // 临时连接起点 / 终点与所在簇的入口：各做一次簇内展开即可得到到所有入口的代价
+        startLinks.clear();
+        startLinkCosts.clear();
+        expandInCluster(start, startCluster);
+        IntArray nodes = clusterNodes[startCluster];
+        for (int i = 0; i < nodes.size; i++) {
+            int node = nodes.get(i);
+            float cost = astar.getCostTo(nodeCell.get(node));
+            if (cost != Float.POSITIVE_INFINITY) {
+                startLinks.add(node);
+                startLinkCosts.add(cost);
+            }
+        }
+        // 网格是无向的，终点到入口的代价等于入口到终点的代价
+        expandInCluster(goal, goalCluster);
+        nodes = clusterNodes[goalCluster];
+        boolean anyGoalLink = false;
+        for (int i = 0; i < nodes.size; i++) {
+            int node = nodes.get(i);
+            float cost = astar.getCostTo(nodeCell.get(node));
+            if (cost != Float.POSITIVE_INFINITY) {
+                goalLinkCost[node] = cost;
+                goalLinkStamps[node] = absStamp;
+                anyGoalLink = true;
+            }
+        }
+        if (startLinks.size == 0 || !anyGoalLink) return false;
+
+        int width = grid.getWidth();
+        int goalX = goal % width;
+        int goalY = goal / width;
+        open.reset();
+        absG[startNode] = 0f;
+        absParent[startNode] = -1;
+        absStamps[startNode] = absStamp;
+        open.addOrDecrease(startNode, 0f);
+
+        while (!open.isEmpty()) {
+            int current = open.pop();
+            if (current == goalNode) {
+                abstractPath.clear();
+                for (int node = absParent[goalNode]; node != startNode; node = absParent[node]) {
+                    abstractPath.add(node);
+                }
+                abstractPath.reverse();
+                return true;
+            }
+            absClosed[current] = absStamp;
+            float g = absG[current];
+
+            if (current == startNode) {
+                for (int i = 0; i < startLinks.size; i++) {
+                    relax(current, startLinks.get(i), g + startLinkCosts.get(i), goalX, goalY, goalNode);
+                }
+                continue;
+            }
+            IntArray targets = edgeTargets.get(current);
+            FloatArray costs = edgeCosts.get(current);
+            for (int i = 0; i < targets.size; i++) {
+                relax(current, targets.get(i), g + costs.get(i), goalX, goalY, goalNode);
+            }
+            if (goalLinkStamps[current] == absStamp) {
+                relax(current, goalNode, g + goalLinkCost[current], goalX, goalY, goalNode);
+            }
+        }
+        return false;
+    }
+
+    private void relax(int from, int to, float tentative, int goalX, int goalY, int goalNode) {
+        if (absClosed[to] == absStamp) return;
+        if (absStamps[to] == absStamp && tentative >= absG[to]) return;
+        absStamps[to] = absStamp;
+        absG[to] = tentative;
+        absParent[to] = from;
+        float h = 0f;
+        if (to != goalNode) {
+            int cell = nodeCell.get(to);
+            h = GridAStar.heuristic(grid.cellX(cell), grid.cellY(cell), goalX, goalY);
+        }
+        open.addOrDecrease(to, tentative + h);
+    }
+
+    private boolean refine(int start, int goal, int startCluster, int goalCluster, long key, IntArray out) {
+        int first = abstractPath.first();
+        if (!findInCluster(start, nodeCell.get(first), startCluster, out)) return false;
+        int middleStart = out.size - 1;
+
+        for (int i = 0; i + 1 < abstractPath.size; i++) {
+            int a = nodeCell.get(abstractPath.get(i));
+            int b = nodeCell.get(abstractPath.get(i + 1));
+            int clusterA = clusterOf(a);
+            if (clusterA == clusterOf(b)) {
+                if (!findInCluster(a, b, clusterA, segment)) {
+                    out.clear();
+                    return false;
+                }
+                out.addAll(segment, 1, segment.size - 1);
+            } else {
+                // 跨簇的入口边：两个格子相邻
+                out.add(b);
+            }
+        }
+        int middleEnd = out.size;
+
+        int last = nodeCell.get(abstractPath.peek());
+        if (!findInCluster(last, goal, goalCluster, segment)) {
+            out.clear();
+            return false;
+        }
+        out.addAll(segment, 1, segment.size - 1);
+        cache.put(key, out, middleStart, middleEnd);
+        return true;
+    }
+
+    private boolean findInCluster(int from, int to, int cluster, IntArray out) {
+        int x0 = (cluster % clustersX) * clusterSize;
+        int y0 = (cluster / clustersX) * clusterSize;
+        int x1 = Math.min(x0 + clusterSize, grid.getWidth()) - 1;
+        int y1 = Math.min(y0 + clusterSize, grid.getHeight()) - 1;
+        return astar.findPath(from, to, x0, y0, x1, y1, out);
+    }
+
+    private void expandInCluster(int from, int cluster) {
+        int x0 = (cluster % clustersX) * clusterSize;
+        int y0 = (cluster / clustersX) * clusterSize;
+        int x1 = Math.min(x0 + clusterSize, grid.getWidth()) - 1;
+        int y1 = Math.min(y0 + clusterSize, grid.getHeight()) - 1;
+        astar.expandAll(from, x0, y0, x1, y1);
+    }
+
+    private int clusterOf(int cell) {
+        return (grid.cellY(cell) / clusterSize) * clustersX + grid.cellX(cell) / clusterSize;
+    }
+
+    /**
+     * 清空抽象图，开始按 version 重建
+     */
+    private void beginBuild(int version) {
+        nodeCell.clear();
+        edgeTargets.clear();
+        edgeCosts.clear();
+        cellToNode.clear();
+        for (IntArray nodes : clusterNodes) {
+            nodes.clear();
+        }
+        cache.clear();
+        builtVersion = -1;
+        buildingVersion = version;
+        buildPhase = BUILD_ENTRANCES;
+        buildCluster = 0;
+    }
+
+    /**
+     * 重建第一阶段：在簇与右侧、上方簇之间的边界上生成入口
+     */
+    private void addClusterEntrances(int cluster) {
+        int width = grid.getWidth();
+        int height = grid.getHeight();
+        int cx = cluster % clustersX;
+        int cy = cluster / clustersX;
+        int rowStart = cy * clusterSize;
+        int rowEnd = Math.min(rowStart + clusterSize, height);
+        int colStart = cx * clusterSize;
+        int colEnd = Math.min(colStart + clusterSize, width);
+        // 与右侧簇之间的竖直边界
+        if (cx + 1 < clustersX) {
+            int x = colEnd - 1;
+            int segmentStart = -1;
+            for (int y = rowStart; y <= rowEnd; y++) {
+                boolean passable = y < rowEnd && grid.isWalkable(x, y) && grid.isWalkable(x + 1, y);
+                if (passable && segmentStart < 0) {
+                    segmentStart = y;
+                } else if (!passable && segmentStart >= 0) {
+                    addEntrances(x, segmentStart, y - 1, true);
+                    segmentStart = -1;
+                }
+            }
+        }
+        // 与上方簇之间的水平边界
+        if (cy + 1 < clustersY) {
+            int y = rowEnd - 1;
+            int segmentStart = -1;
+            for (int x = colStart; x <= colEnd; x++) {
+                boolean passable = x < colEnd && grid.isWalkable(x, y) && grid.isWalkable(x, y + 1);
+                if (passable && segmentStart < 0) {
+                    segmentStart = x;
+                } else if (!passable && segmentStart >= 0) {
+                    addEntrances(y, segmentStart, x - 1, false);
+                    segmentStart = -1;
+                }
+            }
+        }
+    }
+
+    /**
+     * 重建第二阶段（所有入口生成之后）：簇内入口两两连接
+     */
+    private void linkClusterNodes(int cluster) {
+        IntArray nodes = clusterNodes[cluster];
+        for (int i = 0; i < nodes.size; i++) {
+            int a = nodes.get(i);
+            expandInCluster(nodeCell.get(a), cluster);
+            for (int j = i + 1; j < nodes.size; j++) {
+                int b = nodes.get(j);
+                float cost = astar.getCostTo(nodeCell.get(b));
+                if (cost != Float.POSITIVE_INFINITY) {
+                    addEdge(a, b, cost);
+                    addEdge(b, a, cost);
+                }
+            }
+        }
+    }
+
+    /**
+     * @param border   竖直边界时为左侧列 x，水平边界时为下方行 y
+     * @param from     段起点（沿边界方向的坐标）
+     * @param to       段终点（含）
+     * @param vertical 是否为竖直边界
+     */
+    private void addEntrances(int border, int from, int to, boolean vertical) {
+        if (to - from + 1 >= LONG_ENTRANCE) {
+            addEntrance(border, from, vertical);
+            addEntrance(border, to, vertical);
+        } else {
+            addEntrance(border, (from + to) / 2, vertical);
+        }
+    }
+
+    private void addEntrance(int border, int along, boolean vertical) {
+        int cellA = vertical ? grid.index(border, along) : grid.index(along, border);
+        int cellB = vertical ? grid.index(border + 1, along) : grid.index(along, border + 1);
+        int a = nodeFor(cellA);
+        int b = nodeFor(cellB);
+        addEdge(a, b, 1f);
+        addEdge(b, a, 1f);
+    }
+
+    private int nodeFor(int cell) {
+        int node = cellToNode.get(cell, -1);
+        if (node >= 0) return node;
+        node = nodeCell.size;
+        nodeCell.add(cell);
+        edgeTargets.add(new IntArray(4));
+        edgeCosts.add(new FloatArray(4));
+        cellToNode.put(cell, node);
+        clusterNodes[clusterOf(cell)].add(node);
+        return node;
+    }
+
+    private void addEdge(int from, int to, float cost) {
+        edgeTargets.get(from).add(to);
+        edgeCosts.get(from).add(cost);
+    }
+
+    private void ensureSearchCapacity(int count) {
+        open.ensureNodeCapacity(count);
+        if (absG.length >= count) return;
+        int capacity = Math.max(count, absG.length * 2);
+        absG = Arrays.copyOf(absG, capacity);
+        absParent = Arrays.copyOf(absParent, capacity);
+        absStamps = Arrays.copyOf(absStamps, capacity);
+        absClosed = Arrays.copyOf(absClosed, capacity);
+        goalLinkCost = Arrays.copyOf(goalLinkCost, capacity);
+        goalLinkStamps = Arrays.copyOf(goalLinkStamps, capacity);
+    }
+}
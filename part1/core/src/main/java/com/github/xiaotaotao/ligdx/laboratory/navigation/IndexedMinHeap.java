@@ -0,0 +1,129 @@
+package com.github.xiaotaotao.ligdx.laboratory.navigation;
+
+import java.util.Arrays;
+
+/**
+ * 以 int 节点为元素、float 为键的二叉最小堆，支持降低键值（A* / Dijkstra 的开放列表）
+ *
+ * 设计说明：
+ * - 全部使用基本类型数组，不创建节点对象
+ * - position[node] 记录节点在堆中的位置，配合 stamp 判断节点是否在本轮搜索的堆中，
+ *   每次搜索开始时只需递增 stamp，不用清空 position 数组
+ */
+class IndexedMinHeap {
+
+    private int[] nodes;
+    private float[] keys;
+    private int[] position;
+    private int[] stamps;
+    private int stamp;
+    private int size;
+
+    /**
+     * @param nodeCapacity 节点下标上限
+     */
+    IndexedMinHeap(int nodeCapacity) {
+        nodes = new int[Math.max(16, nodeCapacity / 4)];
+        keys = new float[nodes.length];
+        position = new int[nodeCapacity];
+        stamps = new int[nodeCapacity];
+    }
+
+    /**
+     * 开始新一轮搜索（清空堆）
+     */
+    void reset() {
+        size = 0;
+        if (++stamp == Integer.MAX_VALUE) {
+            Arrays.fill(stamps, 0);
+            stamp = 1;
+        }
+    }
+
+    /**
+     * 节点上限不足时扩容（分层图节点数会随网格变化）
+     */
+    void ensureNodeCapacity(int nodeCapacity) {
+        if (position.length >= nodeCapacity) return;
+        position = Arrays.copyOf(position, nodeCapacity);
+        stamps = Arrays.copyOf(stamps, nodeCapacity);
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * 插入节点，或在新键值更小时降低键值
+     */
+    void addOrDecrease(int node, float key) {
+        if (stamps[node] == stamp && position[node] >= 0) {
+            int pos = position[node];
+            if (key < keys[pos]) {
+                keys[pos] = key;
+                siftUp(pos);
+            }
+            return;
+        }
+        if (size == nodes.length) {
+            nodes = Arrays.copyOf(nodes, size * 2);
+            keys = Arrays.copyOf(keys, size * 2);
+        }
+        stamps[node] = stamp;
+        nodes[size] = node;
+        keys[size] = key;
+        position[node] = size;
+        siftUp(size++);
+    }
+
+    /**
+     * 弹出键值最小的节点
+     */
+    int pop() {
+        int top = nodes[0];
+        position[top] = -1;
+        size--;
+        if (size > 0) {
+            nodes[0] = nodes[size];
+            keys[0] = keys[size];
+            position[nodes[0]] = 0;
+            siftDown(0);
+        }
+        return top;
+    }
+
+    private void siftUp(int pos) {
+        int node = nodes[pos];
+        float key = keys[pos];
+        while (pos > 0) {
+            int parent = (pos - 1) >>> 1;
+            if (keys[parent] <= key) break;
+            nodes[pos] = nodes[parent];
+            keys[pos] = keys[parent];
+            position[nodes[pos]] = pos;
+            pos = parent;
+        }
+        nodes[pos] = node;
+        keys[pos] = key;
+        position[node] = pos;
+    }
+
+    private void siftDown(int pos) {
+        int node = nodes[pos];
+        float key = keys[pos];
+        int half = size >>> 1;
+        while (pos < half) {
+            int child = 2 * pos + 1;
+            int right = child + 1;
+            if (right < size && keys[right] < keys[child]) child = right;
+            if (key <= keys[child]) break;
+            nodes[pos] = nodes[child];
+            keys[pos] = keys[child];
+            position[nodes[pos]] = pos;
+            pos = child;
+        }
+        nodes[pos] = node;
+        keys[pos] = key;
+        position[node] = pos;
+    }
+}
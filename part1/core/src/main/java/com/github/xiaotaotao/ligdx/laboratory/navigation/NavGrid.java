@@ -0,0 +1,141 @@
+package com.github.xiaotaotao.ligdx.laboratory.navigation;
+
+import com.badlogic.gdx.math.Rectangle;
+
+/**
+ * 导航用的瓦片网格：记录每个格子是否可通行，并负责世界坐标与格子下标的换算
+ *
+ * 设计说明：
+ * - 格子用一维下标 index = y * width + x 表示，寻路算法只处理 int，不创建节点对象
+ * - 每次可通行性变化都会递增版本号，寻路层据此重建分层图、清空路径缓存
+ *
+ * 使用方式：
+ * <pre>
+ * NavGrid grid = new NavGrid(110, 57, 16f, 80f, 80f);
+ * grid.setBlocked(new Rectangle(400, 200, 32, 400), true);   // 一堵墙
+ * int cell = grid.cellAt(playerX, playerY);
+ * </pre>
+ */
+public class NavGrid {
+
+    private final int width;
+    private final int height;
+    private final float cellSize;
+    private final float originX;
+    private final float originY;
+    private final boolean[] blocked;
+
+    private int version;
+
+    /**
+     * @param width    格子列数
+     * @param height   格子行数
+     * @param cellSize 格子边长（像素）
+     * @param originX  左下角格子左下角的世界坐标
+     * @param originY  左下角格子左下角的世界坐标
+     */
+    public NavGrid(int width, int height, float cellSize, float originX, float originY) {
+        this.width = width;
+        this.height = height;
+        this.cellSize = cellSize;
+        this.originX = originX;
+        this.originY = originY;
+        this.blocked = new boolean[width * height];
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public int getCellCount() {
+        return blocked.length;
+    }
+
+    public float getCellSize() {
+        return cellSize;
+    }
+
+    /**
+     * @return 可通行性的版本号（任何格子变化都会改变）
+     */
+    public int getVersion() {
+        return version;
+    }
+
+    public int index(int cx, int cy) {
+        return cy * width + cx;
+    }
+
+    public int cellX(int index) {
+        return index % width;
+    }
+
+    public int cellY(int index) {
+        return index / width;
+    }
+
+    public boolean inBounds(int cx, int cy) {
+        return cx >= 0 && cy >= 0 && cx < width && cy < height;
+    }
+
+    public boolean isWalkable(int cx, int cy) {
+        return inBounds(cx, cy) && !blocked[cy * width + cx];
+    }
+
+    public boolean isWalkable(int index) {
+        return !blocked[index];
+    }
+
+    public int worldToCellX(float x) {
+        return (int) Math.floor((x - originX) / cellSize);
+    }
+
+    public int worldToCellY(float y) {
+        return (int) Math.floor((y - originY) / cellSize);
+    }
+
+    /**
+     * @return 世界坐标所在格子的下标（约束到网格范围内）
+     */
+    public int cellAt(float x, float y) {
+        int cx = Math.min(Math.max(worldToCellX(x), 0), width - 1);
+        int cy = Math.min(Math.max(worldToCellY(y), 0), height - 1);
+        return cy * width + cx;
+    }
+
+    public float cellCenterX(int index) {
+        return originX + (index % width + 0.5f) * cellSize;
+    }
+
+    public float cellCenterY(int index) {
+        return originY + (index / width + 0.5f) * cellSize;
+    }
+
+    public void setBlocked(int cx, int cy, boolean value) {
+        if (!inBounds(cx, cy)) return;
+        int index = cy * width + cx;
+        if (blocked[index] != value) {
+            blocked[index] = value;
+            version++;
+        }
+    }
+
+    /**
+     * 设置与世界矩形重叠的所有格子
+     */
+    public void setBlocked(Rectangle area, boolean value) {
+        int x0 = Math.max(0, worldToCellX(area.x));
+        int y0 = Math.max(0, worldToCellY(area.y));
+        int x1 = Math.min(width - 1, worldToCellX(area.x + area.width - 0.001f));
+        int y1 = Math.min(height - 1, worldToCellY(area.y + area.height - 0.001f));
+        for (int cy = y0; cy <= y1; cy++) {
+            for (int cx = x0; cx <= x1; cx++) {
+                setBlocked(cx, cy, value);
+            }
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.github.xiaotaotao.ligdx.laboratory.navigation;
+
+import com.badlogic.gdx.utils.IntArray;
+import com.badlogic.gdx.utils.LongMap;
+
+/**
+ * 按 (起点簇, 终点簇) 缓存路径的 LRU 缓存
+ *
+ * 设计说明：
+ * - LongMap 查找 + 侵入式双向链表维护最近使用顺序，命中 / 插入 / 淘汰都是 O(1)
+ * - 淘汰的条目连同它的 IntArray 一起复用，缓存满了之后不再分配
+ */
+class PathCache {
+
+    private static final class Entry {
+        long key;
+        final IntArray cells = new IntArray();
+        Entry prev;
+        Entry next;
+    }
+
+    private final int capacity;
+    private final LongMap<Entry> entries;
+    // 链表头是最近使用的，尾是最久未使用的
+    private Entry head;
+    private Entry tail;
+
+    private int hits;
+    private int misses;
+
+    PathCache(int capacity) {
+        this.capacity = Math.max(1, capacity);
+        this.entries = new LongMap<>(this.capacity * 2);
+    }
+
+    static long key(int startCluster, int goalCluster) {
+        return ((long) startCluster << 32) | (goalCluster & 0xffffffffL);
+    }
+
+    /**
+     * @return 缓存的格子序列（调用方只读），没有时返回 null
+     */
+    IntArray get(long key) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            misses++;
+            return null;
+        }
+        hits++;
+        moveToFront(entry);
+        return entry.cells;
+    }
+
+    void put(long key, IntArray cells, int from, int to) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            if (entries.size >= capacity) {
+                // 复用最久未使用的条目
+                entry = tail;
+                unlink(entry);
+                entries.remove(entry.key);
+            } else {
+                entry = new Entry();
+            }
+            entry.key = key;
+            entries.put(key, entry);
+        } else {
+            unlink(entry);
+        }
+        entry.cells.clear();
+        entry.cells.addAll(cells, from, to - from);
+        linkFront(entry);
+    }
+
+    void clear() {
+        entries.clear();
+        head = null;
+        tail = null;
+    }
+
+    int getHits() {
+        return hits;
+    }
+
+    int getMisses() {
+        return misses;
+    }
+
+    int size() {
+        return entries.size;
+    }
+
+    private void moveToFront(Entry entry) {
+        if (entry == head) return;
+        unlink(entry);
+        linkFront(entry);
+    }
+
+    private void linkFront(Entry entry) {
+        entry.prev = null;
+        entry.next = head;
+        if (head != null) {
+            head.prev = entry;
+        }
+        head = entry;
+        if (tail == null) {
+            tail = entry;
+        }
+    }
+
+    private void unlink(Entry entry) {
+        if (entry.prev != null) {
+            entry.prev.next = entry.next;
+        } else {
+            head = entry.next;
+        }
+        if (entry.next != null) {
+            entry.next.prev = entry.prev;
+        } else {
+            tail = entry.prev;
+        }
+        entry.prev = null;
+        entry.next = null;
+    }
+}
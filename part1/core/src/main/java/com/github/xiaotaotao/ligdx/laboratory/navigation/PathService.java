@@ -0,0 +1,155 @@
+package com.github.xiaotaotao.ligdx.laboratory.navigation;
+
+import com.badlogic.gdx.utils.IntArray;
+import com.badlogic.gdx.utils.IntMap;
+import com.badlogic.gdx.utils.Pool;
+import com.badlogic.gdx.utils.Queue;
+import com.badlogic.gdx.utils.TimeUtils;
+
+/**
+ * 寻路请求服务：把寻路从"调用即计算"改为排队处理，每帧只消耗固定的时间预算
+ *
+ * 设计说明：
+ * - 同一个 agent 只保留一个待处理请求，重复请求直接覆盖起终点（追逐者每帧重新请求也不会堆积）
+ * - {@link #update()} 按先进先出处理请求，累计耗时超过预算就停止，剩下的留到下一帧；
+ *   每帧至少处理一个请求（抽象图重建中的帧除外），保证不会饿死
+ * - 网格变化后，update 先在同一份预算内分时重建抽象图（{@link HierarchicalPathfinder#rebuild}），
+ *   重建完成之前请求留在队列里；重建不会在某个请求的 findPath 里一次性发生
+ * - 请求对象池化，稳定运行后不再分配
+ * - 计算在调用 update 的线程上分时完成，而不是交给工作线程：网格和缓存都不需要加锁，
+ *   回调也天然在游戏线程上
+ *
+ * 使用方式：
+ * <pre>
+ * pathService.request(enemyId, enemyX, enemyY, playerX, playerY, listener);
+ * // render 中
+ * pathService.update();
+ * </pre>
+ */
+public class PathService {
+
+    /**
+     * 寻路结果回调
+     */
+    public interface Listener {
+        /**
+         * @param agentId 请求时传入的 id
+         * @param cells   从起点到终点的格子下标，只在回调期间有效
+         * @param found   是否找到路径
+         */
+        void onPathReady(int agentId, IntArray cells, boolean found);
+    }
+
+    private static final class Request implements Pool.Poolable {
+        int agentId;
+        int start;
+        int goal;
+        Listener listener;
+
+        @Override
+        public void reset() {
+            listener = null;
+        }
+    }
+
+    private final HierarchicalPathfinder pathfinder;
+    private final Queue<Request> queue = new Queue<>();
+    private final IntMap<Request> pendingByAgent = new IntMap<>();
+    private final Pool<Request> requestPool = new Pool<Request>() {
+        @Override
+        protected Request newObject() {
+            return new Request();
+        }
+    };
+    private final IntArray result = new IntArray();
+
+    private long budgetNanos = 1_000_000L;
+    private int processedCount;
+
+    public PathService(HierarchicalPathfinder pathfinder) {
+        this.pathfinder = pathfinder;
+    }
+
+    /**
+     * 提交寻路请求（世界坐标）；同一 agent 已有待处理请求时只更新起终点
+     */
+    public void request(int agentId, float fromX, float fromY, float toX, float toY, Listener listener) {
+        NavGrid grid = pathfinder.getGrid();
+        request(agentId, grid.cellAt(fromX, fromY), grid.cellAt(toX, toY), listener);
+    }
+
+    /**
+     * 提交寻路请求（格子下标）
+     */
+    public void request(int agentId, int startCell, int goalCell, Listener listener) {
+        Request request = pendingByAgent.get(agentId);
+        if (request == null) {
+            request = requestPool.obtain();
+            request.agentId = agentId;
+            pendingByAgent.put(agentId, request);
+            queue.addLast(request);
+        }
+        request.start = startCell;
+        request.goal = goalCell;
+        request.listener = listener;
+    }
+
+    /**
+     * 取消 agent 的待处理请求
+     */
+    public void cancel(int agentId) {
+        Request request = pendingByAgent.remove(agentId);
+        if (request != null) {
+            queue.removeValue(request, true);
+            requestPool.free(request);
+        }
+    }
+
+    /**
+     * 在时间预算内推进抽象图重建、处理排队的请求，在游戏线程每帧调用一次
+     */
+    public void update() {
+        long begin = TimeUtils.nanoTime();
+        if (!pathfinder.isGraphCurrent()) {
+            // 重建耗时计入本帧预算；刚好用完预算时请求留到下一帧
+            if (!pathfinder.rebuild(begin + budgetNanos)) return;
+            if (TimeUtils.nanoTime() - begin >= budgetNanos) return;
+        }
+        while (queue.notEmpty()) {
+            Request request = queue.removeFirst();
+            pendingByAgent.remove(request.agentId);
+            boolean found = pathfinder.findPath(request.start, request.goal, result);
+            processedCount++;
+            Listener listener = request.listener;
+            int agentId = request.agentId;
+            requestPool.free(request);
+            if (listener != null) {
+                listener.onPathReady(agentId, result, found);
+            }
+            if (TimeUtils.nanoTime() - begin >= budgetNanos) break;
+        }
+    }
+
+    /**
+     * 设置每帧的处理预算（纳秒），默认 1ms
+     */
+    public void setBudgetNanos(long budgetNanos) {
+        this.budgetNanos = budgetNanos;
+    }
+
+    public int getPendingCount() {
+        return queue.size;
+    }
+
+    public int getProcessedCount() {
+        return processedCount;
+    }
+
+    public int getCacheHits() {
+        return pathfinder.getCacheHits();
+    }
+
+    public HierarchicalPathfinder getPathfinder() {
+        return pathfinder;
+    }
+}
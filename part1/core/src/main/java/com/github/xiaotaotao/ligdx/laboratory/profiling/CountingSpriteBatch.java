@@ -0,0 +1,108 @@
+package com.github.xiaotaotao.ligdx.laboratory.profiling;
+
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.math.Affine2;
+
+/**
+ * 统计提交精灵数量的 SpriteBatch（SpriteBatch 只统计 flush 次数，不统计精灵数量）
+ *
+ * 设计说明：
+ * - 只重写真正写入顶点的 draw 重载；draw(Texture, x, y) 和 draw(TextureRegion, x, y)
+ *   在 SpriteBatch 内部转调带宽高的重载，不重写以免重复计数
+ * - draw(Texture, float[], offset, count) 按 20 个 float 一个精灵折算（BitmapFont、Sprite 走这个重载）
+ * - 计数只增不减，使用方记录前后差值即可得到某一段代码提交的精灵数
+ */
+public class CountingSpriteBatch extends SpriteBatch {
+
+    /** 每个精灵的顶点 float 数量（4 个顶点 × 5 个分量） */
+    private static final int SPRITE_SIZE = 20;
+
+    private long spriteCount;
+
+    public CountingSpriteBatch() {
+        super();
+    }
+
+    /**
+     * @param size 每批最多的精灵数量
+     */
+    public CountingSpriteBatch(int size) {
+        super(size);
+    }
+
+    /**
+     * @return 创建以来提交的精灵总数
+     */
+    public long getSpriteCount() {
+        return spriteCount;
+    }
+
+    @Override
+    public void draw(Texture texture, float x, float y, float originX, float originY, float width, float height,
+                     float scaleX, float scaleY, float rotation, int srcX, int srcY, int srcWidth, int srcHeight,
+                     boolean flipX, boolean flipY) {
+        super.draw(texture, x, y, originX, originY, width, height, scaleX, scaleY, rotation,
+                srcX, srcY, srcWidth, srcHeight, flipX, flipY);
+        spriteCount++;
+    }
+
+    @Override
+    public void draw(Texture texture, float x, float y, float width, float height, int srcX, int srcY,
+                     int srcWidth, int srcHeight, boolean flipX, boolean flipY) {
+        super.draw(texture, x, y, width, height, srcX, srcY, srcWidth, srcHeight, flipX, flipY);
+        spriteCount++;
+    }
+
+    @Override
+    public void draw(Texture texture, float x, float y, int srcX, int srcY, int srcWidth, int srcHeight) {
+        super.draw(texture, x, y, srcX, srcY, srcWidth, srcHeight);
+        spriteCount++;
+    }
+
+    @Override
+    public void draw(Texture texture, float x, float y, float width, float height,
+                     float u, float v, float u2, float v2) {
+        super.draw(texture, x, y, width, height, u, v, u2, v2);
+        spriteCount++;
+    }
+
+    @Override
+    public void draw(Texture texture, float x, float y, float width, float height) {
+        super.draw(texture, x, y, width, height);
+        spriteCount++;
+    }
+
+    @Override
+    public void draw(Texture texture, float[] spriteVertices, int offset, int count) {
+        super.draw(texture, spriteVertices, offset, count);
+        spriteCount += count / SPRITE_SIZE;
+    }
+
+    @Override
+    public void draw(TextureRegion region, float x, float y, float width, float height) {
+        super.draw(region, x, y, width, height);
+        spriteCount++;
+    }
+
+    @Override
+    public void draw(TextureRegion region, float x, float y, float originX, float originY, float width, float height,
+                     float scaleX, float scaleY, float rotation) {
+        super.draw(region, x, y, originX, originY, width, height, scaleX, scaleY, rotation);
+        spriteCount++;
+    }
+
+    @Override
+    public void draw(TextureRegion region, float x, float y, float originX, float originY, float width, float height,
+                     float scaleX, float scaleY, float rotation, boolean clockwise) {
+        super.draw(region, x, y, originX, originY, width, height, scaleX, scaleY, rotation, clockwise);
+        spriteCount++;
+    }
+
+    @Override
+    public void draw(TextureRegion region, float width, float height, Affine2 transform) {
+        super.draw(region, width, height, transform);
+        spriteCount++;
+    }
+}
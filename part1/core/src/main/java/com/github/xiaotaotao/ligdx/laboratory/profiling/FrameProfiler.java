@@ -0,0 +1,364 @@
+package com.github.xiaotaotao.ligdx.laboratory.profiling;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.Input;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
+import com.badlogic.gdx.graphics.profiling.GLProfiler;
+import com.badlogic.gdx.utils.BufferUtils;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.TimeUtils;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.nio.IntBuffer;
+import java.util.List;
+
+/**
+ * 帧统计：CPU 分段耗时 + GL 调用统计 + 堆 / GC 计数，带叠加层和 CSV 导出
+ *
+ * 使用方式（任意 Screen 都可以接入）：
+ * <pre>
+ * profiler = new FrameProfiler("AttackDemo");      // show()
+ *
+ * profiler.beginUpdate();  update(delta);  profiler.endUpdate();
+ * profiler.beginRender();
+ * batch.begin(); ... batch.end();
+ * profiler.addRenderCalls(batch.renderCalls);       // 每个 SpriteBatch end() 之后
+ * profiler.endRender();
+ * profiler.endFrame();                              // 采样 + 绘制叠加层
+ *
+ * profiler.dispose();                               // dispose()
+ * </pre>
+ *
+ * 操作说明：
+ * - F3：显示 / 隐藏叠加层
+ * - F4：导出最近 {@link #HISTORY_SIZE} 帧到 local 目录 profiling/名称-时间戳.csv
+ *
+ * 注意：
+ * - GLProfiler 会替换 Gdx.gl，同一时间只应有一个启用的 FrameProfiler（dispose 时会关闭）
+ * - 叠加层自身的绘制不计入统计（绘制完成后才重置 GL 计数）
+ */
+public class FrameProfiler implements Disposable {
+
+    /** 每个指标保存的历史帧数 */
+    public static final int HISTORY_SIZE = 300;
+
+    /** 叠加层每行的高度与直方图宽度（像素） */
+    private static final float ROW_HEIGHT = 26f;
+    private static final float GRAPH_WIDTH = HISTORY_SIZE;
+    private static final float LABEL_WIDTH = 250f;
+    private static final float PADDING = 8f;
+
+    /**
+     * 采集的指标
+     */
+    public enum Metric {
+        UPDATE_MS("update", "ms"),
+        RENDER_MS("render", "ms"),
+        RENDER_CALLS("batch calls", ""),
+        DRAW_CALLS("gl draws", ""),
+        TEXTURE_BINDINGS("tex binds", ""),
+        SHADER_SWITCHES("shader sw", ""),
+        HEAP_MB("heap", "MB"),
+        GC_COUNT("gc count", ""),
+        GC_MS("gc time", "ms");
+
+        public final String label;
+        public final String unit;
+
+        Metric(String label, String unit) {
+            this.label = label;
+            this.unit = unit;
+        }
+    }
+
+    /** 缓存 values()，避免每帧复制数组 */
+    private static final Metric[] METRICS = Metric.values();
+
+    private final String name;
+    private final MetricHistory[] histories = new MetricHistory[METRICS.length];
+    private final GLProfiler glProfiler;
+    private final List<GarbageCollectorMXBean> gcBeans = ManagementFactory.getGarbageCollectorMXBeans();
+
+    /** 当前帧的计时起点（纳秒） */
+    private long updateStart;
+    private long renderStart;
+    /** 当前帧累计的值 */
+    private float updateMs;
+    private float renderMs;
+    private int renderCalls;
+
+    /** 上一帧的 GC 累计值（用于计算每帧增量） */
+    private long lastGcCount;
+    private long lastGcMillis;
+
+    private boolean overlayVisible = true;
+    private SpriteBatch overlayBatch;
+    private ShapeRenderer overlayShapes;
+    private BitmapFont overlayFont;
+    private final IntBuffer savedViewport = BufferUtils.newIntBuffer(16);
+    private final StringBuilder text = new StringBuilder(64);
+
+    /**
+     * @param name 名称（用于 CSV 文件名）
+     */
+    public FrameProfiler(String name) {
+        this.name = name;
+        for (int i = 0; i < histories.length; i++) {
+            histories[i] = new MetricHistory(HISTORY_SIZE);
+        }
+        glProfiler = new GLProfiler(Gdx.graphics);
+        glProfiler.enable();
+        lastGcCount = totalGcCount();
+        lastGcMillis = totalGcMillis();
+    }
+
+    public void beginUpdate() {
+        updateStart = System.nanoTime();
+    }
+
+    public void endUpdate() {
+        updateMs += (System.nanoTime() - updateStart) / 1_000_000f;
+    }
+
+    public void beginRender() {
+        renderStart = System.nanoTime();
+    }
+
+    public void endRender() {
+        renderMs += (System.nanoTime() - renderStart) / 1_000_000f;
+    }
+
+    /**
+     * 累加 SpriteBatch 的 render call 次数（在 batch.end() 之后调用，多个 batch 可以多次调用）
+     *
+     * @param calls batch.renderCalls
+     */
+    public void addRenderCalls(int calls) {
+        renderCalls += calls;
+    }
+
+    /**
+     * 结束当前帧：写入所有指标、处理快捷键、绘制叠加层，并为下一帧重置计数
+     */
+    public void endFrame() {
+        record(Metric.UPDATE_MS, updateMs);
+        record(Metric.RENDER_MS, renderMs);
+        record(Metric.RENDER_CALLS, renderCalls);
+        record(Metric.DRAW_CALLS, glProfiler.getDrawCalls());
+        record(Metric.TEXTURE_BINDINGS, glProfiler.getTextureBindings());
+        record(Metric.SHADER_SWITCHES, glProfiler.getShaderSwitches());
+
+        Runtime runtime = Runtime.getRuntime();
+        record(Metric.HEAP_MB, (runtime.totalMemory() - runtime.freeMemory()) / (1024f * 1024f));
+        long gcCount = totalGcCount();
+        long gcMillis = totalGcMillis();
+        record(Metric.GC_COUNT, gcCount - lastGcCount);
+        record(Metric.GC_MS, gcMillis - lastGcMillis);
+        lastGcCount = gcCount;
+        lastGcMillis = gcMillis;
+
+        updateMs = 0f;
+        renderMs = 0f;
+        renderCalls = 0;
+
+        if (Gdx.input.isKeyJustPressed(Input.Keys.F3)) {
+            overlayVisible = !overlayVisible;
+        }
+        if (Gdx.input.isKeyJustPressed(Input.Keys.F4)) {
+            FileHandle file = exportCsv();
+            if (file != null) {
+                Gdx.app.log("FrameProfiler", "Exported " + histories[0].size() + " frames to " + file.path());
+            }
+        }
+        if (overlayVisible) {
+            drawOverlay();
+        }
+
+        // 叠加层绘制之后再重置，避免把统计自身的开销算进下一帧
+        glProfiler.reset();
+    }
+
+    private void record(Metric metric, float value) {
+        histories[metric.ordinal()].add(value);
+    }
+
+    /**
+     * 获取指标的历史数据
+     *
+     * @param metric 指标
+     * @return 环形缓冲区（只读使用）
+     */
+    public MetricHistory getHistory(Metric metric) {
+        return histories[metric.ordinal()];
+    }
+
+    /**
+     * 导出到默认位置：local 目录下 profiling/名称-时间戳.csv
+     *
+     * @return 导出的文件，失败时返回 null
+     */
+    public FileHandle exportCsv() {
+        FileHandle file = Gdx.files.local("profiling/" + name + "-" + TimeUtils.millis() + ".csv");
+        try {
+            exportCsv(file);
+            return file;
+        } catch (GdxRuntimeException e) {
+            Gdx.app.error("FrameProfiler", "Failed to export CSV: " + file.path(), e);
+            return null;
+        }
+    }
+
+    /**
+     * 导出为 CSV（每行一帧，从旧到新），便于在不同版本之间离线对比
+     *
+     * @param file 目标文件
+     */
+    public void exportCsv(FileHandle file) {
+        Metric[] metrics = METRICS;
+        int frames = histories[0].size();
+        StringBuilder csv = new StringBuilder(64 + frames * metrics.length * 8);
+        csv.append("frame");
+        for (Metric metric : metrics) {
+            csv.append(',').append(metric.name().toLowerCase());
+        }
+        csv.append('\n');
+        for (int i = 0; i < frames; i++) {
+            csv.append(i);
+            for (Metric metric : metrics) {
+                csv.append(',').append(histories[metric.ordinal()].get(i));
+            }
+            csv.append('\n');
+        }
+        file.writeString(csv.toString(), false, "UTF-8");
+    }
+
+    /**
+     * 绘制叠加层：每个指标一行（当前值 / 平均 / 最大 + 直方图）
+     */
+    private void drawOverlay() {
+        if (overlayBatch == null) {
+            overlayBatch = new SpriteBatch();
+            overlayShapes = new ShapeRenderer();
+            overlayFont = new BitmapFont();
+        }
+
+        // 叠加层使用整个窗口的像素坐标，绘制完后恢复 Screen 自己的视口
+        Gdx.gl.glGetIntegerv(GL20.GL_VIEWPORT, savedViewport);
+        int width = Gdx.graphics.getBackBufferWidth();
+        int height = Gdx.graphics.getBackBufferHeight();
+        Gdx.gl.glViewport(0, 0, width, height);
+        overlayShapes.getProjectionMatrix().setToOrtho2D(0, 0, width, height);
+        overlayBatch.getProjectionMatrix().setToOrtho2D(0, 0, width, height);
+
+        Metric[] metrics = METRICS;
+        float panelWidth = LABEL_WIDTH + GRAPH_WIDTH + PADDING * 3;
+        float panelHeight = metrics.length * ROW_HEIGHT + PADDING * 2;
+        float panelX = PADDING;
+        float panelY = height - panelHeight - PADDING;
+
+        Gdx.gl.glEnable(GL20.GL_BLEND);
+        Gdx.gl.glBlendFunc(GL20.GL_SRC_ALPHA, GL20.GL_ONE_MINUS_SRC_ALPHA);
+        overlayShapes.begin(ShapeRenderer.ShapeType.Filled);
+        overlayShapes.setColor(0f, 0f, 0f, 0.6f);
+        overlayShapes.rect(panelX, panelY, panelWidth, panelHeight);
+        for (int row = 0; row < metrics.length; row++) {
+            MetricHistory history = histories[metrics[row].ordinal()];
+            float graphX = panelX + PADDING * 2 + LABEL_WIDTH;
+            float graphY = rowY(panelY, panelHeight, row);
+            float graphHeight = ROW_HEIGHT - 6f;
+            float max = Math.max(history.max(), 1e-3f);
+            overlayShapes.setColor(0.3f, 0.8f, 0.4f, 0.9f);
+            for (int i = 0; i < history.size(); i++) {
+                float barHeight = history.get(i) / max * graphHeight;
+                overlayShapes.rect(graphX + i * (GRAPH_WIDTH / history.capacity()), graphY,
+                        GRAPH_WIDTH / history.capacity(), barHeight);
+            }
+        }
+        overlayShapes.end();
+
+        overlayBatch.begin();
+        overlayFont.setColor(Color.WHITE);
+        for (int row = 0; row < metrics.length; row++) {
+            Metric metric = metrics[row];
+            MetricHistory history = histories[metric.ordinal()];
+            float textY = rowY(panelY, panelHeight, row) + ROW_HEIGHT - 10f;
+            // 复用 StringBuilder，避免叠加层本身每帧产生大量垃圾影响 GC 统计
+            text.setLength(0);
+            text.append(metric.label).append(": ");
+            appendFixed(text, history.latest()).append(' ').append(metric.unit);
+            appendFixed(text.append("  avg "), history.average());
+            appendFixed(text.append("  max "), history.max());
+            overlayFont.draw(overlayBatch, text, panelX + PADDING, textY);
+        }
+        overlayBatch.end();
+
+        Gdx.gl.glViewport(savedViewport.get(0), savedViewport.get(1), savedViewport.get(2), savedViewport.get(3));
+    }
+
+    /** 保留两位小数追加到 StringBuilder（不使用 String.format，避免分配） */
+    private static StringBuilder appendFixed(StringBuilder out, float value) {
+        int hundredths = Math.round(value * 100f);
+        if (hundredths < 0) {
+            out.append('-');
+            hundredths = -hundredths;
+        }
+        out.append(hundredths / 100).append('.');
+        int fraction = hundredths % 100;
+        if (fraction < 10) {
+            out.append('0');
+        }
+        return out.append(fraction);
+    }
+
+    private float rowY(float panelY, float panelHeight, int row) {
+        return panelY + panelHeight - PADDING - (row + 1) * ROW_HEIGHT;
+    }
+
+    private long totalGcCount() {
+        long count = 0;
+        for (GarbageCollectorMXBean bean : gcBeans) {
+            count += Math.max(0, bean.getCollectionCount());
+        }
+        return count;
+    }
+
+    private long totalGcMillis() {
+        long millis = 0;
+        for (GarbageCollectorMXBean bean : gcBeans) {
+            millis += Math.max(0, bean.getCollectionTime());
+        }
+        return millis;
+    }
+
+    public boolean isOverlayVisible() {
+        return overlayVisible;
+    }
+
+    public void setOverlayVisible(boolean overlayVisible) {
+        this.overlayVisible = overlayVisible;
+    }
+
+    @Override
+    public void dispose() {
+        glProfiler.disable();
+        if (overlayBatch != null) {
+            overlayBatch.dispose();
+            overlayBatch = null;
+        }
+        if (overlayShapes != null) {
+            overlayShapes.dispose();
+            overlayShapes = null;
+        }
+        if (overlayFont != null) {
+            overlayFont.dispose();
+            overlayFont = null;
+        }
+    }
+}
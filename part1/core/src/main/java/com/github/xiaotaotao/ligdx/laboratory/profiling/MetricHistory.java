@@ -0,0 +1,88 @@
+package com.github.xiaotaotao.ligdx.laboratory.profiling;
+
+/**
+ * 单个指标的环形缓冲区（保存最近 N 帧的采样值）
+ *
+ * 设计说明：
+ * - 固定容量的 float 数组，写满后覆盖最旧的数据，采样过程不分配内存
+ * - 索引 0 表示最旧的一帧，size()-1 表示最新的一帧
+ */
+public class MetricHistory {
+
+    private final float[] values;
+    private int head;   // 下一次写入的位置
+    private int size;
+
+    /**
+     * @param capacity 最多保存的采样数量
+     */
+    public MetricHistory(int capacity) {
+        this.values = new float[capacity];
+    }
+
+    /**
+     * 写入一个采样值（缓冲区满时覆盖最旧的值）
+     *
+     * @param value 采样值
+     */
+    public void add(float value) {
+        values[head] = value;
+        head = (head + 1) % values.length;
+        if (size < values.length) {
+            size++;
+        }
+    }
+
+    /**
+     * 按时间顺序读取采样值
+     *
+     * @param index 0=最旧，size()-1=最新
+     * @return 采样值
+     */
+    public float get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("index: " + index + ", size: " + size);
+        }
+        int start = (head - size + values.length) % values.length;
+        return values[(start + index) % values.length];
+    }
+
+    /**
+     * @return 最新的采样值（没有数据时为 0）
+     */
+    public float latest() {
+        return size == 0 ? 0f : get(size - 1);
+    }
+
+    public float average() {
+        if (size == 0) {
+            return 0f;
+        }
+        float sum = 0f;
+        for (int i = 0; i < size; i++) {
+            sum += values[i];
+        }
+        return sum / size;
+    }
+
+    public float max() {
+        float max = 0f;
+        for (int i = 0; i < size; i++) {
+            max = Math.max(max, values[i]);
+        }
+        return max;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int capacity() {
+        return values.length;
+    }
+
+    public void clear() {
+        head = 0;
+        size = 0;
+    }
+}
@@ -0,0 +1,100 @@
+package com.github.xiaotaotao.ligdx.laboratory.render;
+
+import com.badlogic.gdx.utils.BufferUtils;
+
+import java.nio.FloatBuffer;
+
+/**
+ * 精灵顶点位置缓冲（CPU 侧）：直接按顶点格式写入 direct FloatBuffer，渲染时整块上传
+ *
+ * 顶点格式：每个四边形 4 个顶点，每个顶点 (x, y)，即每个四边形 {@link #FLOATS_PER_QUAD} 个 float
+ * 顶点顺序：左下、右下、右上、左上（与 {@link SpriteMeshRenderer} 的静态索引缓冲对应）
+ *
+ * 设计说明：
+ * - 使用绝对下标写入（put(index, value)），不修改 position，多个线程可以并行写入不相交的区间
+ * - 纹理坐标对每个四边形都相同，放在渲染器的静态缓冲中，这里每帧只写位置
+ * - 不依赖 GL，可以在 headless 环境下检查缓冲内容、测量构建耗时
+ */
+public class QuadPositionBuffer {
+
+    /** 每个四边形的 float 数量（4 个顶点 × (x, y)） */
+    public static final int FLOATS_PER_QUAD = 8;
+
+    private final int capacity;
+    private final FloatBuffer buffer;
+
+    /** 有效四边形数量 */
+    private int quadCount;
+
+    /**
+     * @param capacity 四边形容量
+     */
+    public QuadPositionBuffer(int capacity) {
+        this.capacity = capacity;
+        this.buffer = BufferUtils.newFloatBuffer(capacity * FLOATS_PER_QUAD);
+    }
+
+    /**
+     * 写入一个轴对齐的四边形
+     *
+     * @param index  四边形下标
+     * @param x      左下角 x
+     * @param y      左下角 y
+     * @param width  宽度
+     * @param height 高度
+     */
+    public void putQuad(int index, float x, float y, float width, float height) {
+        int offset = index * FLOATS_PER_QUAD;
+        float right = x + width;
+        float top = y + height;
+        FloatBuffer b = buffer;
+        b.put(offset, x);
+        b.put(offset + 1, y);
+        b.put(offset + 2, right);
+        b.put(offset + 3, y);
+        b.put(offset + 4, right);
+        b.put(offset + 5, top);
+        b.put(offset + 6, x);
+        b.put(offset + 7, top);
+    }
+
+    /**
+     * 读取四边形左下角 x（用于调试 / 测试）
+     */
+    public float getX(int index) {
+        return buffer.get(index * FLOATS_PER_QUAD);
+    }
+
+    /**
+     * 读取四边形左下角 y（用于调试 / 测试）
+     */
+    public float getY(int index) {
+        return buffer.get(index * FLOATS_PER_QUAD + 1);
+    }
+
+    public int getQuadCount() {
+        return quadCount;
+    }
+
+    /**
+     * 设置有效四边形数量（不超过容量）
+     *
+     * @param quadCount 四边形数量
+     */
+    public void setQuadCount(int quadCount) {
+        this.quadCount = Math.min(quadCount, capacity);
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * 底层缓冲（渲染线程上传时使用，调用方不要修改 position 之外的内容）
+     *
+     * @return direct FloatBuffer
+     */
+    public FloatBuffer getBuffer() {
+        return buffer;
+    }
+}
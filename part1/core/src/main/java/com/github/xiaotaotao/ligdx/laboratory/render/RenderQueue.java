@@ -0,0 +1,393 @@
+package com.github.xiaotaotao.ligdx.laboratory.render;
+
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.utils.ObjectIntMap;
+
+import java.util.Arrays;
+
+/**
+ * 按 64 位排序键排序的绘制命令队列：先收集本帧的绘制，基数排序后一次性回放到 SpriteBatch
+ *
+ * 排序键（高位优先）：
+ * - 63..60：图层（0-15）
+ * - 59..32：深度（float 转成可排序的整数后取高 28 位，越小越先画；俯视角 Y 排序用 {@link #ySort(float)}）
+ * - 31..28：混合模式（{@link #BLEND_ALPHA} 等）
+ * - 27..12：纹理 id（按首次提交的顺序分配）
+ * - 11..0 ：未使用
+ *
+ * 工作原理：
+ * - 每条命令只记录纹理、位置、纹理坐标和打包颜色（结构数组，容量不够时成倍扩容，稳定后不再分配）
+ * - 排序使用 LSD 基数排序（每趟 8 位），所有键在某个字节上都相同时跳过这一趟，
+ *   通常只需要 4~5 趟；基数排序是稳定的，键完全相同的命令保持提交顺序
+ * - 回放时只在颜色 / 混合模式真正变化时才设置，纹理相同的命令连续提交，SpriteBatch 不会因换纹理 flush
+ *
+ * 设计说明：
+ * - 深度优先于纹理：深度不同的物体必须按深度画，纹理只能在同一深度内合并；
+ *   不需要前后关系的物体（地面贴花、粒子）用相同的深度提交，就能按纹理完全合并
+ *
+ * 使用方式：
+ * <pre>
+ * queue.setLayer(3);
+ * queue.draw(region, x, y, w, h, RenderQueue.ySort(y));   // 任意顺序提交
+ * ...
+ * queue.flush(batch);                                     // batch.begin() 之后调用
+ * </pre>
+ *
+ * 注意：只在 GL 线程使用；提交的纹理在 flush 之前不能释放
+ */
+public class RenderQueue {
+
+    /** 普通 alpha 混合 */
+    public static final int BLEND_ALPHA = 0;
+    /** 加法混合（发光、火焰） */
+    public static final int BLEND_ADDITIVE = 1;
+    /** 预乘 alpha */
+    public static final int BLEND_PREMULTIPLIED = 2;
+    /** 不混合 */
+    public static final int BLEND_OPAQUE = 3;
+
+    private static final int LAYER_SHIFT = 60;
+    private static final int DEPTH_SHIFT = 32;
+    private static final int BLEND_SHIFT = 28;
+    private static final int TEXTURE_SHIFT = 12;
+    private static final long DEPTH_MASK = (1L << 28) - 1;
+    private static final int MAX_TEXTURES = 1 << 16;
+
+    // 命令（结构数组）
+    private int count;
+    private long[] keys;
+    private int[] order;
+    private Texture[] textures;
+    private float[] geometry;   // 每条命令 8 个 float：x, y, width, height, u, v, u2, v2
+    private float[] colors;     // 打包颜色
+
+    // 排序用的临时数组
+    private long[] sortKeys;
+    private long[] sortKeysTmp;
+    private int[] sortOrder;
+    private final int[] histogram = new int[8 * 256];
+
+    // 纹理 id（按首次提交的顺序分配，跨帧保持）
+    private final ObjectIntMap<Texture> textureIds = new ObjectIntMap<>();
+
+    // 当前提交状态
+    private int layer;
+    private int blend = BLEND_ALPHA;
+    private final Color color = new Color(Color.WHITE);
+    private float alphaScale = 1f;
+    private float packedColor = Color.WHITE.toFloatBits();
+
+    // 回放时保存的 batch 状态
+    private final Color savedColor = new Color();
+
+    // 上一次 flush 的统计
+    private int lastCommandCount;
+    private int lastTextureSwitches;
+
+    public RenderQueue() {
+        this(256);
+    }
+
+    /**
+     * @param initialCapacity 初始命令容量
+     */
+    public RenderQueue(int initialCapacity) {
+        allocate(Math.max(16, initialCapacity));
+    }
+
+    private void allocate(int capacity) {
+        keys = keys == null ? new long[capacity] : Arrays.copyOf(keys, capacity);
+        order = new int[capacity];
+        textures = textures == null ? new Texture[capacity] : Arrays.copyOf(textures, capacity);
+        geometry = geometry == null ? new float[capacity * 8] : Arrays.copyOf(geometry, capacity * 8);
+        colors = colors == null ? new float[capacity] : Arrays.copyOf(colors, capacity);
+        sortKeys = new long[capacity];
+        sortKeysTmp = new long[capacity];
+        sortOrder = new int[capacity];
+    }
+
+    /**
+     * 俯视角的 Y 排序深度：Y 越大（越靠后）越先画
+     *
+     * @param y 物体脚下的 y 坐标
+     * @return 深度
+     */
+    public static float ySort(float y) {
+        return -y;
+    }
+
+    /**
+     * 设置之后提交的命令所属的图层（0-15，图层越小越先画）
+     */
+    public void setLayer(int layer) {
+        this.layer = layer & 0xF;
+    }
+
+    /**
+     * 设置之后提交的命令的混合模式
+     */
+    public void setBlend(int blend) {
+        this.blend = blend & 0xF;
+    }
+
+    /**
+     * 设置之后提交的命令的颜色
+     */
+    public void setColor(Color color) {
+        setColor(color.r, color.g, color.b, color.a);
+    }
+
+    /**
+     * 设置之后提交的命令的颜色
+     */
+    public void setColor(float r, float g, float b, float a) {
+        color.set(r, g, b, a);
+        updatePackedColor();
+    }
+
+    /**
+     * 设置透明度倍数（图层透明度，乘到之后提交的命令的 alpha 上）
+     */
+    public void setAlphaScale(float alphaScale) {
+        this.alphaScale = alphaScale;
+        updatePackedColor();
+    }
+
+    private void updatePackedColor() {
+        packedColor = Color.toFloatBits(color.r, color.g, color.b, color.a * alphaScale);
+    }
+
+    /**
+     * 提交一个纹理区域
+     *
+     * @param depth 深度（越小越先画）
+     */
+    public void draw(TextureRegion region, float x, float y, float width, float height, float depth) {
+        draw(region.getTexture(), x, y, width, height,
+                region.getU(), region.getV2(), region.getU2(), region.getV(), depth);
+    }
+
+    /**
+     * 提交整张纹理
+     *
+     * @param depth 深度（越小越先画）
+     */
+    public void draw(Texture texture, float x, float y, float width, float height, float depth) {
+        draw(texture, x, y, width, height, 0f, 1f, 1f, 0f, depth);
+    }
+
+    /**
+     * 提交一个四边形（纹理坐标与 SpriteBatch.draw(Texture, x, y, w, h, u, v, u2, v2) 相同）
+     *
+     * @param depth 深度（越小越先画）
+     */
+    public void draw(Texture texture, float x, float y, float width, float height,
+                     float u, float v, float u2, float v2, float depth) {
+        if (count == keys.length) {
+            allocate(count * 2);
+        }
+        int i = count++;
+        keys[i] = ((long) layer << LAYER_SHIFT)
+                | (depthBits(depth) << DEPTH_SHIFT)
+                | ((long) blend << BLEND_SHIFT)
+                | ((long) textureId(texture) << TEXTURE_SHIFT);
+        textures[i] = texture;
+        int g = i * 8;
+        geometry[g] = x;
+        geometry[g + 1] = y;
+        geometry[g + 2] = width;
+        geometry[g + 3] = height;
+        geometry[g + 4] = u;
+        geometry[g + 5] = v;
+        geometry[g + 6] = u2;
+        geometry[g + 7] = v2;
+        colors[i] = packedColor;
+    }
+
+    /**
+     * float 转成按数值大小排序的无符号整数，取高 28 位
+     */
+    private static long depthBits(float depth) {
+        int bits = Float.floatToIntBits(depth);
+        bits ^= (bits >> 31) | 0x80000000;
+        return ((bits & 0xFFFFFFFFL) >>> 4) & DEPTH_MASK;
+    }
+
+    private int textureId(Texture texture) {
+        int id = textureIds.get(texture, -1);
+        if (id < 0) {
+            if (textureIds.size >= MAX_TEXTURES) {
+                // id 用完（极少发生）：重新编号，只影响合并效果，不影响正确性
+                textureIds.clear();
+            }
+            id = textureIds.size;
+            textureIds.put(texture, id);
+        }
+        return id;
+    }
+
+    /**
+     * 排序并回放所有命令到 SpriteBatch，然后清空队列
+     * batch 的颜色和混合状态在回放后恢复
+     *
+     * @param batch 已经 begin 的 SpriteBatch
+     */
+    public void flush(SpriteBatch batch) {
+        lastCommandCount = count;
+        lastTextureSwitches = 0;
+        if (count == 0) {
+            return;
+        }
+        sort();
+
+        savedColor.set(batch.getColor());
+        boolean savedBlending = batch.isBlendingEnabled();
+        int srcFunc = batch.getBlendSrcFunc();
+        int dstFunc = batch.getBlendDstFunc();
+        int srcFuncAlpha = batch.getBlendSrcFuncAlpha();
+        int dstFuncAlpha = batch.getBlendDstFuncAlpha();
+
+        int currentBlend = -1;
+        float currentColor = Float.NaN;
+        Texture currentTexture = null;
+        for (int n = 0; n < count; n++) {
+            int i = order[n];
+            int commandBlend = (int) (keys[i] >>> BLEND_SHIFT) & 0xF;
+            if (commandBlend != currentBlend) {
+                applyBlend(batch, commandBlend);
+                currentBlend = commandBlend;
+            }
+            // 打包颜色按位比较（NaN 初值保证第一条命令一定设置）
+            if (Float.floatToRawIntBits(colors[i]) != Float.floatToRawIntBits(currentColor)) {
+                batch.setPackedColor(colors[i]);
+                currentColor = colors[i];
+            }
+            Texture texture = textures[i];
+            if (texture != currentTexture) {
+                lastTextureSwitches++;
+                currentTexture = texture;
+            }
+            int g = i * 8;
+            batch.draw(texture, geometry[g], geometry[g + 1], geometry[g + 2], geometry[g + 3],
+                    geometry[g + 4], geometry[g + 5], geometry[g + 6], geometry[g + 7]);
+            textures[i] = null;
+        }
+
+        if (savedBlending) {
+            batch.enableBlending();
+        } else {
+            batch.disableBlending();
+        }
+        batch.setBlendFunctionSeparate(srcFunc, dstFunc, srcFuncAlpha, dstFuncAlpha);
+        batch.setColor(savedColor);
+        count = 0;
+    }
+
+    /**
+     * @return 上一次 flush 回放的命令数
+     */
+    public int getLastCommandCount() {
+        return lastCommandCount;
+    }
+
+    /**
+     * @return 上一次 flush 中纹理切换的次数（SpriteBatch 因换纹理而 flush 的次数上限）
+     */
+    public int getLastTextureSwitches() {
+        return lastTextureSwitches;
+    }
+
+    /**
+     * 清空纹理 id 表（切换场景、释放大量纹理之后调用，避免队列继续引用已释放的纹理）
+     */
+    public void clearTextureIds() {
+        textureIds.clear();
+    }
+
+    /**
+     * 丢弃所有未回放的命令
+     */
+    public void clear() {
+        Arrays.fill(textures, 0, count, null);
+        count = 0;
+    }
+
+    private static void applyBlend(SpriteBatch batch, int blend) {
+        switch (blend) {
+            case BLEND_ADDITIVE:
+                batch.enableBlending();
+                batch.setBlendFunction(GL20.GL_SRC_ALPHA, GL20.GL_ONE);
+                break;
+            case BLEND_PREMULTIPLIED:
+                batch.enableBlending();
+                batch.setBlendFunction(GL20.GL_ONE, GL20.GL_ONE_MINUS_SRC_ALPHA);
+                break;
+            case BLEND_OPAQUE:
+                batch.disableBlending();
+                break;
+            default:
+                batch.enableBlending();
+                batch.setBlendFunction(GL20.GL_SRC_ALPHA, GL20.GL_ONE_MINUS_SRC_ALPHA);
+                break;
+        }
+    }
+
+    /**
+     * LSD 基数排序（每趟 8 位），结果是 order[0..count) 中按键升序排列的命令下标
+     */
+    void sort() {
+        int n = count;
+        long[] srcKeys = sortKeys;
+        long[] tmpKeys = sortKeysTmp;
+        int[] srcOrder = order;
+        int[] tmpOrder = sortOrder;
+        System.arraycopy(keys, 0, srcKeys, 0, n);
+        for (int i = 0; i < n; i++) {
+            srcOrder[i] = i;
+        }
+
+        // 一次遍历统计 8 个字节的直方图
+        int[] hist = histogram;
+        Arrays.fill(hist, 0);
+        for (int i = 0; i < n; i++) {
+            long key = srcKeys[i];
+            for (int pass = 0; pass < 8; pass++) {
+                hist[(pass << 8) + (int) ((key >>> (pass << 3)) & 0xFF)]++;
+            }
+        }
+
+        for (int pass = 0; pass < 8; pass++) {
+            int base = pass << 8;
+            int shift = pass << 3;
+            // 所有键在这个字节上都相同：这一趟不改变顺序，跳过
+            if (hist[base + (int) ((srcKeys[0] >>> shift) & 0xFF)] == n) {
+                continue;
+            }
+            int sum = 0;
+            for (int b = 0; b < 256; b++) {
+                int c = hist[base + b];
+                hist[base + b] = sum;
+                sum += c;
+            }
+            for (int i = 0; i < n; i++) {
+                long key = srcKeys[i];
+                int slot = hist[base + (int) ((key >>> shift) & 0xFF)]++;
+                tmpKeys[slot] = key;
+                tmpOrder[slot] = srcOrder[i];
+            }
+            long[] k = srcKeys;
+            srcKeys = tmpKeys;
+            tmpKeys = k;
+            int[] o = srcOrder;
+            srcOrder = tmpOrder;
+            tmpOrder = o;
+        }
+        if (srcOrder != order) {
+            System.arraycopy(srcOrder, 0, order, 0, n);
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package com.github.xiaotaotao.ligdx.laboratory.render;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.glutils.ShaderProgram;
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.utils.BufferUtils;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+
+import java.nio.FloatBuffer;
+import java.nio.ShortBuffer;
+
+/**
+ * 大量同纹理精灵的渲染器：每帧把 {@link QuadPositionBuffer} 整块上传一次，按块调用 glDrawElements
+ *
+ * 工作原理：
+ * - 位置 VBO：每帧用 glBufferData(STREAM_DRAW) 上传一次，内容由模拟线程直接按顶点格式写好
+ * - 纹理坐标 VBO 和索引缓冲：静态，只覆盖一个块（{@link #CHUNK_QUADS} 个四边形），所有块共用
+ * - 绘制第 k 块时只把位置属性的起始偏移移到第 k 块，索引始终是 0..CHUNK_QUADS*4-1
+ *
+ * 设计说明：
+ * - 桌面端通过 ANGLE 运行在 GLES 2.0 上，索引只能是 unsigned short（最多 65536 个顶点），
+ *   libGDX 的 Mesh 也只支持 short 索引，所以不能用一个 Mesh 直接画一百万个四边形；
+ *   这里直接管理缓冲对象，通过移动属性偏移复用同一份静态索引
+ * - GL 线程上没有逐精灵的方法调用：每帧是 1 次上传 + ceil(数量 / CHUNK_QUADS) 次绘制
+ * - 所有精灵共用一张纹理、同一尺寸的纹理坐标；需要不同外观时放进同一张图集再扩展纹理坐标
+ *
+ * 使用方式：
+ * <pre>
+ * renderer = new SpriteMeshRenderer();                 // show()
+ * renderer.draw(quads, texture, camera.combined);      // render()
+ * renderer.dispose();                                  // dispose()
+ * </pre>
+ *
+ * 注意：只在 GL 线程调用；上传期间会临时修改缓冲的 position / limit，调用方不要同时写入同一个缓冲
+ */
+public class SpriteMeshRenderer implements Disposable {
+
+    /** 每块的四边形数量（16384 × 4 = 65536 个顶点，正好是 short 索引的上限） */
+    public static final int CHUNK_QUADS = 16384;
+
+    private static final String VERTEX_SHADER = ""
+            + "attribute vec2 a_position;\n"
+            + "attribute vec2 a_texCoord0;\n"
+            + "uniform mat4 u_projTrans;\n"
+            + "varying vec2 v_texCoords;\n"
+            + "void main() {\n"
+            + "    v_texCoords = a_texCoord0;\n"
+            + "    gl_Position = u_projTrans * vec4(a_position, 0.0, 1.0);\n"
+            + "}\n";
+
+    private static final String FRAGMENT_SHADER = ""
+            + "#ifdef GL_ES\n"
+            + "precision mediump float;\n"
+            + "#endif\n"
+            + "varying vec2 v_texCoords;\n"
+            + "uniform sampler2D u_texture;\n"
+            + "void main() {\n"
+            + "    gl_FragColor = texture2D(u_texture, v_texCoords);\n"
+            + "}\n";
+
+    private final ShaderProgram shader;
+    private final int positionLocation;
+    private final int texCoordLocation;
+
+    private final int positionBuffer;
+    private final int texCoordBuffer;
+    private final int indexBuffer;
+
+    /** 上一帧的绘制调用次数（用于 HUD / 统计） */
+    private int lastDrawCalls;
+
+    public SpriteMeshRenderer() {
+        shader = new ShaderProgram(VERTEX_SHADER, FRAGMENT_SHADER);
+        if (!shader.isCompiled()) {
+            throw new GdxRuntimeException("Sprite mesh shader failed to compile: " + shader.getLog());
+        }
+        positionLocation = shader.getAttributeLocation("a_position");
+        texCoordLocation = shader.getAttributeLocation("a_texCoord0");
+
+        GL20 gl = Gdx.gl;
+        positionBuffer = gl.glGenBuffer();
+        texCoordBuffer = gl.glGenBuffer();
+        indexBuffer = gl.glGenBuffer();
+
+        FloatBuffer texCoords = newTexCoords(CHUNK_QUADS);
+        gl.glBindBuffer(GL20.GL_ARRAY_BUFFER, texCoordBuffer);
+        gl.glBufferData(GL20.GL_ARRAY_BUFFER, texCoords.remaining() * Float.BYTES, texCoords, GL20.GL_STATIC_DRAW);
+
+        ShortBuffer indices = newIndices(CHUNK_QUADS);
+        gl.glBindBuffer(GL20.GL_ELEMENT_ARRAY_BUFFER, indexBuffer);
+        gl.glBufferData(GL20.GL_ELEMENT_ARRAY_BUFFER, indices.remaining() * Short.BYTES, indices, GL20.GL_STATIC_DRAW);
+
+        gl.glBindBuffer(GL20.GL_ARRAY_BUFFER, 0);
+        gl.glBindBuffer(GL20.GL_ELEMENT_ARRAY_BUFFER, 0);
+    }
+
+    /**
+     * 生成 quadCount 个四边形的纹理坐标：左下、右下、右上、左上（纹理 v 轴向下）
+     *
+     * @return 已 flip 的缓冲，每个四边形 {@link QuadPositionBuffer#FLOATS_PER_QUAD} 个 float
+     */
+    static FloatBuffer newTexCoords(int quadCount) {
+        FloatBuffer texCoords = BufferUtils.newFloatBuffer(quadCount * QuadPositionBuffer.FLOATS_PER_QUAD);
+        for (int i = 0; i < quadCount; i++) {
+            texCoords.put(0f).put(1f)
+                    .put(1f).put(1f)
+                    .put(1f).put(0f)
+                    .put(0f).put(0f);
+        }
+        texCoords.flip();
+        return texCoords;
+    }
+
+    /**
+     * 生成 quadCount 个四边形的索引，每个四边形两个三角形：0-1-2、2-3-0
+     *
+     * 注意：索引按 unsigned short 解释，超过 32767 的顶点下标在 Java 中读出来是负数
+     *
+     * @return 已 flip 的缓冲，每个四边形 6 个索引
+     */
+    static ShortBuffer newIndices(int quadCount) {
+        ShortBuffer indices = BufferUtils.newShortBuffer(quadCount * 6);
+        for (int i = 0; i < quadCount; i++) {
+            short vertex = (short) (i * 4);
+            indices.put(vertex).put((short) (vertex + 1)).put((short) (vertex + 2))
+                    .put((short) (vertex + 2)).put((short) (vertex + 3)).put(vertex);
+        }
+        indices.flip();
+        return indices;
+    }
+
+    /**
+     * 上传并绘制全部四边形
+     *
+     * @param quads      顶点位置（只读取 quadCount 以内的部分）
+     * @param texture    所有四边形共用的纹理
+     * @param projection 投影矩阵
+     */
+    public void draw(QuadPositionBuffer quads, Texture texture, Matrix4 projection) {
+        int quadCount = quads.getQuadCount();
+        lastDrawCalls = 0;
+        if (quadCount == 0) {
+            return;
+        }
+        GL20 gl = Gdx.gl;
+
+        // 整块上传（部分后端按 remaining() 决定上传大小，所以临时设置 limit）
+        FloatBuffer vertices = quads.getBuffer();
+        int floatCount = quadCount * QuadPositionBuffer.FLOATS_PER_QUAD;
+        vertices.limit(floatCount);
+        vertices.position(0);
+        gl.glBindBuffer(GL20.GL_ARRAY_BUFFER, positionBuffer);
+        gl.glBufferData(GL20.GL_ARRAY_BUFFER, floatCount * Float.BYTES, vertices, GL20.GL_STREAM_DRAW);
+        vertices.clear();
+
+        shader.bind();
+        shader.setUniformMatrix("u_projTrans", projection);
+        shader.setUniformi("u_texture", 0);
+        texture.bind(0);
+        gl.glEnable(GL20.GL_BLEND);
+        gl.glBlendFunc(GL20.GL_SRC_ALPHA, GL20.GL_ONE_MINUS_SRC_ALPHA);
+
+        gl.glBindBuffer(GL20.GL_ARRAY_BUFFER, texCoordBuffer);
+        shader.enableVertexAttribute(texCoordLocation);
+        shader.setVertexAttribute(texCoordLocation, 2, GL20.GL_FLOAT, false, 0, 0);
+
+        gl.glBindBuffer(GL20.GL_ELEMENT_ARRAY_BUFFER, indexBuffer);
+        gl.glBindBuffer(GL20.GL_ARRAY_BUFFER, positionBuffer);
+        shader.enableVertexAttribute(positionLocation);
+        int quadBytes = QuadPositionBuffer.FLOATS_PER_QUAD * Float.BYTES;
+        for (int first = 0; first < quadCount; first += CHUNK_QUADS) {
+            int count = Math.min(CHUNK_QUADS, quadCount - first);
+            shader.setVertexAttribute(positionLocation, 2, GL20.GL_FLOAT, false, 0, first * quadBytes);
+            gl.glDrawElements(GL20.GL_TRIANGLES, count * 6, GL20.GL_UNSIGNED_SHORT, 0);
+            lastDrawCalls++;
+        }
+
+        shader.disableVertexAttribute(positionLocation);
+        shader.disableVertexAttribute(texCoordLocation);
+        gl.glBindBuffer(GL20.GL_ARRAY_BUFFER, 0);
+        gl.glBindBuffer(GL20.GL_ELEMENT_ARRAY_BUFFER, 0);
+    }
+
+    /**
+     * @return 上一次 draw 的绘制调用次数
+     */
+    public int getLastDrawCalls() {
+        return lastDrawCalls;
+    }
+
+    @Override
+    public void dispose() {
+        GL20 gl = Gdx.gl;
+        gl.glDeleteBuffer(positionBuffer);
+        gl.glDeleteBuffer(texCoordBuffer);
+        gl.glDeleteBuffer(indexBuffer);
+        shader.dispose();
+    }
+}
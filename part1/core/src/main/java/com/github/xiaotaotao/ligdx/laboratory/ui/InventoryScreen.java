@@ -2,6 +2,7 @@ package com.github.xiaotaotao.ligdx.laboratory.ui;
 
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.Screen;
+import com.badlogic.gdx.assets.AssetDescriptor;
 import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.graphics.GL20;
 import com.badlogic.gdx.scenes.scene2d.InputEvent;
@@ -16,6 +17,8 @@ import com.badlogic.gdx.scenes.scene2d.utils.ClickListener;
 import com.badlogic.gdx.utils.Align;
 import com.badlogic.gdx.utils.Array;
 import com.badlogic.gdx.utils.viewport.ScreenViewport;
+import com.github.xiaotaotao.ligdx.laboratory.asset.AssetDependent;
+import com.github.xiaotaotao.ligdx.laboratory.asset.AssetService;
 
 /**
  * RPG 风格背包 UI 演示：
@@ -23,7 +26,10 @@ import com.badlogic.gdx.utils.viewport.ScreenViewport;
  * - 右侧详情区域显示名称/稀有度/数量/描述
  * - 底部提供“使用”“丢弃”示例按钮
  */
-public class InventoryScreen implements Screen {
+public class InventoryScreen implements Screen, AssetDependent {
+
+    // 皮肤（依赖的 uiskin.atlas / 字体由 SkinLoader 一并加载）
+    private static final AssetDescriptor<Skin> SKIN = new AssetDescriptor<>("ui/uiskin.json", Skin.class);
 
     private Stage stage;
     private Skin skin;
@@ -38,12 +44,19 @@ public class InventoryScreen implements Screen {
     public void show() {
         stage = new Stage(new ScreenViewport());
         Gdx.input.setInputProcessor(stage);
-        skin = new Skin(Gdx.files.internal("ui/uiskin.json"));
+        AssetService assets = AssetService.getInstance();
+        assets.finishLoading(this);
+        skin = assets.get(SKIN);
 
         seedItems();
         buildUI();
     }
 
+    @Override
+    public void declareAssets(Array<AssetDescriptor<?>> out) {
+        out.add(SKIN);
+    }
+
     private void buildUI() {
         Table root = new Table();
         root.setFillParent(true);
@@ -189,9 +202,7 @@ public class InventoryScreen implements Screen {
         if (stage != null) {
             stage.dispose();
         }
-        if (skin != null) {
-            skin.dispose();
-        }
+        AssetService.getInstance().unload(this);
     }
 
     private static class Item {
@@ -0,0 +1,218 @@
+package com.github.xiaotaotao.ligdx.laboratory.character;
+
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.FloatArray;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * BasicMeleeAttackSystem 按 FrameTimeline 发出事件的测试：大 delta 不漏事件、回调里重新开始时保留剩余时间
+ */
+public class AttackSystemTest {
+
+    private static final float EPSILON = 1e-6f;
+
+    /**
+     * 记录发出的事件和迟到时间，可以在指定事件上重新开始攻击
+     */
+    private static class Recorder implements AttackSystem.BasicMeleeAttackSystem.Listener {
+        final Array<FrameTimeline.Event> events = new Array<>();
+        final FloatArray lateBy = new FloatArray();
+        int hits;
+        // 在 CANCEL 事件上重新开始攻击的剩余次数
+        int restartsOnCancel;
+        AttackSystem.BasicMeleeAttackSystem attack;
+
+        @Override
+        public void onHitWindow() {
+            hits++;
+        }
+
+        @Override
+        public void onTimelineEvent(FrameTimeline.Event event, float lateBy) {
+            events.add(event);
+            this.lateBy.add(lateBy);
+            if (event.type == FrameTimeline.CANCEL && restartsOnCancel > 0) {
+                restartsOnCancel--;
+                attack.requestAttack();
+            }
+        }
+    }
+
+    private static AttackSystem.BasicMeleeAttackSystem attack(FrameTimeline timeline, Recorder recorder) {
+        AttackSystem.BasicMeleeAttackSystem attack = new AttackSystem.BasicMeleeAttackSystem(4, 1, timeline, recorder);
+        recorder.attack = attack;
+        return attack;
+    }
+
+    @Test
+    public void timelineKeepsEventsSortedByTime() {
+        FrameTimeline timeline = new FrameTimeline(1f)
+                .add(0.7f, FrameTimeline.HIT, 1)
+                .add(0.1f, FrameTimeline.SOUND, 0)
+                .add(0.7f, FrameTimeline.CUSTOM, 2)
+                .add(0.5f, FrameTimeline.CANCEL, 0);
+        float[] times = {0.1f, 0.5f, 0.7f, 0.7f};
+        int[] types = {FrameTimeline.SOUND, FrameTimeline.CANCEL, FrameTimeline.HIT, FrameTimeline.CUSTOM};
+        assertEquals(times.length, timeline.size());
+        for (int i = 0; i < times.length; i++) {
+            assertEquals(times[i], timeline.get(i).time, 0f);
+            // 同一时间的事件保持添加顺序
+            assertEquals(types[i], timeline.get(i).type);
+        }
+    }
+
+    @Test
+    public void timelineRejectsEventsOutsideDuration() {
+        FrameTimeline timeline = new FrameTimeline(0.5f);
+        try {
+            timeline.add(0.5f, FrameTimeline.HIT, 0);
+            fail("event at duration accepted");
+        } catch (GdxRuntimeException expected) {
+            // 事件时间必须在 [0, duration) 内
+        }
+        try {
+            timeline.add(-0.01f, FrameTimeline.HIT, 0);
+            fail("negative event time accepted");
+        } catch (GdxRuntimeException expected) {
+            // 同上
+        }
+    }
+
+    @Test
+    public void largeDeltaFiresEveryCrossedEventInOrder() {
+        FrameTimeline timeline = new FrameTimeline(1f)
+                .add(0.2f, FrameTimeline.HIT, 0)
+                .add(0.1f, FrameTimeline.SOUND, 7)
+                .add(0.5f, FrameTimeline.CANCEL, 0)
+                .add(0.7f, FrameTimeline.HIT, 1)
+                .add(0.9f, FrameTimeline.CUSTOM, 0);
+        Recorder recorder = new Recorder();
+        AttackSystem.BasicMeleeAttackSystem attack = attack(timeline, recorder);
+
+        attack.requestAttack();
+        attack.update(0.05f);
+        assertEquals(0, recorder.events.size);
+
+        // 一次跨过剩下的全部事件和攻击结束
+        attack.update(3f);
+        assertEquals(timeline.size(), recorder.events.size);
+        for (int i = 0; i < timeline.size(); i++) {
+            assertSame(timeline.get(i), recorder.events.get(i));
+            assertEquals(3.05f - timeline.get(i).time, recorder.lateBy.get(i), EPSILON);
+        }
+        assertEquals(2, recorder.hits);
+        assertFalse(attack.isAttacking());
+
+        // 下一次攻击从头开始
+        attack.requestAttack();
+        attack.update(0.25f);
+        assertEquals(timeline.size() + 2, recorder.events.size);
+        assertEquals(3, recorder.hits);
+    }
+
+    @Test
+    public void eventsCrossedOverSeveralFramesFireOnce() {
+        FrameTimeline timeline = new FrameTimeline(0.6f)
+                .add(0.1f, FrameTimeline.HIT, 0)
+                .add(0.3f, FrameTimeline.HIT, 1);
+        Recorder recorder = new Recorder();
+        AttackSystem.BasicMeleeAttackSystem attack = attack(timeline, recorder);
+
+        attack.requestAttack();
+        for (int i = 0; i < 5; i++) {
+            attack.update(0.1f);
+        }
+        assertEquals(2, recorder.hits);
+        assertTrue(attack.isAttacking());
+        attack.update(0.1f);
+        assertEquals(2, recorder.hits);
+        assertFalse(attack.isAttacking());
+    }
+
+    @Test
+    public void restartFromCallbackKeepsLeftoverTime() {
+        FrameTimeline timeline = new FrameTimeline(0.4f)
+                .add(0.1f, FrameTimeline.HIT, 0)
+                .add(0.2f, FrameTimeline.CANCEL, 0);
+        Recorder recorder = new Recorder();
+        recorder.restartsOnCancel = 1;
+        AttackSystem.BasicMeleeAttackSystem attack = attack(timeline, recorder);
+
+        attack.requestAttack();
+        attack.update(0.5f);
+
+        // 第一次攻击：HIT、CANCEL（在这里重新开始，剩余 0.3 秒计入新攻击）；
+        // 新攻击：HIT 迟到 0.2 秒、CANCEL 迟到 0.1 秒
+        assertEquals(4, recorder.events.size);
+        assertEquals(2, recorder.hits);
+        float[] lateBy = {0.4f, 0.3f, 0.2f, 0.1f};
+        for (int i = 0; i < lateBy.length; i++) {
+            assertEquals(lateBy[i], recorder.lateBy.get(i), EPSILON);
+        }
+        assertTrue(attack.isAttacking());
+        assertTrue(attack.isCancelable());
+        // 新攻击已经进行了 0.3 / 0.4 秒：4 帧中的第 3 帧
+        assertEquals(3, attack.getCurrentFrameIndex());
+
+        // 再过 0.1 秒新攻击结束，不会重复发出事件
+        attack.update(0.1f);
+        assertFalse(attack.isAttacking());
+        assertEquals(4, recorder.events.size);
+    }
+
+    @Test
+    public void restartAtTimeZeroStopsForTheFrame() {
+        FrameTimeline timeline = new FrameTimeline(0.4f)
+                .add(0f, FrameTimeline.CANCEL, 0)
+                .add(0.1f, FrameTimeline.HIT, 0);
+        Recorder recorder = new Recorder();
+        recorder.restartsOnCancel = Integer.MAX_VALUE;
+        AttackSystem.BasicMeleeAttackSystem attack = attack(timeline, recorder);
+
+        attack.requestAttack();
+        // 每次都在时间 0 重新开始，时间不前进，本帧只发出一次
+        attack.update(1f);
+        assertEquals(1, recorder.events.size);
+        assertEquals(0, recorder.hits);
+        assertTrue(attack.isAttacking());
+    }
+
+    @Test
+    public void zeroIntervalLegacyAttackNeverHits() {
+        Recorder recorder = new Recorder();
+        AttackSystem.BasicMeleeAttackSystem attack = new AttackSystem.BasicMeleeAttackSystem(4, 1, 0f, recorder);
+        assertEquals(0, attack.getTimeline().size());
+
+        attack.requestAttack();
+        attack.update(0.1f);
+        assertEquals(0, recorder.hits);
+        assertFalse(attack.isAttacking());
+    }
+
+    @Test
+    public void perFrameSkillCarriesTimeAcrossStates() {
+        Array<SkillSystem.Skill> impacts = new Array<>();
+        SkillSystem.BasicSkillSystem skills = new SkillSystem.BasicSkillSystem(impacts::add);
+        SkillSystem.Skill skill = new SkillSystem.Skill("attack-test-skill", "test", 0.25f, 0.5f, 1f, 0);
+        skills.addSkill(skill);
+
+        assertTrue(skills.cast(skill.intId));
+        // 一次跨过前摇和后摇，超出的 0.25 秒计入冷却
+        skills.update(1f);
+        assertEquals(1, impacts.size);
+        assertEquals(SkillSystem.State.COOLDOWN, skill.state);
+        assertEquals(0.25f, skill.elapsedInState, EPSILON);
+        assertEquals(0.75f, skill.cdRemaining, EPSILON);
+
+        skills.update(0.75f);
+        assertEquals(SkillSystem.State.READY, skill.state);
+        assertEquals(0, skills.getActiveCount());
+    }
+}
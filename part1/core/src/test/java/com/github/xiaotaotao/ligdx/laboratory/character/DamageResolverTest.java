@@ -0,0 +1,127 @@
+package com.github.xiaotaotao.ligdx.laboratory.character;
+
+import com.badlogic.gdx.math.MathUtils;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * DamageResolver 与原来 BasicAttributeSystem.applyDamage 内联公式的等价性测试
+ */
+public class DamageResolverTest {
+
+    /**
+     * 原来 applyDamage 中的内联伤害公式
+     */
+    private static int legacyDamage(int baseDamage, int attack, int defense, boolean critical, float criticalMul) {
+        int damage = baseDamage;
+        damage += attack;
+        damage -= defense;
+        damage = Math.max(1, damage);
+        if (critical) {
+            damage = Math.round(damage * criticalMul);
+        }
+        return damage;
+    }
+
+    /**
+     * 原来 applyDamage 中的扣血
+     */
+    private static int legacyHpAfter(int hp, int maxHp, int damage) {
+        return MathUtils.clamp(hp - damage, 0, maxHp);
+    }
+
+    @Test
+    public void criticalRoundingMatchesLegacy() {
+        // x.5 向上取整、倍数小于 1、非整数倍数
+        assertRow(2, 1, 0, true, 1.5f, 100, 100);   // 3 × 1.5 = 4.5 -> 5
+        assertRow(4, 1, 0, true, 1.5f, 100, 100);   // 5 × 1.5 = 7.5 -> 8
+        assertRow(1, 0, 0, true, 0.5f, 100, 100);   // 1 × 0.5 = 0.5 -> 1
+        assertRow(1, 0, 0, true, 0.4f, 100, 100);   // 1 × 0.4 = 0.4 -> 0
+        assertRow(7, 3, 1, true, 1.8f, 100, 100);   // 9 × 1.8 = 16.2 -> 16
+        assertRow(7, 3, 1, false, 1.8f, 100, 100);  // 不暴击时忽略倍数
+        assertEquals(5, DamageResolver.computeDamage(2, 1, 0, true, 1.5f));
+        assertEquals(0, DamageResolver.computeDamage(1, 0, 0, true, 0.4f));
+    }
+
+    @Test
+    public void minimumDamageFloorMatchesLegacy() {
+        assertRow(0, 0, 0, false, 1f, 50, 50);
+        assertRow(5, 2, 100, false, 1f, 50, 50);   // 防御远高于攻击，下限 1
+        assertRow(5, 2, 100, true, 2.5f, 50, 50);  // 下限之后再暴击：1 × 2.5 -> 3
+        assertRow(-10, 0, 0, false, 1f, 50, 50);
+        assertEquals(1, DamageResolver.computeDamage(5, 2, 100, false, 1f));
+        assertEquals(3, DamageResolver.computeDamage(5, 2, 100, true, 2.5f));
+    }
+
+    @Test
+    public void hpClampMatchesLegacy() {
+        assertRow(30, 0, 0, false, 1f, 10, 100);   // 扣到负数 -> 0
+        assertRow(10, 0, 0, false, 1f, 10, 100);   // 正好扣到 0
+        assertRow(1, 0, 0, false, 1f, 200, 100);   // 当前 HP 高于上限（上限刚被降低）-> maxHp
+        assertRow(1, 0, 0, true, 0.4f, 100, 100);  // 0 伤害
+        assertRow(5, 0, 0, false, 1f, 3, 0);       // maxHp 为 0
+        assertEquals(0, DamageResolver.computeHpAfter(10, 100, 30));
+        assertEquals(100, DamageResolver.computeHpAfter(200, 100, 1));
+    }
+
+    @Test
+    public void randomRowsMatchLegacy() {
+        int count = 100_000;
+        Random random = new Random(42L);
+        int[] baseDamage = new int[count];
+        int[] attack = new int[count];
+        int[] defense = new int[count];
+        boolean[] critical = new boolean[count];
+        float[] criticalMul = new float[count];
+        int[] hp = new int[count];
+        int[] maxHp = new int[count];
+        for (int i = 0; i < count; i++) {
+            baseDamage[i] = random.nextInt(200) - 20;
+            attack[i] = random.nextInt(100);
+            defense[i] = random.nextInt(150);
+            critical[i] = random.nextBoolean();
+            // 0.25 的整数倍会产生大量 x.5 的乘积，覆盖舍入边界
+            criticalMul[i] = random.nextBoolean() ? random.nextInt(12) * 0.25f : 0.5f + random.nextFloat() * 2.5f;
+            maxHp[i] = random.nextInt(500);
+            hp[i] = random.nextInt(600);
+        }
+
+        int[] outDamage = new int[count];
+        int[] outHp = new int[count];
+        DamageResolver.resolve(count, baseDamage, attack, defense, critical, criticalMul, hp, maxHp, outDamage, outHp);
+
+        for (int i = 0; i < count; i++) {
+            int damage = legacyDamage(baseDamage[i], attack[i], defense[i], critical[i], criticalMul[i]);
+            assertEquals("damage row " + i, damage, outDamage[i]);
+            assertEquals("hp row " + i, legacyHpAfter(hp[i], maxHp[i], damage), outHp[i]);
+            assertEquals("single damage row " + i, damage,
+                    DamageResolver.computeDamage(baseDamage[i], attack[i], defense[i], critical[i], criticalMul[i]));
+        }
+
+        // outHp 和 hp 是同一个数组时原地更新，结果不变
+        DamageResolver.resolve(count, baseDamage, attack, defense, critical, criticalMul, hp, maxHp, outDamage, hp);
+        for (int i = 0; i < count; i++) {
+            assertEquals("in-place hp row " + i, outHp[i], hp[i]);
+        }
+    }
+
+    private static void assertRow(int baseDamage, int attack, int defense, boolean critical, float criticalMul,
+                                  int hp, int maxHp) {
+        int expectedDamage = legacyDamage(baseDamage, attack, defense, critical, criticalMul);
+        int expectedHp = legacyHpAfter(hp, maxHp, expectedDamage);
+
+        int[] outDamage = new int[1];
+        int[] outHp = new int[1];
+        DamageResolver.resolve(1, new int[]{baseDamage}, new int[]{attack}, new int[]{defense},
+                new boolean[]{critical}, new float[]{criticalMul}, new int[]{hp}, new int[]{maxHp},
+                outDamage, outHp);
+        assertEquals("batch damage", expectedDamage, outDamage[0]);
+        assertEquals("batch hp", expectedHp, outHp[0]);
+        assertEquals("single damage", expectedDamage,
+                DamageResolver.computeDamage(baseDamage, attack, defense, critical, criticalMul));
+        assertEquals("single hp", expectedHp, DamageResolver.computeHpAfter(hp, maxHp, expectedDamage));
+    }
+}
@@ -0,0 +1,213 @@
+package com.github.xiaotaotao.ligdx.laboratory.character;
+
+import com.badlogic.gdx.utils.LongArray;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * SkillScheduler 分层时间轮测试：层间下沉的边界、溢出链表、取消 / 重新调度，以及切换不会提前触发
+ *
+ * tick 长度取 1/64 秒（2 的幂），测试用的 tick 数都能被 float 秒数精确表示，到期 tick 没有舍入误差
+ */
+public class SkillSchedulerTest {
+
+    private static final float TICK = 1f / 64f;
+
+    private SkillScheduler scheduler;
+    private SkillSystem.BasicSkillSystem skills;
+    // 每次技能生效（CASTING -> BACK_SWING）时的 tick
+    private final LongArray impactTicks = new LongArray();
+    private int skillCounter;
+
+    @Before
+    public void setUp() {
+        scheduler = new SkillScheduler(TICK);
+        impactTicks.clear();
+        skills = new SkillSystem.BasicSkillSystem(skill -> impactTicks.add(scheduler.getTick()), scheduler);
+    }
+
+    /**
+     * 施放一个前摇为 castTicks 个 tick 的技能（后摇、冷却足够长，测试期间不会再切换）
+     */
+    private SkillSystem.Skill castAfter(long castTicks) {
+        SkillSystem.Skill skill = new SkillSystem.Skill("scheduler-test-" + (skillCounter++), "test",
+                castTicks * TICK, 1e9f, 1e9f, 0);
+        skills.addSkill(skill);
+        assertTrue(skills.cast(skill.intId));
+        return skill;
+    }
+
+    private void advanceTicks(long ticks) {
+        for (long i = 0; i < ticks; i++) {
+            scheduler.advance(TICK);
+        }
+    }
+
+    /**
+     * 逐 tick 推进到 deadline，检查在此之前没有触发、正好在 deadline 触发
+     */
+    private void assertFiresAt(long deadline) {
+        int before = impactTicks.size;
+        advanceTicks(deadline - 1 - scheduler.getTick());
+        assertEquals("fired before tick " + deadline, before, impactTicks.size);
+        scheduler.advance(TICK);
+        assertEquals("not fired at tick " + deadline, before + 1, impactTicks.size);
+        assertEquals(deadline, impactTicks.peek());
+    }
+
+    @Test
+    public void firesAtLevelBoundaries() {
+        // 每层的第一个槽、转完一圈的位置及其前后
+        long[] deadlines = {1, 63, 64, 65, 4095, 4096, 4097, 262143, 262144, 262145};
+        for (long deadline : deadlines) {
+            castAfter(deadline);
+        }
+        assertEquals(deadlines.length, scheduler.getPendingCount());
+        for (long deadline : deadlines) {
+            assertFiresAt(deadline);
+        }
+        // 每个技能进入后摇后又调度了一次
+        assertEquals(deadlines.length, scheduler.getPendingCount());
+    }
+
+    @Test
+    public void firesAcrossBoundariesWhenScheduledMidRound() {
+        // 从每层一圈的最后一个 tick 开始调度，到期时间落在下一圈，需要跨层下沉
+        long[] starts = {63, 4095, 262143};
+        for (long start : starts) {
+            for (long delay : new long[]{1, 2, 64, 65, 4097}) {
+                setUp();
+                advanceTicks(start);
+                castAfter(delay);
+                assertFiresAt(start + delay);
+            }
+        }
+    }
+
+    @Test
+    public void firesBeyondWheelRangeFromOverflow() {
+        long range = 1L << 24;
+        long[] deadlines = {range - 1, range, range + 64, range + 4096, 2 * range + 5 * 64};
+        for (long deadline : deadlines) {
+            castAfter(deadline);
+        }
+        for (long deadline : deadlines) {
+            assertFiresAt(deadline);
+        }
+    }
+
+    @Test
+    public void firesWhenOverflowBoundaryIsCrossedSoon() {
+        // 到期时间只比当前晚 20 个 tick，但跨过 2^24 的整圈，先进入溢出链表
+        long start = (1L << 24) - 10;
+        advanceTicks(start);
+        castAfter(20);
+        castAfter(5);
+        assertFiresAt(start + 5);
+        assertFiresAt(start + 20);
+    }
+
+    @Test
+    public void cancelledTransitionNeverFires() {
+        // 分别位于第 0、1、2、3 层和溢出链表
+        long[] deadlines = {10, 100, 5000, 300000, (1L << 24) + 640};
+        SkillSystem.Skill[] cast = new SkillSystem.Skill[deadlines.length];
+        for (int i = 0; i < deadlines.length; i++) {
+            cast[i] = castAfter(deadlines[i]);
+        }
+        SkillSystem.Skill kept = castAfter(deadlines[2]);
+        for (SkillSystem.Skill skill : cast) {
+            scheduler.cancel(skill);
+        }
+        assertEquals(1, scheduler.getPendingCount());
+        // 重复取消没有影响
+        scheduler.cancel(cast[0]);
+        assertEquals(1, scheduler.getPendingCount());
+
+        advanceTicks(deadlines[deadlines.length - 1] + 1);
+        assertEquals(1, impactTicks.size);
+        assertEquals(deadlines[2], impactTicks.get(0));
+        assertEquals(SkillSystem.State.BACK_SWING, kept.state);
+        for (SkillSystem.Skill skill : cast) {
+            assertEquals(SkillSystem.State.CASTING, skill.state);
+        }
+    }
+
+    @Test
+    public void rescheduleMovesDeadline() {
+        SkillSystem.Skill earlier = castAfter(5000);
+        SkillSystem.Skill later = castAfter(10);
+        advanceTicks(3);
+        // 从第 2 层挪到第 0 层，从第 0 层挪到第 2 层
+        scheduler.schedule(earlier, 7 * TICK);
+        scheduler.schedule(later, 4900 * TICK);
+        assertEquals(2, scheduler.getPendingCount());
+
+        assertFiresAt(10);
+        assertEquals(SkillSystem.State.BACK_SWING, earlier.state);
+        assertEquals(SkillSystem.State.CASTING, later.state);
+        assertFiresAt(4903);
+        assertEquals(SkillSystem.State.BACK_SWING, later.state);
+    }
+
+    @Test
+    public void replacingSkillCancelsPendingTransition() {
+        SkillSystem.Skill old = castAfter(20);
+        SkillSystem.Skill replacement = new SkillSystem.Skill(old.id, "replacement", 1f, 1f, 1f, 0);
+        skills.addSkill(replacement);
+        assertEquals(0, scheduler.getPendingCount());
+        advanceTicks(100);
+        assertEquals(0, impactTicks.size);
+    }
+
+    /**
+     * 帧间隔不是 tick 的整数倍，并且在两次 advance 之间施放：
+     * 每次切换都不早于 castTime / backSwing / cooldown，最多晚一个 tick
+     *
+     * 帧间隔小于一个 tick，每次 advance 最多处理一个 tick，观察到切换时的 tick 就是触发的 tick
+     */
+    @Test
+    public void transitionsNeverFireEarly() {
+        float castTime = 0.3f;
+        float backSwing = 0.45f;
+        float cooldown = 1.1f;
+        float frame = 0.013f;
+        float[] durations = {castTime, backSwing, cooldown};
+        for (int offsetFrames = 0; offsetFrames < 8; offsetFrames++) {
+            setUp();
+            SkillSystem.Skill skill = new SkillSystem.Skill("scheduler-timing", "timing",
+                    castTime, backSwing, cooldown, 0);
+            skills.addSkill(skill);
+            for (int i = 0; i < offsetFrames; i++) {
+                scheduler.advance(frame * 0.37f);
+            }
+            assertTrue(skills.cast(skill.intId));
+
+            double stateStart = scheduler.getTime();
+            SkillSystem.State state = skill.state;
+            int transitions = 0;
+            while (transitions < durations.length) {
+                scheduler.advance(frame);
+                double now = scheduler.getTime();
+                double duration = durations[transitions];
+                if (skill.state == state) {
+                    assertTrue(state + " overran", now - stateStart <= duration + TICK + 1e-5);
+                    continue;
+                }
+                double fired = scheduler.getTick() * (double) TICK;
+                double elapsed = fired - stateStart;
+                assertTrue(state + " ended early: " + elapsed + " < " + duration, elapsed >= duration - 1e-5);
+                assertTrue(state + " ended late: " + elapsed, elapsed <= duration + TICK + 1e-5);
+                // 下一个状态从触发的 tick 起算
+                stateStart = fired;
+                state = skill.state;
+                transitions++;
+            }
+            assertEquals(SkillSystem.State.READY, skill.state);
+            assertEquals(0, scheduler.getPendingCount());
+        }
+    }
+}
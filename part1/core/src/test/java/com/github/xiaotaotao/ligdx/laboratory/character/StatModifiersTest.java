@@ -0,0 +1,54 @@
+package com.github.xiaotaotao.ligdx.laboratory.character;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * StatModifiers 到期计时测试
+ */
+public class StatModifiersTest {
+
+    private static final float FRAME = 1f / 60f;
+
+    @Test
+    public void timedModifierExpiresAfterDuration() {
+        StatModifiers modifiers = new StatModifiers();
+        modifiers.add(AttributeSystem.Stats.ATTACK, StatModifiers.Type.ADD, 10, 1f, null);
+        for (int i = 0; i < 59; i++) {
+            modifiers.update(FRAME);
+        }
+        assertEquals(1, modifiers.size());
+        modifiers.update(FRAME * 2);
+        assertEquals(0, modifiers.size());
+    }
+
+    /**
+     * 运行 10 天（float 时钟在这个量级上已经无法累加 1/60 秒）后添加的修改器仍然按时到期
+     */
+    @Test
+    public void timedModifierExpiresAfterLongUptime() {
+        StatModifiers modifiers = new StatModifiers();
+        int version = modifiers.getVersion();
+        // 用大步长推进到 10 天，再回到逐帧更新
+        for (int day = 0; day < 10; day++) {
+            modifiers.update(86400f);
+        }
+        StatModifiers.Modifier modifier =
+                modifiers.add(AttributeSystem.Stats.ATTACK, StatModifiers.Type.ADD, 10, 1f, null);
+        assertEquals(1f, modifiers.getRemaining(modifier), 1e-4f);
+
+        for (int i = 0; i < 30; i++) {
+            modifiers.update(FRAME);
+        }
+        assertEquals(0.5f, modifiers.getRemaining(modifier), 1e-4f);
+        assertEquals(1, modifiers.size());
+
+        for (int i = 0; i < 31; i++) {
+            modifiers.update(FRAME);
+        }
+        assertEquals(0, modifiers.size());
+        // add 和到期移除各改变一次版本号
+        assertEquals(version + 2, modifiers.getVersion());
+    }
+}
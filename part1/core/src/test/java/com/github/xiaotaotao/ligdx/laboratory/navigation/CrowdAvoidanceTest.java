@@ -0,0 +1,122 @@
+package com.github.xiaotaotao.ligdx.laboratory.navigation;
+
+import com.github.xiaotaotao.ligdx.laboratory.concurrent.ParallelExecutor;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * CrowdAvoidance 测试：查询半径覆盖预测窗口、并行结果与单线程一致，以及不同规模下的串行 / 并行耗时
+ */
+public class CrowdAvoidanceTest {
+
+    private static final float SPEED = 50f;
+    private static final float RADIUS = 5f;
+
+    /**
+     * 两个角色相向而行，相距 90 像素，远大于 10 像素的邻居半径
+     */
+    private static CrowdAvoidance headOn(float horizon) {
+        CrowdAvoidance avoidance = new CrowdAvoidance(2, 10f, 8);
+        avoidance.setWeights(1.2f, 0.8f, horizon);
+        avoidance.setCount(2);
+        // 稍微错开一点，避免走到正面相撞的特殊分支
+        avoidance.setAgent(0, 0f, 0f, SPEED, 0f, RADIUS, SPEED);
+        avoidance.setAgent(1, 90f, 2f, -SPEED, 0f, RADIUS, SPEED);
+        avoidance.update();
+        return avoidance;
+    }
+
+    @Test
+    public void queryRadiusCoversHorizon() {
+        // 1 秒内会相撞（0.9 秒时最接近）：查询半径 = 2 × (50 × 1 + 5) = 110，能看到对方并偏转
+        CrowdAvoidance avoidance = headOn(1f);
+        assertEquals(110f, avoidance.getQueryRadius(), 1e-4f);
+        assertTrue(avoidance.getVelocityY(0) < 0f);
+        assertTrue(avoidance.getVelocityY(1) > 0f);
+
+        // 0.5 秒内不会相撞：查询半径 60，不会看到对方，保持期望速度
+        avoidance = headOn(0.5f);
+        assertEquals(60f, avoidance.getQueryRadius(), 1e-4f);
+        assertEquals(SPEED, avoidance.getVelocityX(0), 0f);
+        assertEquals(0f, avoidance.getVelocityY(0), 0f);
+    }
+
+    @Test
+    public void queryRadiusNeverBelowNeighbourRadius() {
+        CrowdAvoidance avoidance = new CrowdAvoidance(1, 40f, 8);
+        avoidance.setWeights(1.2f, 0.8f, 0.1f);
+        avoidance.setCount(1);
+        avoidance.setAgent(0, 0f, 0f, 10f, 0f, 2f, 10f);
+        avoidance.update();
+        assertEquals(40f, avoidance.getQueryRadius(), 0f);
+    }
+
+    /**
+     * 不同规模下串行与并行的结果逐位一致，并输出耗时（headless 的扩展性测试）
+     */
+    @Test
+    public void parallelMatchesSerialAndScales() {
+        int[] counts = {1_000, 10_000, 100_000};
+        // 至少 2 个线程：单核机器上也走并行分支
+        int threads = Math.max(2, Runtime.getRuntime().availableProcessors());
+        ParallelExecutor executor = new ParallelExecutor.ForkJoinExecutor(threads);
+        try {
+            for (int count : counts) {
+                CrowdAvoidance serial = crowd(count);
+                CrowdAvoidance parallel = crowd(count);
+                parallel.setExecutor(executor);
+
+                long serialNanos = time(serial);
+                long parallelNanos = time(parallel);
+                for (int i = 0; i < count; i++) {
+                    assertEquals("vx " + i, serial.getVelocityX(i), parallel.getVelocityX(i), 0f);
+                    assertEquals("vy " + i, serial.getVelocityY(i), parallel.getVelocityY(i), 0f);
+                }
+                System.out.println(String.format("CrowdAvoidance: %d agents, serial=%.3fms  %s x%d=%.3fms",
+                        count, serialNanos / 1e6, executor.getName(), executor.getParallelism(),
+                        parallelNanos / 1e6));
+            }
+        } finally {
+            executor.dispose();
+        }
+    }
+
+    /**
+     * 密度固定（每个角色约 20×20 像素）的随机人群，期望速度指向区域中心
+     */
+    private static CrowdAvoidance crowd(int count) {
+        Random random = new Random(7L);
+        float side = (float) Math.sqrt(count) * 20f;
+        CrowdAvoidance avoidance = new CrowdAvoidance(count, 24f, 8);
+        avoidance.setWeights(1.2f, 0.8f, 0.4f);
+        avoidance.setCount(count);
+        for (int i = 0; i < count; i++) {
+            float x = random.nextFloat() * side;
+            float y = random.nextFloat() * side;
+            float dx = side / 2f - x;
+            float dy = side / 2f - y;
+            float len = Math.max(1e-3f, (float) Math.sqrt(dx * dx + dy * dy));
+            avoidance.setAgent(i, x, y, dx / len * 70f, dy / len * 70f, 6f, 70f);
+        }
+        return avoidance;
+    }
+
+    /**
+     * 预热后取多次 update 的平均耗时（输入不变，每次结果相同）
+     */
+    private static long time(CrowdAvoidance avoidance) {
+        for (int i = 0; i < 5; i++) {
+            avoidance.update();
+        }
+        int rounds = 10;
+        long start = System.nanoTime();
+        for (int i = 0; i < rounds; i++) {
+            avoidance.update();
+        }
+        return (System.nanoTime() - start) / rounds;
+    }
+}
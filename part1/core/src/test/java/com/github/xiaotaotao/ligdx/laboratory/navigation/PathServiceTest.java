@@ -0,0 +1,117 @@
+package com.github.xiaotaotao.ligdx.laboratory.navigation;
+
+import com.badlogic.gdx.utils.IntArray;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * PathService / HierarchicalPathfinder 的抽象图分时重建测试
+ */
+public class PathServiceTest {
+
+    private static final int SIZE = 64;
+    private static final int CLUSTER = 16;
+
+    /**
+     * 64×64 网格，中间一堵竖墙，只在上下两端留口
+     */
+    private static NavGrid createGrid() {
+        NavGrid grid = new NavGrid(SIZE, SIZE, 1f, 0f, 0f);
+        for (int y = 4; y < SIZE - 4; y++) {
+            grid.setBlocked(SIZE / 2, y, true);
+        }
+        return grid;
+    }
+
+    private static class Recorder implements PathService.Listener {
+        final IntArray cells = new IntArray();
+        int calls;
+        boolean found;
+
+        @Override
+        public void onPathReady(int agentId, IntArray cells, boolean found) {
+            calls++;
+            this.found = found;
+            this.cells.clear();
+            this.cells.addAll(cells);
+        }
+    }
+
+    @Test
+    public void rebuildIsSlicedAcrossUpdatesAndRequestsWait() {
+        NavGrid grid = createGrid();
+        HierarchicalPathfinder pathfinder = new HierarchicalPathfinder(grid, CLUSTER, 16);
+        PathService service = new PathService(pathfinder);
+        // 预算为 0：每次 update 只推进一个簇
+        service.setBudgetNanos(0L);
+        assertFalse(pathfinder.isGraphCurrent());
+
+        Recorder recorder = new Recorder();
+        int start = grid.index(2, SIZE / 2);
+        int goal = grid.index(SIZE - 3, SIZE / 2);
+        service.request(1, start, goal, recorder);
+
+        int clusters = (SIZE / CLUSTER) * (SIZE / CLUSTER);
+        int updates = 0;
+        while (recorder.calls == 0) {
+            service.update();
+            updates++;
+            assertTrue("rebuild did not finish", updates <= 2 * clusters + 1);
+        }
+        // 入口和簇内连接两个阶段，各一次 update 处理一个簇；最后一步用完预算，请求在下一帧处理
+        assertEquals(2 * clusters + 1, updates);
+        assertTrue(pathfinder.isGraphCurrent());
+        assertTrue(recorder.found);
+        assertEquals(start, recorder.cells.first());
+        assertEquals(goal, recorder.cells.peek());
+    }
+
+    @Test
+    public void gridChangeDuringRebuildRestartsIt() {
+        NavGrid grid = createGrid();
+        HierarchicalPathfinder pathfinder = new HierarchicalPathfinder(grid, CLUSTER, 16);
+        pathfinder.rebuild(Long.MAX_VALUE);
+        int nodes = pathfinder.getAbstractNodeCount();
+
+        // 封住上方的口，开始重建，中途再封住下方的口
+        grid.setBlocked(SIZE / 2, SIZE - 2, true);
+        assertFalse(pathfinder.rebuild(0L));
+        for (int y = 0; y < 4; y++) {
+            grid.setBlocked(SIZE / 2, y, true);
+        }
+        for (int y = SIZE - 4; y < SIZE; y++) {
+            grid.setBlocked(SIZE / 2, y, true);
+        }
+        assertTrue(pathfinder.rebuild(Long.MAX_VALUE));
+        assertTrue(pathfinder.isGraphCurrent());
+        assertTrue(pathfinder.getAbstractNodeCount() < nodes);
+
+        // 墙已经完全封死，两侧不再连通
+        IntArray out = new IntArray();
+        assertFalse(pathfinder.findPath(grid.index(2, 10), grid.index(SIZE - 3, 10), out));
+    }
+
+    @Test
+    public void slicedRebuildMatchesImmediateRebuild() {
+        NavGrid grid = createGrid();
+        HierarchicalPathfinder sliced = new HierarchicalPathfinder(grid, CLUSTER, 16);
+        HierarchicalPathfinder immediate = new HierarchicalPathfinder(grid, CLUSTER, 16);
+        while (!sliced.rebuild(0L)) {
+            // 每次只处理一个簇
+        }
+
+        IntArray a = new IntArray();
+        IntArray b = new IntArray();
+        int[][] queries = {{1, 1, 62, 62}, {5, 30, 60, 33}, {40, 2, 3, 60}, {10, 10, 12, 12}};
+        for (int[] q : queries) {
+            boolean foundA = sliced.findPath(grid.index(q[0], q[1]), grid.index(q[2], q[3]), a);
+            boolean foundB = immediate.findPath(grid.index(q[0], q[1]), grid.index(q[2], q[3]), b);
+            assertEquals(foundB, foundA);
+            assertEquals(b, a);
+        }
+        assertEquals(immediate.getAbstractNodeCount(), sliced.getAbstractNodeCount());
+    }
+}
@@ -0,0 +1,88 @@
+package com.github.xiaotaotao.ligdx.laboratory.render;
+
+import org.junit.Test;
+
+import java.nio.FloatBuffer;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * QuadPositionBuffer 的顶点布局测试（不需要 GL）
+ */
+public class QuadPositionBufferTest {
+
+    private static final float EPSILON = 0f;
+
+    @Test
+    public void putQuadWritesCornersInIndexOrder() {
+        QuadPositionBuffer quads = new QuadPositionBuffer(3);
+        quads.putQuad(0, 1f, 2f, 10f, 20f);
+        quads.putQuad(2, -5.5f, 100f, 0.25f, 4f);
+
+        FloatBuffer buffer = quads.getBuffer();
+        // 左下、右下、右上、左上
+        assertQuad(buffer, 0, 1f, 2f, 11f, 22f);
+        assertQuad(buffer, 2, -5.5f, 100f, -5.25f, 104f);
+        // 未写入的四边形保持为 0
+        assertQuad(buffer, 1, 0f, 0f, 0f, 0f);
+
+        assertEquals(1f, quads.getX(0), EPSILON);
+        assertEquals(2f, quads.getY(0), EPSILON);
+        assertEquals(-5.5f, quads.getX(2), EPSILON);
+        assertEquals(100f, quads.getY(2), EPSILON);
+        // 绝对下标写入，不移动 position
+        assertEquals(0, buffer.position());
+        assertEquals(3 * QuadPositionBuffer.FLOATS_PER_QUAD, buffer.limit());
+    }
+
+    @Test
+    public void quadCountIsClampedToCapacity() {
+        QuadPositionBuffer quads = new QuadPositionBuffer(4);
+        quads.setQuadCount(10);
+        assertEquals(4, quads.getQuadCount());
+        quads.setQuadCount(2);
+        assertEquals(2, quads.getQuadCount());
+    }
+
+    /**
+     * 一百万个四边形的写入耗时（与 VirtualThreadDemoScreen 的 STRESS_OBJECT_COUNT 相同），
+     * 同时检查末尾四边形的偏移没有越界或错位
+     */
+    @Test
+    public void fillOneMillionQuads() {
+        int quadCount = 1_000_000;
+        QuadPositionBuffer quads = new QuadPositionBuffer(quadCount);
+        // 预热一轮，让 JIT 编译 putQuad
+        fill(quads, quadCount, 0f);
+        int rounds = 10;
+        long start = System.nanoTime();
+        for (int round = 1; round <= rounds; round++) {
+            fill(quads, quadCount, round);
+        }
+        long elapsed = System.nanoTime() - start;
+        System.out.println(String.format("QuadPositionBuffer: %d quads, avg fill=%.3fms",
+                quadCount, elapsed / 1e6 / rounds));
+
+        FloatBuffer buffer = quads.getBuffer();
+        int last = quadCount - 1;
+        float x = last % 1920;
+        float y = (last / 1920) % 1080 + rounds;
+        assertQuad(buffer, last, x, y, x + 10f, y + 10f);
+        assertQuad(buffer, 0, 0f, rounds, 10f, rounds + 10f);
+    }
+
+    private static void fill(QuadPositionBuffer quads, int quadCount, float offsetY) {
+        for (int i = 0; i < quadCount; i++) {
+            quads.putQuad(i, i % 1920, (i / 1920) % 1080 + offsetY, 10f, 10f);
+        }
+        quads.setQuadCount(quadCount);
+    }
+
+    private static void assertQuad(FloatBuffer buffer, int index, float left, float bottom, float right, float top) {
+        int offset = index * QuadPositionBuffer.FLOATS_PER_QUAD;
+        float[] expected = {left, bottom, right, bottom, right, top, left, top};
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals("quad " + index + " float " + i, expected[i], buffer.get(offset + i), EPSILON);
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.github.xiaotaotao.ligdx.laboratory.render;
+
+import org.junit.Test;
+
+import java.nio.FloatBuffer;
+import java.nio.ShortBuffer;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * SpriteMeshRenderer 静态索引 / 纹理坐标布局测试（只测试缓冲内容，不创建 GL 对象）
+ */
+public class SpriteMeshRendererTest {
+
+    @Test
+    public void indicesFormTwoTrianglesPerQuad() {
+        int quadCount = SpriteMeshRenderer.CHUNK_QUADS;
+        ShortBuffer indices = SpriteMeshRenderer.newIndices(quadCount);
+        assertEquals(quadCount * 6, indices.remaining());
+        for (int quad = 0; quad < quadCount; quad++) {
+            int vertex = quad * 4;
+            int offset = quad * 6;
+            // 0-1-2、2-3-0，按 unsigned short 读取
+            assertEquals(vertex, indices.get(offset) & 0xFFFF);
+            assertEquals(vertex + 1, indices.get(offset + 1) & 0xFFFF);
+            assertEquals(vertex + 2, indices.get(offset + 2) & 0xFFFF);
+            assertEquals(vertex + 2, indices.get(offset + 3) & 0xFFFF);
+            assertEquals(vertex + 3, indices.get(offset + 4) & 0xFFFF);
+            assertEquals(vertex, indices.get(offset + 5) & 0xFFFF);
+        }
+        // 一个块正好用满 unsigned short 的顶点范围
+        assertEquals(65535, indices.get(quadCount * 6 - 2) & 0xFFFF);
+    }
+
+    @Test
+    public void texCoordsMatchCornerOrder() {
+        FloatBuffer texCoords = SpriteMeshRenderer.newTexCoords(2);
+        assertEquals(2 * QuadPositionBuffer.FLOATS_PER_QUAD, texCoords.remaining());
+        float[] expected = {0f, 1f, 1f, 1f, 1f, 0f, 0f, 0f};
+        for (int quad = 0; quad < 2; quad++) {
+            for (int i = 0; i < expected.length; i++) {
+                assertEquals(expected[i], texCoords.get(quad * QuadPositionBuffer.FLOATS_PER_QUAD + i), 0f);
+            }
+        }
+    }
+}
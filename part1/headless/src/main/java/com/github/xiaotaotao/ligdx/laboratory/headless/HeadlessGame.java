@@ -0,0 +1,80 @@
+package com.github.xiaotaotao.ligdx.laboratory.headless;
+
+import com.badlogic.gdx.Game;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.Screen;
+import com.badlogic.gdx.utils.TimeUtils;
+import com.github.xiaotaotao.ligdx.laboratory.Main;
+
+/**
+ * 无头运行用的 Game：启动 {@link Main} 或指定的场景，可选固定步长，跑够帧数后自动退出
+ *
+ * 设计说明：
+ * - 继承 Main，退出时同样会释放 AssetService / FontService
+ * - create 时安装 {@link HeadlessGraphics}（mock GL），Screen 中的 SpriteBatch、着色器、GLProfiler 都能照常创建
+ * - 固定步长时传给 Screen 的 delta 是常数，与机器快慢无关，结果可复现（适合浸泡测试和服务器模拟）
+ * - 退出时输出运行帧数和平均每帧耗时，方便在 CI 中比较
+ */
+public class HeadlessGame extends Main {
+
+    /**
+     * 场景工厂（部分 Screen 需要 Game 实例，例如 LoadingScreen）
+     */
+    public interface ScenarioFactory {
+        Screen create(Game game);
+    }
+
+    private static final String TAG = "Headless";
+
+    private final ScenarioFactory scenario;
+    private final long maxFrames;
+    private final float fixedDelta;
+
+    private long frames;
+    private long startNanos;
+
+    /**
+     * @param scenario   场景工厂，null 表示按 Main 的默认流程启动
+     * @param maxFrames  运行的帧数，&lt;= 0 表示一直运行
+     * @param fixedDelta 固定步长（秒），&lt;= 0 表示使用真实帧间隔
+     */
+    public HeadlessGame(ScenarioFactory scenario, long maxFrames, float fixedDelta) {
+        this.scenario = scenario;
+        this.maxFrames = maxFrames;
+        this.fixedDelta = fixedDelta;
+    }
+
+    @Override
+    public void create() {
+        // 后端在启动主循环前才设置 Gdx.graphics，所以在这里换成带 mock GL 的版本
+        HeadlessGraphics.install();
+        if (scenario == null) {
+            super.create();
+        } else {
+            setScreen(scenario.create(this));
+        }
+        startNanos = TimeUtils.nanoTime();
+    }
+
+    @Override
+    public void render() {
+        // exit 之后主循环还会再调用一次 render
+        if (maxFrames > 0 && frames >= maxFrames) return;
+        Screen screen = getScreen();
+        if (screen != null) {
+            screen.render(fixedDelta > 0f ? fixedDelta : Gdx.graphics.getDeltaTime());
+        }
+        frames++;
+        if (maxFrames > 0 && frames == maxFrames) {
+            Gdx.app.exit();
+        }
+    }
+
+    @Override
+    public void dispose() {
+        long elapsed = TimeUtils.nanoTime() - startNanos;
+        Gdx.app.log(TAG, String.format("frames=%d  wall=%.2fs  avg=%.3fms/frame",
+                frames, elapsed / 1e9, frames == 0 ? 0.0 : elapsed / 1e6 / frames));
+        super.dispose();
+    }
+}
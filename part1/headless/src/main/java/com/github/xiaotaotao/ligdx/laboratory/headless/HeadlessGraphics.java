@@ -0,0 +1,60 @@
+package com.github.xiaotaotao.ligdx.laboratory.headless;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.Graphics;
+import com.badlogic.gdx.backends.headless.mock.graphics.MockGraphics;
+import com.badlogic.gdx.graphics.GL20;
+
+/**
+ * 持有 mock GL 的 Graphics
+ *
+ * 设计说明：
+ * - 无头后端的 MockGraphics 不保存 GL 实例（getGL20 总是返回 null），
+ *   而 GLProfiler 会通过 getGL20 / setGL20 替换 GL，导致 Gdx.gl 变成 null
+ * - 这里保存 GL 实例，setGL20 时同步 Gdx.gl / Gdx.gl20（与桌面后端行为一致）
+ * - 帧号、帧间隔、FPS 转发给后端原本的 Graphics（主循环只更新它的计时）
+ */
+class HeadlessGraphics extends MockGraphics {
+
+    private final Graphics timing;
+    private GL20 gl20;
+
+    HeadlessGraphics(Graphics timing, GL20 gl20) {
+        this.timing = timing;
+        setGL20(gl20);
+    }
+
+    /**
+     * 替换 Gdx.graphics 并设置 GL（在 ApplicationListener.create 开始时调用）
+     */
+    static void install() {
+        Gdx.graphics = new HeadlessGraphics(Gdx.graphics, MockGL.create());
+    }
+
+    @Override
+    public GL20 getGL20() {
+        return gl20;
+    }
+
+    @Override
+    public void setGL20(GL20 gl20) {
+        this.gl20 = gl20;
+        Gdx.gl = gl20;
+        Gdx.gl20 = gl20;
+    }
+
+    @Override
+    public long getFrameId() {
+        return timing.getFrameId();
+    }
+
+    @Override
+    public float getDeltaTime() {
+        return timing.getDeltaTime();
+    }
+
+    @Override
+    public int getFramesPerSecond() {
+        return timing.getFramesPerSecond();
+    }
+}
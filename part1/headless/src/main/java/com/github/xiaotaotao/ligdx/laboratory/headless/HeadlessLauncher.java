@@ -0,0 +1,98 @@
+package com.github.xiaotaotao.ligdx.laboratory.headless;
+
+import com.badlogic.gdx.backends.headless.HeadlessApplication;
+import com.badlogic.gdx.backends.headless.HeadlessApplicationConfiguration;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.OrderedMap;
+import com.github.xiaotaotao.ligdx.laboratory.CharacterDemoScreen;
+import com.github.xiaotaotao.ligdx.laboratory.FirstScreen;
+import com.github.xiaotaotao.ligdx.laboratory.P1Screen;
+import com.github.xiaotaotao.ligdx.laboratory.P2Screen;
+import com.github.xiaotaotao.ligdx.laboratory.VirtualThreadDemoScreen;
+import com.github.xiaotaotao.ligdx.laboratory.asset.LoadingScreen;
+import com.github.xiaotaotao.ligdx.laboratory.attack.AttackDemoScreen;
+import com.github.xiaotaotao.ligdx.laboratory.layer.LayerSystemDemoScreen;
+import com.github.xiaotaotao.ligdx.laboratory.shape.ShapeDemoScreen;
+import com.github.xiaotaotao.ligdx.laboratory.ui.InventoryScreen;
+import com.github.xiaotaotao.ligdx.laboratory.ui.UIDemoScreen;
+
+/**
+ * Launches the application without a window or GPU (mock GL), for CI, benchmarks, soak tests and simulations.
+ *
+ * 用法：HeadlessLauncher [场景名] [--tick-rate 次/秒] [--frames 帧数] [--fixed-delta 秒]
+ * - 场景名：main（默认，按 Main 启动）或下面注册的场景
+ * - --tick-rate：每秒更新次数，0 表示不限速（没有 vsync，尽可能快地跑），默认 60
+ * - --frames：运行多少帧后退出，0 表示一直运行，默认 0
+ * - --fixed-delta：传给 Screen 的固定步长（秒），0 表示使用真实帧间隔，默认 0
+ */
+public class HeadlessLauncher {
+
+    private static final OrderedMap<String, HeadlessGame.ScenarioFactory> SCENARIOS = new OrderedMap<>();
+
+    static {
+        SCENARIOS.put("main", null);
+        SCENARIOS.put("first", game -> new FirstScreen());
+        SCENARIOS.put("p1", game -> new P1Screen());
+        SCENARIOS.put("p2", game -> new P2Screen());
+        SCENARIOS.put("character", game -> new CharacterDemoScreen());
+        SCENARIOS.put("attack", game -> new AttackDemoScreen());
+        SCENARIOS.put("shape", game -> new ShapeDemoScreen());
+        SCENARIOS.put("layer", game -> new LayerSystemDemoScreen());
+        SCENARIOS.put("ui", game -> new UIDemoScreen());
+        SCENARIOS.put("inventory", game -> new LoadingScreen(game, new InventoryScreen()));
+        SCENARIOS.put("virtual-thread", game -> new VirtualThreadDemoScreen());
+        // 一百万个对象的压力测试，退出时输出平均模拟步耗时（顶点写入包含在每一步中）
+        SCENARIOS.put("virtual-thread-1m", game -> new VirtualThreadDemoScreen(VirtualThreadDemoScreen.STRESS_OBJECT_COUNT));
+    }
+
+    public static void main(String[] args) {
+        String scenarioName = "main";
+        int tickRate = 60;
+        long frames = 0;
+        float fixedDelta = 0f;
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            switch (arg) {
+                case "--tick-rate":
+                    tickRate = Integer.parseInt(value(args, ++i, arg));
+                    break;
+                case "--frames":
+                    frames = Long.parseLong(value(args, ++i, arg));
+                    break;
+                case "--fixed-delta":
+                    fixedDelta = Float.parseFloat(value(args, ++i, arg));
+                    break;
+                default:
+                    if (arg.startsWith("--")) {
+                        throw new GdxRuntimeException("Unknown option: " + arg);
+                    }
+                    scenarioName = arg;
+                    break;
+            }
+        }
+        if (!SCENARIOS.containsKey(scenarioName)) {
+            throw new GdxRuntimeException("Unknown scenario: " + scenarioName
+                    + ", available: " + SCENARIOS.orderedKeys().toString(", "));
+        }
+        createApplication(SCENARIOS.get(scenarioName), tickRate, frames, fixedDelta);
+    }
+
+    private static HeadlessApplication createApplication(HeadlessGame.ScenarioFactory scenario,
+                                                         int tickRate, long frames, float fixedDelta) {
+        return new HeadlessApplication(new HeadlessGame(scenario, frames, fixedDelta), getDefaultConfiguration(tickRate));
+    }
+
+    private static HeadlessApplicationConfiguration getDefaultConfiguration(int tickRate) {
+        HeadlessApplicationConfiguration configuration = new HeadlessApplicationConfiguration();
+        // 每秒调用 render 的次数；0 表示不等待，循环尽可能快地运行（无头模式没有 vsync）
+        configuration.updatesPerSecond = Math.max(0, tickRate);
+        return configuration;
+    }
+
+    private static String value(String[] args, int index, String option) {
+        if (index >= args.length) {
+            throw new GdxRuntimeException("Missing value for " + option);
+        }
+        return args[index];
+    }
+}
@@ -0,0 +1,119 @@
+package com.github.xiaotaotao.ligdx.laboratory.headless;
+
+import com.badlogic.gdx.graphics.GL20;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+
+/**
+ * 无 GPU 环境下的 GL20 空实现（动态代理）
+ *
+ * 设计说明：
+ * - 所有 GL 调用都不做任何事，返回值为 0 / false / null，SpriteBatch、Texture、Mesh 等可以照常创建和调用
+ * - 少数查询需要"成功"的结果，否则 libGDX 会抛异常：
+ *   - 着色器编译 / 链接状态返回 GL_TRUE，活动 uniform / attribute 数量返回 0
+ *   - 帧缓冲完整性检查返回 GL_FRAMEBUFFER_COMPLETE
+ *   - 最大纹理尺寸等整数查询返回一个合理的正数
+ * - 纹理、缓冲等对象 id 递增分配（不为 0），避免代码把 0 当成"未创建"
+ *
+ * 注意：渲染结果不存在，只用于跑逻辑、基准测试和长时间运行测试；
+ * 每次 GL 调用都经过反射，渲染密集的场景会比真实 GPU 慢
+ */
+final class MockGL {
+
+    private static final int DEFAULT_INTEGER = 4096;
+
+    private MockGL() {
+    }
+
+    /**
+     * 创建空实现（通过 {@link HeadlessGraphics} 设置到 Gdx.gl / Gdx.gl20）
+     */
+    static GL20 create() {
+        return (GL20) Proxy.newProxyInstance(
+                MockGL.class.getClassLoader(),
+                new Class<?>[]{GL20.class},
+                new Handler());
+    }
+
+    private static final class Handler implements InvocationHandler {
+        private int nextId = 1;
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) {
+            String name = method.getName();
+            switch (name) {
+                case "glGetShaderiv":
+                case "glGetProgramiv":
+                    writeStatus((Integer) args[1], (IntBuffer) args[2]);
+                    return null;
+                case "glGetIntegerv":
+                    writeInt((IntBuffer) args[1], DEFAULT_INTEGER);
+                    return null;
+                case "glGetFloatv":
+                    FloatBuffer floats = (FloatBuffer) args[1];
+                    floats.put(floats.position(), 1f);
+                    return null;
+                case "glCheckFramebufferStatus":
+                    return GL20.GL_FRAMEBUFFER_COMPLETE;
+                case "glGenTextures":
+                case "glGenBuffers":
+                case "glGenFramebuffers":
+                case "glGenRenderbuffers":
+                    IntBuffer ids = (IntBuffer) args[1];
+                    for (int i = 0; i < (Integer) args[0]; i++) {
+                        ids.put(ids.position() + i, nextId++);
+                    }
+                    return null;
+                case "glGenTexture":
+                case "glGenBuffer":
+                case "glGenFramebuffer":
+                case "glGenRenderbuffer":
+                case "glCreateShader":
+                case "glCreateProgram":
+                    return nextId++;
+                case "glGetShaderInfoLog":
+                case "glGetProgramInfoLog":
+                case "glGetString":
+                    return "";
+                case "toString":
+                    return "MockGL";
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "equals":
+                    return proxy == args[0];
+                default:
+                    return defaultValue(method.getReturnType());
+            }
+        }
+
+        private static void writeStatus(int pname, IntBuffer params) {
+            switch (pname) {
+                case GL20.GL_COMPILE_STATUS:
+                case GL20.GL_LINK_STATUS:
+                case GL20.GL_VALIDATE_STATUS:
+                    writeInt(params, GL20.GL_TRUE);
+                    break;
+                default:
+                    // 活动 uniform / attribute 数量、日志长度等
+                    writeInt(params, 0);
+                    break;
+            }
+        }
+
+        private static void writeInt(IntBuffer params, int value) {
+            params.put(params.position(), value);
+        }
+
+        private static Object defaultValue(Class<?> type) {
+            if (type == int.class) return 0;
+            if (type == boolean.class) return false;
+            if (type == float.class) return 0f;
+            if (type == long.class) return 0L;
+            return null;
+        }
+    }
+}